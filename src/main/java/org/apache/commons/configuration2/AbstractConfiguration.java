@@ -19,18 +19,27 @@ package org.apache.commons.configuration2;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.apache.commons.configuration2.convert.ConversionHandler;
@@ -41,6 +50,7 @@ import org.apache.commons.configuration2.event.BaseEventSource;
 import org.apache.commons.configuration2.event.ConfigurationErrorEvent;
 import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.event.EventListener;
+import org.apache.commons.configuration2.event.EventType;
 import org.apache.commons.configuration2.ex.ConversionException;
 import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
 import org.apache.commons.configuration2.interpol.InterpolatorSpecification;
@@ -82,6 +92,8 @@ import org.apache.commons.lang3.StringUtils;
  * <li>Basic event support. Whenever this configuration is modified registered event listeners are notified. Refer to
  * the various {@code EVENT_XXX} constants to get an impression about which event types are supported.</li>
  * <li>Support for proper synchronization based on the {@link Synchronizer} interface.</li>
+ * <li>An optional cache for the results of type conversions performed by typed getter methods like {@code getInt()};
+ * see {@link #setCacheConvertedValues(boolean)}.</li>
  * </ul>
  * <p>
  * Most methods defined by the {@code Configuration} interface are already implemented in this class. Many method
@@ -92,6 +104,60 @@ import org.apache.commons.lang3.StringUtils;
  */
 public abstract class AbstractConfiguration extends BaseEventSource implements Configuration {
 
+    /**
+     * The key of an entry in the cache for converted values. It consists of the property key and the target class of the
+     * conversion.
+     */
+    private static final class ConvertedValueKey {
+        /** The property key. */
+        private final String key;
+
+        /** The target class of the conversion. */
+        private final Class<?> targetClass;
+
+        /**
+         * Creates a new instance of {@code ConvertedValueKey}.
+         *
+         * @param key the property key
+         * @param targetClass the target class
+         */
+        ConvertedValueKey(final String key, final Class<?> targetClass) {
+            this.key = key;
+            this.targetClass = targetClass;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ConvertedValueKey)) {
+                return false;
+            }
+            final ConvertedValueKey other = (ConvertedValueKey) obj;
+            return key.equals(other.key) && targetClass == other.targetClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + targetClass.hashCode();
+        }
+    }
+
+    /**
+     * A marker object stored in the cache for converted values for properties whose values cannot be cached, so that it
+     * is not checked again on each access whether the value is cacheable.
+     */
+    private static final Object UNCACHEABLE = new Object();
+
+    /**
+     * A set with target classes of conversions whose instances are known to be immutable. Only the results of conversions
+     * to these classes (as well as to primitive types, their wrappers, and enumerations) can be cached, because cached
+     * objects are shared between callers.
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(String.class,
+        BigDecimal.class, BigInteger.class, Duration.class, URI.class, Path.class, Locale.class, Pattern.class)));
+
     /**
      * Checks an object provided as default value for the {@code getArray()} method. Throws an exception if this is not an
      * array with the correct component type.
@@ -164,6 +230,33 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
         return result;
     }
 
+    /**
+     * Checks whether the result of a conversion of the given property value can be stored in a cache for converted
+     * values. This is the case for strings which need a conversion to the target class and do not contain variables. The
+     * results of interpolation can change without this configuration being modified; so they are not cached. Values of
+     * other types - for instance collections - are not cached either. In addition, the target class must be known to be
+     * immutable; otherwise, a caller modifying the object returned by a getter method, for instance a {@code Date}, would
+     * change the value seen by all further callers. This method is also used for the caching of converted node values by
+     * {@link BaseHierarchicalConfiguration}.
+     *
+     * @param value the property value
+     * @param cls the target class of the conversion
+     * @return a flag whether the converted value can be cached
+     */
+    static boolean isCacheableValue(final Object value, final Class<?> cls) {
+        return value instanceof String && !cls.isInstance(value) && ((String) value).indexOf('$') < 0 && isImmutableType(cls);
+    }
+
+    /**
+     * Checks whether instances of the given class are known to be immutable.
+     *
+     * @param cls the class to check
+     * @return a flag whether instances of this class are immutable
+     */
+    private static boolean isImmutableType(final Class<?> cls) {
+        return cls.isPrimitive() || ClassUtils.isPrimitiveWrapper(cls) || cls.isEnum() || IMMUTABLE_TYPES.contains(cls);
+    }
+
     /**
      * Helper method for throwing an exception for a key that does not map to an existing object.
      *
@@ -197,6 +290,21 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
     /** Stores the logger. */
     private ConfigurationLogger log;
 
+    /** The cache for converted values; <b>null</b> if caching is disabled. */
+    private volatile Map<ConvertedValueKey, Object> convertedValueCache;
+
+    /** The number of typed property accesses served from the cache for converted values. */
+    private LongAdder convertedValueCacheHits;
+
+    /** The number of typed property accesses for which the value had to be converted although the cache is enabled. */
+    private LongAdder convertedValueCacheMisses;
+
+    /** An object representing the current version of the data of this configuration; replaced on unreported changes. */
+    private volatile Object dataVersion = new Object();
+
+    /** The number of running update operations that suppress the events of their single steps in favor of a final event. */
+    private int compoundUpdates;
+
     /**
      * Creates a new instance of {@code AbstractConfiguration}.
      */
@@ -206,6 +314,8 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
         installDefaultInterpolator();
         listDelimiterHandler = DisabledListDelimiterHandler.INSTANCE;
         conversionHandler = DefaultConversionHandler.INSTANCE;
+        convertedValueCacheHits = new LongAdder();
+        convertedValueCacheMisses = new LongAdder();
     }
 
     /**
@@ -319,6 +429,22 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
         }
     }
 
+    /**
+     * Removes all entries from the cache for converted values. The cache is cleared automatically whenever this
+     * configuration fires an event about a change of its data. This method has to be called explicitly if other factors
+     * influencing conversions have been changed, for instance the settings of the current {@code ConversionHandler}. If
+     * caching of converted values is disabled, this method has no effect.
+     *
+     * @see #setCacheConvertedValues(boolean)
+     * @since 2.11.0
+     */
+    public void clearConvertedValueCache() {
+        final Map<ConvertedValueKey, Object> cache = convertedValueCache;
+        if (cache != null && !cache.isEmpty()) {
+            convertedValueCache = new ConcurrentHashMap<>();
+        }
+    }
+
     /**
      * Clears the whole configuration. This method is called by {@code clear()} after some preparations have been made. This
      * base implementation uses the iterator provided by {@code getKeys()} to remove every single property. Subclasses
@@ -326,6 +452,7 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
      */
     protected void clearInternal() {
         setDetailEvents(false);
+        compoundUpdates++;
         boolean useIterator = true;
         try {
             final Iterator<String> it = getKeys();
@@ -351,6 +478,7 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
                 }
             }
         } finally {
+            compoundUpdates--;
             setDetailEvents(true);
         }
     }
@@ -404,6 +532,13 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
         }
 
         installInterpolator(orgInterpolator.getLookups(), defaultLookups);
+
+        // the clone must not share the cache for converted values
+        convertedValueCacheHits = new LongAdder();
+        convertedValueCacheMisses = new LongAdder();
+        if (convertedValueCache != null) {
+            convertedValueCache = new ConcurrentHashMap<>();
+        }
     }
 
     /**
@@ -428,12 +563,7 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
      */
     @Override
     public final boolean containsKey(final String key) {
-        beginRead(false);
-        try {
-            return containsKeyInternal(key);
-        } finally {
-            endRead();
-        }
+        return readLocked(() -> containsKeyInternal(key));
     }
 
     /**
@@ -452,12 +582,7 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
      */
     @Override
     public final boolean containsValue(final Object value) {
-        beginRead(false);
-        try {
-            return containsValueInternal(value);
-        } finally {
-            endRead();
-        }
+        return readLocked(() -> containsValueInternal(value));
     }
 
     /**
@@ -505,6 +630,29 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
         return result;
     }
 
+    /**
+     * Converts the value of a property to the given target class using the current {@link ConversionHandler}. This
+     * method is used by {@link #getConvertedProperty(Class, String)} after the raw value has been obtained. If the
+     * conversion fails, the exception thrown contains the key and the value of the property.
+     *
+     * @param <T> the target type of the conversion
+     * @param cls the target class
+     * @param key the key of the property
+     * @param value the raw value of the property
+     * @return the converted value or <b>null</b> if the value is <b>null</b>
+     * @throws ConversionException if the conversion cannot be performed
+     * @since 2.11.0
+     */
+    protected <T> T convertPropertyValue(final Class<T> cls, final String key, final Object value) {
+        try {
+            return getConversionHandler().to(value, cls, getInterpolator());
+        } catch (final ConversionException cex) {
+            // improve error message
+            throw new ConversionException(String.format("Key '%s' cannot be converted to class %s. Value is: '%s'.", key, cls.getName(), String.valueOf(value)),
+                cex.getCause());
+        }
+    }
+
     /**
      * Performs a conversion to an array result class. This implementation delegates to the {@link ConversionHandler} to
      * perform the actual type conversion. If this results in a <b>null</b> result (because the property is undefined), the
@@ -606,6 +754,25 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
         return findConfigurationLookup(ci, this);
     }
 
+    /**
+     * {@inheritDoc} This implementation clears the cache for converted values after a change of this configuration
+     * before the event is passed to the registered listeners. This is done independently of the
+     * {@link #isDetailEvents() detail events} flag and of registered listeners. If the event is suppressed because
+     * detail events have been disabled by a caller, a new {@link #getDataVersion() version} of the data is started.
+     *
+     * @since 2.11.0
+     */
+    @Override
+    protected <T extends ConfigurationEvent> void fireEvent(final EventType<T> type, final String propName, final Object propValue, final boolean before) {
+        if (!before) {
+            if (compoundUpdates == 0 && !isFiringEvents()) {
+                dataVersion = new Object();
+            }
+            clearConvertedValueCache();
+        }
+        super.fireEvent(type, propName, propValue, before);
+    }
+
     @Override
     public <T> T get(final Class<T> cls, final String key) {
         return convert(cls, key, null, true);
@@ -630,14 +797,7 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
      * @throws ConversionException if the conversion cannot be performed
      */
     private <T> T getAndConvertProperty(final Class<T> cls, final String key, final T defaultValue) {
-        final Object value = getProperty(key);
-        try {
-            return ObjectUtils.defaultIfNull(getConversionHandler().to(value, cls, getInterpolator()), defaultValue);
-        } catch (final ConversionException cex) {
-            // improve error message
-            throw new ConversionException(String.format("Key '%s' cannot be converted to class %s. Value is: '%s'.", key, cls.getName(), String.valueOf(value)),
-                cex.getCause());
-        }
+        return ObjectUtils.defaultIfNull(getConvertedProperty(cls, key), defaultValue);
     }
 
     @Override
@@ -769,6 +929,88 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
         return conversionHandler;
     }
 
+    /**
+     * Obtains the value of the specified property and converts it to the given target class. This method is called by
+     * all getter methods performing a type conversion of a single value. This base implementation fetches the value
+     * using {@link #getProperty(String)} and passes it to {@link #convertPropertyValue(Class, String, Object)}. If
+     * caching of converted values is enabled, results are stored in a cache keyed by the property key and the target
+     * class if the raw property value allows this (see {@link #setCacheConvertedValues(boolean)}). Derived classes can
+     * override this method, for instance to cache the results of conversions in a different way or to disable caching.
+     *
+     * @param <T> the target type of the conversion
+     * @param cls the target class
+     * @param key the key of the desired property
+     * @return the converted value of this property or <b>null</b> if the property is undefined
+     * @throws ConversionException if the conversion cannot be performed
+     * @since 2.11.0
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T getConvertedProperty(final Class<T> cls, final String key) {
+        final Map<ConvertedValueKey, Object> cache = convertedValueCache;
+        if (cache == null || key == null) {
+            return convertPropertyValue(cls, key, getProperty(key));
+        }
+
+        final ConvertedValueKey cacheKey = new ConvertedValueKey(key, cls);
+        final Object cachedValue = cache.get(cacheKey);
+        if (cachedValue != null && cachedValue != UNCACHEABLE) {
+            recordConvertedValueCacheAccess(true);
+            return (T) cachedValue;
+        }
+
+        recordConvertedValueCacheAccess(false);
+        // The cache is obtained before the value; so a concurrent change causes the result to be stored in a cache
+        // which has already been discarded.
+        final Object value = getProperty(key);
+        final T result = convertPropertyValue(cls, key, value);
+        if (cachedValue == null && value != null) {
+            if (!isCacheableValue(value, cls)) {
+                cache.put(cacheKey, UNCACHEABLE);
+            } else if (result != null) {
+                cache.put(cacheKey, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of accesses to typed properties that could be served from the cache for converted values.
+     *
+     * @return the number of cache hits
+     * @see #setCacheConvertedValues(boolean)
+     * @since 2.11.0
+     */
+    public long getConvertedValueCacheHitCount() {
+        return convertedValueCacheHits.sum();
+    }
+
+    /**
+     * Gets the number of accesses to typed properties for which a conversion had to be performed while the cache for
+     * converted values was enabled. This includes accesses to properties whose values cannot be cached. If caching is
+     * disabled, this number is not increased.
+     *
+     * @return the number of cache misses
+     * @see #setCacheConvertedValues(boolean)
+     * @since 2.11.0
+     */
+    public long getConvertedValueCacheMissCount() {
+        return convertedValueCacheMisses.sum();
+    }
+
+    /**
+     * Gets an object representing the current version of the data of this configuration. The object is replaced
+     * whenever a change of this configuration is not reported to event listeners because events have been disabled via
+     * {@link #setDetailEvents(boolean)}; so objects which track the data of this configuration by an event listener can
+     * detect such changes by comparing the versions (by identity). Derived classes whose data can be changed in other ways, for
+     * instance because it is obtained from another configuration, override this method accordingly; if such changes
+     * cannot be detected at all, they return <b>null</b>.
+     *
+     * @return the current version of the data of this configuration or <b>null</b> if changes cannot be detected
+     */
+    Object getDataVersion() {
+        return dataVersion;
+    }
+
     @Override
     public double getDouble(final String key) {
         final Double d = convert(Double.class, key, null, true);
@@ -1099,12 +1341,7 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
      */
     @Override
     public final Object getProperty(final String key) {
-        beginRead(false);
-        try {
-            return getPropertyInternal(key);
-        } finally {
-            endRead();
-        }
+        return readLocked(() -> getPropertyInternal(key));
     }
 
     /**
@@ -1271,12 +1508,7 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
      */
     @Override
     public final boolean isEmpty() {
-        beginRead(false);
-        try {
-            return isEmptyInternal();
-        } finally {
-            endRead();
-        }
+        return readLocked(() -> isEmptyInternal());
     }
 
     /**
@@ -1288,6 +1520,24 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
      */
     protected abstract boolean isEmptyInternal();
 
+    /**
+     * Returns a flag whether the basic read operations of this configuration, like {@code getProperty()} or
+     * {@code containsKey()}, can be executed optimistically. If this method returns <b>true</b>, these operations are
+     * passed to {@link Synchronizer#read(Supplier)}; a {@code Synchronizer} supporting optimistic reads may then execute
+     * them without acquiring a lock, concurrently to write operations, and repeat them if an update happened in the
+     * meantime. This is only safe if reading the data of this configuration while it is updated neither fails in an
+     * unexpected way nor blocks, which is typically not the case for data stored in standard collections like
+     * {@code HashMap}. Therefore, this base implementation returns <b>false</b>, so that read operations always acquire
+     * a read lock. Derived classes whose data can be read safely during updates, for instance because it is stored in
+     * immutable objects, can override it.
+     *
+     * @return a flag whether read operations can be executed optimistically
+     * @since 2.11.0
+     */
+    protected boolean isOptimisticReadSupported() {
+        return false;
+    }
+
     /**
      * Checks whether the specified object is a scalar value. This method is called by {@code getList()} and
      * {@code getStringArray()} if the property requested is not a string, a list, or an array. If it returns <b>true</b>,
@@ -1302,6 +1552,17 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
         return ClassUtils.wrapperToPrimitive(value.getClass()) != null;
     }
 
+    /**
+     * Returns a flag whether the results of conversions performed by typed getter methods are cached.
+     *
+     * @return a flag whether caching of converted values is enabled
+     * @see #setCacheConvertedValues(boolean)
+     * @since 2.11.0
+     */
+    public boolean isCacheConvertedValues() {
+        return convertedValueCache != null;
+    }
+
     /**
      * Returns true if missing values throw Exceptions.
      *
@@ -1333,6 +1594,42 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
         }
     }
 
+    /**
+     * Executes a read operation between calls of {@code beginRead()} and {@code endRead()}. If this configuration
+     * supports optimistic reads, the operation is passed to the {@link Synchronizer#read(Supplier)} method of the
+     * current {@code Synchronizer}, so that it can be executed without locking if supported.
+     *
+     * @param <T> the type of the result
+     * @param operation the read operation
+     * @return the result of the operation
+     * @see #isOptimisticReadSupported()
+     */
+    private <T> T readLocked(final Supplier<T> operation) {
+        final Supplier<T> lockedOperation = () -> {
+            beginRead(false);
+            try {
+                return operation.get();
+            } finally {
+                endRead();
+            }
+        };
+        return isOptimisticReadSupported() ? getSynchronizer().read(lockedOperation) : lockedOperation.get();
+    }
+
+    /**
+     * Updates the statistics of the cache for converted values after an access to a typed property while caching is
+     * enabled.
+     *
+     * @param hit <b>true</b> if the access could be served from the cache, <b>false</b> if a conversion was necessary
+     */
+    void recordConvertedValueCacheAccess(final boolean hit) {
+        if (hit) {
+            convertedValueCacheHits.increment();
+        } else {
+            convertedValueCacheMisses.increment();
+        }
+    }
+
     /**
      * Sets the {@code ConfigurationDecoder} for this configuration. This object is used by
      * {@link #getEncodedString(String)}.
@@ -1344,6 +1641,45 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
         this.configurationDecoder = configurationDecoder;
     }
 
+    /**
+     * Sets a flag whether the results of conversions performed by typed getter methods are cached. Per default, each
+     * call of a method like {@code getInt()}, {@code getDuration()}, or {@code get(Class, String)} fetches the raw
+     * property value and converts it again. If this flag is set to <b>true</b>, converted values are stored in a cache
+     * keyed by the property key and the target class, so that further calls for the same key and type return the cached
+     * result. Statistics about the efficiency of the cache are available via {@link #getConvertedValueCacheHitCount()}
+     * and {@link #getConvertedValueCacheMissCount()}.
+     * <p>
+     * Only values stored as strings without variables are cached; values which have to be interpolated, properties with
+     * multiple values, and undefined properties are converted on each access. As cached objects are shared between
+     * callers, only conversions to immutable types are cached, i.e. primitive types and their wrappers, enumerations,
+     * {@code String}, {@code BigDecimal}, {@code BigInteger}, {@code Duration}, {@code URI}, {@code Path},
+     * {@code Locale}, and {@code Pattern}. Conversions to other types, for instance {@code Date} or {@code Calendar},
+     * are performed on each access.
+     * </p>
+     * <p>
+     * The cache is cleared whenever this configuration fires a {@code ConfigurationEvent} about a change of its data;
+     * this includes changes caused by reloading data into this configuration. It is also cleared when another
+     * {@code ConversionHandler} or another expression engine is set. Other changes affecting conversions, for instance
+     * of the settings of the current {@code ConversionHandler}, require a call of {@link #clearConvertedValueCache()}.
+     * Configurations which are views on other configurations, for instance {@link SubsetConfiguration} or
+     * {@link DataConfiguration}, are not notified about changes of the underlying data; they ignore this flag and convert
+     * values on each access. The cache should not be enabled for other configurations whose content can change without
+     * events being fired, for instance a {@link CompositeConfiguration} whose child configurations are modified directly.
+     * </p>
+     * <p>
+     * {@link BaseHierarchicalConfiguration} does not use this cache; it stores converted values directly in the nodes
+     * holding the raw values, which are replaced when a property is changed. Sub configurations inherit this flag.
+     * </p>
+     *
+     * @param cacheConvertedValues a flag whether caching of converted values is enabled
+     * @since 2.11.0
+     */
+    public void setCacheConvertedValues(final boolean cacheConvertedValues) {
+        if (cacheConvertedValues != isCacheConvertedValues()) {
+            convertedValueCache = cacheConvertedValues ? new ConcurrentHashMap<>() : null;
+        }
+    }
+
     /**
      * Sets the {@code ConversionHandler} to be used by this instance. The {@code ConversionHandler} is responsible for
      * every kind of data type conversion. It is consulted by all get methods returning results in specific data types. A
@@ -1359,6 +1695,7 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
             throw new IllegalArgumentException("ConversionHandler must not be null!");
         }
         this.conversionHandler = conversionHandler;
+        clearConvertedValueCache();
     }
 
     /**
@@ -1505,10 +1842,12 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
      */
     protected void setPropertyInternal(final String key, final Object value) {
         setDetailEvents(false);
+        compoundUpdates++;
         try {
             clearProperty(key);
             addProperty(key, value);
         } finally {
+            compoundUpdates--;
             setDetailEvents(true);
         }
     }
@@ -1544,12 +1883,7 @@ public abstract class AbstractConfiguration extends BaseEventSource implements C
      */
     @Override
     public final int size() {
-        beginRead(false);
-        try {
-            return sizeInternal();
-        } finally {
-            endRead();
-        }
+        return readLocked(() -> sizeInternal());
     }
 
     /**
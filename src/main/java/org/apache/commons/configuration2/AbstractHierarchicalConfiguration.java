@@ -17,17 +17,22 @@
 
 package org.apache.commons.configuration2;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Stack;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.commons.configuration2.event.ConfigurationEvent;
@@ -267,12 +272,267 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
         }
     }
 
+    /**
+     * A class storing the keys of a configuration for a specific version of its node structure. The version is represented
+     * by the root node of the structure; this is valid only for configurations whose node structures are immutable.
+     */
+    private static final class KeySnapshot {
+        /** The root node of the structure. */
+        private final Object root;
+
+        /** The expression engine used to generate the keys. */
+        private final ExpressionEngine expressionEngine;
+
+        /** The immutable list with the keys. */
+        private final List<String> keys;
+
+        /**
+         * Creates a new instance of {@code KeySnapshot}.
+         *
+         * @param root the root node of the structure
+         * @param expressionEngine the expression engine
+         * @param keys the keys of the structure
+         */
+        KeySnapshot(final Object root, final ExpressionEngine expressionEngine, final Collection<String> keys) {
+            this.root = root;
+            this.expressionEngine = expressionEngine;
+            this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+        }
+
+        /**
+         * Tests whether this snapshot is valid for the given structure and expression engine.
+         *
+         * @param currentRoot the current root node
+         * @param currentEngine the current expression engine
+         * @return a flag whether this snapshot can be used
+         */
+        boolean matches(final Object currentRoot, final ExpressionEngine currentEngine) {
+            return root == currentRoot && expressionEngine == currentEngine;
+        }
+    }
+
+    /**
+     * An iterator over the keys starting with a specific prefix which determines the keys lazily. The sub trees of the nodes
+     * selected by the prefix are traversed in the same order as by {@link DefinedKeysVisitor}, but only as far as
+     * necessary to produce the next key. This iterator is used only for immutable node structures, so it can be safely
+     * consumed after the lock of the configuration has been released.
+     */
+    private final class PrefixKeyIterator implements Iterator<String> {
+        /** The prefix. */
+        private final String prefix;
+
+        /** The node handler. */
+        private final NodeHandler<T> handler;
+
+        /** The expression engine for generating keys. */
+        private final ExpressionEngine engine;
+
+        /** The iterator over the nodes selected by the prefix. */
+        private final Iterator<QueryResult<T>> results;
+
+        /** The stack with the nodes currently traversed and their keys. */
+        private final Deque<Object[]> stack = new ArrayDeque<>();
+
+        /** The children of the nodes on the stack which still have to be processed. */
+        private final Deque<Iterator<T>> childIterators = new ArrayDeque<>();
+
+        /** Stores keys which have been determined, but not yet returned. */
+        private final Deque<String> pendingKeys = new ArrayDeque<>();
+
+        /** The set of keys returned so far; used to suppress duplicates. */
+        private final Set<String> returnedKeys = new HashSet<>();
+
+        /**
+         * Creates a new instance of {@code PrefixKeyIterator}.
+         *
+         * @param prefix the prefix
+         * @param prefixDefined a flag whether the prefix itself is a defined key
+         * @param results the nodes selected by the prefix
+         * @param handler the node handler
+         */
+        PrefixKeyIterator(final String prefix, final boolean prefixDefined, final List<QueryResult<T>> results, final NodeHandler<T> handler) {
+            this.prefix = prefix;
+            this.handler = handler;
+            this.results = results.iterator();
+            engine = getExpressionEngine();
+            if (prefixDefined) {
+                addPendingKey(prefix);
+            }
+        }
+
+        /**
+         * Adds a key to the list of pending keys if it has not been returned before.
+         *
+         * @param key the key
+         */
+        private void addPendingKey(final String key) {
+            if (returnedKeys.add(key)) {
+                pendingKeys.add(key);
+            }
+        }
+
+        /**
+         * Adds the keys of the attributes of the given node to the list of pending keys.
+         *
+         * @param parentKey the key of the node
+         * @param node the node
+         */
+        private void addAttributeKeys(final String parentKey, final T node) {
+            handler.getAttributes(node).forEach(attr -> addPendingKey(engine.attributeKey(parentKey, attr)));
+        }
+
+        /**
+         * Traverses the node structure until at least one new key is found or all nodes have been processed.
+         */
+        @SuppressWarnings("unchecked")
+        private void fetchKeys() {
+            while (pendingKeys.isEmpty()) {
+                if (stack.isEmpty()) {
+                    if (!nextResult()) {
+                        return;
+                    }
+                } else if (childIterators.peek().hasNext()) {
+                    final T child = childIterators.peek().next();
+                    final String key = engine.nodeKey(child, (String) stack.peek()[1], handler);
+                    if (handler.getValue(child) != null) {
+                        addPendingKey(key);
+                    }
+                    addAttributeKeys(key, child);
+                    push(child, key);
+                } else {
+                    childIterators.pop();
+                    final Object[] top = stack.pop();
+                    if (stack.isEmpty()) {
+                        addAttributeKeys(prefix, (T) top[0]);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fetchKeys();
+            return !pendingKeys.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pendingKeys.poll();
+        }
+
+        /**
+         * Starts the traversal of the next node selected by the prefix.
+         *
+         * @return a flag whether there is another node
+         */
+        private boolean nextResult() {
+            while (results.hasNext()) {
+                final QueryResult<T> result = results.next();
+                if (!result.isAttributeResult()) {
+                    push(result.getNode(), prefix);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Pushes a node on the stack of nodes to be traversed.
+         *
+         * @param node the node
+         * @param key the key of the node
+         */
+        private void push(final T node, final String key) {
+            stack.push(new Object[] {node, key});
+            childIterators.push(handler.getChildren(node).iterator());
+        }
+    }
+
+    /**
+     * A helper class for collecting the values of the results of a query. It is used to determine the value of a
+     * property. As most properties have a single value, a list is only created if multiple values are encountered.
+     *
+     * @param <T> the type of the nodes managed by this hierarchical configuration
+     */
+    static final class ValueCollector<T> implements Consumer<QueryResult<T>> {
+
+        /** The node handler. */
+        private final NodeHandler<T> handler;
+
+        /** Stores the first value found. */
+        private Object value;
+
+        /** The node the single value was obtained from; <b>null</b> if it is an attribute value or there are more. */
+        private T valueNode;
+
+        /** The list with all values if there are multiple ones. */
+        private List<Object> values;
+
+        /**
+         * Creates a new instance of {@code ValueCollector} and sets the node handler.
+         *
+         * @param handler the {@code NodeHandler}
+         */
+        ValueCollector(final NodeHandler<T> handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * {@inheritDoc} This implementation obtains the value of the passed in result and records it if it is not
+         * <b>null</b>.
+         */
+        @Override
+        public void accept(final QueryResult<T> result) {
+            final Object v = result.isAttributeResult() ? result.getAttributeValue(handler) : handler.getValue(result.getNode());
+            if (v == null) {
+                return;
+            }
+            if (values != null) {
+                values.add(v);
+            } else if (value != null) {
+                values = new ArrayList<>();
+                values.add(value);
+                values.add(v);
+                valueNode = null;
+            } else {
+                value = v;
+                valueNode = result.isAttributeResult() ? null : result.getNode();
+            }
+        }
+
+        /**
+         * Gets the collected value. Result is <b>null</b> if no values have been found, the single value if there was only
+         * one, or a list with all values.
+         *
+         * @return the collected value
+         */
+        public Object getValue() {
+            return values != null ? values : value;
+        }
+
+        /**
+         * Gets the node the collected value was obtained from. This is only defined if a single value has been found
+         * which is the value of a node (rather than of an attribute); otherwise, result is <b>null</b>.
+         *
+         * @return the node of the single value or <b>null</b>
+         */
+        public T getValueNode() {
+            return valueNode;
+        }
+    }
+
     /** The model for managing the data stored in this configuration. */
     private NodeModel<T> nodeModel;
 
     /** Stores the expression engine for this instance. */
     private ExpressionEngine expressionEngine;
 
+    /** The keys of this configuration for the current node structure if the structure is immutable. */
+    private volatile KeySnapshot keySnapshot;
+
     /**
      * Creates a new instance of {@code AbstractHierarchicalConfiguration} and sets the {@code NodeModel} to be used.
      *
@@ -355,6 +615,23 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
         getModel().addProperty(key, values, this);
     }
 
+    /**
+     * Generates the canonical keys of all child nodes of the given parent node in a single pass and adds them to the
+     * given cache. Keys already contained in the cache are not changed.
+     *
+     * @param parent the parent node
+     * @param parentKey the key of the parent node
+     * @param cache the cache for node keys
+     * @param handler the {@code NodeHandler}
+     */
+    private void cacheChildKeys(final T parent, final String parentKey, final Map<T, String> cache, final NodeHandler<T> handler) {
+        final List<T> children = handler.getChildren(parent);
+        final List<String> childKeys = getExpressionEngine().canonicalChildKeys(parent, parentKey, handler);
+        for (int i = 0; i < children.size(); i++) {
+            cache.putIfAbsent(children.get(i), childKeys.get(i));
+        }
+    }
+
     /**
      * Clears this configuration. This is a more efficient implementation than the one inherited from the base class. It
      * delegates to the node model.
@@ -442,6 +719,20 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
      */
     protected abstract NodeModel<T> cloneNodeModel();
 
+    /**
+     * Queries the specified key and collects the values of all results. The results of the query are obtained from
+     * {@link #queryNodes(String, Consumer)}; so for the frequent case of a property with a single value no collection of
+     * values has to be created. This method does not handle synchronization.
+     *
+     * @param key the key to be looked up
+     * @return the {@code ValueCollector} with the values found
+     */
+    ValueCollector<T> collectValues(final String key) {
+        final ValueCollector<T> collector = new ValueCollector<>(getModel().getNodeHandler());
+        queryNodes(key, collector);
+        return collector;
+    }
+
     /**
      * Checks if the specified key is contained in this configuration. Note that for this configuration the term
      * &quot;contained&quot; means that the key has an associated value. If there is a node for this key that has no value
@@ -465,6 +756,29 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
         return contains(getKeys(), value);
     }
 
+    /**
+     * Gets a collection with all keys defined in this configuration. If the node structure is immutable, the keys are
+     * obtained from a snapshot which is created on first access and reused as long as the structure (and the expression
+     * engine) is not changed.
+     *
+     * @return a collection with the defined keys
+     */
+    private Collection<String> definedKeys() {
+        final NodeHandler<T> handler = getModel().getNodeHandler();
+        if (!isNodeStructureImmutable()) {
+            return visitDefinedKeys(handler).getKeyList();
+        }
+
+        final T root = handler.getRootNode();
+        final ExpressionEngine engine = getExpressionEngine();
+        KeySnapshot snapshot = keySnapshot;
+        if (snapshot == null || !snapshot.matches(root, engine)) {
+            snapshot = new KeySnapshot(root, engine, visitDefinedKeys(handler).getKeyList());
+            keySnapshot = snapshot;
+        }
+        return snapshot.keys;
+    }
+
     /**
      * Helper method for resolving the specified key.
      *
@@ -476,6 +790,16 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
         return resolveKey(nodeHandler.getRootNode(), key, nodeHandler);
     }
 
+    /**
+     * {@inheritDoc} If the node structure of this configuration is immutable, the version is represented by the current
+     * root node, which is replaced on each change. This also covers changes which are not reported by this
+     * configuration, for instance changes of the parent of a connected sub configuration.
+     */
+    @Override
+    Object getDataVersion() {
+        return isNodeStructureImmutable() ? getModel().getNodeHandler().getRootNode() : super.getDataVersion();
+    }
+
     /**
      * Gets the expression engine used by this configuration. This method will never return <b>null</b>; if no specific
      * expression engine was set, the default expression engine will be returned.
@@ -490,35 +814,40 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
 
     /**
      * Gets an iterator with all keys defined in this configuration. Note that the keys returned by this method will not
-     * contain any indices. This means that some structure will be lost.
+     * contain any indices. This means that some structure will be lost. If the node structure of this configuration is
+     * immutable, the keys are cached until the structure is changed; then repeated calls of this method are cheap.
      *
      * @return an iterator with the defined keys in this configuration
      */
     @Override
     protected Iterator<String> getKeysInternal() {
-        return visitDefinedKeys().getKeyList().iterator();
+        return definedKeys().iterator();
     }
 
     /**
      * Gets an iterator with all keys defined in this configuration that start with the given prefix. The returned keys
      * will not contain any indices. This implementation tries to locate a node whose key is the same as the passed in
      * prefix. Then the subtree of this node is traversed, and the keys of all nodes encountered (including attributes) are
-     * added to the result set.
+     * added to the result set. If the node structure of this configuration is immutable, the subtree is traversed lazily
+     * while the returned iterator is consumed.
      *
      * @param prefix the prefix of the keys to start with
      * @return an iterator with the found keys
      */
     @Override
     protected Iterator<String> getKeysInternal(final String prefix) {
+        final List<QueryResult<T>> results = fetchNodeList(prefix);
+        final NodeHandler<T> handler = getModel().getNodeHandler();
+        if (isNodeStructureImmutable()) {
+            return new PrefixKeyIterator(prefix, containsKey(prefix), results, handler);
+        }
+
         final DefinedKeysVisitor visitor = new DefinedKeysVisitor(prefix);
         if (containsKey(prefix)) {
             // explicitly add the prefix
             visitor.getKeyList().add(prefix);
         }
 
-        final List<QueryResult<T>> results = fetchNodeList(prefix);
-        final NodeHandler<T> handler = getModel().getNodeHandler();
-
         results.forEach(result -> {
             if (!result.isAttributeResult()) {
                 handler.getChildren(result.getNode()).forEach(c -> NodeTreeWalker.INSTANCE.walkDFS(c, visitor, handler));
@@ -585,25 +914,26 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
     }
 
     /**
-     * Fetches the specified property. This task is delegated to the associated expression engine.
+     * Fetches the specified property. This task is delegated to the associated expression engine via
+     * {@link #collectValues(String)}.
      *
      * @param key the key to be looked up
      * @return the found value
      */
     @Override
     protected Object getPropertyInternal(final String key) {
-        final List<QueryResult<T>> results = fetchNodeList(key);
-
-        if (results.isEmpty()) {
-            return null;
-        }
-        final NodeHandler<T> handler = getModel().getNodeHandler();
-        final List<Object> list = results.stream().map(r -> valueFromResult(r, handler)).filter(Objects::nonNull).collect(Collectors.toList());
+        return collectValues(key).getValue();
+    }
 
-        if (list.size() < 1) {
-            return null;
-        }
-        return list.size() == 1 ? list.get(0) : list;
+    /**
+     * {@inheritDoc} Keys are resolved by the current expression engine; so this implementation returns this engine.
+     * Derived classes which change the way keys are resolved in another way have to override this method accordingly.
+     *
+     * @since 2.11.0
+     */
+    @Override
+    public Object getResolutionState() {
+        return getExpressionEngine();
     }
 
     /**
@@ -641,6 +971,32 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
         return !nodeDefined(getModel().getNodeHandler().getRootNode());
     }
 
+    /**
+     * Returns a flag whether the node structure of this configuration is immutable. If this is the case, each change of
+     * the structure produces a new root node, and the nodes reachable from a root node never change. This allows caching
+     * information derived from the structure as long as the root node remains the same; for instance, the keys returned
+     * by {@code getKeys()} are cached then. This base implementation returns <b>false</b>. Derived classes using
+     * immutable nodes should override it.
+     *
+     * @return a flag whether the node structure is immutable
+     * @since 2.11.0
+     */
+    protected boolean isNodeStructureImmutable() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc} This implementation returns <b>true</b> if the node structure of this configuration is immutable:
+     * then a read operation works on a consistent set of nodes even if the configuration is updated concurrently.
+     *
+     * @see #isNodeStructureImmutable()
+     * @since 2.11.0
+     */
+    @Override
+    protected boolean isOptimisticReadSupported() {
+        return isNodeStructureImmutable();
+    }
+
     /**
      * Checks if the specified node is defined.
      *
@@ -656,7 +1012,10 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
     /**
      * {@inheritDoc} This implementation uses the expression engine to generate a canonical key for the passed in node. For
      * this purpose, the path to the root node has to be traversed. The cache is used to store and access keys for nodes
-     * encountered on the path.
+     * encountered on the path. If the key of the parent node is already contained in the cache, it is likely that the
+     * keys of further siblings are requested with the same cache, for instance when tracking all children of a node. Then
+     * the keys of all child nodes of this parent are generated in a single pass and stored in the cache. This avoids
+     * scanning the siblings for each single node, so that the effort for generating the keys of many siblings is linear.
      */
     @Override
     public String nodeKey(final T node, final Map<T, String> cache, final NodeHandler<T> handler) {
@@ -669,15 +1028,41 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
             key = cache.get(currentNode);
         }
 
+        final ExpressionEngine engine = getExpressionEngine();
+        boolean parentCached = key != null;
         for (final T n : paths) {
-            final String currentKey = getExpressionEngine().canonicalKey(n, key, handler);
-            cache.put(n, currentKey);
+            String currentKey = null;
+            if (parentCached) {
+                cacheChildKeys(handler.getParent(n), key, cache, handler);
+                currentKey = cache.get(n);
+                parentCached = false;
+            }
+            if (currentKey == null) {
+                currentKey = engine.canonicalKey(n, key, handler);
+                cache.put(n, currentKey);
+            }
             key = currentKey;
         }
 
         return key;
     }
 
+    /**
+     * Queries the specified key and passes all results to the given consumer. This method is called when the results of a
+     * query are processed immediately, for instance when the value of a property is looked up. This base implementation
+     * delegates to {@link #fetchNodeList(String)}; so keys are resolved in the same way as by all other operations.
+     * Derived classes can override this method to pass the results to the consumer without collecting them in a list
+     * first, e.g. by calling {@link ExpressionEngine#query(Object, String, NodeHandler, Consumer)}. They are then
+     * responsible for resolving keys in the same way as {@code fetchNodeList()} does.
+     *
+     * @param key the key to be resolved
+     * @param consumer the consumer receiving the results of the query
+     * @since 2.11.0
+     */
+    protected void queryNodes(final String key, final Consumer<? super QueryResult<T>> consumer) {
+        fetchNodeList(key).forEach(consumer);
+    }
+
     /**
      * {@inheritDoc} This implementation delegates to the expression engine.
      */
@@ -706,11 +1091,14 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
     /**
      * {@inheritDoc} This implementation executes a query for the given key and constructs a {@code NodeUpdateData} object
      * based on the results. It determines which nodes need to be changed and whether new ones need to be added or existing
-     * ones need to be removed.
+     * ones need to be removed. If the passed in root node is the root node of this configuration, the query is executed by
+     * {@link #fetchNodeList(String)}. Otherwise, the update refers to another structure - for instance the intermediate
+     * structure of a batch update -; then {@code resolveKey()} is invoked with this root node.
      */
     @Override
     public NodeUpdateData<T> resolveUpdateKey(final T root, final String key, final Object newValue, final NodeHandler<T> handler) {
-        final Iterator<QueryResult<T>> itNodes = fetchNodeList(key).iterator();
+        final List<QueryResult<T>> results = root == getModel().getNodeHandler().getRootNode() ? fetchNodeList(key) : resolveKey(root, key, handler);
+        final Iterator<QueryResult<T>> itNodes = results.iterator();
         final Iterator<?> itValues = getListDelimiterHandler().parse(newValue).iterator();
         final Map<QueryResult<T>, Object> changedValues = new HashMap<>();
         Collection<Object> additionalValues = null;
@@ -746,6 +1134,7 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
     @Override
     public void setExpressionEngine(final ExpressionEngine expressionEngine) {
         this.expressionEngine = expressionEngine;
+        clearConvertedValueCache();
     }
 
     /**
@@ -766,7 +1155,7 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
      */
     @Override
     protected int sizeInternal() {
-        return visitDefinedKeys().getKeyList().size();
+        return definedKeys().size();
     }
 
     @Override
@@ -774,25 +1163,14 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
         return super.toString() + "(" + getRootElementNameInternal() + ")";
     }
 
-    /**
-     * Extracts the value from a query result.
-     *
-     * @param result the {@code QueryResult}
-     * @param handler the {@code NodeHandler}
-     * @return the value of this result (may be <b>null</b>)
-     */
-    private Object valueFromResult(final QueryResult<T> result, final NodeHandler<T> handler) {
-        return result.isAttributeResult() ? result.getAttributeValue(handler) : handler.getValue(result.getNode());
-    }
-
     /**
      * Creates a {@code DefinedKeysVisitor} and visits all defined keys with it.
      *
+     * @param nodeHandler the {@code NodeHandler} for the structure to be visited
      * @return the visitor after all keys have been visited
      */
-    private DefinedKeysVisitor visitDefinedKeys() {
+    private DefinedKeysVisitor visitDefinedKeys(final NodeHandler<T> nodeHandler) {
         final DefinedKeysVisitor visitor = new DefinedKeysVisitor();
-        final NodeHandler<T> nodeHandler = getModel().getNodeHandler();
         NodeTreeWalker.INSTANCE.walkDFS(nodeHandler.getRootNode(), visitor, nodeHandler);
         return visitor;
     }
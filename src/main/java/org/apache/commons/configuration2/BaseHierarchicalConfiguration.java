@@ -24,6 +24,8 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.apache.commons.configuration2.event.ConfigurationEvent;
@@ -51,6 +53,56 @@ import org.apache.commons.lang3.ObjectUtils;
  */
 public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfiguration<ImmutableNode> implements InMemoryNodeModelSupport {
 
+    /**
+     * An implementation of the {@link UpdateBatch} interface which delegates to the model executing a batch. If this
+     * configuration is based on a tracked node, a selector is passed to all update operations.
+     */
+    private final class BatchUpdater implements UpdateBatch {
+        /** The model executing the batch. */
+        private final InMemoryNodeModel model;
+
+        /** The selector for the tracked node; <b>null</b> if updates refer to the root node. */
+        private final NodeSelector selector;
+
+        /**
+         * Creates a new instance of {@code BatchUpdater}.
+         *
+         * @param model the model executing the batch
+         * @param selector the selector for a tracked node (can be <b>null</b>)
+         */
+        public BatchUpdater(final InMemoryNodeModel model, final NodeSelector selector) {
+            this.model = model;
+            this.selector = selector;
+        }
+
+        @Override
+        public void addNodes(final String key, final Collection<? extends ImmutableNode> nodes) {
+            if (nodes != null && !nodes.isEmpty()) {
+                model.addNodes(key, selector, nodes, BaseHierarchicalConfiguration.this);
+            }
+        }
+
+        @Override
+        public void addProperty(final String key, final Object value) {
+            model.addProperty(key, selector, getListDelimiterHandler().parse(value), BaseHierarchicalConfiguration.this);
+        }
+
+        @Override
+        public void clearProperty(final String key) {
+            model.clearProperty(key, selector, BaseHierarchicalConfiguration.this);
+        }
+
+        @Override
+        public void clearTree(final String key) {
+            model.clearTree(key, selector, BaseHierarchicalConfiguration.this);
+        }
+
+        @Override
+        public void setProperty(final String key, final Object value) {
+            model.setProperty(key, selector, value, BaseHierarchicalConfiguration.this);
+        }
+    }
+
     /**
      * A specialized visitor base class that can be used for storing the tree of configuration nodes. The basic idea is that
      * each node can be associated with a reference object. This reference object has a concrete meaning in a derived class,
@@ -315,6 +367,100 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         }
     }
 
+    /**
+     * A function converting a node value to a target class which records whether it has been invoked. It is passed to
+     * the {@code NodeHandler} when a converted node value is requested; so it can be determined afterwards whether the
+     * value has been served from the cache of the node.
+     *
+     * @param <T> the target type of the conversion
+     */
+    private final class NodeValueConverter<T> implements Function<Object, T> {
+        /** The target class of the conversion. */
+        private final Class<T> targetClass;
+
+        /** The key of the property to be converted. */
+        private final String key;
+
+        /** A flag whether a conversion has been performed. */
+        private boolean invoked;
+
+        /**
+         * Creates a new instance of {@code NodeValueConverter}.
+         *
+         * @param targetClass the target class of the conversion
+         * @param key the key of the property
+         */
+        NodeValueConverter(final Class<T> targetClass, final String key) {
+            this.targetClass = targetClass;
+            this.key = key;
+        }
+
+        @Override
+        public T apply(final Object value) {
+            invoked = true;
+            return convertPropertyValue(targetClass, key, value);
+        }
+    }
+
+    /**
+     * <p>
+     * Definition of an interface for the update operations which can be executed in a batch.
+     * </p>
+     * <p>
+     * An object implementing this interface is passed to the consumer of {@link #executeBatch(Consumer)}. The methods
+     * correspond to the methods of a hierarchical configuration with the same names, and keys are interpreted relative to
+     * the configuration executing the batch. Updates performed via this interface are not visible to other users of the
+     * configuration before the whole batch has been applied.
+     * </p>
+     *
+     * @since 2.11.0
+     */
+    public interface UpdateBatch {
+        /**
+         * Adds a collection of nodes at the specified position of the configuration tree.
+         *
+         * @param key the key where the nodes are to be added; can be <b>null</b>, then they are added to the root node
+         * @param nodes a collection with the nodes to be added
+         * @see HierarchicalConfiguration#addNodes(String, Collection)
+         */
+        void addNodes(String key, Collection<? extends ImmutableNode> nodes);
+
+        /**
+         * Adds a value to the property with the specified key. The value is split using the configuration's
+         * {@code ListDelimiterHandler}.
+         *
+         * @param key the key of the property
+         * @param value the value to be added
+         * @see Configuration#addProperty(String, Object)
+         */
+        void addProperty(String key, Object value);
+
+        /**
+         * Removes the property with the specified key.
+         *
+         * @param key the key of the property to be removed
+         * @see Configuration#clearProperty(String)
+         */
+        void clearProperty(String key);
+
+        /**
+         * Removes the property with the specified key and all properties below it.
+         *
+         * @param key the key of the property to be removed
+         * @see HierarchicalConfiguration#clearTree(String)
+         */
+        void clearTree(String key);
+
+        /**
+         * Sets the value of the property with the specified key.
+         *
+         * @param key the key of the property
+         * @param value the new value
+         * @see Configuration#setProperty(String, Object)
+         */
+        void setProperty(String key, Object value);
+    }
+
     /**
      * Creates the {@code NodeModel} for this configuration based on a passed in source configuration. This implementation
      * creates an {@link InMemoryNodeModel}. If the passed in source configuration is defined, its root node also becomes
@@ -348,6 +494,19 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return subs.stream().map(ConfigurationUtils::unmodifiableConfiguration).collect(Collectors.toList());
     }
 
+    /**
+     * A marker node stored in {@link #VALUE_NODE} while a converted property value is fetched, before the node holding
+     * the value has been determined.
+     */
+    private static final ImmutableNode PENDING_VALUE_NODE = new ImmutableNode.Builder().create();
+
+    /**
+     * Stores the node from which {@link #getPropertyInternal(String)} obtained the value of a property on the current
+     * thread while a converted property value is fetched. This is used to look up converted values in the cache of this
+     * node if caching is enabled. Outside of such an operation, the value is <b>null</b>.
+     */
+    private static final ThreadLocal<ImmutableNode> VALUE_NODE = new ThreadLocal<>();
+
     /** A listener for reacting on changes caused by sub configurations. */
     private final EventListener<ConfigurationEvent> changeListener;
 
@@ -608,6 +767,49 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return builder.create();
     }
 
+    /**
+     * Executes a batch of updates on this configuration. The passed in consumer is invoked with an {@link UpdateBatch}
+     * object which can be used to perform an arbitrary number of update operations. Each operation sees the effects of the
+     * operations executed before. All updates are applied to the node model in a single atomic step when the consumer
+     * returns; so they become visible at once. The operations themselves are still executed one by one on a private copy
+     * of the node structure (see {@link InMemoryNodeModel#executeBatch(Consumer)}). For the whole batch only a single pair
+     * of events of type {@link ConfigurationEvent#BATCH_UPDATE} is fired; the events for the single operations are not
+     * generated.
+     * <p>
+     * Notes: The update operations are directly executed on the node model. So, if a derived class overrides methods like
+     * {@code addPropertyInternal()} or {@code setPropertyInternal()}, the overridden implementations are not invoked. Keys
+     * are resolved against the private structure of the batch using {@code resolveKey()}; an overridden
+     * {@code fetchNodeList()} method is not taken into account either. If
+     * the node model is updated concurrently by another thread (which is possible if the configuration does not use a
+     * {@code Synchronizer} which prevents this), the consumer may be invoked multiple times; therefore, it should not have
+     * side effects other than calling methods on the passed in batch object.
+     * </p>
+     *
+     * @param batch the consumer performing the updates (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the consumer is <b>null</b>
+     * @since 2.11.0
+     */
+    public void executeBatch(final Consumer<? super UpdateBatch> batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch must not be null!");
+        }
+
+        beginWrite(false);
+        try {
+            fireEvent(ConfigurationEvent.BATCH_UPDATE, null, null, true);
+            final NodeModel<ImmutableNode> model = getModel();
+            if (model instanceof TrackedNodeModel) {
+                final TrackedNodeModel trackedModel = (TrackedNodeModel) model;
+                trackedModel.getParentModel().executeBatch(m -> batch.accept(new BatchUpdater(m, trackedModel.getSelector())));
+            } else {
+                ((InMemoryNodeModel) model).executeBatch(m -> batch.accept(new BatchUpdater(m, null)));
+            }
+            fireEvent(ConfigurationEvent.BATCH_UPDATE, null, null, false);
+        } finally {
+            endWrite();
+        }
+    }
+
     /**
      * Executes a query on the specified key and filters it for node results.
      *
@@ -619,6 +821,43 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return resolveNodeKey(handler.getRootNode(), key, handler);
     }
 
+    /**
+     * {@inheritDoc} If caching of converted values is enabled, this implementation does not use the cache of the base
+     * class. Instead, it checks whether the property is defined by the value of a single node. In this case, the
+     * converted value is obtained from the cache of this node via the {@code NodeHandler}; so it has to be converted only
+     * once. As nodes are immutable, a changed property value is stored in a new node with an empty cache. Therefore,
+     * cached values are also valid for connected sub configurations and for changes performed via another configuration
+     * sharing the same nodes. Values that contain variables, conversions to a type of which the value is already an
+     * instance, and conversions to types whose instances are mutable are not cached.
+     *
+     * @see #setCacheConvertedValues(boolean)
+     */
+    @Override
+    protected <R> R getConvertedProperty(final Class<R> cls, final String key) {
+        if (!isCacheConvertedValues()) {
+            return super.getConvertedProperty(cls, key);
+        }
+
+        final Object value;
+        final ImmutableNode node;
+        VALUE_NODE.set(PENDING_VALUE_NODE);
+        try {
+            value = getProperty(key);
+            node = VALUE_NODE.get();
+        } finally {
+            VALUE_NODE.set(null);
+        }
+        // the node is only used if it actually holds the value; a derived class may have changed the value
+        if (node == null || node == PENDING_VALUE_NODE || node.getValue() != value || !isCacheableValue(value, cls)) {
+            return convertPropertyValue(cls, key, value);
+        }
+
+        final NodeValueConverter<R> converter = new NodeValueConverter<>(cls, key);
+        final R result = getModel().getNodeHandler().getConvertedValue(node, cls, getConversionHandler(), converter);
+        recordConvertedValueCacheAccess(!converter.invoked);
+        return result;
+    }
+
     /**
      * {@inheritDoc} This implementation returns the {@code InMemoryNodeModel} used by this configuration.
      */
@@ -627,6 +866,21 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return (InMemoryNodeModel) super.getNodeModel();
     }
 
+    /**
+     * {@inheritDoc} If this method is called by {@link #getConvertedProperty(Class, String)} while caching of converted
+     * values is enabled, this implementation additionally records the node holding the value of the property, so that
+     * the converted values cached in this node can be accessed.
+     */
+    @Override
+    protected Object getPropertyInternal(final String key) {
+        if (!isCacheConvertedValues() || VALUE_NODE.get() == null) {
+            return super.getPropertyInternal(key);
+        }
+        final ValueCollector<ImmutableNode> collector = collectValues(key);
+        VALUE_NODE.set(collector.getValueNode());
+        return collector.getValue();
+    }
+
     /**
      * Gets the {@code NodeSelector} to be used for a sub configuration based on the passed in key. This method is called
      * whenever a sub configuration is to be created. This base implementation returns a new {@code NodeSelector}
@@ -701,6 +955,7 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         sub.setExpressionEngine(getExpressionEngine());
         sub.setListDelimiterHandler(getListDelimiterHandler());
         sub.setThrowExceptionOnMissing(isThrowExceptionOnMissing());
+        sub.setCacheConvertedValues(isCacheConvertedValues());
         sub.getInterpolator().setParentInterpolator(getInterpolator());
     }
 
@@ -736,6 +991,49 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return c;
     }
 
+    /**
+     * {@inheritDoc} This implementation returns <b>true</b> because the structure of this configuration consists of
+     * {@link ImmutableNode} objects.
+     */
+    @Override
+    protected boolean isNodeStructureImmutable() {
+        return true;
+    }
+
+    /**
+     * Creates an immutable snapshot of this configuration. The snapshot contains the data of this configuration at the
+     * time this method is called; later changes on this configuration are not visible in the snapshot. So it can be used
+     * to read multiple properties which are consistent to each other without having to lock this configuration. The
+     * snapshot shares the node structure of this configuration; no nodes are copied. Reads on the snapshot do not
+     * require any locking because the underlying structure cannot change. The snapshot is initialized with the expression
+     * engine, the list delimiter handler, the conversion handler, and the lookups of this configuration.
+     * <p>
+     * If this configuration is not based on an {@link InMemoryNodeModel} (which is the case for instance for connected sub
+     * configurations), a new model has to be created for the snapshot; the nodes are still shared, but this operation is
+     * then linear in the size of the node structure.
+     * </p>
+     *
+     * @return an immutable snapshot of this configuration
+     * @since 2.11.0
+     */
+    public ImmutableHierarchicalConfiguration snapshot() {
+        beginRead(false);
+        try {
+            final NodeModel<ImmutableNode> model = getModel();
+            final InMemoryNodeModel snapshotModel = model instanceof InMemoryNodeModel ? ((InMemoryNodeModel) model).snapshot()
+                : new InMemoryNodeModel(model.getInMemoryRepresentation());
+            final BaseHierarchicalConfiguration snapshot = new BaseHierarchicalConfiguration(snapshotModel);
+            snapshot.setExpressionEngine(getExpressionEngine());
+            snapshot.setListDelimiterHandler(getListDelimiterHandler());
+            snapshot.setConversionHandler(getConversionHandler());
+            snapshot.setThrowExceptionOnMissing(isThrowExceptionOnMissing());
+            snapshot.cloneInterpolator(this);
+            return ConfigurationUtils.unmodifiableConfiguration(snapshot);
+        } finally {
+            endRead();
+        }
+    }
+
     /**
      * This method is always called when a subnode configuration created from this configuration has been modified. This
      * implementation transforms the received event into an event of type {@code SUBNODE_CHANGED} and notifies the
@@ -20,8 +20,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -34,11 +36,13 @@ import org.apache.commons.configuration2.event.EventSource;
 import org.apache.commons.configuration2.event.EventType;
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 import org.apache.commons.configuration2.sync.LockMode;
+import org.apache.commons.configuration2.tree.ConfigurationNodeVisitorAdapter;
 import org.apache.commons.configuration2.tree.DefaultConfigurationKey;
 import org.apache.commons.configuration2.tree.DefaultExpressionEngine;
 import org.apache.commons.configuration2.tree.ExpressionEngine;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.commons.configuration2.tree.NodeCombiner;
+import org.apache.commons.configuration2.tree.NodeHandler;
 import org.apache.commons.configuration2.tree.NodeTreeWalker;
 import org.apache.commons.configuration2.tree.QueryResult;
 import org.apache.commons.configuration2.tree.TreeUtils;
@@ -65,7 +69,10 @@ import org.apache.commons.lang3.StringUtils;
  * The class works by registering itself as an event listener at all added configurations. So it gets notified whenever
  * one of these configurations is changed and can invalidate its internal node structure. The next time a property is
  * accessed the node structure will be re-constructed using the current state of the managed configurations. Note that,
- * depending on the used {@code NodeCombiner}, this may be a complex operation.
+ * depending on the used {@code NodeCombiner}, this may be a complex operation. To reduce the effort, the intermediate
+ * results of the combination (the combined node structures of the first <em>n</em> configurations) are cached. When a
+ * change event is received from a child configuration, only the combinations starting with this configuration are
+ * recomputed; so it is beneficial to add configurations that change frequently at the end.
  * </p>
  * <p>
  * Because of the way a {@code CombinedConfiguration} is working it has more or less view character: it provides a logic
@@ -174,6 +181,21 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
         /** Stores the root node for this child configuration. */
         private ImmutableNode rootNode;
 
+        /** The cached transformed root node; <b>null</b> if it has to be constructed again. */
+        private ImmutableNode transformedRoot;
+
+        /** The combined node of the preceding configuration from which the current combined node was created. */
+        private ImmutableNode combinedBase;
+
+        /** The transformed root node from which the current combined node was created. */
+        private ImmutableNode combinedRoot;
+
+        /** The combination of the transformed root nodes of all configurations up to this one. */
+        private ImmutableNode combinedNode;
+
+        /** A set with all nodes of the root node of this configuration; created on demand. */
+        private volatile Set<ImmutableNode> nodeIndex;
+
         /**
          * Creates a new instance of {@code ConfigData} and initializes it.
          *
@@ -188,6 +210,30 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
             this.at = at;
         }
 
+        /**
+         * Tests whether the given node belongs to the node structure of this child configuration. The nodes are compared by
+         * identity. For this purpose, a set with all nodes of this configuration is created on first access; it is reused
+         * until the root node of the configuration changes.
+         *
+         * @param node the node in question
+         * @return a flag whether this node belongs to this configuration
+         */
+        public boolean containsNode(final ImmutableNode node) {
+            Set<ImmutableNode> index = nodeIndex;
+            if (index == null) {
+                final Set<ImmutableNode> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+                NodeTreeWalker.INSTANCE.walkDFS(getRootNode(), new ConfigurationNodeVisitorAdapter<ImmutableNode>() {
+                    @Override
+                    public void visitBeforeChildren(final ImmutableNode n, final NodeHandler<ImmutableNode> handler) {
+                        nodes.add(n);
+                    }
+                }, getModel().getNodeHandler());
+                index = nodes;
+                nodeIndex = index;
+            }
+            return index.contains(node);
+        }
+
         /**
          * Gets the at position of this configuration.
          *
@@ -197,6 +243,19 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
             return at;
         }
 
+        /**
+         * Gets the combined node for all configurations up to this one. This is a cached result of a previous combination.
+         * It can be reused if neither the transformed root node of this configuration nor the combined node of the
+         * preceding configuration have changed.
+         *
+         * @param base the current combined node of the preceding configuration (<b>null</b> for the first one)
+         * @param root the current transformed root node of this configuration
+         * @return the cached combined node or <b>null</b> if it cannot be reused
+         */
+        public ImmutableNode getCombinedNode(final ImmutableNode base, final ImmutableNode root) {
+            return base == combinedBase && root == combinedRoot ? combinedNode : null;
+        }
+
         /**
          * Gets the stored configuration.
          *
@@ -236,7 +295,10 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
             try {
                 final ImmutableNode root = ConfigurationUtils.convertToHierarchical(getConfiguration(), conversionExpressionEngine).getNodeModel()
                     .getInMemoryRepresentation();
-                rootNode = root;
+                if (root != rootNode) {
+                    rootNode = root;
+                    nodeIndex = null;
+                }
                 return root;
             } finally {
                 getConfiguration().unlock(LockMode.READ);
@@ -250,8 +312,40 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
          * @return the transformed root node
          */
         public ImmutableNode getTransformedRoot() {
-            final ImmutableNode configRoot = getRootNodeOfConfiguration();
-            return atPath == null ? configRoot : prependAtPath(configRoot);
+            if (transformedRoot == null || !isCacheable()) {
+                final ImmutableNode configRoot = getRootNodeOfConfiguration();
+                transformedRoot = atPath == null ? configRoot : prependAtPath(configRoot);
+            }
+            return transformedRoot;
+        }
+
+        /**
+         * Invalidates the cached combined node of this configuration. This is necessary if the combination algorithm has
+         * changed.
+         */
+        public void invalidateCombinedNode() {
+            combinedBase = null;
+            combinedRoot = null;
+            combinedNode = null;
+        }
+
+        /**
+         * Invalidates all cached data of this configuration. This causes the root node to be obtained again from the
+         * associated configuration on the next combination.
+         */
+        public void invalidateRoot() {
+            transformedRoot = null;
+            invalidateCombinedNode();
+        }
+
+        /**
+         * Returns a flag whether the root node of the associated configuration can be cached. This is only possible if
+         * this combined configuration is notified about changes, i.e. if the configuration is an event source.
+         *
+         * @return a flag whether the root node can be cached
+         */
+        private boolean isCacheable() {
+            return configuration instanceof EventSource;
         }
 
         /**
@@ -308,6 +402,20 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
                 builder.value(orgRoot.getValue());
             }
         }
+
+        /**
+         * Stores the result of a combination. The combined node has been created by combining the combined node of the
+         * preceding configuration with the given transformed root node of this configuration.
+         *
+         * @param base the combined node of the preceding configuration (<b>null</b> for the first one)
+         * @param root the transformed root node of this configuration
+         * @param node the combined node
+         */
+        public void setCombinedNode(final ImmutableNode base, final ImmutableNode root, final ImmutableNode node) {
+            combinedBase = base;
+            combinedRoot = root;
+            combinedNode = node;
+        }
     }
 
     /**
@@ -505,7 +613,9 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
     }
 
     /**
-     * Creates the root node of this combined configuration.
+     * Creates the root node of this combined configuration. The intermediate results of the combination - the combined
+     * nodes of the first <em>n</em> child configurations - are cached. So if only a single child configuration has
+     * changed, the combinations for the configurations preceding it can be reused.
      *
      * @return the combined root node
      */
@@ -516,10 +626,15 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
             }
             return EMPTY_ROOT;
         }
-        final Iterator<ConfigData> it = configurations.iterator();
-        ImmutableNode node = it.next().getTransformedRoot();
-        while (it.hasNext()) {
-            node = nodeCombiner.combine(node, it.next().getTransformedRoot());
+        ImmutableNode node = null;
+        for (final ConfigData cd : configurations) {
+            final ImmutableNode root = cd.getTransformedRoot();
+            ImmutableNode combined = cd.getCombinedNode(node, root);
+            if (combined == null) {
+                combined = node == null ? root : nodeCombiner.combine(node, root);
+                cd.setCombinedNode(node, root, combined);
+            }
+            node = combined;
         }
         if (getLogger().isDebugEnabled()) {
             final ByteArrayOutputStream os = new ByteArrayOutputStream();
@@ -531,24 +646,20 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
     }
 
     /**
-     * Determines the configurations to which the specified node belongs. This is done by inspecting the nodes structures of
-     * all child configurations.
+     * Determines the configurations to which the specified node belongs. This is done by checking the nodes structures of
+     * all child configurations. For each child configuration, an index of its nodes is maintained, so that this check is
+     * cheap.
      *
      * @param node the node
      * @return a set with the owning configurations
      */
     private Set<Configuration> findSourceConfigurations(final ImmutableNode node) {
         final Set<Configuration> result = new HashSet<>();
-        final FindNodeVisitor<ImmutableNode> visitor = new FindNodeVisitor<>(node);
-
         configurations.forEach(cd -> {
-            NodeTreeWalker.INSTANCE.walkBFS(cd.getRootNode(), visitor, getModel().getNodeHandler());
-            if (visitor.isFound()) {
+            if (cd.containsNode(node)) {
                 result.add(cd.getConfiguration());
-                visitor.reset();
             }
         });
-
         return result;
     }
 
@@ -767,11 +878,41 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
      * Invalidates this combined configuration. This means that the next time a property is accessed the combined node
      * structure must be re-constructed. Invalidation of a combined configuration also means that an event of type
      * {@code EVENT_COMBINED_INVALIDATE} is fired. Note that while other events most times appear twice (once before and
-     * once after an update), this event is only fired once (after update).
+     * once after an update), this event is only fired once (after update). Calling this method explicitly causes the
+     * whole combined node structure to be re-constructed from all child configurations, while a change event received
+     * from a child configuration only causes the part of the combination affected by this child to be recomputed.
      */
     public void invalidate() {
         beginWrite(true);
         try {
+            configurations.forEach(ConfigData::invalidateRoot);
+            invalidateInternal();
+        } finally {
+            endWrite();
+        }
+    }
+
+    /**
+     * Invalidates this combined configuration because of a change event received from a child configuration. Only the
+     * data cached for this child configuration is discarded; so on next access only the combinations starting with this
+     * child configuration have to be reconstructed. If the source of the event cannot be found, all cached data is
+     * discarded.
+     *
+     * @param source the source of the change event
+     */
+    private void invalidateChild(final Object source) {
+        beginWrite(true);
+        try {
+            boolean found = false;
+            for (final ConfigData cd : configurations) {
+                if (cd.getConfiguration() == source) {
+                    cd.invalidateRoot();
+                    found = true;
+                }
+            }
+            if (!found) {
+                configurations.forEach(ConfigData::invalidateRoot);
+            }
             invalidateInternal();
         } finally {
             endWrite();
@@ -799,14 +940,17 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
 
     /**
      * Event listener call back for configuration update events. This method is called whenever one of the contained
-     * configurations was modified. It invalidates this combined configuration.
+     * configurations was modified. It invalidates this combined configuration. Only the contribution of the changed
+     * configuration is recomputed when the combined node structure is constructed again. A contained combined
+     * configuration fires an invalidate event after one of its own children was changed; this is handled like an update
+     * of this configuration.
      *
      * @param event the update event
      */
     @Override
     public void onEvent(final ConfigurationEvent event) {
-        if (event.isBeforeUpdate()) {
-            invalidate();
+        if (event.isBeforeUpdate() || event.getEventType() == COMBINED_INVALIDATE) {
+            invalidateChild(event.getSource());
         }
     }
 
@@ -884,6 +1028,7 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
         beginWrite(true);
         try {
             this.conversionExpressionEngine = conversionExpressionEngine;
+            configurations.forEach(ConfigData::invalidateRoot);
         } finally {
             endWrite();
         }
@@ -904,6 +1049,7 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
         beginWrite(true);
         try {
             this.nodeCombiner = nodeCombiner;
+            configurations.forEach(ConfigData::invalidateCombinedNode);
             invalidateInternal();
         } finally {
             endWrite();
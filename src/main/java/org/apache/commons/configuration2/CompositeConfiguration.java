@@ -323,6 +323,15 @@ public class CompositeConfiguration extends AbstractConfiguration implements Clo
         }
     }
 
+    /**
+     * {@inheritDoc} The child configurations of a composite configuration can be changed directly without this object
+     * being notified; so this implementation returns <b>null</b>.
+     */
+    @Override
+    Object getDataVersion() {
+        return null;
+    }
+
     /**
      * Gets the &quot;in memory configuration&quot;. In this configuration changes are stored.
      *
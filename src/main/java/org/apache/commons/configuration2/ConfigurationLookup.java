@@ -16,7 +16,14 @@
  */
 package org.apache.commons.configuration2;
 
-import org.apache.commons.configuration2.interpol.Lookup;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.apache.commons.configuration2.event.ConfigurationEvent;
+import org.apache.commons.configuration2.event.EventListener;
+import org.apache.commons.configuration2.event.EventSource;
+import org.apache.commons.configuration2.interpol.CacheableLookup;
 
 /**
  * <p>
@@ -28,13 +35,24 @@ import org.apache.commons.configuration2.interpol.Lookup;
  * {@code lookup()} method it simply queries this configuration for the passed in variable name. So the keys passed to
  * {@code lookup()} are mapped directly to configuration properties.
  * </p>
+ * <p>
+ * If the configuration is an {@link EventSource}, changes of its properties are reported by the
+ * {@code ConfigurationEvent}s it fires, so that interpolation results depending on it can be cached. For
+ * configurations derived from {@link AbstractConfiguration}, the version of their data is checked in addition; this
+ * detects changes for which no events are fired, for instance while detail events are disabled, or changes of the
+ * parent of a connected sub configuration. Configurations whose changes cannot be detected this way, for instance a
+ * {@link CompositeConfiguration}, are not observed, and results depending on them are not cached.
+ * </p>
  *
  * @since 2.0
  */
-public class ConfigurationLookup implements Lookup {
+public class ConfigurationLookup implements CacheableLookup {
     /** The configuration to which lookups are delegated. */
     private final ImmutableConfiguration configuration;
 
+    /** The event listeners registered at the configuration for the change listeners added to this object. */
+    private final Map<Consumer<String>, EventListener<ConfigurationEvent>> changeListeners = new ConcurrentHashMap<>();
+
     /**
      * Creates a new instance of {@code ConfigurationLookup} and sets the associated {@code ImmutableConfiguration}.
      *
@@ -48,6 +66,43 @@ public class ConfigurationLookup implements Lookup {
         configuration = config;
     }
 
+    /**
+     * Checks whether the keys of the associated configuration are plain strings, so that a property can only be
+     * referenced by a single key. This is not the case for instance for hierarchical configurations, in which the same
+     * property can be selected by different keys, e.g. {@code a.b} and {@code a(0).b}.
+     *
+     * @param config the configuration
+     * @return a flag whether the keys of this configuration can be compared literally
+     */
+    private static boolean hasPlainKeys(final ImmutableConfiguration config) {
+        return config instanceof BaseConfiguration || config instanceof MapConfiguration || config instanceof DatabaseConfiguration;
+    }
+
+    /**
+     * {@inheritDoc} This implementation registers an event listener at the associated configuration if it is an
+     * {@link EventSource}. The change listener is passed the property names of all {@code ConfigurationEvent}s fired
+     * after a change. If the keys of the configuration cannot be compared literally, for instance for a hierarchical
+     * configuration, it is passed <b>null</b> instead, so that all values are considered changed. If the configuration
+     * is not an {@code EventSource} or its changes cannot be detected reliably, no listener is registered.
+     *
+     * @since 2.11.0
+     */
+    @Override
+    public boolean addChangeListener(final Consumer<String> listener) {
+        if (!(configuration instanceof EventSource) || configuration instanceof AbstractConfiguration && getVersion() == null) {
+            return false;
+        }
+        final boolean plainKeys = hasPlainKeys(configuration);
+        final EventListener<ConfigurationEvent> eventListener = event -> {
+            if (!event.isBeforeUpdate()) {
+                listener.accept(plainKeys ? event.getPropertyName() : null);
+            }
+        };
+        changeListeners.put(listener, eventListener);
+        ((EventSource) configuration).addEventListener(ConfigurationEvent.ANY, eventListener);
+        return true;
+    }
+
     /**
      * Gets the {@code ImmutableConfiguration} used by this object.
      *
@@ -57,6 +112,18 @@ public class ConfigurationLookup implements Lookup {
         return configuration;
     }
 
+    /**
+     * {@inheritDoc} If the associated configuration is derived from {@link AbstractConfiguration}, this implementation
+     * returns the version of its data; it changes if the data of the configuration is changed without an event being
+     * fired. Otherwise, result is <b>null</b>.
+     *
+     * @since 2.11.0
+     */
+    @Override
+    public Object getVersion() {
+        return configuration instanceof AbstractConfiguration ? ((AbstractConfiguration) configuration).getDataVersion() : null;
+    }
+
     /**
      * {@inheritDoc} This implementation calls {@code getProperty()} on the associated configuration. The return value is
      * directly returned. Note that this may be a complex object, e.g. a collection or an array.
@@ -65,4 +132,16 @@ public class ConfigurationLookup implements Lookup {
     public Object lookup(final String variable) {
         return getConfiguration().getProperty(variable);
     }
+
+    /**
+     * {@inheritDoc} This implementation removes the event listener registered at the associated configuration for the
+     * given change listener.
+     *
+     * @since 2.11.0
+     */
+    @Override
+    public boolean removeChangeListener(final Consumer<String> listener) {
+        final EventListener<ConfigurationEvent> eventListener = listener != null ? changeListeners.remove(listener) : null;
+        return eventListener != null && ((EventSource) configuration).removeEventListener(ConfigurationEvent.ANY, eventListener);
+    }
 }
@@ -723,6 +723,25 @@ public class DataConfiguration extends AbstractConfiguration {
         return dataConversionHandler;
     }
 
+    /**
+     * {@inheritDoc} The values of this configuration are obtained from the wrapped configuration, which can be changed
+     * without this instance being notified. Therefore, this implementation always converts the value and does not make
+     * use of the cache for converted values.
+     */
+    @Override
+    protected <T> T getConvertedProperty(final Class<T> cls, final String key) {
+        return convertPropertyValue(cls, key, getProperty(key));
+    }
+
+    /**
+     * {@inheritDoc} This implementation returns the version of the wrapped configuration if it provides version
+     * information; otherwise, result is <b>null</b>.
+     */
+    @Override
+    Object getDataVersion() {
+        return configuration instanceof AbstractConfiguration ? ((AbstractConfiguration) configuration).getDataVersion() : null;
+    }
+
     /**
      * Gets a Date associated with the given configuration key. If the property is a String, it will be parsed with the
      * format defined by the user in the {@link #DATE_FORMAT_KEY} property, or if it's not defined with the
@@ -513,6 +513,15 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration {
         }
     }
 
+    /**
+     * {@inheritDoc} The values of this configuration are obtained from the current configuration. Therefore, this
+     * implementation always converts the value and does not make use of the cache for converted values.
+     */
+    @Override
+    protected <R> R getConvertedProperty(final Class<R> cls, final String key) {
+        return convertPropertyValue(cls, key, getProperty(key));
+    }
+
     /**
      * Gets the current configuration. This configuration was initialized at the beginning of an operation and stored in
      * a thread-local variable. Some methods of this class call this method directly without requesting a lock before. To
@@ -537,6 +546,15 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration {
         return config;
     }
 
+    /**
+     * {@inheritDoc} The content of this configuration depends on the value of a variable, which can change at any time;
+     * so this implementation returns <b>null</b>.
+     */
+    @Override
+    Object getDataVersion() {
+        return null;
+    }
+
     @Override
     public double getDouble(final String key) {
         return this.getCurrentConfig().getDouble(key);
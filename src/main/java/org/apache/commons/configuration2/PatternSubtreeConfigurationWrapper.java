@@ -208,6 +208,24 @@ public class PatternSubtreeConfigurationWrapper extends BaseHierarchicalConfigur
         return (BaseHierarchicalConfiguration) config.configurationAt(makePath());
     }
 
+    /**
+     * {@inheritDoc} The values of this configuration are obtained from the wrapped configuration. Therefore, this
+     * implementation always converts the value and does not make use of the cache for converted values.
+     */
+    @Override
+    protected <R> R getConvertedProperty(final Class<R> cls, final String key) {
+        return convertPropertyValue(cls, key, getProperty(key));
+    }
+
+    /**
+     * {@inheritDoc} The data of this configuration is stored in the wrapped configuration; therefore, this
+     * implementation returns the version of the wrapped configuration.
+     */
+    @Override
+    Object getDataVersion() {
+        return config instanceof AbstractConfiguration ? ((AbstractConfiguration) config).getDataVersion() : null;
+    }
+
     @Override
     public double getDouble(final String key) {
         return config.getDouble(makePath(key));
@@ -162,6 +162,25 @@ public class SubsetConfiguration extends AbstractConfiguration {
         return modifiedKey;
     }
 
+    /**
+     * {@inheritDoc} The values of this configuration are obtained from the parent configuration, which can be changed
+     * without this instance being notified. Therefore, this implementation always converts the value and does not make
+     * use of the cache for converted values.
+     */
+    @Override
+    protected <T> T getConvertedProperty(final Class<T> cls, final String key) {
+        return convertPropertyValue(cls, key, getProperty(key));
+    }
+
+    /**
+     * {@inheritDoc} The data of a subset is stored in the parent configuration; therefore, this implementation returns
+     * the version of the parent. If the parent does not provide version information, result is <b>null</b>.
+     */
+    @Override
+    Object getDataVersion() {
+        return parent instanceof AbstractConfiguration ? ((AbstractConfiguration) parent).getDataVersion() : null;
+    }
+
     @Override
     protected Iterator<String> getKeysInternal() {
         return new SubsetIterator(parent.getKeys(prefix, delimiter));
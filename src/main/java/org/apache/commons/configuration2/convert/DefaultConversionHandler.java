@@ -20,6 +20,8 @@ import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.configuration2.ex.ConversionException;
 import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
@@ -41,6 +43,13 @@ import org.apache.commons.lang3.ClassUtils;
  * implementation provided by this class tries to extract the first child element and then delegates to
  * {@code convertValue()} which does the actual conversion.
  * </p>
+ * <p>
+ * Single values are converted by {@link ValueConverter} objects which are selected based on the target class. For the
+ * standard data types, the converters provided by {@link PropertyConverter} are used. Applications can register
+ * additional converters for their own value types or replace the standard ones using
+ * {@link #registerConverter(Class, ValueConverter)}. Note that converters registered at the shared {@link #INSTANCE}
+ * affect all objects using this instance.
+ * </p>
  *
  * @since 2.0
  */
@@ -85,6 +94,9 @@ public class DefaultConversionHandler implements ConversionHandler {
     /** The default {@link ListDelimiterHandler} used for extracting values from complex objects. */
     private volatile ListDelimiterHandler listDelimiterHandler = DisabledListDelimiterHandler.INSTANCE;
 
+    /** Stores the converters registered by applications. */
+    private final Map<Class<?>, ValueConverter<?>> converters = new ConcurrentHashMap<>();
+
     /**
      * Performs the conversion from the passed in source object to the specified target class. This method is called for
      * each conversion to be done. The source object has already been passed to the {@link ConfigurationInterpolator}, so
@@ -181,6 +193,22 @@ public class DefaultConversionHandler implements ConversionHandler {
         return listDelimiterHandler.flatten(source, limit);
     }
 
+    /**
+     * Gets the converter used for conversions to the given target class. This is the converter registered for this class
+     * if any; otherwise, the built-in converter of {@link PropertyConverter} is returned.
+     *
+     * @param <T> the target type of the conversion
+     * @param targetCls the target class
+     * @return the converter for this class or <b>null</b> if conversions to this class are not supported
+     * @since 2.11.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ValueConverter<? extends T> getConverter(final Class<T> targetCls) {
+        // converters are registered with a matching target class
+        final ValueConverter<?> converter = converters.isEmpty() ? null : converters.get(targetCls);
+        return (ValueConverter<? extends T>) (converter != null ? converter : PropertyConverter.getConverter(targetCls));
+    }
+
     /**
      * Gets the date format used by this conversion handler.
      *
@@ -231,6 +259,40 @@ public class DefaultConversionHandler implements ConversionHandler {
         return src instanceof CharSequence && ((CharSequence) src).length() == 0;
     }
 
+    /**
+     * Registers a converter for the given target class. From now on, values to be converted to this class are passed to
+     * this converter. A converter registered for a class supported by {@link PropertyConverter} replaces the standard
+     * conversion. Note that the converter is only used for this exact class; so, for instance, converters for primitive
+     * types and their wrapper classes have to be registered separately.
+     *
+     * @param <T> the target type of the conversion
+     * @param targetCls the target class (must not be <b>null</b>)
+     * @param converter the converter (must not be <b>null</b>)
+     * @throws IllegalArgumentException if a required parameter is missing
+     * @since 2.11.0
+     */
+    public <T> void registerConverter(final Class<T> targetCls, final ValueConverter<? extends T> converter) {
+        if (targetCls == null) {
+            throw new IllegalArgumentException("Target class must not be null!");
+        }
+        if (converter == null) {
+            throw new IllegalArgumentException("Converter must not be null!");
+        }
+        converters.put(targetCls, converter);
+    }
+
+    /**
+     * Removes the converter registered for the given target class. Afterwards, the standard conversion is used for this
+     * class again if there is one.
+     *
+     * @param targetCls the target class
+     * @return a flag whether a converter was registered for this class
+     * @since 2.11.0
+     */
+    public boolean removeConverter(final Class<?> targetCls) {
+        return targetCls != null && converters.remove(targetCls) != null;
+    }
+
     /**
      * Sets the date format to be used by this conversion handler. This format is applied by conversions to {@code Date} or
      * {@code Calendar} objects. The string is passed to the {@link java.text.SimpleDateFormat} class, so it must be
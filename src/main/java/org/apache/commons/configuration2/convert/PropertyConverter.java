@@ -73,6 +73,14 @@ public final class PropertyConverter {
     /** The fully qualified name of {@code jakarta.mail.internet.InternetAddress}, as used in the javamail-2.0+ API. */
     private static final String INTERNET_ADDRESS_CLASSNAME_JAKARTA = "jakarta.mail.internet.InternetAddress";
 
+    /** Caches the built-in converters per target class. */
+    private static final ClassValue<ValueConverter<?>> CONVERTERS = new ClassValue<ValueConverter<?>>() {
+        @Override
+        protected ValueConverter<?> computeValue(final Class<?> type) {
+            return lookupConverter(type);
+        }
+    };
+
     /**
      * Converts a value to a constant of an enumeration class.
      *
@@ -87,86 +95,114 @@ public final class PropertyConverter {
     }
 
     /**
-     * Converts the specified value object to the given target data class. If additional
-     * information is required for this conversion, it is obtained from the passed in {@code DefaultConversionHandler}
-     * object. If the class is a primitive type (Integer.TYPE, Boolean.TYPE, etc), the value returned will use the wrapper
-     * type (Integer.class, Boolean.class, etc).
+     * Returns the built-in converter for the given target class. The chain of checks determining the converter is
+     * evaluated only once per class; the result is cached.
      *
-     * @param cls the target class of the converted value
-     * @param value the value to convert
-     * @param convHandler the conversion handler object
-     * @return the converted value
-     * @throws ConversionException if the value is not compatible with the requested type
+     * @param cls the target class
+     * @return the converter for this class or <b>null</b> if the class is not supported
+     * @since 2.11.0
      */
-    public static Object to(final Class<?> cls, final Object value, final DefaultConversionHandler convHandler) throws ConversionException {
-        if (cls.isInstance(value)) {
-            return value; // no conversion needed
-        }
+    static ValueConverter<?> getConverter(final Class<?> cls) {
+        return CONVERTERS.get(cls);
+    }
 
+    /**
+     * Determines the built-in converter for the given target class. If the class is a primitive type (Integer.TYPE,
+     * Boolean.TYPE, etc), the converter produces values of the wrapper type (Integer.class, Boolean.class, etc).
+     *
+     * @param cls the target class
+     * @return the converter for this class or <b>null</b> if the class is not supported
+     */
+    private static ValueConverter<?> lookupConverter(final Class<?> cls) {
         if (String.class.equals(cls)) {
-            return String.valueOf(value);
+            return (value, handler) -> String.valueOf(value);
         }
         if (Boolean.class.equals(cls) || Boolean.TYPE.equals(cls)) {
-            return toBoolean(value);
+            return (value, handler) -> toBoolean(value);
         }
         if (Character.class.equals(cls) || Character.TYPE.equals(cls)) {
-            return toCharacter(value);
+            return (value, handler) -> toCharacter(value);
         }
         if (Number.class.isAssignableFrom(cls) || cls.isPrimitive()) {
             if (Integer.class.equals(cls) || Integer.TYPE.equals(cls)) {
-                return toInteger(value);
+                return (value, handler) -> toInteger(value);
             }
             if (Long.class.equals(cls) || Long.TYPE.equals(cls)) {
-                return toLong(value);
+                return (value, handler) -> toLong(value);
             }
             if (Byte.class.equals(cls) || Byte.TYPE.equals(cls)) {
-                return toByte(value);
+                return (value, handler) -> toByte(value);
             }
             if (Short.class.equals(cls) || Short.TYPE.equals(cls)) {
-                return toShort(value);
+                return (value, handler) -> toShort(value);
             }
             if (Float.class.equals(cls) || Float.TYPE.equals(cls)) {
-                return toFloat(value);
+                return (value, handler) -> toFloat(value);
             }
             if (Double.class.equals(cls) || Double.TYPE.equals(cls)) {
-                return toDouble(value);
+                return (value, handler) -> toDouble(value);
             }
             if (BigInteger.class.equals(cls)) {
-                return toBigInteger(value);
+                return (value, handler) -> toBigInteger(value);
             }
             if (BigDecimal.class.equals(cls)) {
-                return toBigDecimal(value);
+                return (value, handler) -> toBigDecimal(value);
             }
         } else if (Date.class.equals(cls)) {
-            return toDate(value, convHandler.getDateFormat());
+            return (value, handler) -> toDate(value, handler.getDateFormat());
         } else if (Calendar.class.equals(cls)) {
-            return toCalendar(value, convHandler.getDateFormat());
+            return (value, handler) -> toCalendar(value, handler.getDateFormat());
         } else if (File.class.equals(cls)) {
-            return toFile(value);
+            return (value, handler) -> toFile(value);
         } else if (Path.class.equals(cls)) {
-            return toPath(value);
+            return (value, handler) -> toPath(value);
         } else if (URI.class.equals(cls)) {
-            return toURI(value);
+            return (value, handler) -> toURI(value);
         } else if (URL.class.equals(cls)) {
-            return toURL(value);
+            return (value, handler) -> toURL(value);
         } else if (Pattern.class.equals(cls)) {
-            return toPattern(value);
+            return (value, handler) -> toPattern(value);
         } else if (Locale.class.equals(cls)) {
-            return toLocale(value);
+            return (value, handler) -> toLocale(value);
         } else if (cls.isEnum()) {
-            return convertToEnum(cls, value);
+            return (value, handler) -> convertToEnum(cls, value);
         } else if (Color.class.equals(cls)) {
-            return toColor(value);
+            return (value, handler) -> toColor(value);
         } else if (cls.getName().equals(INTERNET_ADDRESS_CLASSNAME_JAVAX)) {
             // javamail-1.* With javax.mail.* namespace.
-            return toInternetAddress(value, INTERNET_ADDRESS_CLASSNAME_JAVAX);
+            return (value, handler) -> toInternetAddress(value, INTERNET_ADDRESS_CLASSNAME_JAVAX);
         } else if (cls.getName().equals(INTERNET_ADDRESS_CLASSNAME_JAKARTA)) {
             // javamail-2.0+, with jakarta.mail.* namespace.
-            return toInternetAddress(value, INTERNET_ADDRESS_CLASSNAME_JAKARTA);
+            return (value, handler) -> toInternetAddress(value, INTERNET_ADDRESS_CLASSNAME_JAKARTA);
         } else if (InetAddress.class.isAssignableFrom(cls)) {
-            return toInetAddress(value);
+            return (value, handler) -> toInetAddress(value);
         } else if (Duration.class.equals(cls)) {
-            return toDuration(value);
+            return (value, handler) -> toDuration(value);
+        }
+        return null;
+    }
+
+    /**
+     * Converts the specified value object to the given target data class. If additional
+     * information is required for this conversion, it is obtained from the passed in {@code DefaultConversionHandler}
+     * object. If the class is a primitive type (Integer.TYPE, Boolean.TYPE, etc), the value returned will use the wrapper
+     * type (Integer.class, Boolean.class, etc). Converters registered at the conversion handler take precedence over the
+     * built-in conversions.
+     *
+     * @param cls the target class of the converted value
+     * @param value the value to convert
+     * @param convHandler the conversion handler object
+     * @return the converted value
+     * @throws ConversionException if the value is not compatible with the requested type
+     */
+    public static Object to(final Class<?> cls, final Object value, final DefaultConversionHandler convHandler) throws ConversionException {
+        if (cls.isInstance(value)) {
+            return value; // no conversion needed
+        }
+
+        final ValueConverter<?> converter = convHandler != null ? convHandler.getConverter(cls) : getConverter(cls);
+        if (converter != null) {
+            return converter.convert(value, convHandler);
         }
 
         throw new ConversionException("The value '" + value + "' (" + value.getClass() + ")" + " can't be converted to a " + cls.getName() + " object");
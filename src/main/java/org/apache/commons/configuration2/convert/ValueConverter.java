@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.convert;
+
+import org.apache.commons.configuration2.ex.ConversionException;
+
+/**
+ * <p>
+ * Definition of an interface for objects that convert single values to a specific target type.
+ * </p>
+ * <p>
+ * {@link DefaultConversionHandler} maintains a registry of converters keyed by their target class. The standard
+ * conversions supported by {@link PropertyConverter} are provided as converters, too. Applications can register
+ * additional converters for their own value types using
+ * {@link DefaultConversionHandler#registerConverter(Class, ValueConverter)}.
+ * </p>
+ * <p>
+ * A converter is only invoked for values that are not already instances of the target class. The value passed to it is
+ * never <b>null</b>.
+ * </p>
+ *
+ * @param <T> the target type of the conversion
+ * @since 2.11.0
+ */
+@FunctionalInterface
+public interface ValueConverter<T> {
+    /**
+     * Converts the given value to the target type of this converter.
+     *
+     * @param value the value to be converted (not <b>null</b>)
+     * @param handler the conversion handler performing the conversion; it can be queried for additional settings like the
+     *        date format
+     * @return the converted value
+     * @throws ConversionException if the value cannot be converted
+     */
+    T convert(Object value, DefaultConversionHandler handler) throws ConversionException;
+}
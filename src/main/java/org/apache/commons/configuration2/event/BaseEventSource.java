@@ -199,7 +199,7 @@ public class BaseEventSource implements EventSource {
      * @param <T> the type of the event to be fired
      */
     protected <T extends ConfigurationEvent> void fireEvent(final EventType<T> type, final String propName, final Object propValue, final boolean before) {
-        if (checkDetailEvents(-1)) {
+        if (isFiringEvents()) {
             final EventListenerList.EventListenerIterator<T> it = eventListeners.getEventListenerIterator(type);
             if (it.hasNext()) {
                 final ConfigurationEvent event = createEvent(type, propName, propValue, before);
@@ -251,6 +251,17 @@ public class BaseEventSource implements EventSource {
         return checkDetailEvents(0);
     }
 
+    /**
+     * Returns a flag whether events are currently passed to the registered listeners. This is not the case if
+     * {@link #setDetailEvents(boolean)} has been called with <b>false</b> more often than with <b>true</b>.
+     *
+     * @return a flag whether events are fired
+     * @since 2.11.0
+     */
+    protected boolean isFiringEvents() {
+        return checkDetailEvents(-1);
+    }
+
     @Override
     public <T extends Event> boolean removeEventListener(final EventType<T> eventType, final EventListener<? super T> listener) {
         return eventListeners.removeEventListener(eventType, listener);
@@ -125,6 +125,14 @@ public class ConfigurationEvent extends Event {
      */
     public static final EventType<ConfigurationEvent> SUBNODE_CHANGED = new EventType<>(ANY_HIERARCHICAL, "SUBNODE_CHANGED");
 
+    /**
+     * Constant for the event type for a batch update operation. Events of this type are generated by hierarchical
+     * configurations when a batch of updates is applied at once. Property name and value of such events are undefined.
+     *
+     * @since 2.11.0
+     */
+    public static final EventType<ConfigurationEvent> BATCH_UPDATE = new EventType<>(ANY_HIERARCHICAL, "BATCH_UPDATE");
+
     /**
      * The serial version UID.
      */
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.interpol;
+
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A specialized {@link Lookup} which can report changes of the values of its variables.
+ * </p>
+ * <p>
+ * The results of interpolations can only be cached by a {@link ConfigurationInterpolator} if it is notified when the
+ * values of the variables they depend on change. Therefore, only variables resolved by lookups implementing this
+ * interface are considered for caching; the results of lookups whose values can change at any time - for instance the
+ * current date or environment variables - are always computed anew.
+ * </p>
+ *
+ * @see ConfigurationInterpolator#setCacheResults(boolean)
+ * @since 2.11.0
+ */
+public interface CacheableLookup extends Lookup {
+    /**
+     * Registers a listener to be notified when the value of a variable of this lookup changes. The listener is passed the
+     * name of the changed variable; this may also be a prefix of the names of multiple affected variables. Names are
+     * compared literally with the names passed to {@link #lookup(String)}; so if a variable can be referenced by
+     * different names, the listener has to be passed <b>null</b> instead, which means that the values of arbitrary
+     * variables may have changed. If this object cannot report changes, it must not register the listener and return
+     * <b>false</b>; its values are not cached then.
+     *
+     * @param listener the listener to be notified about changes
+     * @return a flag whether the listener could be registered
+     */
+    boolean addChangeListener(Consumer<String> listener);
+
+    /**
+     * Returns an object representing the current version of the values of this lookup. A cached result depending on this
+     * lookup is only used as long as this method returns the same object (compared by identity) as at the time the
+     * result was computed. This allows detecting changes that cannot be reported to the listeners registered via
+     * {@link #addChangeListener(Consumer)}. This default implementation returns <b>null</b>; so only the change listeners
+     * are taken into account.
+     *
+     * @return an object representing the current version of the values of this lookup
+     */
+    default Object getVersion() {
+        return null;
+    }
+
+    /**
+     * Removes a listener registered via {@link #addChangeListener(Consumer)}, so that it is no longer notified about
+     * changes. This method is called when the results depending on this lookup are no longer cached.
+     *
+     * @param listener the listener to be removed
+     * @return a flag whether the listener was found and removed
+     */
+    boolean removeChangeListener(Consumer<String> listener);
+}
@@ -16,11 +16,15 @@
  */
 package org.apache.commons.configuration2.interpol;
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -29,10 +33,11 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
-import org.apache.commons.text.StringSubstitutor;
-
 /**
  * <p>
  * A class that handles interpolation (variable substitution) for configuration objects.
@@ -42,8 +47,10 @@ import org.apache.commons.text.StringSubstitutor;
  * are delegated to this object.
  * </p>
  * <p>
- * {@code ConfigurationInterpolator} internally uses the {@code StringSubstitutor} class from
- * <a href="https://commons.apache.org/text">Commons Text</a>. Thus it supports the same syntax of variable expressions.
+ * {@code ConfigurationInterpolator} supports the same syntax of variable expressions as the {@code StringSubstitutor}
+ * class from <a href="https://commons.apache.org/text">Commons Text</a>. Strings containing variables are parsed once
+ * into a compiled form consisting of literal segments and variable references; the compiled forms of recently
+ * interpolated strings are kept, so that repeated interpolations of the same string do not have to parse it again.
  * </p>
  * <p>
  * The basic idea of this class is that it can maintain a set of primitive {@link Lookup} objects, each of which is
@@ -81,6 +88,12 @@ import org.apache.commons.text.StringSubstitutor;
  * {@code [1, 2, 3]}, then the string <code>"my value = ${x}"</code> will by default be interpolated to
  * {@code "my value = 1"}.
  * </p>
+ * <p><strong>Caching</strong></p>
+ * <p>
+ * Optionally, the results of interpolations can be cached; see {@link #setCacheResults(boolean)}. For each cached
+ * result, the variables it depends on are recorded, including variables referenced indirectly by the values of other
+ * variables. When the value of such a variable changes, only the results depending on it are removed from the cache.
+ * </p>
  * <p>
  * <strong>Implementation note:</strong> This class is thread-safe. Lookup objects can be added or removed at any time
  * concurrent to interpolation operations.
@@ -90,6 +103,198 @@ import org.apache.commons.text.StringSubstitutor;
  */
 public class ConfigurationInterpolator {
 
+    /**
+     * A cached result of an interpolation together with the variables it depends on and the versions of the lookups
+     * which resolved them.
+     */
+    private static final class CachedResult {
+        /** The result of the interpolation. */
+        private final Object value;
+
+        /** The variables the result depends on. */
+        private final Dependency[] dependencies;
+
+        /** The lookups the result depends on. */
+        private final CacheableLookup[] lookups;
+
+        /** The versions of the lookups at the time the result was computed. */
+        private final Object[] versions;
+
+        /**
+         * Creates a new instance of {@code CachedResult}.
+         *
+         * @param value the result of the interpolation
+         * @param tracker the tracker with the variables the result depends on
+         */
+        CachedResult(final Object value, final DependencyTracker tracker) {
+            this.value = value;
+            this.dependencies = tracker.dependencies.toArray(new Dependency[0]);
+            this.lookups = tracker.versions.keySet().toArray(new CacheableLookup[0]);
+            this.versions = new Object[lookups.length];
+            for (int i = 0; i < lookups.length; i++) {
+                versions[i] = tracker.versions.get(lookups[i]);
+            }
+        }
+
+        /**
+         * Checks whether this result is affected by a change of a variable of the given lookup.
+         *
+         * @param lookup the lookup reporting the change
+         * @param name the name of the changed variable (may be <b>null</b>)
+         * @return a flag whether this result is affected
+         */
+        boolean isAffectedBy(final CacheableLookup lookup, final String name) {
+            for (final Dependency dependency : dependencies) {
+                if (dependency.isAffectedBy(lookup, name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Checks whether the versions of all lookups this result depends on are still the same as at the time the result
+         * was computed.
+         *
+         * @return a flag whether this result is still valid
+         */
+        boolean isCurrent() {
+            for (int i = 0; i < lookups.length; i++) {
+                if (lookups[i].getVersion() != versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The listener registered at an observed {@link CacheableLookup}. It removes the results depending on a changed
+     * variable from the cache. The interpolator is only referenced weakly, so that a lookup outliving it does not keep
+     * it alive; if it has been garbage collected, the listener removes itself from the lookup.
+     */
+    private static final class ChangeListener implements Consumer<String> {
+        /** A reference to the owning interpolator. */
+        private final Reference<ConfigurationInterpolator> interpolator;
+
+        /** The observed lookup. */
+        private final CacheableLookup lookup;
+
+        /**
+         * Creates a new instance of {@code ChangeListener}.
+         *
+         * @param interpolator the owning interpolator
+         * @param lookup the observed lookup
+         */
+        ChangeListener(final ConfigurationInterpolator interpolator, final CacheableLookup lookup) {
+            this.interpolator = new WeakReference<>(interpolator);
+            this.lookup = lookup;
+        }
+
+        @Override
+        public void accept(final String name) {
+            final ConfigurationInterpolator ci = interpolator.get();
+            if (ci != null) {
+                ci.invalidateResults(lookup, name);
+            } else {
+                lookup.removeChangeListener(this);
+            }
+        }
+    }
+
+    /**
+     * A variable an interpolation result depends on. It consists of the lookup which resolved the variable and the name
+     * passed to this lookup.
+     */
+    private static final class Dependency {
+        /** The lookup. */
+        private final CacheableLookup lookup;
+
+        /** The name of the variable. */
+        private final String name;
+
+        /**
+         * Creates a new instance of {@code Dependency}.
+         *
+         * @param lookup the lookup
+         * @param name the name of the variable
+         */
+        Dependency(final CacheableLookup lookup, final String name) {
+            this.lookup = lookup;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Dependency)) {
+                return false;
+            }
+            final Dependency other = (Dependency) obj;
+            return lookup == other.lookup && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(lookup) + name.hashCode();
+        }
+
+        /**
+         * Checks whether this variable is affected by a change reported by the given lookup. As the name of a changed
+         * variable can refer to a whole group of variables (for instance a subtree of a hierarchical configuration), this
+         * is the case if one name is a prefix of the other one.
+         *
+         * @param changedLookup the lookup reporting the change
+         * @param changedName the name of the changed variable (may be <b>null</b>)
+         * @return a flag whether this variable is affected
+         */
+        boolean isAffectedBy(final CacheableLookup changedLookup, final String changedName) {
+            return lookup == changedLookup && (changedName == null || name.startsWith(changedName) || changedName.startsWith(name));
+        }
+    }
+
+    /**
+     * A helper class recording the variables resolved during an interpolation.
+     */
+    private static final class DependencyTracker {
+        /** The variables resolved so far. */
+        private final Set<Dependency> dependencies = new HashSet<>();
+
+        /** The versions of the lookups consulted so far. */
+        private final Map<CacheableLookup, Object> versions = new IdentityHashMap<>();
+
+        /** A flag whether a variable was resolved whose value cannot be cached. */
+        private boolean uncacheable;
+
+        /**
+         * Adds the dependencies recorded by another tracker to this object.
+         *
+         * @param other the other tracker
+         */
+        void addAll(final DependencyTracker other) {
+            dependencies.addAll(other.dependencies);
+            other.versions.forEach(this::addVersion);
+            uncacheable |= other.uncacheable;
+        }
+
+        /**
+         * Records the version of a lookup consulted during the interpolation. If the lookup has already been consulted
+         * with a different version, its values have changed during the interpolation; then the result cannot be cached.
+         *
+         * @param lookup the lookup
+         * @param version the current version of this lookup
+         */
+        void addVersion(final CacheableLookup lookup, final Object version) {
+            if (!versions.containsKey(lookup)) {
+                versions.put(lookup, version);
+            } else if (versions.get(lookup) != version) {
+                uncacheable = true;
+            }
+        }
+    }
+
     /**
      * Internal class used to construct the default {@link Lookup} map used by
      * {@link ConfigurationInterpolator#getDefaultPrefixLookups()}.
@@ -255,6 +460,14 @@ public class ConfigurationInterpolator {
     /** The length of {@link #VAR_END}. */
     private static final int VAR_END_LENGTH = VAR_END.length();
 
+    /** The maximum number of compiled templates kept by an instance. */
+    private static final int MAX_TEMPLATES = 4096;
+
+    /** A marker stored for lookups which cannot report changes of their variables. */
+    private static final Consumer<String> UNOBSERVED = name -> {
+        // no changes are reported
+    };
+
     /**
      * Creates a new instance based on the properties in the given specification object.
      *
@@ -428,8 +641,17 @@ public class ConfigurationInterpolator {
     /** Stores the default lookup objects. */
     private final List<Lookup> defaultLookups;
 
-    /** The helper object performing variable substitution. */
-    private final StringSubstitutor substitutor;
+    /** Stores the compiled templates of the strings interpolated so far. */
+    private final Map<String, InterpolationTemplate> templates;
+
+    /** The function resolving variables to strings; used when rendering templates. */
+    private final Function<String, String> variableResolver;
+
+    /** The function providing the templates of strings; used when rendering templates. */
+    private final Function<String, InterpolationTemplate> templateProvider;
+
+    /** A flag whether variable names can contain other variables. */
+    private volatile boolean enableSubstitutionInVariables;
 
     /** Stores a parent interpolator objects if the interpolator is nested hierarchically. */
     private volatile ConfigurationInterpolator parentInterpolator;
@@ -437,13 +659,47 @@ public class ConfigurationInterpolator {
     /** Function used to convert interpolated values to strings. */
     private volatile Function<Object, String> stringConverter = DefaultStringConverter.INSTANCE;
 
+    /** The cache for interpolation results; <b>null</b> if caching is disabled. */
+    private volatile Map<String, CachedResult> resultCache;
+
+    /** Records the variables resolved by the interpolation currently performed by a thread. */
+    private final ThreadLocal<DependencyTracker> dependencyTrackers = new ThreadLocal<>();
+
+    /**
+     * Stores the listeners registered at the lookups consulted so far; lookups that do not report changes are mapped to
+     * {@link #UNOBSERVED}.
+     */
+    private final Map<CacheableLookup, Consumer<String>> observedLookups = new ConcurrentHashMap<>();
+
+    /**
+     * Stores for each observed lookup the strings whose cached results may depend on it; so on a change only these
+     * results have to be checked. The sets may contain strings whose results have already been removed from the cache.
+     */
+    private final Map<CacheableLookup, Set<String>> cachedStringsByLookup = new ConcurrentHashMap<>();
+
+    /** A counter for invalidations of cached results; used to detect changes during an interpolation. */
+    private final AtomicLong resultCacheInvalidations = new AtomicLong();
+
+    /** The number of interpolations served from the result cache. */
+    private final LongAdder resultCacheHits = new LongAdder();
+
+    /** The number of interpolations that had to be performed although the result cache is enabled. */
+    private final LongAdder resultCacheMisses = new LongAdder();
+
     /**
      * Creates a new instance of {@code ConfigurationInterpolator}.
      */
     public ConfigurationInterpolator() {
         prefixLookups = new ConcurrentHashMap<>();
         defaultLookups = new CopyOnWriteArrayList<>();
-        substitutor = initSubstitutor();
+        templates = new ConcurrentHashMap<>();
+        variableResolver = key -> {
+            final Object value = resolve(key);
+            return value != null
+                ? stringConverter.apply(value)
+                : null;
+        };
+        templateProvider = this::getTemplate;
     }
 
     /**
@@ -456,6 +712,7 @@ public class ConfigurationInterpolator {
      */
     public void addDefaultLookup(final Lookup defaultLookup) {
         defaultLookups.add(defaultLookup);
+        clearResultCache();
     }
 
     /**
@@ -468,6 +725,24 @@ public class ConfigurationInterpolator {
     public void addDefaultLookups(final Collection<? extends Lookup> lookups) {
         if (lookups != null) {
             defaultLookups.addAll(lookups);
+            clearResultCache();
+        }
+    }
+
+    /**
+     * Removes all results from the cache for interpolation results. This method is called automatically when the set of
+     * lookups or another setting affecting interpolation is changed. If caching is disabled, it has no effect.
+     *
+     * @see #setCacheResults(boolean)
+     * @since 2.11.0
+     */
+    public void clearResultCache() {
+        final Map<String, CachedResult> cache = resultCache;
+        if (cache != null) {
+            resultCacheInvalidations.incrementAndGet();
+            // the strings are dropped first, so that a result added concurrently is either removed or recorded again
+            cachedStringsByLookup.clear();
+            cache.clear();
         }
     }
 
@@ -479,7 +754,10 @@ public class ConfigurationInterpolator {
      * @return a flag whether for this prefix a lookup object had been registered
      */
     public boolean deregisterLookup(final String prefix) {
-        return prefixLookups.remove(prefix) != null;
+        final Lookup lookup = prefixLookups.remove(prefix);
+        clearResultCache();
+        releaseLookup(lookup);
+        return lookup != null;
     }
 
     /**
@@ -524,6 +802,29 @@ public class ConfigurationInterpolator {
         return this.parentInterpolator;
     }
 
+    /**
+     * Gets the number of interpolations that could be served from the cache for interpolation results.
+     *
+     * @return the number of cache hits
+     * @see #setCacheResults(boolean)
+     * @since 2.11.0
+     */
+    public long getResultCacheHitCount() {
+        return resultCacheHits.sum();
+    }
+
+    /**
+     * Gets the number of interpolations of strings containing variables which had to be performed while the cache for
+     * interpolation results was enabled. This includes interpolations whose results cannot be cached.
+     *
+     * @return the number of cache misses
+     * @see #setCacheResults(boolean)
+     * @since 2.11.0
+     */
+    public long getResultCacheMissCount() {
+        return resultCacheMisses.sum();
+    }
+
     /** Gets the function used to convert interpolated values to strings.
      * @return function used to convert interpolated values to strings
      */
@@ -532,19 +833,23 @@ public class ConfigurationInterpolator {
     }
 
     /**
-     * Creates and initializes a {@code StringSubstitutor} object which is used for variable substitution. This
-     * {@code StringSubstitutor} is assigned a specialized lookup object implementing the correct variable resolving
-     * algorithm.
+     * Returns the compiled template for the given string. Templates are cached; if there is no template yet or the
+     * cached one has been compiled with a different setting for substitution in variables, the string is compiled now.
      *
-     * @return the {@code StringSubstitutor} used by this object
+     * @param strValue the string
+     * @return the template for this string
      */
-    private StringSubstitutor initSubstitutor() {
-        return new StringSubstitutor(key -> {
-            final Object value = resolve(key);
-            return value != null
-                ? stringConverter.apply(value)
-                : null;
-        });
+    private InterpolationTemplate getTemplate(final String strValue) {
+        final boolean substitutionInVariables = enableSubstitutionInVariables;
+        InterpolationTemplate template = templates.get(strValue);
+        if (template == null || template.isSubstitutionInVariables() != substitutionInVariables) {
+            template = InterpolationTemplate.compile(strValue, substitutionInVariables);
+            if (templates.size() >= MAX_TEMPLATES) {
+                templates.clear();
+            }
+            templates.put(strValue, template);
+        }
+        return template;
     }
 
     /**
@@ -574,19 +879,132 @@ public class ConfigurationInterpolator {
     public Object interpolate(final Object value) {
         if (value instanceof String) {
             final String strValue = (String) value;
-            if (isSingleVariable(strValue)) {
-                final Object resolvedValue = resolveSingleVariable(strValue);
-                if (resolvedValue != null && !(resolvedValue instanceof String)) {
-                    // If the value is again a string, it needs no special
-                    // treatment; it may also contain further variables which
-                    // must be resolved; therefore, the default mechanism is
-                    // applied.
-                    return resolvedValue;
+            final Map<String, CachedResult> cache = resultCache;
+            return cache != null && strValue.contains(VAR_START) ? interpolateCached(strValue, cache) : interpolateString(strValue);
+        }
+        return value;
+    }
+
+    /**
+     * Performs interpolation of the given string using the cache for interpolation results. If the string has already
+     * been interpolated, the cached result is returned. Otherwise, the string is interpolated, and the variables resolved
+     * during this operation are recorded. If all of them have been resolved by lookups reporting changes, the result is
+     * added to the cache.
+     *
+     * @param strValue the string to be interpolated
+     * @param cache the cache for interpolation results
+     * @return the interpolated value
+     */
+    private Object interpolateCached(final String strValue, final Map<String, CachedResult> cache) {
+        final CachedResult cachedResult = cache.get(strValue);
+        if (cachedResult != null) {
+            if (cachedResult.isCurrent()) {
+                resultCacheHits.increment();
+                return cachedResult.value;
+            }
+            cache.remove(strValue, cachedResult);
+        }
+
+        resultCacheMisses.increment();
+        final long invalidations = resultCacheInvalidations.get();
+        final DependencyTracker outerTracker = dependencyTrackers.get();
+        final DependencyTracker tracker = new DependencyTracker();
+        dependencyTrackers.set(tracker);
+        final Object result;
+        try {
+            result = interpolateString(strValue);
+        } finally {
+            if (outerTracker != null) {
+                dependencyTrackers.set(outerTracker);
+                outerTracker.addAll(tracker);
+            } else {
+                dependencyTrackers.remove();
+            }
+        }
+
+        if (result != null && !tracker.uncacheable) {
+            if (cache.size() >= MAX_TEMPLATES) {
+                clearResultCache();
+            }
+            final CachedResult newResult = new CachedResult(result, tracker);
+            cache.put(strValue, newResult);
+            for (final CacheableLookup lookup : newResult.lookups) {
+                final Set<String> strings = cachedStringsByLookup.computeIfAbsent(lookup, l -> ConcurrentHashMap.newKeySet());
+                strings.add(strValue);
+                if (strings.size() > MAX_TEMPLATES) {
+                    // the set contains strings whose results have been removed in the meantime
+                    clearResultCache();
                 }
             }
-            return substitutor.replace(strValue);
+            if (resultCacheInvalidations.get() != invalidations) {
+                // a variable may have changed during the interpolation
+                cache.remove(strValue, newResult);
+            }
         }
-        return value;
+        return result;
+    }
+
+    /**
+     * Performs interpolation of the given string without using the cache for interpolation results.
+     *
+     * @param strValue the string to be interpolated
+     * @return the interpolated value
+     */
+    private Object interpolateString(final String strValue) {
+        if (!strValue.contains(VAR_START)) {
+            return strValue;
+        }
+        if (isSingleVariable(strValue)) {
+            final Object resolvedValue = resolveSingleVariable(strValue);
+            if (resolvedValue != null && !(resolvedValue instanceof String)) {
+                // If the value is again a string, it needs no special
+                // treatment; it may also contain further variables which
+                // must be resolved; therefore, the default mechanism is
+                // applied.
+                return resolvedValue;
+            }
+        }
+        return getTemplate(strValue).render(variableResolver, templateProvider);
+    }
+
+    /**
+     * Removes all cached results depending on a variable of the given lookup. This method is called when the lookup
+     * reports a change. Only the results recorded for this lookup are checked; if no variable name is provided, all of
+     * them are removed.
+     *
+     * @param lookup the lookup
+     * @param name the name of the changed variable (may be <b>null</b>)
+     */
+    private void invalidateResults(final CacheableLookup lookup, final String name) {
+        resultCacheInvalidations.incrementAndGet();
+        final Map<String, CachedResult> cache = resultCache;
+        final Set<String> strings = cachedStringsByLookup.get(lookup);
+        if (cache != null && strings != null) {
+            for (final String str : strings) {
+                final CachedResult result = cache.get(str);
+                if (result == null || result.isAffectedBy(lookup, name)) {
+                    if (result != null) {
+                        cache.remove(str, result);
+                    }
+                    strings.remove(str);
+                    if (cache.containsKey(str)) {
+                        // a new result has been added concurrently
+                        strings.add(str);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a flag whether the results of interpolations are cached.
+     *
+     * @return a flag whether caching of interpolation results is enabled
+     * @see #setCacheResults(boolean)
+     * @since 2.11.0
+     */
+    public boolean isCacheResults() {
+        return resultCache != null;
     }
 
     /**
@@ -596,13 +1014,26 @@ public class ConfigurationInterpolator {
      * @return the substitution in variables flag
      */
     public boolean isEnableSubstitutionInVariables() {
-        return substitutor.isEnableSubstitutionInVariables();
+        return enableSubstitutionInVariables;
+    }
+
+    /**
+     * Checks whether the given lookup reports changes of its variables. When a lookup is consulted for the first time
+     * during a cached interpolation, a change listener is registered at it.
+     *
+     * @param lookup the lookup
+     * @return a flag whether changes of the lookup are observed
+     */
+    private boolean isObservedLookup(final CacheableLookup lookup) {
+        return observedLookups.computeIfAbsent(lookup, l -> {
+            final ChangeListener listener = new ChangeListener(this, l);
+            return l.addChangeListener(listener) ? listener : UNOBSERVED;
+        }) != UNOBSERVED;
     }
 
     /**
      * Checks whether a value to be interpolated consists of single, simple variable reference, e.g.,
-     * <code>${myvar}</code>. In this case, the variable is resolved directly without using the
-     * {@code StringSubstitutor}.
+     * <code>${myvar}</code>. In this case, the variable is resolved directly without using a template.
      *
      * @param strValue the value to be interpolated
      * @return {@code true} if the value contains a single, simple variable reference
@@ -637,7 +1068,9 @@ public class ConfigurationInterpolator {
         if (lookup == null) {
             throw new IllegalArgumentException("Lookup object must not be null!");
         }
-        prefixLookups.put(prefix, lookup);
+        final Lookup oldLookup = prefixLookups.put(prefix, lookup);
+        clearResultCache();
+        releaseLookup(oldLookup);
     }
 
     /**
@@ -650,7 +1083,22 @@ public class ConfigurationInterpolator {
      */
     public void registerLookups(final Map<String, ? extends Lookup> lookups) {
         if (lookups != null) {
-            prefixLookups.putAll(lookups);
+            final List<Lookup> oldLookups = new ArrayList<>();
+            lookups.forEach((prefix, lookup) -> oldLookups.add(prefixLookups.put(prefix, lookup)));
+            clearResultCache();
+            oldLookups.forEach(this::releaseLookup);
+        }
+    }
+
+    /**
+     * Removes the change listener registered at the given lookup if it has been observed and is no longer used by this
+     * object. This method is called when a lookup is removed.
+     *
+     * @param lookup the lookup (may be <b>null</b>)
+     */
+    private void releaseLookup(final Lookup lookup) {
+        if (lookup instanceof CacheableLookup && !prefixLookups.containsValue(lookup) && !defaultLookups.contains(lookup)) {
+            unobserveLookup((CacheableLookup) lookup);
         }
     }
 
@@ -661,7 +1109,12 @@ public class ConfigurationInterpolator {
      * @return a flag whether this {@code Lookup} object actually existed and was removed
      */
     public boolean removeDefaultLookup(final Lookup lookup) {
-        return defaultLookups.remove(lookup);
+        final boolean removed = defaultLookups.remove(lookup);
+        clearResultCache();
+        if (removed) {
+            releaseLookup(lookup);
+        }
+        return removed;
     }
 
     /**
@@ -679,17 +1132,21 @@ public class ConfigurationInterpolator {
             return null;
         }
 
+        final DependencyTracker tracker = resultCache != null ? dependencyTrackers.get() : null;
         final int prefixPos = var.indexOf(PREFIX_SEPARATOR);
         if (prefixPos >= 0) {
             final String prefix = var.substring(0, prefixPos);
             final String name = var.substring(prefixPos + 1);
-            final Object value = fetchLookupForPrefix(prefix).lookup(name);
+            final Lookup lookup = fetchLookupForPrefix(prefix);
+            trackDependency(tracker, lookup, name);
+            final Object value = lookup.lookup(name);
             if (value != null) {
                 return value;
             }
         }
 
         for (final Lookup lookup : defaultLookups) {
+            trackDependency(tracker, lookup, var);
             final Object value = lookup.lookup(var);
             if (value != null) {
                 return value;
@@ -698,6 +1155,10 @@ public class ConfigurationInterpolator {
 
         final ConfigurationInterpolator parent = getParentInterpolator();
         if (parent != null) {
+            if (tracker != null) {
+                // changes in the parent are not observed
+                tracker.uncacheable = true;
+            }
             return getParentInterpolator().resolve(var);
         }
         return null;
@@ -713,14 +1174,57 @@ public class ConfigurationInterpolator {
         return resolve(extractVariableName(strValue));
     }
 
+    /**
+     * Sets a flag whether the results of interpolations are cached. Per default, each string containing variables is
+     * interpolated anew whenever {@link #interpolate(Object)} is called; this means that all variables - and the variables
+     * contained in their values - are resolved again. If this flag is set to <b>true</b>, results are cached instead.
+     * <p>
+     * For each result, the variables resolved to produce it are recorded. Only results for which all variables have been
+     * resolved by {@link CacheableLookup} objects are cached; these lookups report changes of their variables, so that the
+     * results depending on them can be removed from the cache. This is the case for instance for a lookup querying a
+     * configuration which fires change events. Results involving other lookups - for instance for the current date or for
+     * environment variables - or the parent interpolator are not cached. The cache is also cleared when lookups are
+     * registered or removed, or when other settings of this object are changed.
+     * </p>
+     * <p>
+     * In order to be notified about changes, a listener is registered at each {@code CacheableLookup} consulted. It is
+     * removed again when the lookup is removed from this object or when caching is disabled. In addition, the version of
+     * each lookup (see {@link CacheableLookup#getVersion()}) is recorded with a result; a cached result is only used
+     * while the versions of all lookups it depends on are unchanged. For a lookup querying a configuration, this
+     * detects changes for which no events are fired, for instance while detail events are disabled (see
+     * {@link org.apache.commons.configuration2.event.BaseEventSource#setDetailEvents(boolean)}) or changes of the parent
+     * of a connected sub configuration.
+     * </p>
+     * <p>
+     * The number of cached results is limited; if the limit is reached, the cache is cleared.
+     * </p>
+     * <p>
+     * Note that a configuration creates a new {@code ConfigurationInterpolator} when its lookups are redefined, for
+     * instance via {@code setPrefixLookups()}; the flag has to be set again on the new instance then.
+     * </p>
+     *
+     * @param cacheResults a flag whether caching of interpolation results is enabled
+     * @since 2.11.0
+     */
+    public void setCacheResults(final boolean cacheResults) {
+        if (cacheResults != isCacheResults()) {
+            resultCache = cacheResults ? new ConcurrentHashMap<>() : null;
+            if (!cacheResults) {
+                observedLookups.keySet().forEach(this::unobserveLookup);
+            }
+        }
+    }
+
     /**
      * Sets the flag whether variable names can contain other variables. This flag corresponds to the
-     * {@code enableSubstitutionInVariables} property of the underlying {@code StringSubstitutor} object.
+     * {@code enableSubstitutionInVariables} property of the {@code StringSubstitutor} class from Commons Text.
      *
      * @param f the new value of the flag
      */
     public void setEnableSubstitutionInVariables(final boolean f) {
-        substitutor.setEnableSubstitutionInVariables(f);
+        enableSubstitutionInVariables = f;
+        templates.clear();
+        clearResultCache();
     }
 
     /**
@@ -731,6 +1235,7 @@ public class ConfigurationInterpolator {
      */
     public void setParentInterpolator(final ConfigurationInterpolator parentInterpolator) {
         this.parentInterpolator = parentInterpolator;
+        clearResultCache();
     }
 
     /** Sets the function used to convert interpolated values to strings. Pass
@@ -742,5 +1247,38 @@ public class ConfigurationInterpolator {
         this.stringConverter = stringConverter != null
                 ? stringConverter
                 : DefaultStringConverter.INSTANCE;
+        clearResultCache();
+    }
+
+    /**
+     * Records that the given lookup is consulted for a variable during the current interpolation.
+     *
+     * @param tracker the tracker for the current interpolation (may be <b>null</b> if dependencies are not tracked)
+     * @param lookup the lookup
+     * @param name the name of the variable passed to the lookup
+     */
+    private void trackDependency(final DependencyTracker tracker, final Lookup lookup, final String name) {
+        if (tracker != null) {
+            if (lookup instanceof CacheableLookup && isObservedLookup((CacheableLookup) lookup)) {
+                final CacheableLookup cacheableLookup = (CacheableLookup) lookup;
+                tracker.dependencies.add(new Dependency(cacheableLookup, name));
+                tracker.addVersion(cacheableLookup, cacheableLookup.getVersion());
+            } else {
+                tracker.uncacheable = true;
+            }
+        }
+    }
+
+    /**
+     * Removes the change listener registered at the given lookup and drops the data recorded for it.
+     *
+     * @param lookup the lookup
+     */
+    private void unobserveLookup(final CacheableLookup lookup) {
+        cachedStringsByLookup.remove(lookup);
+        final Consumer<String> listener = observedLookups.remove(lookup);
+        if (listener != null && listener != UNOBSERVED) {
+            lookup.removeChangeListener(listener);
+        }
     }
 }
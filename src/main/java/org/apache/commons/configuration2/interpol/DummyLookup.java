@@ -16,6 +16,8 @@
  */
 package org.apache.commons.configuration2.interpol;
 
+import java.util.function.Consumer;
+
 /**
  * <p>
  * A simple dummy {@code Lookup} implementation.
@@ -31,10 +33,20 @@ package org.apache.commons.configuration2.interpol;
  *
  * @since 2.0
  */
-public enum DummyLookup implements Lookup {
+public enum DummyLookup implements CacheableLookup {
     /** The single instance of this class. */
     INSTANCE;
 
+    /**
+     * {@inheritDoc} The values of this lookup never change; so no listener needs to be registered.
+     *
+     * @since 2.11.0
+     */
+    @Override
+    public boolean addChangeListener(final Consumer<String> listener) {
+        return true;
+    }
+
     /**
      * {@inheritDoc} This implementation always returns <b>null</b>.
      */
@@ -42,4 +54,14 @@ public enum DummyLookup implements Lookup {
     public Object lookup(final String variable) {
         return null;
     }
+
+    /**
+     * {@inheritDoc} As no listeners are registered, this implementation always returns <b>false</b>.
+     *
+     * @since 2.11.0
+     */
+    @Override
+    public boolean removeChangeListener(final Consumer<String> listener) {
+        return false;
+    }
 }
@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.interpol;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * A compiled form of a string containing variables.
+ * </p>
+ * <p>
+ * A template is created by parsing a string once into a sequence of literal segments and variable references. It can
+ * then be rendered any number of times without scanning the string again. The syntax is the one of the
+ * {@code StringSubstitutor} class from <a href="https://commons.apache.org/text">Commons Text</a> in its default
+ * configuration:
+ * </p>
+ * <ul>
+ * <li>Variables have the form <code>${name}</code>.</li>
+ * <li>A default value can be specified after the delimiter {@code :-}, as in <code>${name:-default}</code>.</li>
+ * <li>A variable reference preceded by the escape character {@code $} is not substituted; the escape character is
+ * removed if the reference is terminated by a suffix.</li>
+ * <li>The values of variables are again subject to substitution. Cyclic references cause an
+ * {@code IllegalStateException}.</li>
+ * <li>If substitution in variables is enabled, variable names can contain further variables, as in
+ * <code>${a.${b}}</code>, which are substituted before the name is resolved.</li>
+ * </ul>
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ *
+ * @since 2.11.0
+ */
+final class InterpolationTemplate {
+
+    /**
+     * A variable reference in a template.
+     */
+    private static final class Variable {
+        /** The text of the reference as it occurs in the source string. */
+        private final String text;
+
+        /** The template for the expression if it contains further variables to be substituted first. */
+        private final InterpolationTemplate expressionTemplate;
+
+        /** The name of the variable if the expression does not need to be substituted. */
+        private final String name;
+
+        /** The default value of the variable if the expression does not need to be substituted. */
+        private final String defaultValue;
+
+        /**
+         * Creates a new instance of {@code Variable}.
+         *
+         * @param text the text of the reference
+         * @param expression the expression between the variable prefix and suffix
+         * @param substitutionInVariables the flag whether substitution in variables is enabled
+         */
+        Variable(final String text, final String expression, final boolean substitutionInVariables) {
+            this.text = text;
+            if (substitutionInVariables && expression.contains(VAR_START)) {
+                expressionTemplate = compile(expression, true);
+                name = null;
+                defaultValue = null;
+            } else {
+                expressionTemplate = null;
+                final int delimiterPos = indexOfValueDelimiter(expression, substitutionInVariables);
+                name = delimiterPos < 0 ? expression : expression.substring(0, delimiterPos);
+                defaultValue = delimiterPos < 0 ? null : expression.substring(delimiterPos + VALUE_DELIMITER.length());
+            }
+        }
+    }
+
+    /** The variable prefix. */
+    static final String VAR_START = "${";
+
+    /** The variable suffix. */
+    private static final char VAR_END = '}';
+
+    /** The escape character for variables. */
+    private static final char ESCAPE = '$';
+
+    /** The delimiter between a variable name and its default value. */
+    private static final String VALUE_DELIMITER = ":-";
+
+    /** The number of characters reserved in the output buffer for the value of a variable. */
+    private static final int VARIABLE_LENGTH_ESTIMATE = 16;
+
+    /**
+     * Appends a text which is subject to substitution to the given buffer.
+     *
+     * @param buf the target buffer
+     * @param text the text
+     * @param variableResolver the function resolving variables
+     * @param templates the function providing the templates for texts containing variables
+     * @param priorVariables the variables substituted so far
+     */
+    private static void appendText(final StringBuilder buf, final String text, final Function<String, String> variableResolver,
+        final Function<String, InterpolationTemplate> templates, final List<String> priorVariables) {
+        if (text.contains(VAR_START)) {
+            templates.apply(text).appendTo(buf, variableResolver, templates, priorVariables);
+        } else {
+            buf.append(text);
+        }
+    }
+
+    /**
+     * Throws an exception if the given variable has already been substituted on the current path.
+     *
+     * @param name the name of the variable
+     * @param priorVariables the variables substituted so far; the first element is the source string
+     * @throws IllegalStateException if a cyclic reference is detected
+     */
+    private static void checkCyclicSubstitution(final String name, final List<String> priorVariables) {
+        if (priorVariables.contains(name)) {
+            final StringBuilder buf = new StringBuilder(256);
+            buf.append("Infinite loop in property interpolation of ").append(priorVariables.remove(0)).append(": ");
+            buf.append(String.join("->", priorVariables));
+            throw new IllegalStateException(buf.toString());
+        }
+    }
+
+    /**
+     * Compiles the given string into a template.
+     *
+     * @param source the string to be compiled
+     * @param substitutionInVariables the flag whether variable names can contain further variables
+     * @return the template for this string
+     */
+    static InterpolationTemplate compile(final String source, final boolean substitutionInVariables) {
+        final List<String> literals = new ArrayList<>();
+        final List<Variable> variables = new ArrayList<>();
+        final int length = source.length();
+        final StringBuilder literal = new StringBuilder();
+        boolean escaped = false;
+        int pos = 0;
+        while (pos < length) {
+            final int start = source.indexOf(VAR_START, pos);
+            if (start < 0) {
+                break;
+            }
+            literal.append(source, pos, start);
+            final int end = indexOfVariableEnd(source, start + VAR_START.length(), substitutionInVariables);
+            if (end < 0) {
+                // unterminated variable; the remaining text is not processed further
+                pos = start;
+                break;
+            }
+            if (start > 0 && source.charAt(start - 1) == ESCAPE) {
+                // an escaped variable; drop the escape character and keep the prefix as literal text
+                literal.setCharAt(literal.length() - 1, ESCAPE);
+                escaped = true;
+                pos = start + 1;
+                continue;
+            }
+
+            literals.add(literal.toString());
+            literal.setLength(0);
+            variables.add(new Variable(source.substring(start, end + 1), source.substring(start + VAR_START.length(), end),
+                substitutionInVariables));
+            pos = end + 1;
+        }
+        literal.append(source, pos, length);
+        literals.add(literal.toString());
+        return new InterpolationTemplate(source, literals.toArray(new String[0]), variables.toArray(new Variable[0]),
+            escaped, substitutionInVariables);
+    }
+
+    /**
+     * Returns the position of the delimiter for a default value in a variable expression.
+     *
+     * @param expression the expression
+     * @param substitutionInVariables the flag whether substitution in variables is enabled
+     * @return the position of the delimiter or -1 if there is none
+     */
+    private static int indexOfValueDelimiter(final String expression, final boolean substitutionInVariables) {
+        final int delimiterPos = expression.indexOf(VALUE_DELIMITER);
+        if (delimiterPos >= 0 && !substitutionInVariables) {
+            // a nested variable before the delimiter stops the search
+            final int nestedPos = expression.indexOf(VAR_START);
+            if (nestedPos >= 0 && nestedPos < delimiterPos) {
+                return -1;
+            }
+        }
+        return delimiterPos;
+    }
+
+    /**
+     * Returns the position of the suffix of a variable. If substitution in variables is enabled, nested variables are
+     * skipped.
+     *
+     * @param source the string
+     * @param pos the position after the variable prefix
+     * @param substitutionInVariables the flag whether substitution in variables is enabled
+     * @return the position of the variable suffix or -1 if the variable is not terminated
+     */
+    private static int indexOfVariableEnd(final String source, final int pos, final boolean substitutionInVariables) {
+        final int length = source.length();
+        int nestingLevel = 0;
+        int i = pos;
+        while (i < length) {
+            if (substitutionInVariables && source.startsWith(VAR_START, i)) {
+                nestingLevel++;
+                i += VAR_START.length();
+                continue;
+            }
+            if (source.charAt(i) == VAR_END) {
+                if (nestingLevel == 0) {
+                    return i;
+                }
+                nestingLevel--;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /** The string this template was compiled from. */
+    private final String source;
+
+    /** The literal segments; there is one more literal than variables, each of them may be empty. */
+    private final String[] literals;
+
+    /** The variables; each variable follows the literal with the same index. */
+    private final Variable[] variables;
+
+    /** A flag whether escape characters have been removed from the literals. */
+    private final boolean escaped;
+
+    /** The flag whether substitution in variables was enabled when this template was compiled. */
+    private final boolean substitutionInVariables;
+
+    /** The total length of the literal segments. */
+    private final int literalLength;
+
+    /**
+     * Creates a new instance of {@code InterpolationTemplate}.
+     *
+     * @param source the source string
+     * @param literals the literal segments
+     * @param variables the variables
+     * @param escaped the flag whether escape characters have been removed
+     * @param substitutionInVariables the flag whether substitution in variables is enabled
+     */
+    private InterpolationTemplate(final String source, final String[] literals, final Variable[] variables, final boolean escaped,
+        final boolean substitutionInVariables) {
+        this.source = source;
+        this.literals = literals;
+        this.variables = variables;
+        this.escaped = escaped;
+        this.substitutionInVariables = substitutionInVariables;
+        int len = 0;
+        for (final String literal : literals) {
+            len += literal.length();
+        }
+        literalLength = len;
+    }
+
+    /**
+     * Appends the result of this template to the given buffer. The values of variables containing further variables are
+     * rendered directly into the same buffer.
+     *
+     * @param buf the target buffer
+     * @param variableResolver the function resolving variables
+     * @param templates the function providing the templates for variable values
+     * @param priorVariables the variables substituted so far (may be <b>null</b> on the top level)
+     * @return a flag whether the result differs from the source string
+     */
+    private boolean appendTo(final StringBuilder buf, final Function<String, String> variableResolver,
+        final Function<String, InterpolationTemplate> templates, List<String> priorVariables) {
+        final int start = buf.length();
+        boolean altered = escaped;
+        for (int i = 0; i < variables.length; i++) {
+            buf.append(literals[i]);
+            final Variable variable = variables[i];
+            if (buf.length() > start && buf.charAt(buf.length() - 1) == ESCAPE) {
+                // the value of a preceding variable ends with the escape character; so this variable is escaped
+                buf.setLength(buf.length() - 1);
+                buf.append(VAR_START);
+                appendText(buf, variable.text.substring(VAR_START.length()), variableResolver, templates, priorVariables);
+                continue;
+            }
+            final String name;
+            String defaultValue = null;
+            if (variable.expressionTemplate != null) {
+                final String expression = variable.expressionTemplate.render(variableResolver, templates);
+                final int delimiterPos = indexOfValueDelimiter(expression, true);
+                name = delimiterPos < 0 ? expression : expression.substring(0, delimiterPos);
+                if (delimiterPos >= 0) {
+                    defaultValue = expression.substring(delimiterPos + VALUE_DELIMITER.length());
+                }
+            } else {
+                name = variable.name;
+                defaultValue = variable.defaultValue;
+            }
+
+            if (priorVariables == null) {
+                priorVariables = new ArrayList<>();
+                priorVariables.add(source);
+            }
+            checkCyclicSubstitution(name, priorVariables);
+            priorVariables.add(name);
+
+            String value = variableResolver.apply(name);
+            if (value == null) {
+                value = defaultValue;
+            }
+            if (value != null) {
+                altered = true;
+                appendText(buf, value, variableResolver, templates, priorVariables);
+            } else {
+                buf.append(variable.text);
+            }
+            priorVariables.remove(priorVariables.size() - 1);
+        }
+        buf.append(literals[variables.length]);
+        return altered;
+    }
+
+    /**
+     * Returns the string this template was compiled from.
+     *
+     * @return the source string
+     */
+    String getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the flag whether substitution in variables was enabled when this template was compiled.
+     *
+     * @return the substitution in variables flag
+     */
+    boolean isSubstitutionInVariables() {
+        return substitutionInVariables;
+    }
+
+    /**
+     * Renders this template. Variables are resolved using the given function; variables which cannot be resolved remain
+     * in the result unchanged. If variable values contain further variables, they are rendered using the templates
+     * provided by the given function. If the result does not differ from the source string, the source string is
+     * returned.
+     *
+     * @param variableResolver the function resolving variables; it returns <b>null</b> for unknown variables
+     * @param templates the function providing the templates for variable values
+     * @return the result of the substitution
+     * @throws IllegalStateException if a cyclic variable reference is detected
+     */
+    String render(final Function<String, String> variableResolver, final Function<String, InterpolationTemplate> templates) {
+        if (variables.length == 0) {
+            return escaped ? literals[0] : source;
+        }
+        final StringBuilder buf = new StringBuilder(literalLength + variables.length * VARIABLE_LENGTH_ESTIMATE);
+        return appendTo(buf, variableResolver, templates, null) ? buf.toString() : source;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.sync;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * A special implementation of {@code Synchronizer} based on the JDK's {@code StampedLock} class which supports
+ * optimistic reads.
+ * </p>
+ * <p>
+ * Read operations executed via {@link #read(Supplier)} do not acquire a lock. They merely obtain a stamp from the lock
+ * when they start and validate it when they end. So, concurrent readers do not write to shared memory and do not
+ * contend with each other. If an update happened in the meantime, the result is discarded, and the operation is
+ * repeated with a read lock. This is beneficial for configurations that are read frequently by many threads, but
+ * updated rarely.
+ * </p>
+ * <p>
+ * As optimistic reads run concurrently to updates, configurations only execute their basic read operations, like
+ * {@code getProperty()}, via {@code read()} if their data can be read safely during an update. This is the case for
+ * hierarchical configurations based on {@link org.apache.commons.configuration2.tree.InMemoryNodeModel InMemoryNodeModel}
+ * because their nodes are immutable. Other configurations, for instance
+ * {@link org.apache.commons.configuration2.BaseConfiguration BaseConfiguration}, which stores its data in a
+ * {@code LinkedHashMap}, acquire a read lock for each read operation.
+ * </p>
+ * <p>
+ * Calls of {@link #beginRead()} and {@link #endRead()} outside of {@code read()}, e.g. by code that locks a
+ * configuration explicitly to perform multiple operations, acquire a read lock. Write operations always acquire the
+ * exclusive write lock. In contrast to {@code StampedLock}, read and write operations can be nested; a thread holding
+ * the write lock can also perform read operations. Like with {@link ReadWriteSynchronizer}, a thread holding a read
+ * lock must not start a write operation.
+ * </p>
+ *
+ * @since 2.11.0
+ */
+public class StampedLockSynchronizer implements Synchronizer {
+
+    /**
+     * Stores the state of a thread with regard to this synchronizer.
+     */
+    private static final class ThreadState {
+        /** The nesting level of read operations. */
+        private int readDepth;
+
+        /** The stamp of the outermost read operation; 0 if it is covered by the write lock of this thread. */
+        private long readStamp;
+
+        /** A flag whether the stamp of the outermost read operation was obtained by an optimistic read. */
+        private boolean optimisticRead;
+
+        /** A flag whether the thread is executing an operation passed to {@code read()}. */
+        private boolean optimisticReadsAllowed;
+
+        /** A flag whether an optimistic read of the current operation could not be validated. */
+        private boolean invalidated;
+
+        /** The nesting level of write operations. */
+        private int writeDepth;
+
+        /** The stamp of the write lock. */
+        private long writeStamp;
+    }
+
+    /** The lock object used by this Synchronizer. */
+    private final StampedLock lock = new StampedLock();
+
+    /** Stores the state of the threads accessing this synchronizer. */
+    private final ThreadLocal<ThreadState> threadStates = ThreadLocal.withInitial(ThreadState::new);
+
+    /**
+     * {@inheritDoc} If the current thread is executing an operation passed to {@link #read(Supplier)}, this
+     * implementation performs an optimistic read. Otherwise, a read lock is acquired unless the thread already holds the
+     * write lock.
+     */
+    @Override
+    public void beginRead() {
+        final ThreadState state = threadStates.get();
+        if (state.readDepth++ > 0) {
+            return;
+        }
+        if (state.writeDepth > 0) {
+            state.readStamp = 0;
+            return;
+        }
+        if (state.optimisticReadsAllowed) {
+            final long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                state.readStamp = stamp;
+                state.optimisticRead = true;
+                return;
+            }
+        }
+        state.readStamp = lock.readLock();
+        state.optimisticRead = false;
+    }
+
+    @Override
+    public void beginWrite() {
+        final ThreadState state = threadStates.get();
+        if (state.writeDepth++ == 0) {
+            state.writeStamp = lock.writeLock();
+        }
+    }
+
+    /**
+     * {@inheritDoc} If the read operation was an optimistic one, this implementation validates it.
+     *
+     * @throws IllegalMonitorStateException if the current thread has not started a read operation
+     */
+    @Override
+    public void endRead() {
+        final ThreadState state = threadStates.get();
+        if (state.readDepth <= 0) {
+            throw new IllegalMonitorStateException("No read operation in progress!");
+        }
+        if (--state.readDepth > 0 || state.readStamp == 0) {
+            return;
+        }
+        if (state.optimisticRead) {
+            if (!lock.validate(state.readStamp)) {
+                state.invalidated = true;
+            }
+        } else {
+            lock.unlockRead(state.readStamp);
+        }
+        state.readStamp = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalMonitorStateException if the current thread has not started a write operation
+     */
+    @Override
+    public void endWrite() {
+        final ThreadState state = threadStates.get();
+        if (state.writeDepth <= 0) {
+            throw new IllegalMonitorStateException("No write operation in progress!");
+        }
+        if (--state.writeDepth == 0) {
+            lock.unlockWrite(state.writeStamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc} This implementation executes the operation with optimistic reads. If one of them cannot be validated
+     * because a write operation happened concurrently, the result of the operation - or an exception thrown by it - is
+     * discarded, and the operation is executed again using read locks. If the current thread is already performing a
+     * read or write operation, the operation is executed directly.
+     */
+    @Override
+    public <T> T read(final Supplier<T> operation) {
+        final ThreadState state = threadStates.get();
+        if (state.optimisticReadsAllowed || state.readDepth > 0 || state.writeDepth > 0) {
+            return operation.get();
+        }
+
+        state.optimisticReadsAllowed = true;
+        state.invalidated = false;
+        try {
+            final T result = operation.get();
+            if (!state.invalidated) {
+                return result;
+            }
+        } catch (final RuntimeException e) {
+            if (!state.invalidated) {
+                throw e;
+            }
+        } finally {
+            state.optimisticReadsAllowed = false;
+        }
+        // the data was updated concurrently; so repeat with a read lock
+        return operation.get();
+    }
+}
@@ -16,6 +16,8 @@
  */
 package org.apache.commons.configuration2.sync;
 
+import java.util.function.Supplier;
+
 /**
  * <p>
  * An interface controlling synchronization of configuration instances.
@@ -69,4 +71,20 @@ public interface Synchronizer {
      * waiting threads to be granted access to the managed configuration.
      */
     void endWrite();
+
+    /**
+     * Executes a read operation which obtains its result between calls of {@link #beginRead()} and {@link #endRead()}.
+     * This method allows implementations to execute read operations without locking, e.g. based on optimistic reads.
+     * For this purpose, an implementation may run the operation multiple times and discard results obtained while the
+     * managed configuration was updated concurrently. Therefore, the operation must be repeatable, and it must tolerate
+     * concurrent updates of the data it accesses. This default implementation executes the operation once.
+     *
+     * @param <T> the type of the result
+     * @param operation the read operation to execute
+     * @return the result of the operation
+     * @since 2.11.0
+     */
+    default <T> T read(final Supplier<T> operation) {
+        return operation.get();
+    }
 }
@@ -19,6 +19,7 @@ package org.apache.commons.configuration2.tree;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -44,6 +45,28 @@ abstract class AbstractImmutableNodeHandler implements NodeHandler<ImmutableNode
         return node.getValue() != null || !node.getChildren().isEmpty() || !node.getAttributes().isEmpty();
     }
 
+    /**
+     * Tries to obtain the children of a node matching the given criterion from the name index of the node. This is
+     * possible for the standard matchers on node names. If the matcher is not supported, result is <b>null</b>.
+     *
+     * @param node the parent node
+     * @param matcher the matcher
+     * @param criterion the criterion
+     * @param <C> the type of the criterion
+     * @return a list with the matching children or <b>null</b> if the name index cannot be used
+     */
+    private static <C> List<ImmutableNode> getIndexedChildren(final ImmutableNode node, final NodeMatcher<C> matcher, final C criterion) {
+        if (criterion instanceof String) {
+            if (matcher == NodeNameMatchers.EQUALS) {
+                return node.getChildrenByName((String) criterion);
+            }
+            if (matcher == NodeNameMatchers.EQUALS_IGNORE_CASE) {
+                return node.getChildrenByNameIgnoreCase((String) criterion);
+            }
+        }
+        return null;
+    }
+
     @Override
     public Set<String> getAttributes(final ImmutableNode node) {
         return node.getAttributes().keySet();
@@ -82,15 +105,35 @@ abstract class AbstractImmutableNodeHandler implements NodeHandler<ImmutableNode
 
     /**
      * {@inheritDoc} This implementation returns an immutable list with all child nodes accepted by the specified matcher.
+     * For the matchers defined by {@link NodeNameMatchers} the name index of the node is used, so no scan over all child
+     * nodes is necessary.
      */
+    /**
+     * {@inheritDoc} This implementation caches the converted value in the passed in node. As nodes are immutable, a
+     * changed value is stored in a new node which starts with an empty cache.
+     */
+    @Override
+    public <R> R getConvertedValue(final ImmutableNode node, final Class<R> type, final Object conversion,
+        final Function<Object, ? extends R> converter) {
+        return node.getConvertedValue(type, conversion, converter);
+    }
+
     @Override
     public <C> List<ImmutableNode> getMatchingChildren(final ImmutableNode node, final NodeMatcher<C> matcher, final C criterion) {
+        final List<ImmutableNode> indexedChildren = getIndexedChildren(node, matcher, criterion);
+        if (indexedChildren != null) {
+            return indexedChildren;
+        }
         return Collections.unmodifiableList(node.stream().filter(c -> matcher.matches(c, this, criterion)).collect(Collectors.toList()));
     }
 
     @Override
     public <C> int getMatchingChildrenCount(final ImmutableNode node, final NodeMatcher<C> matcher, final C criterion) {
-        return getMatchingChildren(node, matcher, criterion).size();
+        final List<ImmutableNode> indexedChildren = getIndexedChildren(node, matcher, criterion);
+        if (indexedChildren != null) {
+            return indexedChildren.size();
+        }
+        return (int) node.stream().filter(c -> matcher.matches(c, this, criterion)).count();
     }
 
     @Override
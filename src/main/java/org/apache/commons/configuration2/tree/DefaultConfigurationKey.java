@@ -16,7 +16,9 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.apache.commons.lang3.StringUtils;
@@ -66,6 +68,28 @@ public class DefaultConfigurationKey {
         /** Stores a flag if the actual property is an attribute. */
         private boolean attribute;
 
+        /** The pre-parsed key to iterate over; <b>null</b> if the key buffer is parsed. */
+        private final ParsedKey parsedKey;
+
+        /** The index of the next part of the pre-parsed key. */
+        private int partIndex;
+
+        /**
+         * Creates a new instance of {@code KeyIterator} which parses the associated key.
+         */
+        public KeyIterator() {
+            this(null);
+        }
+
+        /**
+         * Creates a new instance of {@code KeyIterator} which iterates over the parts of the given pre-parsed key.
+         *
+         * @param parsed the pre-parsed key (may be <b>null</b>, then the associated key is parsed)
+         */
+        KeyIterator(final ParsedKey parsed) {
+            parsedKey = parsed;
+        }
+
         /**
          * Helper method for checking if the passed key is an attribute. If this is the case, the internal fields will be set.
          *
@@ -144,6 +168,18 @@ public class DefaultConfigurationKey {
             return decorated && !isPropertyKey() ? constructAttributeKey(current) : current;
         }
 
+        /**
+         * Returns the current key of the iteration in a case-folded form as produced by {@link ImmutableNode#foldCase(String)}.
+         * This is an equivalent of {@code currentKey()} for case-insensitive lookups of child nodes: as the folded names of
+         * pre-parsed keys are computed only once, they do not have to be transformed again for each query. If this iterator
+         * does not operate on a pre-parsed key, the current key is returned unchanged.
+         *
+         * @return the current key, case-folded if possible
+         */
+        String currentFoldedKey() {
+            return parsedKey != null ? parsedKey.foldedNames[partIndex - 1] : current;
+        }
+
         /**
          * Checks if a delimiter at the specified position is escaped. If this is the case, the next valid search position will
          * be returned. Otherwise the return value is -1.
@@ -234,7 +270,7 @@ public class DefaultConfigurationKey {
          */
         @Override
         public boolean hasNext() {
-            return endIndex < keyBuffer.length();
+            return parsedKey != null ? partIndex < parsedKey.size() : endIndex < keyBuffer.length();
         }
 
         /**
@@ -332,6 +368,15 @@ public class DefaultConfigurationKey {
                 throw new NoSuchElementException("No more key parts!");
             }
 
+            if (parsedKey != null) {
+                current = parsedKey.names[partIndex];
+                hasIndex = parsedKey.indexFlags[partIndex];
+                indexValue = parsedKey.indices[partIndex];
+                attribute = parsedKey.attributeFlags[partIndex];
+                partIndex++;
+                return currentKey(decorated);
+            }
+
             hasIndex = false;
             indexValue = -1;
             final String key = findNextIndices();
@@ -373,6 +418,91 @@ public class DefaultConfigurationKey {
         }
     }
 
+    /**
+     * An immutable representation of a configuration key which has already been split into its parts. For each part the
+     * name, the index, and the attribute flag are stored, so that iterating over the key does not require parsing it again.
+     * Instances are created by {@link DefaultConfigurationKey#parse()} and can be shared between threads.
+     */
+    static final class ParsedKey {
+        /** The key this object was created from. */
+        private final DefaultConfigurationKey key;
+
+        /** The names of the key parts. */
+        private final String[] names;
+
+        /** The case-folded names of the key parts. */
+        private final String[] foldedNames;
+
+        /** The indices of the key parts. */
+        private final int[] indices;
+
+        /** The flags whether the key parts have an index. */
+        private final boolean[] indexFlags;
+
+        /** The flags whether the key parts are attributes. */
+        private final boolean[] attributeFlags;
+
+        /**
+         * Creates a new instance of {@code ParsedKey} and parses the given key.
+         *
+         * @param key the key to be parsed
+         */
+        private ParsedKey(final DefaultConfigurationKey key) {
+            this.key = key;
+            final List<String> partNames = new ArrayList<>();
+            final List<KeyIterator> parts = new ArrayList<>();
+            final KeyIterator it = key.iterator();
+            while (it.hasNext()) {
+                partNames.add(it.nextKey());
+                parts.add((KeyIterator) it.clone());
+            }
+
+            names = partNames.toArray(new String[0]);
+            foldedNames = new String[names.length];
+            indices = new int[names.length];
+            indexFlags = new boolean[names.length];
+            attributeFlags = new boolean[names.length];
+            for (int i = 0; i < names.length; i++) {
+                final KeyIterator part = parts.get(i);
+                indices[i] = part.getIndex();
+                indexFlags[i] = part.hasIndex();
+                attributeFlags[i] = part.attribute;
+                foldedNames[i] = foldName(names[i]);
+            }
+        }
+
+        /**
+         * Returns the case-folded form of the given key part. The folded name is used only if it is still equal to the
+         * original name ignoring case; otherwise, a lookup with the folded name might yield different results, and the
+         * original name is returned.
+         *
+         * @param name the name of the key part
+         * @return the name to be used for case-insensitive lookups
+         */
+        private static String foldName(final String name) {
+            final String folded = ImmutableNode.foldCase(name);
+            return name.equalsIgnoreCase(folded) ? folded : name;
+        }
+
+        /**
+         * Returns a new iterator over the parts of this key.
+         *
+         * @return the iterator
+         */
+        public KeyIterator iterator() {
+            return key.new KeyIterator(this);
+        }
+
+        /**
+         * Gets the number of parts of this key.
+         *
+         * @return the number of key parts
+         */
+        public int size() {
+            return names.length;
+        }
+    }
+
     /** Constant for the initial StringBuffer size. */
     private static final int INITIAL_SIZE = 32;
 
@@ -688,6 +818,17 @@ public class DefaultConfigurationKey {
         return keyBuffer.length();
     }
 
+    /**
+     * Splits this key into its parts and returns an immutable object storing them. Iterators obtained from the result
+     * behave like the ones returned by {@link #iterator()}, but the key does not have to be parsed again. Later changes on
+     * this key are not reflected by the result.
+     *
+     * @return the parsed representation of this key
+     */
+    ParsedKey parse() {
+        return new ParsedKey(new DefaultConfigurationKey(getExpressionEngine(), toString()));
+    }
+
     /**
      * Helper method for removing attribute markers from a key.
      *
@@ -16,11 +16,20 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.mutable.MutableInt;
 
 /**
  * <p>
@@ -94,6 +103,13 @@ import org.apache.commons.lang3.StringUtils;
  * configuration can be altered.
  * </p>
  * <p>
+ * Parsing a key into its single parts is a relatively expensive operation. As applications typically access the same
+ * keys over and over again, an instance keeps a cache with keys that have already been parsed. The maximum number of
+ * keys in this cache can be specified when creating an instance; a value of 0 disables caching. If the cache is full,
+ * it is cleared, so that it adapts to the keys currently in use. The number of hits and misses of the cache can be
+ * queried for monitoring purposes.
+ * </p>
+ * <p>
  * Instances of this class are thread-safe and can be shared between multiple hierarchical configuration objects.
  * </p>
  *
@@ -105,12 +121,31 @@ public class DefaultExpressionEngine implements ExpressionEngine {
      */
     public static final DefaultExpressionEngine INSTANCE = new DefaultExpressionEngine(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS);
 
+    /**
+     * Constant for the default maximum number of keys stored in the cache for parsed keys.
+     *
+     * @since 2.11.0
+     */
+    public static final int DEFAULT_KEY_CACHE_SIZE = 4096;
+
     /** The symbols used by this instance. */
     private final DefaultExpressionEngineSymbols symbols;
 
     /** The matcher for node names. */
     private final NodeMatcher<String> nameMatcher;
 
+    /** The cache for keys that have already been parsed. */
+    private final Map<String, DefaultConfigurationKey.ParsedKey> keyCache;
+
+    /** The maximum number of keys in the cache. */
+    private final int keyCacheSize;
+
+    /** The number of cache hits. */
+    private final LongAdder keyCacheHits;
+
+    /** The number of cache misses. */
+    private final LongAdder keyCacheMisses;
+
     /**
      * Creates a new instance of {@code DefaultExpressionEngine} and initializes its symbols.
      *
@@ -131,12 +166,33 @@ public class DefaultExpressionEngine implements ExpressionEngine {
      * @throws IllegalArgumentException if the symbols are <b>null</b>
      */
     public DefaultExpressionEngine(final DefaultExpressionEngineSymbols syms, final NodeMatcher<String> nodeNameMatcher) {
+        this(syms, nodeNameMatcher, DEFAULT_KEY_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new instance of {@code DefaultExpressionEngine} and initializes its symbols, the matcher for comparing node
+     * names, and the size of the cache for parsed keys.
+     *
+     * @param syms the object with the symbols (must not be <b>null</b>)
+     * @param nodeNameMatcher the matcher for node names; can be <b>null</b>, then a default matcher is used
+     * @param cacheSize the maximum number of keys in the cache for parsed keys; 0 disables caching
+     * @throws IllegalArgumentException if the symbols are <b>null</b> or the cache size is negative
+     * @since 2.11.0
+     */
+    public DefaultExpressionEngine(final DefaultExpressionEngineSymbols syms, final NodeMatcher<String> nodeNameMatcher, final int cacheSize) {
         if (syms == null) {
             throw new IllegalArgumentException("Symbols must not be null!");
         }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + cacheSize);
+        }
 
         symbols = syms;
         nameMatcher = nodeNameMatcher != null ? nodeNameMatcher : NodeNameMatchers.EQUALS;
+        keyCacheSize = cacheSize;
+        keyCache = new ConcurrentHashMap<>();
+        keyCacheHits = new LongAdder();
+        keyCacheMisses = new LongAdder();
     }
 
     @Override
@@ -146,6 +202,33 @@ public class DefaultExpressionEngine implements ExpressionEngine {
         return key.toString();
     }
 
+    /**
+     * {@inheritDoc} This implementation determines the indices of the child nodes in a single pass by counting the
+     * occurrences of each node name. This is possible for the standard matchers defined by {@link NodeNameMatchers}. For
+     * other matchers, {@code canonicalKey()} is called for each child node.
+     */
+    @Override
+    public <T> List<String> canonicalChildKeys(final T parent, final String parentKey, final NodeHandler<T> handler) {
+        final UnaryOperator<String> nameTransformer;
+        if (nameMatcher == NodeNameMatchers.EQUALS) {
+            nameTransformer = UnaryOperator.identity();
+        } else if (nameMatcher == NodeNameMatchers.EQUALS_IGNORE_CASE) {
+            nameTransformer = ImmutableNode::foldCase;
+        } else {
+            return ExpressionEngine.super.canonicalChildKeys(parent, parentKey, handler);
+        }
+
+        final List<T> children = handler.getChildren(parent);
+        final List<String> keys = new ArrayList<>(children.size());
+        final Map<String, MutableInt> counters = new HashMap<>();
+        children.forEach(child -> {
+            final String nodeName = handler.nodeName(child);
+            final MutableInt counter = counters.computeIfAbsent(nameTransformer.apply(nodeName), k -> new MutableInt());
+            keys.add(createCanonicalKey(parentKey, nodeName, counter.getAndIncrement()));
+        });
+        return keys;
+    }
+
     /**
      * {@inheritDoc} This implementation works similar to {@code nodeKey()}; however, each key returned by this method has
      * an index (except for the root node). The parent key is prepended to the name of the current node in any case and
@@ -155,13 +238,27 @@ public class DefaultExpressionEngine implements ExpressionEngine {
     public <T> String canonicalKey(final T node, final String parentKey, final NodeHandler<T> handler) {
         final String nodeName = handler.nodeName(node);
         final T parent = handler.getParent(node);
-        final DefaultConfigurationKey key = new DefaultConfigurationKey(this, parentKey);
-        key.append(StringUtils.defaultString(nodeName));
-
         if (parent != null) {
             // this is not the root key
-            key.appendIndex(determineIndex(node, parent, nodeName, handler));
+            return createCanonicalKey(parentKey, nodeName, determineIndex(node, parent, nodeName, handler));
         }
+        final DefaultConfigurationKey key = new DefaultConfigurationKey(this, parentKey);
+        key.append(StringUtils.defaultString(nodeName));
+        return key.toString();
+    }
+
+    /**
+     * Creates the canonical key of a node which is not the root node from its components.
+     *
+     * @param parentKey the key of the parent node
+     * @param nodeName the name of the node
+     * @param index the index of the node among its siblings with the same name
+     * @return the canonical key
+     */
+    private String createCanonicalKey(final String parentKey, final String nodeName, final int index) {
+        final DefaultConfigurationKey key = new DefaultConfigurationKey(this, parentKey);
+        key.append(StringUtils.defaultString(nodeName));
+        key.appendIndex(index);
         return key.toString();
     }
 
@@ -179,6 +276,22 @@ public class DefaultExpressionEngine implements ExpressionEngine {
         return findChildNodesByName(handler, parent, nodeName).indexOf(node);
     }
 
+    /**
+     * Returns a list with all child nodes of the given parent node which match the current part of the given key. This
+     * method works like the method with the same name expecting a node name. For case-insensitive matching, the case-folded
+     * name of a pre-parsed key is used, so that it does not have to be folded again by the node's name index.
+     *
+     * @param handler the {@code NodeHandler}
+     * @param parent the parent node
+     * @param keyIt the key iterator pointing to the name of the child nodes
+     * @param <T> the type of the nodes to be dealt with
+     * @return a list with all matching child nodes
+     */
+    private <T> List<T> findChildNodesByName(final NodeHandler<T> handler, final T parent, final DefaultConfigurationKey.KeyIterator keyIt) {
+        final String nodeName = nameMatcher == NodeNameMatchers.EQUALS_IGNORE_CASE ? keyIt.currentFoldedKey() : keyIt.currentKey();
+        return findChildNodesByName(handler, parent, nodeName);
+    }
+
     /**
      * Returns a list with all child nodes of the given parent node which match the specified node name. The match is done
      * using the current node name matcher.
@@ -204,18 +317,19 @@ public class DefaultExpressionEngine implements ExpressionEngine {
      * @return the last existing node on the given path
      */
     protected <T> T findLastPathNode(final DefaultConfigurationKey.KeyIterator keyIt, final T node, final NodeHandler<T> handler) {
-        final String keyPart = keyIt.nextKey(false);
+        keyIt.nextKey(false);
 
         if (keyIt.hasNext()) {
             if (!keyIt.isPropertyKey()) {
                 // Attribute keys can only appear as last elements of the path
                 throw new IllegalArgumentException("Invalid path for add operation: " + "Attribute key in the middle!");
             }
-            final int idx = keyIt.hasIndex() ? keyIt.getIndex() : handler.getMatchingChildrenCount(node, nameMatcher, keyPart) - 1;
-            if (idx < 0 || idx >= handler.getMatchingChildrenCount(node, nameMatcher, keyPart)) {
+            final List<T> children = findChildNodesByName(handler, node, keyIt);
+            final int idx = keyIt.hasIndex() ? keyIt.getIndex() : children.size() - 1;
+            if (idx < 0 || idx >= children.size()) {
                 return node;
             }
-            return findLastPathNode(keyIt, findChildNodesByName(handler, node, keyPart).get(idx), handler);
+            return findLastPathNode(keyIt, children.get(idx), handler);
         }
         return node;
     }
@@ -237,7 +351,7 @@ public class DefaultExpressionEngine implements ExpressionEngine {
         } else {
             final String key = keyPart.nextKey(false);
             if (keyPart.isPropertyKey()) {
-                processSubNodes(keyPart, findChildNodesByName(handler, node, key), results, handler);
+                processSubNodes(keyPart, findChildNodesByName(handler, node, keyPart), results, handler);
             }
             if (keyPart.isAttribute() && !keyPart.hasNext() && handler.getAttributeValue(node, key) != null) {
                 results.add(QueryResult.createAttributeResult(node, key));
@@ -245,6 +359,68 @@ public class DefaultExpressionEngine implements ExpressionEngine {
         }
     }
 
+    /**
+     * Recursive helper method for evaluating a key which passes all results to a consumer. This method works like the
+     * method with the same name that stores the results in a collection; it is used by
+     * {@link #query(Object, String, NodeHandler, Consumer)}. However, the passed in key iterator is not used any more
+     * after the sub nodes have been processed; so it can be handed over to the processing of a sub node without being
+     * cloned. Derived classes which change the way keys are evaluated by overriding the collection-based method have to
+     * override this method, too, if the consumer-based query is to be affected.
+     *
+     * @param <T> the type of nodes to be dealt with
+     * @param keyPart the configuration key iterator
+     * @param node the current node
+     * @param consumer the consumer for the results
+     * @param handler the node handler
+     * @since 2.11.0
+     */
+    protected <T> void findNodesForKey(final DefaultConfigurationKey.KeyIterator keyPart, final T node, final Consumer<? super QueryResult<T>> consumer,
+        final NodeHandler<T> handler) {
+        if (!keyPart.hasNext()) {
+            consumer.accept(QueryResult.createNodeResult(node));
+        } else {
+            final String key = keyPart.nextKey(false);
+            final boolean attributeResult = keyPart.isAttribute() && !keyPart.hasNext() && handler.getAttributeValue(node, key) != null;
+            if (keyPart.isPropertyKey()) {
+                processSubNodes(keyPart, findChildNodesByName(handler, node, keyPart), consumer, handler);
+            }
+            if (attributeResult) {
+                consumer.accept(QueryResult.createAttributeResult(node, key));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of queries for keys that could be served from the cache for parsed keys.
+     *
+     * @return the number of cache hits
+     * @since 2.11.0
+     */
+    public long getKeyCacheHitCount() {
+        return keyCacheHits.sum();
+    }
+
+    /**
+     * Gets the number of queries for keys that had to be parsed because they were not contained in the cache for parsed
+     * keys. If caching is disabled, this number is always 0.
+     *
+     * @return the number of cache misses
+     * @since 2.11.0
+     */
+    public long getKeyCacheMissCount() {
+        return keyCacheMisses.sum();
+    }
+
+    /**
+     * Gets the maximum number of keys stored in the cache for parsed keys. A value of 0 means that caching is disabled.
+     *
+     * @return the size of the cache for parsed keys
+     * @since 2.11.0
+     */
+    public int getKeyCacheSize() {
+        return keyCacheSize;
+    }
+
     /**
      * Gets the {@code DefaultExpressionEngineSymbols} object associated with this instance.
      *
@@ -255,6 +431,32 @@ public class DefaultExpressionEngine implements ExpressionEngine {
         return symbols;
     }
 
+    /**
+     * Returns an iterator over the parts of the given key. If possible, the key is obtained from the cache for parsed keys.
+     * Otherwise, it is parsed and added to the cache.
+     *
+     * @param key the key
+     * @return an iterator over the parts of this key
+     */
+    private DefaultConfigurationKey.KeyIterator keyIterator(final String key) {
+        if (keyCacheSize == 0 || key == null) {
+            return new DefaultConfigurationKey(this, key).iterator();
+        }
+
+        DefaultConfigurationKey.ParsedKey parsedKey = keyCache.get(key);
+        if (parsedKey != null) {
+            keyCacheHits.increment();
+        } else {
+            keyCacheMisses.increment();
+            parsedKey = new DefaultConfigurationKey(this, key).parse();
+            if (keyCache.size() >= keyCacheSize) {
+                keyCache.clear();
+            }
+            keyCache.put(key, parsedKey);
+        }
+        return parsedKey.iterator();
+    }
+
     /**
      * {@inheritDoc} This implementation takes the given parent key, adds a property delimiter, and then adds the node's
      * name. The name of the root node is a blank string. Note that no indices are returned.
@@ -344,7 +546,7 @@ public class DefaultExpressionEngine implements ExpressionEngine {
      */
     @Override
     public <T> NodeAddData<T> prepareAdd(final T root, final String key, final NodeHandler<T> handler) {
-        final DefaultConfigurationKey.KeyIterator it = new DefaultConfigurationKey(this, key).iterator();
+        final DefaultConfigurationKey.KeyIterator it = keyIterator(key);
         if (!it.hasNext()) {
             throw new IllegalArgumentException("Key for add operation must be defined!");
         }
@@ -384,13 +586,51 @@ public class DefaultExpressionEngine implements ExpressionEngine {
         }
     }
 
+    /**
+     * Called by {@code findNodesForKey()} to process the sub nodes of the current node if the results are passed to a
+     * consumer. The key iterator is cloned only if multiple sub nodes have to be processed; the last sub node uses the
+     * passed in iterator.
+     *
+     * @param <T> the type of the nodes to be dealt with
+     * @param keyPart the key part
+     * @param subNodes a list with the sub nodes to process
+     * @param consumer the consumer for the results
+     * @param handler the node handler
+     */
+    private <T> void processSubNodes(final DefaultConfigurationKey.KeyIterator keyPart, final List<T> subNodes, final Consumer<? super QueryResult<T>> consumer,
+        final NodeHandler<T> handler) {
+        if (keyPart.hasIndex()) {
+            if (keyPart.getIndex() >= 0 && keyPart.getIndex() < subNodes.size()) {
+                findNodesForKey(keyPart, subNodes.get(keyPart.getIndex()), consumer, handler);
+            }
+        } else if (subNodes.size() == 1) {
+            findNodesForKey(keyPart, subNodes.get(0), consumer, handler);
+        } else {
+            final Iterator<T> it = subNodes.iterator();
+            while (it.hasNext()) {
+                final T node = it.next();
+                findNodesForKey(it.hasNext() ? (DefaultConfigurationKey.KeyIterator) keyPart.clone() : keyPart, node, consumer, handler);
+            }
+        }
+    }
+
     /**
      * {@inheritDoc} This method supports the syntax as described in the class comment.
      */
     @Override
     public <T> List<QueryResult<T>> query(final T root, final String key, final NodeHandler<T> handler) {
         final List<QueryResult<T>> results = new LinkedList<>();
-        findNodesForKey(new DefaultConfigurationKey(this, key).iterator(), root, results, handler);
+        findNodesForKey(keyIterator(key), root, results, handler);
         return results;
     }
+
+    /**
+     * {@inheritDoc} This implementation evaluates the key in the same way as {@link #query(Object, String, NodeHandler)},
+     * but passes the results directly to the consumer. The evaluation is done by
+     * {@link #findNodesForKey(DefaultConfigurationKey.KeyIterator, Object, Consumer, NodeHandler)}.
+     */
+    @Override
+    public <T> void query(final T root, final String key, final NodeHandler<T> handler, final Consumer<? super QueryResult<T>> consumer) {
+        findNodesForKey(keyIterator(key), root, consumer, handler);
+    }
 }
@@ -16,7 +16,9 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * <p>
@@ -67,6 +69,29 @@ public interface ExpressionEngine {
      */
     <T> String canonicalKey(T node, String parentKey, NodeHandler<T> handler);
 
+    /**
+     * Determines the canonical keys of all child nodes of the specified parent node. The resulting list contains the keys
+     * in the order of the children as returned by {@link NodeHandler#getChildren(Object)}; each key is equal to the one
+     * returned by {@link #canonicalKey(Object, String, NodeHandler)} for this child node. This method is useful when the
+     * keys of many nodes have to be generated, for instance when enumerating the nodes of a configuration. The default
+     * implementation calls {@code canonicalKey()} for each child node. As this typically requires a scan over the
+     * siblings of each node, implementations should override it to determine the indices of all child nodes in a single
+     * pass.
+     *
+     * @param <T> the type of the node to be processed
+     * @param parent the parent node whose children are to be processed
+     * @param parentKey the canonical key of the parent node (can be <b>null</b> for the root node)
+     * @param handler the {@code NodeHandler} for accessing the node
+     * @return a list with the canonical keys of all child nodes
+     * @since 2.11.0
+     */
+    default <T> List<String> canonicalChildKeys(final T parent, final String parentKey, final NodeHandler<T> handler) {
+        final List<T> children = handler.getChildren(parent);
+        final List<String> keys = new ArrayList<>(children.size());
+        children.forEach(child -> keys.add(canonicalKey(child, parentKey, handler)));
+        return keys;
+    }
+
     /**
      * Returns the key for the specified node in the expression language supported by an implementation. This method is
      * called whenever a property key for a node has to be constructed, e.g. by the
@@ -107,4 +132,22 @@ public interface ExpressionEngine {
      * @return a list with the results that are matched by the key (should never be <b>null</b>)
      */
     <T> List<QueryResult<T>> query(T root, String key, NodeHandler<T> handler);
+
+    /**
+     * Finds the nodes and/or attributes that are matched by the specified key and passes them to the given consumer. This
+     * method is equivalent to {@link #query(Object, String, NodeHandler)}, but the results are not collected in a list.
+     * This is useful for callers that process the results immediately, e.g. when querying the value of a property.
+     * Implementations can evaluate the key without creating intermediate collections. The default implementation
+     * delegates to {@code query()} and passes all elements of the resulting list to the consumer.
+     *
+     * @param <T> the type of the node to be processed
+     * @param root the root node of a hierarchy of nodes
+     * @param key the key to be evaluated
+     * @param handler the {@code NodeHandler} for accessing the node
+     * @param consumer the consumer receiving the results matched by the key
+     * @since 2.11.0
+     */
+    default <T> void query(final T root, final String key, final NodeHandler<T> handler, final Consumer<? super QueryResult<T>> consumer) {
+        query(root, key, handler).forEach(consumer);
+    }
 }
@@ -16,15 +16,23 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -40,10 +48,108 @@ import java.util.stream.StreamSupport;
  * After their creation, instances cannot be manipulated. There are methods for updating properties, but these methods
  * return new {@code ImmutableNode} instances. Instances are created using the nested {@code Builder} class.
  * </p>
+ * <p>
+ * As configurations with a large number of nodes are common, the internal representation of instances is kept compact:
+ * child nodes are stored in arrays, small attribute maps are stored in arrays as well (an empty attribute map is shared
+ * by all nodes without attributes), and node and attribute names are interned, so that the many nodes of a tree
+ * typically sharing a small set of names do not store their own copies. This is transparent for the API: the
+ * collections returned by {@link #getChildren()} and {@link #getAttributes()} are immutable views.
+ * </p>
  *
  * @since 2.0
  */
 public final class ImmutableNode implements Iterable<ImmutableNode> {
+    /**
+     * An immutable map implementation for a small number of attributes. The keys and values are stored in two parallel
+     * arrays; lookups are done by a linear search, which is faster than hashing for such small sizes and avoids the
+     * overhead of hash map entries.
+     */
+    private static final class AttributeMap extends AbstractMap<String, Object> {
+        /** The attribute names. */
+        private final String[] keys;
+
+        /** The attribute values. */
+        private final Object[] values;
+
+        /**
+         * Creates a new instance of {@code AttributeMap} with the content of the given map. The order of the attributes is
+         * retained.
+         *
+         * @param attrs the map with the attributes
+         */
+        AttributeMap(final Map<String, Object> attrs) {
+            keys = new String[attrs.size()];
+            values = new Object[keys.length];
+            int idx = 0;
+            for (final Map.Entry<String, Object> e : attrs.entrySet()) {
+                keys[idx] = e.getKey() != null ? e.getKey().intern() : null;
+                values[idx++] = e.getValue();
+            }
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new Iterator<Map.Entry<String, Object>>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < keys.length;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final int current = index++;
+                            return new AbstractMap.SimpleImmutableEntry<>(keys[current], values[current]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+
+        @Override
+        public Object get(final Object key) {
+            final int idx = indexOf(key);
+            return idx >= 0 ? values[idx] : null;
+        }
+
+        /**
+         * Determines the index of the given key in the array of keys.
+         *
+         * @param key the key
+         * @return the index of this key or -1 if it cannot be found
+         */
+        private int indexOf(final Object key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key || keys[i] != null && keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+    }
+
     /**
      * <p>
      * A <em>builder</em> class for creating instances of {@code ImmutableNode}.
@@ -96,6 +202,9 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
         /** The value of the node. */
         private Object value;
 
+        /** A flag whether the name of the node is already interned. */
+        private boolean nameInterned;
+
         /**
          * Creates a new instance of {@code Builder} which does not contain any property definitions yet.
          */
@@ -114,20 +223,6 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
             initChildrenCollection(childCount);
         }
 
-        /**
-         * Creates a new instance of {@code Builder} and initializes the attributes of the new node and prepares the collection
-         * for the children. This constructor is used internally by methods of {@code ImmutableNode} which update the node and
-         * change the children. The new number of child nodes can be passed so that the collection for the new children can be
-         * created with an appropriate size.
-         *
-         * @param childCount the expected number of new children
-         * @param dirAttrs the attributes of the new node
-         */
-        private Builder(final int childCount, final Map<String, Object> dirAttrs) {
-            this(null, dirAttrs);
-            initChildrenCollection(childCount);
-        }
-
         /**
          * Creates a new instance of {@code Builder} and initializes the children and attributes of the new node. This
          * constructor is used internally by the {@code ImmutableNode} class for creating instances derived from another node.
@@ -224,10 +319,7 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
             if (directAttributes != null) {
                 return directAttributes;
             }
-            if (attributes != null) {
-                return Collections.unmodifiableMap(attributes);
-            }
-            return Collections.emptyMap();
+            return compactAttributes(attributes);
         }
 
         /**
@@ -241,11 +333,20 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
                 return directChildren;
             }
             if (children != null) {
-                return Collections.unmodifiableList(children);
+                return childList(children.toArray(EMPTY_CHILDREN));
             }
             return Collections.emptyList();
         }
 
+        /**
+         * Returns the name of the node to be created in its interned form.
+         *
+         * @return the interned node name
+         */
+        private String createName() {
+            return nameInterned || name == null ? name : name.intern();
+        }
+
         /**
          * Ensures that the map for the attributes exists. It is created on demand.
          */
@@ -260,7 +361,7 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
          */
         private void ensureChildrenExist() {
             if (children == null) {
-                children = new LinkedList<>();
+                children = new ArrayList<>();
             }
         }
 
@@ -283,6 +384,21 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
          */
         public Builder name(final String n) {
             name = n;
+            nameInterned = false;
+            return this;
+        }
+
+        /**
+         * Sets the basic properties of the node to be created from an existing node. The name of an existing node has
+         * already been interned.
+         *
+         * @param node the node whose name and value are to be copied
+         * @return a reference to this object for method chaining
+         */
+        private Builder nameAndValue(final ImmutableNode node) {
+            name = node.nodeName;
+            nameInterned = true;
+            value = node.value;
             return this;
         }
 
@@ -298,6 +414,194 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
         }
     }
 
+    /**
+     * An immutable list implementation for the child nodes of a node which is backed by an array.
+     */
+    private static final class ChildList extends AbstractList<ImmutableNode> implements RandomAccess {
+        /** The array with the child nodes. */
+        private final ImmutableNode[] nodes;
+
+        /**
+         * Creates a new instance of {@code ChildList} for the given array. The array is not copied; it must not be changed
+         * afterwards.
+         *
+         * @param nodes the array with child nodes
+         */
+        ChildList(final ImmutableNode[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public void forEach(final Consumer<? super ImmutableNode> action) {
+            for (final ImmutableNode node : nodes) {
+                action.accept(node);
+            }
+        }
+
+        @Override
+        public ImmutableNode get(final int index) {
+            return nodes[index];
+        }
+
+        @Override
+        public int size() {
+            return nodes.length;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return nodes.clone();
+        }
+    }
+
+    /**
+     * An immutable entry of the cache for converted values of a node. The entries of a node form a linked list.
+     */
+    private static final class ConvertedValue {
+        /** The target type of the conversion. */
+        private final Class<?> type;
+
+        /** The object identifying the conversion. */
+        private final Object conversion;
+
+        /** The converted value. */
+        private final Object value;
+
+        /** The next entry in the list. */
+        private final ConvertedValue next;
+
+        /**
+         * Creates a new instance of {@code ConvertedValue}.
+         *
+         * @param type the target type
+         * @param conversion the object identifying the conversion
+         * @param value the converted value
+         * @param next the next entry
+         */
+        ConvertedValue(final Class<?> type, final Object conversion, final Object value, final ConvertedValue next) {
+            this.type = type;
+            this.conversion = conversion;
+            this.value = value;
+            this.next = next;
+        }
+
+        /**
+         * Returns a list of entries which does not contain an entry for the given type, starting with this entry.
+         *
+         * @param targetType the type to be removed
+         * @return the list without an entry for this type
+         */
+        ConvertedValue without(final Class<?> targetType) {
+            if (type == targetType) {
+                return next;
+            }
+            final ConvertedValue nextWithout = next != null ? next.without(targetType) : null;
+            return nextWithout == next ? this : new ConvertedValue(type, conversion, value, nextWithout);
+        }
+    }
+
+    /** A shared empty array of child nodes. */
+    private static final ImmutableNode[] EMPTY_CHILDREN = {};
+
+    /** The maximum number of attributes stored in a compact attribute map. */
+    private static final int MAX_COMPACT_ATTRIBUTES = 8;
+
+    /**
+     * Returns an immutable list for the given array with child nodes. The array is used directly; it must not be changed
+     * afterwards.
+     *
+     * @param nodes the array with child nodes
+     * @return the immutable list with these child nodes
+     */
+    private static List<ImmutableNode> childList(final ImmutableNode[] nodes) {
+        return nodes.length == 0 ? Collections.emptyList() : new ChildList(nodes);
+    }
+
+    /**
+     * Returns an immutable and compact representation of the given attribute map. Empty maps are mapped to a shared
+     * instance, small maps to an array-based map; only for a larger number of attributes a hash map is used.
+     *
+     * @param attrs the map with attributes (may be <b>null</b>)
+     * @return the immutable attribute map
+     */
+    private static Map<String, Object> compactAttributes(final Map<String, Object> attrs) {
+        if (attrs == null || attrs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (attrs.size() <= MAX_COMPACT_ATTRIBUTES) {
+            return new AttributeMap(attrs);
+        }
+        return Collections.unmodifiableMap(attrs);
+    }
+
+    /**
+     * Creates an index for the given list of child nodes. The child nodes are grouped by the keys produced by the passed in
+     * function from their names. The order of the children is retained in each group. The resulting map and its lists
+     * are immutable.
+     *
+     * @param children the list with child nodes
+     * @param keyFunction the function to derive the key from a node name
+     * @return the index for these child nodes
+     */
+    private static Map<String, List<ImmutableNode>> createNameIndex(final List<ImmutableNode> children, final UnaryOperator<String> keyFunction) {
+        final Map<String, List<ImmutableNode>> index = new HashMap<>();
+        children.forEach(c -> index.computeIfAbsent(keyFunction.apply(c.getNodeName()), k -> new ArrayList<>()).add(c));
+        index.replaceAll((k, v) -> v.size() == 1 ? Collections.singletonList(v.get(0)) : Collections.unmodifiableList(v));
+        return index;
+    }
+
+    /**
+     * Transforms the given node name to a form in which all names that are equal ignoring case are identical. This
+     * transformation is compatible with {@link String#equalsIgnoreCase(String)}: two names produce the same result if and
+     * only if they are equal according to this method.
+     * <p>
+     * As this method is called for each key segment of a case-insensitive query, names consisting only of ASCII
+     * characters - the typical case - are handled without a full Unicode case mapping. If such a name does not contain
+     * upper case letters, it is returned unchanged.
+     *
+     * @param name the name to be transformed (may be <b>null</b>)
+     * @return the case-folded name
+     */
+    static String foldCase(final String name) {
+        if (name == null) {
+            return null;
+        }
+        final int length = name.length();
+        int firstUpper = -1;
+        for (int i = 0; i < length; i++) {
+            final char c = name.charAt(i);
+            if (c >= 0x80) {
+                return foldCaseUnicode(name);
+            }
+            if (firstUpper < 0 && c >= 'A' && c <= 'Z') {
+                firstUpper = i;
+            }
+        }
+        if (firstUpper < 0) {
+            return name;
+        }
+        final char[] chars = name.toCharArray();
+        for (int i = firstUpper; i < length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] += 'a' - 'A';
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Transforms the given node name to its case-folded form using the full Unicode case mapping. This is used by
+     * {@link #foldCase(String)} for names containing non-ASCII characters.
+     *
+     * @param name the name to be transformed
+     * @return the case-folded name
+     */
+    private static String foldCaseUnicode(final String name) {
+        final StringBuilder buf = new StringBuilder(name.length());
+        name.codePoints().forEach(cp -> buf.appendCodePoint(Character.toLowerCase(Character.toUpperCase(cp))));
+        return buf.toString();
+    }
+
     /**
      * Checks whether the given child node is not null. This check is done at multiple places to ensure that newly added
      * child nodes are always defined.
@@ -323,6 +627,15 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
     /** A map with the attributes of this node. */
     private final Map<String, Object> attributes;
 
+    /** An index of the child nodes by name; created on first access. */
+    private volatile Map<String, List<ImmutableNode>> childrenByName;
+
+    /** An index of the child nodes by their case-folded name; created on first access. */
+    private volatile Map<String, List<ImmutableNode>> childrenByFoldedName;
+
+    /** The cache for the converted values of this node; populated on demand. */
+    private volatile ConvertedValue convertedValues;
+
     /**
      * Creates a new instance of {@code ImmutableNode} from the given {@code Builder} object.
      *
@@ -331,7 +644,7 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
     private ImmutableNode(final Builder b) {
         children = b.createChildren();
         attributes = b.createAttributes();
-        nodeName = b.name;
+        nodeName = b.createName();
         value = b.value;
     }
 
@@ -344,9 +657,11 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
      */
     public ImmutableNode addChild(final ImmutableNode child) {
         checkChildNode(child);
-        final Builder builder = new Builder(children.size() + 1, attributes);
-        builder.addChildren(children).addChild(child);
-        return createWithBasicProperties(builder);
+        final int size = children.size();
+        final ImmutableNode[] newChildren = new ImmutableNode[size + 1];
+        copyChildren(newChildren);
+        newChildren[size] = child;
+        return createWithBasicProperties(new Builder(childList(newChildren), attributes));
     }
 
     /**
@@ -357,7 +672,35 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
      * @return the newly created node
      */
     private ImmutableNode createWithBasicProperties(final Builder builder) {
-        return builder.name(nodeName).value(value).create();
+        return builder.nameAndValue(this).create();
+    }
+
+    /**
+     * Copies the child nodes of this node into the given array.
+     *
+     * @param target the target array (must be large enough)
+     */
+    private void copyChildren(final ImmutableNode[] target) {
+        if (children instanceof ChildList) {
+            final ImmutableNode[] nodes = ((ChildList) children).nodes;
+            System.arraycopy(nodes, 0, target, 0, nodes.length);
+        }
+    }
+
+    /**
+     * Returns the index of the given child node in the list of children of this node. Nodes are compared by identity.
+     *
+     * @param child the child node
+     * @return the index of this child node or -1 if it cannot be found
+     */
+    private int indexOfChild(final ImmutableNode child) {
+        final int size = children.size();
+        for (int i = 0; i < size; i++) {
+            if (children.get(i) == child) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -368,7 +711,7 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
      * @return the new node instance
      */
     private ImmutableNode createWithNewAttributes(final Map<String, Object> newAttrs) {
-        return createWithBasicProperties(new Builder(children, null).addAttributes(newAttrs));
+        return createWithBasicProperties(new Builder(children, compactAttributes(newAttrs)));
     }
 
     /**
@@ -400,7 +743,83 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
         if (name == null) {
             return new ArrayList<>();
         }
-        return children.stream().filter(in -> name.equals(in.getNodeName())).collect(Collectors.toList());
+        return new ArrayList<>(getChildrenByName(name));
+    }
+
+    /**
+     * Gets an immutable list with all children of this node with the given name. This method uses an index of the child
+     * nodes which is created on first access; so the lookup is cheap and does not require copying, even for a large number
+     * of children.
+     *
+     * @param name the name of the desired children
+     * @return a list with all child nodes with this name (never <b>null</b>)
+     */
+    List<ImmutableNode> getChildrenByName(final String name) {
+        if (children.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, List<ImmutableNode>> index = childrenByName;
+        if (index == null) {
+            index = createNameIndex(children, UnaryOperator.identity());
+            childrenByName = index;
+        }
+        return index.getOrDefault(name, Collections.emptyList());
+    }
+
+    /**
+     * Gets an immutable list with all children of this node whose name equals the given name ignoring case. This method
+     * works like {@link #getChildrenByName(String)}, but it uses an index of case-folded node names.
+     *
+     * @param name the name of the desired children
+     * @return a list with all child nodes matching this name ignoring case (never <b>null</b>)
+     */
+    List<ImmutableNode> getChildrenByNameIgnoreCase(final String name) {
+        if (children.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, List<ImmutableNode>> index = childrenByFoldedName;
+        if (index == null) {
+            index = createNameIndex(children, ImmutableNode::foldCase);
+            childrenByFoldedName = index;
+        }
+        return index.getOrDefault(foldCase(name), Collections.emptyList());
+    }
+
+    /**
+     * Gets the value of this node converted to the given target type. As the value of a node cannot change, the result
+     * of a conversion can be cached: the passed in function is invoked only if no converted value for this type is
+     * available yet; otherwise, the cached value is returned. The cache is specific to this node instance; a node that
+     * replaces this one - for instance because its value has been changed - starts with an empty cache.
+     * <p>
+     * The result of a conversion may depend on other settings, for instance the date format used for conversions to
+     * dates. Therefore, the caller has to pass an object identifying the conversion, for instance a
+     * {@code ConversionHandler}. The cached value is only used if the same object (in terms of identity) is passed in
+     * again; otherwise, the conversion is performed again, and the result replaces the cached value. A conversion which
+     * yields <b>null</b> is not cached. As the cached object is returned to all callers, this method should only be
+     * used for conversions to immutable types. Clients access this cache via
+     * {@link NodeHandler#getConvertedValue(Object, Class, Object, Function)}.
+     * </p>
+     *
+     * @param type the target type of the conversion (must not be <b>null</b>)
+     * @param conversion an object identifying the conversion
+     * @param converter the function performing the conversion of the value of this node
+     * @param <T> the target type of the conversion
+     * @return the converted value
+     */
+    @SuppressWarnings("unchecked")
+    <T> T getConvertedValue(final Class<T> type, final Object conversion, final Function<Object, ? extends T> converter) {
+        final ConvertedValue values = convertedValues;
+        for (ConvertedValue cv = values; cv != null; cv = cv.next) {
+            if (cv.type == type && cv.conversion == conversion) {
+                return (T) cv.value;
+            }
+        }
+
+        final T result = converter.apply(value);
+        if (result != null) {
+            convertedValues = new ConvertedValue(type, conversion, result, values != null ? values.without(type) : null);
+        }
+        return result;
     }
 
     /**
@@ -453,18 +872,19 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
      * @return the new node with the child node removed
      */
     public ImmutableNode removeChild(final ImmutableNode child) {
-        // use same size of children in case the child does not exist
-        final Builder builder = new Builder(children.size(), attributes);
-        boolean foundChild = false;
+        final int index = indexOfChild(child);
+        if (index < 0) {
+            return this;
+        }
+
+        final ImmutableNode[] newChildren = new ImmutableNode[children.size() - 1];
+        int pos = 0;
         for (final ImmutableNode c : children) {
-            if (c == child) {
-                foundChild = true;
-            } else {
-                builder.addChild(c);
+            if (c != child) {
+                newChildren[pos++] = c;
             }
         }
-
-        return foundChild ? createWithBasicProperties(builder) : this;
+        return createWithBasicProperties(new Builder(childList(Arrays.copyOf(newChildren, pos)), attributes));
     }
 
     /**
@@ -478,18 +898,18 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
      */
     public ImmutableNode replaceChild(final ImmutableNode oldChild, final ImmutableNode newChild) {
         checkChildNode(newChild);
-        final Builder builder = new Builder(children.size(), attributes);
-        boolean foundChild = false;
-        for (final ImmutableNode c : children) {
-            if (c == oldChild) {
-                builder.addChild(newChild);
-                foundChild = true;
-            } else {
-                builder.addChild(c);
-            }
+        if (indexOfChild(oldChild) < 0) {
+            return this;
         }
 
-        return foundChild ? createWithBasicProperties(builder) : this;
+        final ImmutableNode[] newChildren = new ImmutableNode[children.size()];
+        copyChildren(newChildren);
+        for (int i = 0; i < newChildren.length; i++) {
+            if (newChildren[i] == oldChild) {
+                newChildren[i] = newChild;
+            }
+        }
+        return createWithBasicProperties(new Builder(childList(newChildren), attributes));
     }
 
     /**
@@ -558,7 +978,7 @@ public final class ImmutableNode implements Iterable<ImmutableNode> {
      * @return the new node with the changed value
      */
     public ImmutableNode setValue(final Object newValue) {
-        return new Builder(children, attributes).name(nodeName).value(newValue).create();
+        return new Builder(children, attributes).nameAndValue(this).value(newValue).create();
     }
 
     /**
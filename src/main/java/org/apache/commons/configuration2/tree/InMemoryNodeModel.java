@@ -24,7 +24,13 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 import org.apache.commons.lang3.mutable.Mutable;
@@ -42,6 +48,12 @@ import org.apache.commons.lang3.mutable.MutableObject;
  * new one using an atomic compare-and-set operation. If this fails, the manipulation has to be done anew on the updated
  * structure.
  * </p>
+ * <p>
+ * If many threads update the model concurrently, a lot of work may be wasted this way. Therefore, an alternative
+ * {@link UpdateStrategy} can be set which serializes updates and applies the pending updates of multiple threads in a
+ * single step. The model maintains some counters for the number of updates and the conflicts caused by concurrent
+ * updates; so it can be determined whether the strategy should be changed.
+ * </p>
  *
  * @since 2.0
  */
@@ -63,11 +75,177 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
         boolean initTransaction(ModelTransaction tx);
     }
 
+    /**
+     * An enumeration class defining the strategies supported by this model for dealing with concurrent updates.
+     *
+     * @since 2.11.0
+     */
+    public enum UpdateStrategy {
+        /**
+         * The optimistic strategy. Each update operation is executed by the calling thread on the current structure of the
+         * model. If another thread has changed the model in the meantime, the operation is executed again. This is the
+         * default strategy; it works well if there are only few concurrent updates.
+         */
+        OPTIMISTIC,
+
+        /**
+         * The combining strategy. Update operations are placed in a queue. One thread at a time acquires a lock and executes
+         * all pending operations - including the ones of other threads - on the current structure of the model; the
+         * resulting structure is then set in a single step. The other threads wait until their operations have been
+         * executed. This strategy avoids repeated work under heavy contention.
+         */
+        COMBINING
+    }
+
+    /**
+     * A class representing an update operation waiting to be executed by the combining update strategy. The fields are
+     * accessed only while holding the lock of the combiner.
+     */
+    private static final class UpdateRequest {
+        /** The initializer for the transaction. */
+        private final TransactionInitializer txInit;
+
+        /** The selector for the target node. */
+        private final NodeSelector selector;
+
+        /** The resolver for keys. */
+        private final NodeKeyResolver<ImmutableNode> resolver;
+
+        /** A flag whether this request has been processed. */
+        private boolean done;
+
+        /** An exception or error thrown while processing this request. */
+        private Throwable exception;
+
+        /**
+         * Creates a new instance of {@code UpdateRequest}.
+         *
+         * @param txInit the {@code TransactionInitializer}
+         * @param selector an optional {@code NodeSelector} defining the target node of the transaction
+         * @param resolver the {@code NodeKeyResolver}
+         */
+        UpdateRequest(final TransactionInitializer txInit, final NodeSelector selector, final NodeKeyResolver<ImmutableNode> resolver) {
+            this.txInit = txInit;
+            this.selector = selector;
+            this.resolver = resolver;
+        }
+    }
+
+    /**
+     * A class implementing the combining update strategy. Update requests are added to a queue. The thread which obtains
+     * the lock processes all requests in the queue and updates the model's structure once.
+     */
+    private final class UpdateCombiner {
+        /** The queue with pending update requests. */
+        private final Queue<UpdateRequest> pendingRequests = new ConcurrentLinkedQueue<>();
+
+        /** The lock for processing requests. */
+        private final Lock lock = new ReentrantLock();
+
+        /**
+         * Processes all requests in the queue. They are applied one after the other on the current structure; then the
+         * structure of the model is replaced. Exceptions and errors thrown by single requests are stored in the requests,
+         * so that they can be rethrown by the thread which issued the request. If processing fails for another reason, the
+         * failure is stored in all requests which have not been completed, so that none of them is lost.
+         */
+        private void combine() {
+            final List<UpdateRequest> requests = new ArrayList<>();
+            UpdateRequest request;
+            while ((request = pendingRequests.poll()) != null) {
+                requests.add(request);
+            }
+
+            try {
+                combineRequests(requests);
+            } catch (final RuntimeException | Error e) {
+                requests.forEach(req -> {
+                    if (!req.done) {
+                        req.exception = e;
+                        req.done = true;
+                    }
+                });
+                throw e;
+            }
+        }
+
+        /**
+         * Applies the given requests on the current structure and replaces the structure of the model. This is repeated
+         * until the structure can be replaced without a conflict.
+         *
+         * @param requests the requests to be processed
+         */
+        private void combineRequests(final List<UpdateRequest> requests) {
+            boolean done;
+            do {
+                final TreeData currentData = getTreeData();
+                TreeData newData = currentData;
+                for (final UpdateRequest req : requests) {
+                    if (!req.done) {
+                        try {
+                            if (executeTransactionOnDetachedTrackedNode(req.txInit, req.selector, newData, req.resolver)) {
+                                req.done = true;
+                            } else {
+                                final ModelTransaction tx = new ModelTransaction(newData, req.selector, req.resolver);
+                                if (req.txInit.initTransaction(tx)) {
+                                    newData = tx.execute();
+                                }
+                            }
+                        } catch (final RuntimeException | Error e) {
+                            req.exception = e;
+                            req.done = true;
+                        }
+                    }
+                }
+
+                done = newData == currentData || structure.compareAndSet(currentData, newData);
+                if (!done) {
+                    conflicts.increment();
+                    retries.add(requests.stream().filter(req -> !req.done).count());
+                }
+            } while (!done);
+
+            requests.forEach(req -> {
+                if (req.exception == null) {
+                    updates.increment();
+                }
+                req.done = true;
+            });
+        }
+
+        /**
+         * Executes an update operation. The request is added to the queue. Then the lock is obtained. If the request has not
+         * yet been processed by another thread, this thread processes all pending requests.
+         *
+         * @param txInit the {@code TransactionInitializer}
+         * @param selector an optional {@code NodeSelector} defining the target node of the transaction
+         * @param resolver the {@code NodeKeyResolver}
+         */
+        void update(final TransactionInitializer txInit, final NodeSelector selector, final NodeKeyResolver<ImmutableNode> resolver) {
+            final UpdateRequest request = new UpdateRequest(txInit, selector, resolver);
+            pendingRequests.add(request);
+            lock.lock();
+            try {
+                if (!request.done) {
+                    combine();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (request.exception instanceof Error) {
+                throw (Error) request.exception;
+            }
+            if (request.exception != null) {
+                throw (RuntimeException) request.exception;
+            }
+        }
+    }
+
     /**
      * A dummy node handler instance used in operations which require only a limited functionality.
      */
-    private static final NodeHandler<ImmutableNode> DUMMY_HANDLER = new TreeData(null, Collections.<ImmutableNode, ImmutableNode>emptyMap(),
-        Collections.<ImmutableNode, ImmutableNode>emptyMap(), null, new ReferenceTracker());
+    private static final NodeHandler<ImmutableNode> DUMMY_HANDLER = new TreeData(null, PersistentNodeMap.empty(),
+        PersistentNodeMap.empty(), PersistentNodeMap.empty(), null, new ReferenceTracker());
 
     /**
      * Handles an add property operation if the property to be added is an attribute.
@@ -326,7 +504,7 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
      * @param parents the map with parent nodes
      * @param root the root node of the current tree
      */
-    static void updateParentMapping(final Map<ImmutableNode, ImmutableNode> parents, final ImmutableNode root) {
+    static void updateParentMapping(final PersistentNodeMap.Builder<ImmutableNode> parents, final ImmutableNode root) {
         NodeTreeWalker.INSTANCE.walkBFS(root, new ConfigurationNodeVisitorAdapter<ImmutableNode>() {
             @Override
             public void visitBeforeChildren(final ImmutableNode node, final NodeHandler<ImmutableNode> handler) {
@@ -348,11 +526,23 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
     /** Stores information about the current nodes structure. */
     private final AtomicReference<TreeData> structure;
 
+    /** The counter for successful update operations. */
+    private final LongAdder updates = new LongAdder();
+
+    /** The counter for failed attempts to replace the structure because of concurrent updates. */
+    private final LongAdder conflicts = new LongAdder();
+
+    /** The counter for update operations that had to be executed again because of conflicts. */
+    private final LongAdder retries = new LongAdder();
+
+    /** The object implementing the combining update strategy; <b>null</b> for the optimistic strategy. */
+    private volatile UpdateCombiner updateCombiner;
+
     /**
      * Creates a new instance of {@code InMemoryNodeModel} which is initialized with an empty root node.
      */
     public InMemoryNodeModel() {
-        this(null);
+        this((ImmutableNode) null);
     }
 
     /**
@@ -365,6 +555,16 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
         structure = new AtomicReference<>(createTreeData(initialRootNode(root), null));
     }
 
+    /**
+     * Creates a new instance of {@code InMemoryNodeModel} which operates on the given {@code TreeData}. This constructor is
+     * used for models executing a batch of updates and for snapshots.
+     *
+     * @param data the initial {@code TreeData}
+     */
+    private InMemoryNodeModel(final TreeData data) {
+        structure = new AtomicReference<>(data);
+    }
+
     @Override
     public void addNodes(final String key, final Collection<? extends ImmutableNode> nodes, final NodeKeyResolver<ImmutableNode> resolver) {
         addNodes(key, null, nodes, resolver);
@@ -522,10 +722,10 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
      * @param root the root node of the structure
      * @return the parent node mapping
      */
-    private Map<ImmutableNode, ImmutableNode> createParentMapping(final ImmutableNode root) {
-        final Map<ImmutableNode, ImmutableNode> parents = new HashMap<>();
+    private PersistentNodeMap<ImmutableNode> createParentMapping(final ImmutableNode root) {
+        final PersistentNodeMap.Builder<ImmutableNode> parents = PersistentNodeMap.<ImmutableNode>empty().builder();
         updateParentMapping(parents, root);
-        return parents;
+        return parents.create();
     }
 
     /**
@@ -549,7 +749,50 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
      * @return the new {@code TreeData} object
      */
     private TreeData createTreeDataForRootAndTracker(final ImmutableNode root, final NodeTracker newTracker) {
-        return new TreeData(root, createParentMapping(root), Collections.<ImmutableNode, ImmutableNode>emptyMap(), newTracker, new ReferenceTracker());
+        return new TreeData(root, createParentMapping(root), PersistentNodeMap.empty(), PersistentNodeMap.empty(), newTracker, new ReferenceTracker());
+    }
+
+    /**
+     * Executes a batch of updates on this model. The passed in consumer is invoked with a model which initially shares the
+     * current node structure of this model. It can perform an arbitrary number of update operations on this model; each
+     * operation sees the effects of the previous ones. After the consumer returns, the resulting structure is set as the
+     * new structure of this model in a single atomic step. So other threads either see the state before the batch or the
+     * state after all of its updates have been applied, but never an intermediate state.
+     * <p>
+     * Note that the single operations of the batch are still executed as separate transactions on the structure of the
+     * batch model, each one based on the result of its predecessor. Only the publication of the final structure happens
+     * once. So a batch saves the atomic updates of the shared structure and the notifications of concurrent readers, but
+     * the costs of the single transactions remain.
+     * </p>
+     * <p>
+     * If this model is updated concurrently while the batch is executed, the updates of the batch are discarded, and the
+     * consumer is invoked again on the new structure. Therefore, the consumer should not have side effects apart from
+     * updating the passed in model. Note that updates of tracked nodes that are already detached are not part of the
+     * batch; they are applied directly to the models of these nodes.
+     * </p>
+     *
+     * @param batch the consumer performing the updates (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the consumer is <b>null</b>
+     * @since 2.11.0
+     */
+    public void executeBatch(final Consumer<? super InMemoryNodeModel> batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch must not be null!");
+        }
+
+        boolean done;
+        do {
+            final TreeData currentData = getTreeData();
+            final InMemoryNodeModel batchModel = new InMemoryNodeModel(currentData);
+            batch.accept(batchModel);
+            final TreeData newData = batchModel.getTreeData();
+            done = newData == currentData || structure.compareAndSet(currentData, newData);
+            if (!done) {
+                conflicts.increment();
+                retries.increment();
+            }
+        } while (!done);
+        updates.increment();
     }
 
     /**
@@ -599,6 +842,18 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
         return false;
     }
 
+    /**
+     * Gets the number of conflicts caused by concurrent updates. This is the number of times an attempt to replace the
+     * structure of this model failed because another thread had changed it in the meantime. A high number compared to the
+     * number of updates indicates heavy contention.
+     *
+     * @return the number of conflicts
+     * @since 2.11.0
+     */
+    public long getConflictCount() {
+        return conflicts.sum();
+    }
+
     /**
      * {@inheritDoc} This implementation simply returns the current root node of this model.
      */
@@ -626,6 +881,17 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
         return getTreeData();
     }
 
+    /**
+     * Gets the number of update operations that had to be executed again because of conflicts with concurrent updates.
+     * With the combining update strategy, a single conflict can cause multiple operations to be retried.
+     *
+     * @return the number of retried update operations
+     * @since 2.11.0
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
     /**
      * Gets the root node of this mode. Note: This method should be used with care. The model may be updated concurrently
      * which causes the root node to be replaced. If the root node is to be processed further (e.g. by executing queries on
@@ -678,6 +944,26 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
         return structure.get();
     }
 
+    /**
+     * Gets the number of update operations executed on this model. A batch of updates is counted as a single operation.
+     *
+     * @return the number of updates
+     * @since 2.11.0
+     */
+    public long getUpdateCount() {
+        return updates.sum();
+    }
+
+    /**
+     * Gets the strategy used by this model for dealing with concurrent updates.
+     *
+     * @return the {@code UpdateStrategy}
+     * @since 2.11.0
+     */
+    public UpdateStrategy getUpdateStrategy() {
+        return updateCombiner != null ? UpdateStrategy.COMBINING : UpdateStrategy.OPTIMISTIC;
+    }
+
     /**
      * Initializes a transaction for an add operation.
      *
@@ -888,6 +1174,36 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
         structure.set(createTreeData(initialRootNode(newRoot), structure.get()));
     }
 
+    /**
+     * Sets the strategy to be used by this model for dealing with concurrent updates. The strategy can be changed at any
+     * time; update operations which are currently executed are not affected.
+     *
+     * @param strategy the new {@code UpdateStrategy} (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the strategy is <b>null</b>
+     * @since 2.11.0
+     */
+    public void setUpdateStrategy(final UpdateStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Update strategy must not be null!");
+        }
+        if (strategy != getUpdateStrategy()) {
+            updateCombiner = strategy == UpdateStrategy.COMBINING ? new UpdateCombiner() : null;
+        }
+    }
+
+    /**
+     * Creates a snapshot of this model. The returned model shares the current node structure of this model; so this
+     * operation does not copy any nodes and is cheap even for large structures. Later changes on this model are not
+     * visible in the snapshot and vice versa. Nodes tracked by this model are not tracked by the snapshot.
+     *
+     * @return a new model representing the current state of this model
+     * @since 2.11.0
+     */
+    public InMemoryNodeModel snapshot() {
+        final TreeData currentData = getTreeData();
+        return new InMemoryNodeModel(currentData.updateNodeTracker(new NodeTracker()));
+    }
+
     /**
      * Tracks all nodes which are children of the node selected by the passed in key. If the key selects exactly one node,
      * for all children of this node {@code NodeSelector} objects are created, and they become tracked nodes. The returned
@@ -984,21 +1300,32 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode> {
     }
 
     /**
-     * Performs a non-blocking, thread-safe update of this model based on a transaction initialized by the passed in
-     * initializer. This method uses the atomic reference for the model's current data to ensure that an update was
-     * successful even if the model is concurrently accessed.
+     * Performs a thread-safe update of this model based on a transaction initialized by the passed in initializer. With
+     * the optimistic update strategy, this method uses the atomic reference for the model's current data to ensure that an
+     * update was successful even if the model is concurrently accessed. With the combining strategy, the update is
+     * delegated to the combiner.
      *
      * @param txInit the {@code TransactionInitializer}
      * @param selector an optional {@code NodeSelector} defining the target node of the transaction
      * @param resolver the {@code NodeKeyResolver}
      */
     private void updateModel(final TransactionInitializer txInit, final NodeSelector selector, final NodeKeyResolver<ImmutableNode> resolver) {
-        boolean done;
+        final UpdateCombiner combiner = updateCombiner;
+        if (combiner != null) {
+            combiner.update(txInit, selector, resolver);
+            return;
+        }
 
+        boolean done;
         do {
             final TreeData currentData = getTreeData();
             done = executeTransactionOnDetachedTrackedNode(txInit, selector, currentData, resolver)
                 || executeTransactionOnCurrentStructure(txInit, selector, currentData, resolver);
+            if (!done) {
+                conflicts.increment();
+                retries.increment();
+            }
         } while (!done);
+        updates.increment();
     }
 }
@@ -212,7 +212,7 @@ final class ModelTransaction {
         protected ImmutableNode apply(final ImmutableNode target, final Operations operations) {
             final Map<ImmutableNode, ImmutableNode> replacements = fetchReplacementMap();
             final Set<ImmutableNode> removals = fetchRemovalSet();
-            final List<ImmutableNode> resultNodes = new LinkedList<>();
+            final List<ImmutableNode> resultNodes = new ArrayList<>(target.getChildren().size() + (newNodes != null ? newNodes.size() : 0));
 
             for (final ImmutableNode nd : target) {
                 final ImmutableNode repl = replacements.get(nd);
@@ -232,14 +232,13 @@ final class ModelTransaction {
         }
 
         /**
-         * Adds all operations defined by the specified object to this instance.
+         * Returns a flag whether this operation changes the list of children of its target node. This is the case if nodes
+         * are added or removed; replacing children by their updated versions does not count as a change.
          *
-         * @param op the operation to be combined
+         * @return a flag whether the children of the target node are changed
          */
-        public void combine(final ChildrenUpdateOperation op) {
-            newNodes = concatenate(newNodes, op.newNodes);
-            nodesToReplace = concatenate(nodesToReplace, op.nodesToReplace);
-            nodesToRemove = concatenate(nodesToRemove, op.nodesToRemove);
+        public boolean changesChildren() {
+            return newNodes != null || nodesToRemove != null;
         }
 
         /**
@@ -292,25 +291,26 @@ final class ModelTransaction {
         private Collection<ImmutableNode> addedNodesInOperation;
 
         /**
-         * Adds an operation which manipulates children.
+         * Adds an operation.
          *
-         * @param co the operation
+         * @param op the operation
          */
-        public void addChildrenOperation(final ChildrenUpdateOperation co) {
-            if (childrenOperation == null) {
-                childrenOperation = co;
-            } else {
-                childrenOperation.combine(co);
-            }
+        public void addOperation(final Operation op) {
+            operations = append(operations, op);
         }
 
         /**
-         * Adds an operation.
+         * Gets the operation which manipulates the children of the target node, creating it if necessary. All changes on
+         * the children of a node - including the replacements of children that have been updated themselves - are collected
+         * in this single operation, so that the target node is rebuilt only once.
          *
-         * @param op the operation
+         * @return the operation for manipulating child nodes
          */
-        public void addOperation(final Operation op) {
-            operations = append(operations, op);
+        public ChildrenUpdateOperation fetchChildrenOperation() {
+            if (childrenOperation == null) {
+                childrenOperation = new ChildrenUpdateOperation();
+            }
+            return childrenOperation;
         }
 
         /**
@@ -333,7 +333,10 @@ final class ModelTransaction {
                 }
             }
 
-            handleAddedNodes(node);
+            if (operations != null || childrenOperation != null && childrenOperation.changesChildren()) {
+                changedNodes.add(target);
+            }
+            handleAddedNodes(target, node);
             if (level == 0) {
                 // reached the root node
                 newRoot = node;
@@ -346,13 +349,17 @@ final class ModelTransaction {
 
         /**
          * Checks whether new nodes have been added during operation execution. If so, the parent mapping has to be updated.
+         * The new nodes are associated with the original node of the target; the replacement mapping then resolves it to
+         * the resulting node.
          *
+         * @param target the target node of the operations
          * @param node the resulting node after applying all operations
          */
-        private void handleAddedNodes(final ImmutableNode node) {
+        private void handleAddedNodes(final ImmutableNode target, final ImmutableNode node) {
             if (addedNodesInOperation != null) {
+                final ImmutableNode parent = getCurrentData().getOriginalNode(target);
                 addedNodesInOperation.forEach(child -> {
-                    parentMapping.put(child, node);
+                    parentMapping.put(child, parent);
                     addedNodes.add(child);
                 });
             }
@@ -377,14 +384,12 @@ final class ModelTransaction {
          * @param level the level of the target node
          */
         private void propagateChange(final ImmutableNode target, final ImmutableNode node, final int level) {
-            final ImmutableNode parent = getParent(target);
-            final ChildrenUpdateOperation co = new ChildrenUpdateOperation();
+            final ChildrenUpdateOperation co = fetchOperations(getParent(target), level - 1).fetchChildrenOperation();
             if (InMemoryNodeModel.checkIfNodeDefined(node)) {
                 co.addNodeToReplace(target, node);
             } else {
                 co.addNodeToRemove(target);
             }
-            fetchOperations(parent, level - 1).addChildrenOperation(co);
         }
     }
 
@@ -411,9 +416,9 @@ final class ModelTransaction {
     }
 
     /**
-     * Constant for the maximum number of entries in the replacement mapping. If this number is exceeded, the parent mapping
-     * is reconstructed. The number is a bit arbitrary. If it is too low, updates - especially on large node structures -
-     * are expensive because the parent mapping is often rebuild. If it is too big, read access to the model is slowed down
+     * Constant for the maximum number of entries in the replacement mapping. If this number is exceeded, the replacements
+     * are incorporated into the parent mapping. The number is a bit arbitrary. If it is too low, updates are more
+     * expensive because the parent mapping is often compacted. If it is too big, read access to the model is slowed down
      * because looking up the parent of a node is more complicated.
      */
     private static final int MAX_REPLACEMENTS = 200;
@@ -532,14 +537,17 @@ final class ModelTransaction {
     /** The {@code NodeKeyResolver} to be used for this transaction. */
     private final NodeKeyResolver<ImmutableNode> resolver;
 
-    /** A new replacement mapping. */
-    private final Map<ImmutableNode, ImmutableNode> replacementMapping;
+    /** A builder for the new replacement mapping. */
+    private PersistentNodeMap.Builder<ImmutableNode> replacementMapping;
+
+    /** A builder for the new inverse replacement mapping. */
+    private PersistentNodeMap.Builder<ImmutableNode> inverseReplacementMapping;
 
     /** The nodes replaced in this transaction. */
     private final Map<ImmutableNode, ImmutableNode> replacedNodes;
 
-    /** A new parent mapping. */
-    private final Map<ImmutableNode, ImmutableNode> parentMapping;
+    /** A builder for the new parent mapping. */
+    private final PersistentNodeMap.Builder<ImmutableNode> parentMapping;
 
     /** A collection with nodes which have been added. */
     private final Collection<ImmutableNode> addedNodes;
@@ -547,6 +555,12 @@ final class ModelTransaction {
     /** A collection with nodes which have been removed. */
     private final Collection<ImmutableNode> removedNodes;
 
+    /**
+     * Stores the nodes whose content has been changed directly in this transaction (in contrast to nodes which have only
+     * been replaced because of changes on their descendants).
+     */
+    private final Collection<ImmutableNode> changedNodes;
+
     /**
      * Stores all nodes which have been removed in this transaction (not only the root nodes of removed trees).
      */
@@ -559,6 +573,9 @@ final class ModelTransaction {
      */
     private final SortedMap<Integer, Map<ImmutableNode, Operations>> operations;
 
+    /** A map with the levels of the parents of nodes affected by operations. */
+    private final Map<ImmutableNode, Integer> levels;
+
     /** A map with reference objects to be added during this transaction. */
     private Map<ImmutableNode, Object> newReferences;
 
@@ -576,12 +593,15 @@ final class ModelTransaction {
     public ModelTransaction(final TreeData treeData, final NodeSelector selector, final NodeKeyResolver<ImmutableNode> resolver) {
         currentData = treeData;
         this.resolver = resolver;
-        replacementMapping = getCurrentData().copyReplacementMapping();
+        replacementMapping = getCurrentData().getReplacementMapping().builder();
+        inverseReplacementMapping = getCurrentData().getInverseReplacementMapping().builder();
         replacedNodes = new HashMap<>();
-        parentMapping = getCurrentData().copyParentMapping();
+        parentMapping = getCurrentData().getParentMapping().builder();
         operations = new TreeMap<>();
+        levels = new HashMap<>();
         addedNodes = new LinkedList<>();
         removedNodes = new LinkedList<>();
+        changedNodes = new LinkedList<>();
         allRemovedNodes = new LinkedList<>();
         queryRoot = initQueryRoot(treeData, selector);
         rootNodeSelector = selector;
@@ -594,9 +614,7 @@ final class ModelTransaction {
      * @param newChild the new child to be added
      */
     public void addAddNodeOperation(final ImmutableNode parent, final ImmutableNode newChild) {
-        final ChildrenUpdateOperation op = new ChildrenUpdateOperation();
-        op.addNewNode(newChild);
-        fetchOperations(parent, LEVEL_UNKNOWN).addChildrenOperation(op);
+        fetchOperations(parent, LEVEL_UNKNOWN).fetchChildrenOperation().addNewNode(newChild);
     }
 
     /**
@@ -606,9 +624,7 @@ final class ModelTransaction {
      * @param newNodes the collection of new child nodes
      */
     public void addAddNodesOperation(final ImmutableNode parent, final Collection<? extends ImmutableNode> newNodes) {
-        final ChildrenUpdateOperation op = new ChildrenUpdateOperation();
-        op.addNewNodes(newNodes);
-        fetchOperations(parent, LEVEL_UNKNOWN).addChildrenOperation(op);
+        fetchOperations(parent, LEVEL_UNKNOWN).fetchChildrenOperation().addNewNodes(newNodes);
     }
 
     /**
@@ -698,9 +714,7 @@ final class ModelTransaction {
      * @param node the child node to be removed
      */
     public void addRemoveNodeOperation(final ImmutableNode parent, final ImmutableNode node) {
-        final ChildrenUpdateOperation op = new ChildrenUpdateOperation();
-        op.addNodeToRemove(node);
-        fetchOperations(parent, LEVEL_UNKNOWN).addChildrenOperation(op);
+        fetchOperations(parent, LEVEL_UNKNOWN).fetchChildrenOperation().addNodeToRemove(node);
     }
 
     /**
@@ -712,8 +726,9 @@ final class ModelTransaction {
     public TreeData execute() {
         executeOperations();
         updateParentMapping();
-        return new TreeData(newRoot, parentMapping, replacementMapping,
-            currentData.getNodeTracker().update(newRoot, rootNodeSelector, getResolver(), getCurrentData()), updateReferenceTracker());
+        return new TreeData(newRoot, parentMapping.create(), replacementMapping.create(), inverseReplacementMapping.create(),
+            currentData.getNodeTracker().update(newRoot, rootNodeSelector, getResolver(), getCurrentData(), replacedNodes, changedNodes, allRemovedNodes),
+            updateReferenceTracker());
     }
 
     /**
@@ -804,42 +819,83 @@ final class ModelTransaction {
 
     /**
      * Determines the level of the specified node in the current hierarchy. The level of the root node is 0, the children of
-     * the root have level 1 and so on.
+     * the root have level 1 and so on. The levels of parent nodes are cached, so that for operations on many nodes with
+     * the same parent the path to the root has to be traversed only once.
      *
      * @param node the node in question
      * @return the level of this node
      */
     private int level(final ImmutableNode node) {
-        ImmutableNode current = getCurrentData().getParent(node);
-        int level = 0;
-        while (current != null) {
-            level++;
-            current = getCurrentData().getParent(current);
+        final ImmutableNode parent = getParent(node);
+        if (parent == null) {
+            return 0;
+        }
+        Integer parentLevel = levels.get(parent);
+        if (parentLevel == null) {
+            parentLevel = Integer.valueOf(level(parent));
+            levels.put(parent, parentLevel);
+        }
+        return parentLevel.intValue() + 1;
+    }
+
+    /**
+     * Compacts the parent mapping. This method is called if the replacement mapping exceeds its maximum size. The nodes
+     * that replaced other nodes and their children are then recorded directly in the parent mapping, so that the
+     * replacement mapping can be cleared. Starting from the new root node, only replaced nodes are visited; so the costs
+     * depend on the changes since the last compaction, but not on the size of the whole node structure.
+     */
+    private void compactParentMapping() {
+        final Set<ImmutableNode> replacements = new HashSet<>();
+        replacementMapping.forEach((org, replacement) -> {
+            parentMapping.remove(org);
+            replacements.add(replacement);
+        });
+        final List<ImmutableNode> pendingNodes = new ArrayList<>();
+        pendingNodes.add(newRoot);
+        while (!pendingNodes.isEmpty()) {
+            final ImmutableNode node = pendingNodes.remove(pendingNodes.size() - 1);
+            node.forEach(child -> {
+                parentMapping.put(child, node);
+                if (replacements.contains(child)) {
+                    pendingNodes.add(child);
+                }
+            });
         }
-        return level;
+        replacementMapping = PersistentNodeMap.<ImmutableNode>empty().builder();
+        inverseReplacementMapping = PersistentNodeMap.<ImmutableNode>empty().builder();
     }
 
     /**
-     * Rebuilds the parent mapping from scratch. This method is called if the replacement mapping exceeds its maximum size.
-     * In this case, it is cleared, and a new parent mapping is constructed for the new root node.
-     */
-    private void rebuildParentMapping() {
-        replacementMapping.clear();
-        parentMapping.clear();
-        InMemoryNodeModel.updateParentMapping(parentMapping, newRoot);
+     * Records a replacement in the replacement mapping. If the replaced node already replaces another node, the entry for
+     * this original node is updated; so the mapping never contains chains of replacements.
+     *
+     * @param node the node that has been replaced
+     * @param replacement the replacing node
+     */
+    private void addReplacement(final ImmutableNode node, final ImmutableNode replacement) {
+        if (node != replacement) {
+            final ImmutableNode org = inverseReplacementMapping.get(node);
+            if (org != null) {
+                inverseReplacementMapping.remove(node);
+            }
+            replacementMapping.put(org != null ? org : node, replacement);
+            inverseReplacementMapping.put(replacement, org != null ? org : node);
+        }
     }
 
     /**
-     * Removes the specified node completely from the replacement mapping. This also includes the nodes that replace the
-     * given one.
+     * Removes the specified node completely from the replacement mapping. If it replaces another node, the entry of this
+     * original node in the parent mapping is removed, too.
      *
      * @param node the node to be removed
      */
     private void removeNodeFromReplacementMapping(final ImmutableNode node) {
-        ImmutableNode replacement = node;
-        do {
-            replacement = replacementMapping.remove(replacement);
-        } while (replacement != null);
+        final ImmutableNode org = inverseReplacementMapping.get(node);
+        if (org != null) {
+            inverseReplacementMapping.remove(node);
+            replacementMapping.remove(org);
+            parentMapping.remove(org);
+        }
     }
 
     /**
@@ -863,12 +919,11 @@ final class ModelTransaction {
      * operations have been executed. It ensures that the parent mapping is updated for the changes on the nodes structure.
      */
     private void updateParentMapping() {
-        replacementMapping.putAll(replacedNodes);
+        replacedNodes.forEach(this::addReplacement);
+        updateParentMappingForAddedNodes();
+        updateParentMappingForRemovedNodes();
         if (replacementMapping.size() > MAX_REPLACEMENTS) {
-            rebuildParentMapping();
-        } else {
-            updateParentMappingForAddedNodes();
-            updateParentMappingForRemovedNodes();
+            compactParentMapping();
         }
     }
 
@@ -16,9 +16,15 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * <p>
@@ -38,10 +44,54 @@ import java.util.Set;
  * should be treated as list nodes. For this purpose the {@code addListNode()} method exists. It can be passed the name
  * of a node, which should be considered a list node.
  * </p>
+ * <p>
+ * Combining large node structures can be expensive. Therefore, a combiner can optionally be assigned a
+ * {@code ForkJoinPool} by calling {@link #setForkJoinPool(ForkJoinPool)}. In this case, the pairs of child nodes which
+ * are combined recursively are processed as independent tasks in this pool. The results are assembled in the original
+ * order, so that the resulting node structure is the same as for a sequential combination. The combiner
+ * implementations shipped with this library support this mode via the {@link #combineChildren(List, List)} helper
+ * method. Note that the methods of a combiner may then be invoked concurrently by multiple threads; the configuration of
+ * the combiner (e.g. the list nodes) must not be changed while a combination is in progress.
+ * </p>
  *
  * @since 1.3
  */
 public abstract class NodeCombiner {
+    /**
+     * A task for combining a pair of child nodes in a fork/join pool.
+     */
+    private final class CombineTask extends RecursiveTask<ImmutableNode> {
+        private static final long serialVersionUID = 1L;
+
+        /** The first node to be combined. */
+        private final transient ImmutableNode node1;
+
+        /** The second node to be combined. */
+        private final transient ImmutableNode node2;
+
+        /**
+         * Creates a new instance of {@code CombineTask}.
+         *
+         * @param node1 the first node
+         * @param node2 the second node
+         */
+        CombineTask(final ImmutableNode node1, final ImmutableNode node2) {
+            this.node1 = node1;
+            this.node2 = node2;
+        }
+
+        @Override
+        protected ImmutableNode compute() {
+            return combine(node1, node2);
+        }
+    }
+
+    /**
+     * Constant for the number of surplus tasks in the queue of the current worker thread up to which new tasks are forked.
+     * If there are more tasks queued, other workers are sufficiently busy, and child nodes are combined directly.
+     */
+    private static final int MAX_SURPLUS_TASKS = 3;
+
     /**
      * A default handler object for immutable nodes. This object can be used by derived classes for dealing with nodes.
      * However, it provides only limited functionality; it supports only operations on child nodes, but no references to
@@ -72,6 +122,9 @@ public abstract class NodeCombiner {
     /** Stores a list with node names that are known to be list nodes. */
     private final Set<String> listNodes;
 
+    /** The pool for combining child nodes in parallel; <b>null</b> for a sequential combination. */
+    private volatile ForkJoinPool forkJoinPool;
+
     /**
      * Creates a new instance of {@code NodeCombiner}.
      */
@@ -98,6 +151,79 @@ public abstract class NodeCombiner {
      */
     public abstract ImmutableNode combine(ImmutableNode node1, ImmutableNode node2);
 
+    /**
+     * Combines multiple pairs of child nodes. This is a helper method for concrete combiner implementations: after an
+     * implementation has determined, which children of the nodes to be combined correspond to each other, it can pass
+     * them to this method. The first list contains child nodes of the first node; the second list contains at the same
+     * position the corresponding child node of the second node or <b>null</b> if the child of the first node is to be
+     * taken over as is. For each pair, {@link #combine(ImmutableNode, ImmutableNode)} is invoked. If a
+     * {@code ForkJoinPool} has been set, these combinations are done in parallel. In any case, the resulting list
+     * contains the combined nodes in the order of the first list.
+     *
+     * @param children1 the list with child nodes of the first node
+     * @param children2 the list with corresponding child nodes of the second node (elements may be <b>null</b>)
+     * @return a list with the resulting child nodes
+     * @since 2.11.0
+     */
+    protected List<ImmutableNode> combineChildren(final List<ImmutableNode> children1, final List<ImmutableNode> children2) {
+        final ForkJoinPool pool = getForkJoinPool();
+        if (pool == null || pool.getParallelism() < 2) {
+            final List<ImmutableNode> result = new ArrayList<>(children1.size());
+            for (int i = 0; i < children1.size(); i++) {
+                final ImmutableNode child2 = children2.get(i);
+                result.add(child2 != null ? combine(children1.get(i), child2) : children1.get(i));
+            }
+            return result;
+        }
+        if (ForkJoinTask.getPool() != pool) {
+            return pool.invoke(ForkJoinTask.adapt(() -> combineChildrenInPool(children1, children2)));
+        }
+        return combineChildrenInPool(children1, children2);
+    }
+
+    /**
+     * Combines multiple pairs of child nodes in the current fork/join pool. Pairs of nodes that have children on their own
+     * are combined by separate tasks as long as the current worker does not have enough tasks queued.
+     *
+     * @param children1 the list with child nodes of the first node
+     * @param children2 the list with corresponding child nodes of the second node
+     * @return a list with the resulting child nodes
+     */
+    private List<ImmutableNode> combineChildrenInPool(final List<ImmutableNode> children1, final List<ImmutableNode> children2) {
+        final ImmutableNode[] result = new ImmutableNode[children1.size()];
+        final CombineTask[] tasks = new CombineTask[result.length];
+        for (int i = 0; i < result.length; i++) {
+            final ImmutableNode child1 = children1.get(i);
+            final ImmutableNode child2 = children2.get(i);
+            if (child2 == null) {
+                result[i] = child1;
+            } else if (!child1.getChildren().isEmpty() && ForkJoinTask.getSurplusQueuedTaskCount() <= MAX_SURPLUS_TASKS) {
+                tasks[i] = new CombineTask(child1, child2);
+                tasks[i].fork();
+            } else {
+                result[i] = combine(child1, child2);
+            }
+        }
+
+        for (int i = tasks.length - 1; i >= 0; i--) {
+            if (tasks[i] != null) {
+                result[i] = tasks[i].join();
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Gets the {@code ForkJoinPool} used for combining child nodes in parallel. Result is <b>null</b> if combinations
+     * are done sequentially.
+     *
+     * @return the {@code ForkJoinPool} for parallel combinations (may be <b>null</b>)
+     * @since 2.11.0
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
     /**
      * Gets a set with the names of nodes that are known to be list nodes.
      *
@@ -117,4 +243,18 @@ public abstract class NodeCombiner {
     public boolean isListNode(final ImmutableNode node) {
         return listNodes.contains(node.getNodeName());
     }
+
+    /**
+     * Sets the {@code ForkJoinPool} to be used for combining child nodes in parallel. Per default, no pool is set, and
+     * node structures are combined sequentially by the calling thread. When a pool is set, independent subtrees are
+     * combined by tasks executed in this pool; the results are the same as for a sequential combination. A pool with a
+     * parallelism of 1 is ignored. This is typically useful only for large node structures, for instance using
+     * {@link ForkJoinPool#commonPool()}.
+     *
+     * @param forkJoinPool the pool for parallel combinations (<b>null</b> for sequential combinations)
+     * @since 2.11.0
+     */
+    public void setForkJoinPool(final ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
 }
@@ -18,6 +18,7 @@ package org.apache.commons.configuration2.tree;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * <p>
@@ -89,6 +90,26 @@ public interface NodeHandler<T> {
      */
     int getChildrenCount(T node, String name);
 
+    /**
+     * Gets the value of the specified node converted by the given function. Handlers for immutable nodes can cache the
+     * result of the conversion, so that the function has to be invoked only once for a node, a target type, and a
+     * conversion. The object passed as {@code conversion} identifies the settings the result depends on, for instance a
+     * {@code ConversionHandler}; a cached value is only used if the same object is passed in again. As cached objects are
+     * shared between callers, caching should only be requested for conversions to immutable types. This default
+     * implementation does not cache anything; it just applies the function to the value of the node.
+     *
+     * @param node the node
+     * @param type the target type of the conversion
+     * @param conversion an object identifying the conversion
+     * @param converter the function performing the conversion of the node value
+     * @param <R> the target type of the conversion
+     * @return the converted value of this node
+     * @since 2.11.0
+     */
+    default <R> R getConvertedValue(final T node, final Class<R> type, final Object conversion, final Function<Object, ? extends R> converter) {
+        return converter.apply(getValue(node));
+    }
+
     /**
      * Gets an unmodifiable list of all children of the specified node which are matched by the passed in
      * {@code NodeMatcher} against the provided criterion. This method allows for advanced queries on a node's children.
@@ -18,6 +18,7 @@ package org.apache.commons.configuration2.tree;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * <p>
@@ -63,6 +64,11 @@ public abstract class NodeHandlerDecorator<T> implements NodeHandler<T> {
         return getDecoratedNodeHandler().getChildrenCount(node, name);
     }
 
+    @Override
+    public <R> R getConvertedValue(final T node, final Class<R> type, final Object conversion, final Function<Object, ? extends R> converter) {
+        return getDecoratedNodeHandler().getConvertedValue(node, type, conversion, converter);
+    }
+
     /**
      * Gets the {@code NodeHandler} object that is decorated by this instance. All method calls are delegated to this
      * object.
@@ -33,6 +33,20 @@ import java.util.Map;
  * @param <T> the type of the nodes supported by this resolver
  */
 public interface NodeKeyResolver<T> {
+    /**
+     * Gets an object describing the way this resolver interprets keys. Two resolvers returning equal objects must produce
+     * the same results when resolving the same key on the same nodes. A node model uses this information to find out
+     * whether the results of an earlier evaluation of a key are still valid. If the way keys are interpreted changes - for
+     * instance because another {@link ExpressionEngine} is set -, the object returned by this method has to change, too.
+     * This default implementation returns this object; so results are only reused for the same resolver instance.
+     *
+     * @return an object describing the resolution of keys by this resolver
+     * @since 2.11.0
+     */
+    default Object getResolutionState() {
+        return this;
+    }
+
     /**
      * Generates a unique key for the specified node. This method is used if keys have to be generated for nodes received as
      * query results. An implementation must generate a canonical key which is compatible with the current expression
@@ -19,11 +19,16 @@ package org.apache.commons.configuration2.tree;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
+import org.apache.commons.lang3.mutable.MutableInt;
 
 /**
  * <p>
@@ -47,6 +52,18 @@ import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
  * </ul>
  * </p>
  * <p>
+ * Re-evaluating all selectors after each update would make the costs of an update proportional to the number of
+ * tracked nodes. Therefore, this class records for each selector the nodes that were inspected when it was evaluated
+ * the last time. If an update changes or removes none of these nodes, the selector is going to select the same node
+ * again - or the replacement of this node if it was rebuilt because one of its descendants has been changed. So only
+ * selectors depending on changed nodes are evaluated again; for all others, the tracked node is just updated using the
+ * replacements reported by the transaction. This optimization is only valid as long as keys are resolved in the same
+ * way; if an update is executed with a resolver reporting a different resolution state - for instance because the
+ * expression engine was changed -, all selectors are evaluated again. Each tracked node also stores the index entries it has been added to, so that
+ * it can be removed from them when it is evaluated again or no longer tracked. As index entries are moved to the
+ * replacements of their nodes, an entry is identified by the node it was created for originally.
+ * </p>
+ * <p>
  * Implementation note: This class is intended to work in a concurrent environment. Instances are immutable. The
  * represented state can be updated by creating new instances which are then stored by the owning node model.
  * </p>
@@ -54,11 +71,157 @@ import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
  * @since 2.0
  */
 final class NodeTracker {
+    /**
+     * A specialized {@code NodeHandler} which records all nodes passed to its methods. It is used when the selector of a
+     * tracked node is evaluated to determine the nodes the result depends on.
+     */
+    private static final class RecordingNodeHandler extends NodeHandlerDecorator<ImmutableNode> {
+        /** The decorated handler. */
+        private final NodeHandler<ImmutableNode> handler;
+
+        /** The nodes inspected so far. */
+        private final Set<ImmutableNode> inspectedNodes;
+
+        /**
+         * Creates a new instance of {@code RecordingNodeHandler} which decorates the given handler.
+         *
+         * @param handler the handler to be decorated
+         */
+        public RecordingNodeHandler(final NodeHandler<ImmutableNode> handler) {
+            this.handler = handler;
+            inspectedNodes = new HashSet<>();
+        }
+
+        @Override
+        public Set<String> getAttributes(final ImmutableNode node) {
+            return super.getAttributes(record(node));
+        }
+
+        @Override
+        public Object getAttributeValue(final ImmutableNode node, final String name) {
+            return super.getAttributeValue(record(node), name);
+        }
+
+        @Override
+        public ImmutableNode getChild(final ImmutableNode node, final int index) {
+            return super.getChild(record(node), index);
+        }
+
+        @Override
+        public List<ImmutableNode> getChildren(final ImmutableNode node) {
+            return super.getChildren(record(node));
+        }
+
+        @Override
+        public List<ImmutableNode> getChildren(final ImmutableNode node, final String name) {
+            return super.getChildren(record(node), name);
+        }
+
+        @Override
+        public int getChildrenCount(final ImmutableNode node, final String name) {
+            return super.getChildrenCount(record(node), name);
+        }
+
+        @Override
+        protected NodeHandler<ImmutableNode> getDecoratedNodeHandler() {
+            return handler;
+        }
+
+        /**
+         * Gets a set with all nodes which have been passed to this handler.
+         *
+         * @return the set with inspected nodes
+         */
+        public Set<ImmutableNode> getInspectedNodes() {
+            return inspectedNodes;
+        }
+
+        @Override
+        public <C> List<ImmutableNode> getMatchingChildren(final ImmutableNode node, final NodeMatcher<C> matcher, final C criterion) {
+            return super.getMatchingChildren(record(node), matcher, criterion);
+        }
+
+        @Override
+        public <C> int getMatchingChildrenCount(final ImmutableNode node, final NodeMatcher<C> matcher, final C criterion) {
+            return super.getMatchingChildrenCount(record(node), matcher, criterion);
+        }
+
+        @Override
+        public ImmutableNode getParent(final ImmutableNode node) {
+            return super.getParent(record(node));
+        }
+
+        @Override
+        public Object getValue(final ImmutableNode node) {
+            return super.getValue(record(node));
+        }
+
+        @Override
+        public boolean hasAttributes(final ImmutableNode node) {
+            return super.hasAttributes(record(node));
+        }
+
+        @Override
+        public int indexOfChild(final ImmutableNode parent, final ImmutableNode child) {
+            return super.indexOfChild(record(parent), child);
+        }
+
+        @Override
+        public boolean isDefined(final ImmutableNode node) {
+            return super.isDefined(record(node));
+        }
+
+        @Override
+        public String nodeName(final ImmutableNode node) {
+            return super.nodeName(record(node));
+        }
+
+        /**
+         * Records the given node as inspected.
+         *
+         * @param node the node
+         * @return the same node
+         */
+        private ImmutableNode record(final ImmutableNode node) {
+            if (node != null) {
+                inspectedNodes.add(node);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * A simple data class representing an entry in the index of dependent selectors. An entry stores the selectors
+     * depending on a node. When the node is replaced, the entry is moved to the replacement; the node the entry was
+     * created for serves as a stable identifier.
+     */
+    private static final class Dependents {
+        /** The node this entry was created for. */
+        private final ImmutableNode anchor;
+
+        /** The selectors depending on the node. */
+        private final Set<NodeSelector> selectors;
+
+        /**
+         * Creates a new instance of {@code Dependents}.
+         *
+         * @param anchor the node this entry was created for
+         * @param selectors the set with dependent selectors
+         */
+        Dependents(final ImmutableNode anchor, final Set<NodeSelector> selectors) {
+            this.anchor = anchor;
+            this.selectors = selectors;
+        }
+    }
+
     /**
      * A simple data class holding information about a tracked node.
      */
     private static final class TrackedNodeData {
-        /** The current instance of the tracked node. */
+        /**
+         * The tracked node. If the node is not detached, this is the instance selected when the data object was created.
+         * Later replacements of this instance are managed by the owning tracker.
+         */
         private final ImmutableNode node;
 
         /** The number of observers of this tracked node. */
@@ -67,13 +230,16 @@ final class NodeTracker {
         /** A node model to be used when the tracked node is detached. */
         private final InMemoryNodeModel detachedModel;
 
+        /** The identifiers of the index entries the selector of this tracked node has been added to. */
+        private final Set<ImmutableNode> dependencies;
+
         /**
          * Creates a new instance of {@code TrackedNodeData} and initializes it with the current reference to the tracked node.
          *
          * @param nd the tracked node
          */
         public TrackedNodeData(final ImmutableNode nd) {
-            this(nd, 1, null);
+            this(nd, 1, null, Collections.<ImmutableNode>emptySet());
         }
 
         /**
@@ -82,24 +248,33 @@ final class NodeTracker {
          * @param nd the tracked node
          * @param obsCount the observer count
          * @param detachedNodeModel a model to be used in detached mode
+         * @param deps the identifiers of the index entries of the selector
          */
-        private TrackedNodeData(final ImmutableNode nd, final int obsCount, final InMemoryNodeModel detachedNodeModel) {
+        private TrackedNodeData(final ImmutableNode nd, final int obsCount, final InMemoryNodeModel detachedNodeModel, final Set<ImmutableNode> deps) {
             node = nd;
             observerCount = obsCount;
             detachedModel = detachedNodeModel;
+            dependencies = deps;
         }
 
         /**
          * Returns an instance with the detached flag set to true. This method is called if the selector of a tracked node does
-         * not match a single node any more. It is possible to pass in a new node instance which becomes the current tracked
-         * node. If this is <b>null</b>, the previous node instance is used.
+         * not match a single node any more. The passed in node becomes the current tracked node.
          *
-         * @param newNode the new tracked node instance (may be <b>null</b>)
+         * @param newNode the new tracked node instance
          * @return the updated instance
          */
         public TrackedNodeData detach(final ImmutableNode newNode) {
-            final ImmutableNode newTrackedNode = newNode != null ? newNode : getNode();
-            return new TrackedNodeData(newTrackedNode, observerCount, new InMemoryNodeModel(newTrackedNode));
+            return new TrackedNodeData(newNode, observerCount, new InMemoryNodeModel(newNode), Collections.<ImmutableNode>emptySet());
+        }
+
+        /**
+         * Gets the identifiers of the index entries the selector of this tracked node has been added to.
+         *
+         * @return the identifiers of the index entries
+         */
+        public Set<ImmutableNode> getDependencies() {
+            return dependencies;
         }
 
         /**
@@ -113,7 +288,7 @@ final class NodeTracker {
         }
 
         /**
-         * Gets the tracked node.
+         * Gets the tracked node. For a node which is not detached, this is the instance the data object was created for.
          *
          * @return the tracked node
          */
@@ -136,7 +311,7 @@ final class NodeTracker {
          * @return the updated instance
          */
         public TrackedNodeData observerAdded() {
-            return new TrackedNodeData(node, observerCount + 1, getDetachedModel());
+            return new TrackedNodeData(node, observerCount + 1, getDetachedModel(), dependencies);
         }
 
         /**
@@ -147,120 +322,459 @@ final class NodeTracker {
          * @return the updated instance or <b>null</b>
          */
         public TrackedNodeData observerRemoved() {
-            return observerCount <= 1 ? null : new TrackedNodeData(node, observerCount - 1, getDetachedModel());
+            return observerCount <= 1 ? null : new TrackedNodeData(node, observerCount - 1, getDetachedModel(), dependencies);
         }
 
         /**
-         * Updates the node reference. This method is called after an update of the underlying node structure if the tracked
-         * node was replaced by another instance.
+         * Updates the node reference. This method is called after an update of the underlying node structure if the selector
+         * of the tracked node selects another instance.
          *
          * @param newNode the new tracked node instance
          * @return the updated instance
          */
         public TrackedNodeData updateNode(final ImmutableNode newNode) {
-            return new TrackedNodeData(newNode, observerCount, getDetachedModel());
+            return new TrackedNodeData(newNode, observerCount, getDetachedModel(), dependencies);
         }
-    }
 
-    /**
-     * Creates an empty node derived from the passed in {@code TrackedNodeData} object. This method is called if a tracked
-     * node got cleared by a transaction.
-     *
-     * @param data the {@code TrackedNodeData}
-     * @return the new node instance for this tracked node
-     */
-    private static ImmutableNode createEmptyTrackedNode(final TrackedNodeData data) {
-        return new ImmutableNode.Builder().name(data.getNode().getNodeName()).create();
+        /**
+         * Returns an instance with the given identifiers of index entries. This method is called when the selector of this
+         * tracked node has been evaluated again.
+         *
+         * @param deps the identifiers of the index entries of the selector
+         * @return the updated instance
+         */
+        public TrackedNodeData updateDependencies(final Set<ImmutableNode> deps) {
+            return new TrackedNodeData(node, observerCount, getDetachedModel(), deps);
+        }
     }
 
     /**
-     * Creates a new {@code TrackedNodeData} object for a tracked node which becomes detached within the current
-     * transaction. This method checks whether the affected node is the root node of the current transaction. If so, it is
-     * cleared.
-     *
-     * @param txTarget the {@code NodeSelector} referencing the target node of the current transaction (may be <b>null</b>)
-     * @param e the current selector and {@code TrackedNodeData}
-     * @return the new {@code TrackedNodeData} object to be used for this tracked node
+     * A helper class for constructing a new {@code NodeTracker} instance from an existing one. An instance collects the
+     * changes on the tracking state caused by an operation. Only the parts of the state that are actually affected are
+     * copied.
      */
-    private static TrackedNodeData detachedTrackedNodeData(final NodeSelector txTarget, final Map.Entry<NodeSelector, TrackedNodeData> e) {
-        final ImmutableNode newNode = e.getKey().equals(txTarget) ? createEmptyTrackedNode(e.getValue()) : null;
-        return e.getValue().detach(newNode);
-    }
+    private static final class Updater {
+        /** The tracker to be updated. */
+        private final NodeTracker tracker;
 
-    /**
-     * Returns a {@code TrackedNodeData} object for an update operation. If the tracked node is still life, its selector is
-     * applied to the current root node. It may become detached if there is no match.
-     *
-     * @param root the root node
-     * @param txTarget the {@code NodeSelector} referencing the target node of the current transaction (may be <b>null</b>)
-     * @param resolver the {@code NodeKeyResolver}
-     * @param handler the {@code NodeHandler}
-     * @param e the current selector and {@code TrackedNodeData}
-     * @return the updated {@code TrackedNodeData}
-     */
-    private static TrackedNodeData determineUpdatedTrackedNodeData(final ImmutableNode root, final NodeSelector txTarget,
-        final NodeKeyResolver<ImmutableNode> resolver, final NodeHandler<ImmutableNode> handler, final Map.Entry<NodeSelector, TrackedNodeData> e) {
-        if (e.getValue().isDetached()) {
-            return e.getValue();
-        }
-
-        ImmutableNode newTarget;
-        try {
-            newTarget = e.getKey().select(root, resolver, handler);
-        } catch (final Exception ex) {
-            /*
-             * Evaluation of the key caused an exception. This can happen for instance if the expression engine was changed. In this
-             * case, the node becomes detached.
-             */
-            newTarget = null;
-        }
-        if (newTarget == null) {
-            return detachedTrackedNodeData(txTarget, e);
-        }
-        return e.getValue().updateNode(newTarget);
+        /** A map with updated data of tracked nodes; a <b>null</b> value means that the selector was removed. */
+        private final Map<NodeSelector, TrackedNodeData> changedData;
+
+        /** A flag whether the current index of dependent selectors is kept. */
+        private final boolean keepIndex;
+
+        /** A builder for the dependent selectors. */
+        private final PersistentNodeMap.Builder<Dependents> dependents;
+
+        /** A builder for the mapping from the identifiers of index entries to the nodes they are currently stored for. */
+        private final PersistentNodeMap.Builder<ImmutableNode> anchors;
+
+        /** Stores the sets of dependent selectors which have already been copied by this updater. */
+        private final Map<ImmutableNode, Set<NodeSelector>> copiedDependents;
+
+        /** A builder for the mapping from original tracked nodes to their current instances. */
+        private final PersistentNodeMap.Builder<ImmutableNode> currentNodes;
+
+        /** A builder for the inverse mapping from current instances to original tracked nodes. */
+        private final PersistentNodeMap.Builder<ImmutableNode> originalNodes;
+
+        /** The updated set of selectors that are not yet indexed; <b>null</b> if it has not been changed. */
+        private Set<NodeSelector> unindexed;
+
+        /** The resolution state of the resolver used to evaluate the indexed selectors. */
+        private Object resolutionState;
+
+        /**
+         * Creates a new instance of {@code Updater} which operates on the given tracker.
+         *
+         * @param tracker the tracker to be updated
+         * @param keepIndex a flag whether the current index of dependent selectors can be kept
+         */
+        public Updater(final NodeTracker tracker, final boolean keepIndex) {
+            this.tracker = tracker;
+            this.keepIndex = keepIndex;
+            changedData = new HashMap<>();
+            dependents = (keepIndex ? tracker.dependentSelectors : PersistentNodeMap.<Dependents>empty()).builder();
+            anchors = (keepIndex ? tracker.dependencyAnchors : PersistentNodeMap.<ImmutableNode>empty()).builder();
+            copiedDependents = new HashMap<>();
+            currentNodes = tracker.currentNodes.builder();
+            originalNodes = tracker.originalNodes.builder();
+            resolutionState = tracker.resolutionState;
+            if (!keepIndex) {
+                unindexed = new HashSet<>();
+            }
+        }
+
+        /**
+         * Creates the new {@code NodeTracker} instance with the changes collected by this object.
+         *
+         * @return the updated {@code NodeTracker}
+         */
+        public NodeTracker create() {
+            final Set<NodeSelector> newUnindexed = unindexed != null ? unindexed : tracker.unindexedSelectors;
+            if (changedData.isEmpty()) {
+                return new NodeTracker(tracker.trackedNodes, dependents.create(), anchors.create(), currentNodes.create(), originalNodes.create(),
+                    newUnindexed, resolutionState);
+            }
+
+            final Map<NodeSelector, TrackedNodeData> newState = new HashMap<>(tracker.trackedNodes);
+            changedData.forEach((selector, data) -> {
+                if (data == null) {
+                    newState.remove(selector);
+                } else {
+                    newState.put(selector, data);
+                }
+            });
+            if (newState.isEmpty()) {
+                return new NodeTracker();
+            }
+
+            // the data has to be copied anyway, so remove mappings for nodes which are no longer tracked
+            final PersistentNodeMap.Builder<ImmutableNode> newCurrentNodes = PersistentNodeMap.<ImmutableNode>empty().builder();
+            final PersistentNodeMap.Builder<ImmutableNode> newOriginalNodes = PersistentNodeMap.<ImmutableNode>empty().builder();
+            newState.values().stream().filter(data -> !data.isDetached()).forEach(data -> {
+                final ImmutableNode org = data.getNode();
+                final ImmutableNode current = currentNodes.get(org);
+                newCurrentNodes.put(org, current != null ? current : org);
+                newOriginalNodes.put(current != null ? current : org, org);
+            });
+            return new NodeTracker(newState, dependents.create(), anchors.create(), newCurrentNodes.create(), newOriginalNodes.create(), newUnindexed,
+                resolutionState);
+        }
+
+        /**
+         * Evaluates the selector of a tracked node again and updates the tracking state accordingly. The nodes inspected
+         * during the evaluation are recorded, so that the selector is evaluated again if one of them is changed.
+         *
+         * @param root the root node
+         * @param selector the {@code NodeSelector}
+         * @param txTarget the {@code NodeSelector} referencing the target node of the current transaction (may be <b>null</b>)
+         * @param resolver the {@code NodeKeyResolver}
+         * @param handler the {@code NodeHandler}
+         */
+        public void evaluate(final ImmutableNode root, final NodeSelector selector, final NodeSelector txTarget,
+            final NodeKeyResolver<ImmutableNode> resolver, final NodeHandler<ImmutableNode> handler) {
+            final TrackedNodeData data = getData(selector);
+            if (data == null || data.isDetached()) {
+                return;
+            }
+
+            final RecordingNodeHandler recordingHandler = new RecordingNodeHandler(handler);
+            ImmutableNode newTarget;
+            try {
+                newTarget = selector.select(root, resolver, recordingHandler);
+            } catch (final Exception ex) {
+                /*
+                 * Evaluation of the key caused an exception. This can happen for instance if the expression engine was changed. In this
+                 * case, the node becomes detached.
+                 */
+                newTarget = null;
+            }
+
+            if (newTarget == null) {
+                // use the node instance before the update
+                final ImmutableNode previousTarget = tracker.getCurrentNode(data);
+                putData(selector, data.detach(selector.equals(txTarget) ? createEmptyTrackedNode(previousTarget) : previousTarget));
+                return;
+            }
+
+            TrackedNodeData newData = newTarget != getCurrentNode(data) ? data.updateNode(originalNode(newTarget)) : data;
+            final Set<ImmutableNode> deps = updateDependencies(selector, keepIndex ? data.getDependencies() : Collections.<ImmutableNode>emptySet(),
+                recordingHandler.getInspectedNodes());
+            if (!deps.equals(data.getDependencies())) {
+                newData = newData.updateDependencies(deps);
+            }
+            if (newData != data) {
+                putData(selector, newData);
+            }
+        }
+
+        /**
+         * Records the resolution state of the resolver used to evaluate selectors. If the index is rebuilt, the state is
+         * taken over. Otherwise, it must match the state the index was built with; if this is not the case, the state is
+         * marked as unknown, so that the next update evaluates all selectors again.
+         *
+         * @param resolver the {@code NodeKeyResolver}
+         */
+        public void resolvedWith(final NodeKeyResolver<ImmutableNode> resolver) {
+            final Object state = resolver.getResolutionState();
+            if (!keepIndex || tracker.trackedNodes.isEmpty()) {
+                resolutionState = state;
+            } else if (!Objects.equals(state, resolutionState)) {
+                resolutionState = UNKNOWN_RESOLUTION_STATE;
+            }
+        }
+
+        /**
+         * Gets the current data object for the given selector.
+         *
+         * @param selector the {@code NodeSelector}
+         * @return the data object for this selector or <b>null</b> if it is not tracked
+         */
+        public TrackedNodeData getData(final NodeSelector selector) {
+            return changedData.containsKey(selector) ? changedData.get(selector) : tracker.trackedNodes.get(selector);
+        }
+
+        /**
+         * Stores a new data object for the given selector. Selectors which are removed or detached do not need to be
+         * evaluated any more; so they are removed from the index.
+         *
+         * @param selector the {@code NodeSelector}
+         * @param data the new data object (<b>null</b> to remove the selector)
+         */
+        public void putData(final NodeSelector selector, final TrackedNodeData data) {
+            final TrackedNodeData oldData = getData(selector);
+            changedData.put(selector, data);
+            if (data == null || data.isDetached()) {
+                updateUnindexed(selector, false);
+                if (oldData != null && keepIndex) {
+                    oldData.getDependencies().forEach(anchor -> removeDependency(anchor, selector));
+                }
+            }
+        }
+
+        /**
+         * Removes all nodes from the index that have been removed from the node structure. The selectors depending on
+         * these nodes are added to the given set.
+         *
+         * @param nodes the removed nodes
+         * @param affected the set with affected selectors
+         */
+        public void nodesRemoved(final Collection<ImmutableNode> nodes, final Set<NodeSelector> affected) {
+            nodes.forEach(node -> {
+                final Dependents entry = dependents.get(node);
+                if (entry != null) {
+                    affected.addAll(entry.selectors);
+                    dependents.remove(node);
+                    anchors.remove(entry.anchor);
+                }
+            });
+        }
+
+        /**
+         * Processes the nodes that have been replaced by an update. Index entries and tracked nodes are moved to the
+         * replacement nodes.
+         *
+         * @param replacedNodes a map with the replaced nodes and their replacements
+         */
+        public void nodesReplaced(final Map<ImmutableNode, ImmutableNode> replacedNodes) {
+            replacedNodes.forEach((node, replacement) -> {
+                final Dependents entry = dependents.get(node);
+                if (entry != null) {
+                    dependents.remove(node);
+                    dependents.put(replacement, entry);
+                    anchors.put(entry.anchor, replacement);
+                }
+                final ImmutableNode org = originalNodes.get(node);
+                if (org != null) {
+                    originalNodes.remove(node);
+                    originalNodes.put(replacement, org);
+                    currentNodes.put(org, replacement);
+                }
+            });
+        }
+
+        /**
+         * Registers a selector as dependent on the given node.
+         *
+         * @param node the node
+         * @param selector the {@code NodeSelector}
+         * @return the identifier of the index entry for this node
+         */
+        private ImmutableNode addDependency(final ImmutableNode node, final NodeSelector selector) {
+            final Dependents entry = dependents.get(node);
+            if (entry == null) {
+                final Set<NodeSelector> selectors = new HashSet<>();
+                selectors.add(selector);
+                copiedDependents.put(node, selectors);
+                dependents.put(node, new Dependents(node, selectors));
+                anchors.put(node, node);
+                return node;
+            }
+            if (!entry.selectors.contains(selector)) {
+                copySelectors(node, entry).add(selector);
+            }
+            return entry.anchor;
+        }
+
+        /**
+         * Returns a copy of the set of selectors of the given index entry which can be modified by this updater. The set
+         * is copied on first access.
+         *
+         * @param node the node the entry is stored for
+         * @param entry the index entry
+         * @return the modifiable set of selectors of this entry
+         */
+        private Set<NodeSelector> copySelectors(final ImmutableNode node, final Dependents entry) {
+            Set<NodeSelector> selectors = copiedDependents.get(node);
+            if (selectors == null) {
+                selectors = new HashSet<>(entry.selectors);
+                copiedDependents.put(node, selectors);
+                dependents.put(node, new Dependents(entry.anchor, selectors));
+            }
+            return selectors;
+        }
+
+        /**
+         * Removes a selector from the index entry with the given identifier. Entries that become empty are removed.
+         *
+         * @param anchor the identifier of the index entry
+         * @param selector the {@code NodeSelector}
+         */
+        private void removeDependency(final ImmutableNode anchor, final NodeSelector selector) {
+            final ImmutableNode node = anchors.get(anchor);
+            final Dependents entry = node != null ? dependents.get(node) : null;
+            if (entry == null || !entry.selectors.contains(selector)) {
+                return;
+            }
+            final Set<NodeSelector> selectors = copySelectors(node, entry);
+            selectors.remove(selector);
+            if (selectors.isEmpty()) {
+                dependents.remove(node);
+                anchors.remove(anchor);
+                copiedDependents.remove(node);
+            }
+        }
+
+        /**
+         * Registers a selector as dependent on the given nodes and removes it from the index entries of nodes it no longer
+         * depends on. If no nodes have been inspected, the selector is marked as not indexed; it is then evaluated on each
+         * update.
+         *
+         * @param selector the {@code NodeSelector}
+         * @param oldDependencies the identifiers of the index entries the selector has been added to before
+         * @param nodes the nodes inspected when evaluating the selector
+         * @return the identifiers of the index entries the selector is now contained in
+         */
+        private Set<ImmutableNode> updateDependencies(final NodeSelector selector, final Set<ImmutableNode> oldDependencies,
+            final Set<ImmutableNode> nodes) {
+            updateUnindexed(selector, nodes.isEmpty());
+            final Set<ImmutableNode> deps = new HashSet<>();
+            nodes.forEach(node -> deps.add(addDependency(node, selector)));
+            oldDependencies.forEach(anchor -> {
+                if (!deps.contains(anchor)) {
+                    removeDependency(anchor, selector);
+                }
+            });
+            return deps;
+        }
+
+        /**
+         * Adds a selector to or removes it from the set of selectors that are not indexed. The set is copied on first
+         * modification.
+         *
+         * @param selector the {@code NodeSelector}
+         * @param add <b>true</b> to add the selector, <b>false</b> to remove it
+         */
+        private void updateUnindexed(final NodeSelector selector, final boolean add) {
+            final Set<NodeSelector> current = unindexed != null ? unindexed : tracker.unindexedSelectors;
+            if (current.contains(selector) != add) {
+                if (unindexed == null) {
+                    unindexed = new HashSet<>(tracker.unindexedSelectors);
+                }
+                if (add) {
+                    unindexed.add(selector);
+                } else {
+                    unindexed.remove(selector);
+                }
+            }
+        }
+
+        /**
+         * Gets the current instance of the tracked node represented by the given data object.
+         *
+         * @param data the data object
+         * @return the current tracked node
+         */
+        private ImmutableNode getCurrentNode(final TrackedNodeData data) {
+            final ImmutableNode current = data.isDetached() ? null : currentNodes.get(data.getNode());
+            return current != null ? current : data.getNode();
+        }
+
+        /**
+         * Returns the original tracked node for the given node. If the node is already tracked - maybe as the replacement of
+         * another node -, the node registered for the existing tracked node is returned. Otherwise, the node is registered
+         * as a new original tracked node.
+         *
+         * @param node the node to be tracked
+         * @return the original node to be stored in a {@code TrackedNodeData} object
+         */
+        private ImmutableNode originalNode(final ImmutableNode node) {
+            final ImmutableNode org = originalNodes.get(node);
+            if (org != null) {
+                return org;
+            }
+            originalNodes.put(node, node);
+            currentNodes.put(node, node);
+            return node;
+        }
     }
 
+    /** A marker for a resolution state which does not match the resolution state of any resolver. */
+    private static final Object UNKNOWN_RESOLUTION_STATE = new Object();
+
     /**
-     * Creates a {@code TrackedNodeData} object for a newly added observer for the specified node selector.
+     * Creates an empty node derived from the passed in node. This method is called if a tracked node got cleared by a
+     * transaction.
      *
-     * @param root the root node
-     * @param selector the {@code NodeSelector}
-     * @param resolver the {@code NodeKeyResolver}
-     * @param handler the {@code NodeHandler}
-     * @param trackData the current data for this selector
-     * @return the updated {@code TrackedNodeData}
-     * @throws ConfigurationRuntimeException if the selector does not select a single node
+     * @param node the current tracked node
+     * @return the new node instance for this tracked node
      */
-    private static TrackedNodeData trackDataForAddedObserver(final ImmutableNode root, final NodeSelector selector,
-        final NodeKeyResolver<ImmutableNode> resolver, final NodeHandler<ImmutableNode> handler, final TrackedNodeData trackData) {
-        if (trackData != null) {
-            return trackData.observerAdded();
-        }
-        final ImmutableNode target = selector.select(root, resolver, handler);
-        if (target == null) {
-            throw new ConfigurationRuntimeException("Selector does not select unique node: " + selector);
-        }
-        return new TrackedNodeData(target);
+    private static ImmutableNode createEmptyTrackedNode(final ImmutableNode node) {
+        return new ImmutableNode.Builder().name(node.getNodeName()).create();
     }
 
     /** A map with data about tracked nodes. */
     private final Map<NodeSelector, TrackedNodeData> trackedNodes;
 
+    /** Stores for each node the selectors that have inspected this node when they were evaluated the last time. */
+    private final PersistentNodeMap<Dependents> dependentSelectors;
+
+    /** A mapping from the identifiers of the entries in the index of dependent selectors to their current nodes. */
+    private final PersistentNodeMap<ImmutableNode> dependencyAnchors;
+
+    /** A mapping from the original nodes stored for tracked nodes to their current instances. */
+    private final PersistentNodeMap<ImmutableNode> currentNodes;
+
+    /** The inverse mapping of {@code currentNodes}. */
+    private final PersistentNodeMap<ImmutableNode> originalNodes;
+
+    /** A set with selectors that have not been evaluated yet; they do not occur in the index. */
+    private final Set<NodeSelector> unindexedSelectors;
+
+    /** The resolution state of the resolver the selectors in the index have been evaluated with. */
+    private final Object resolutionState;
+
     /**
      * Creates a new instance of {@code NodeTracker}. This instance does not yet track any nodes.
      */
     public NodeTracker() {
-        this(Collections.<NodeSelector, TrackedNodeData>emptyMap());
+        this(Collections.<NodeSelector, TrackedNodeData>emptyMap(), PersistentNodeMap.empty(), PersistentNodeMap.empty(), PersistentNodeMap.empty(),
+            PersistentNodeMap.empty(), Collections.<NodeSelector>emptySet(), null);
     }
 
     /**
-     * Creates a new instance of {@code NodeTracker} and initializes it with the given map of tracked nodes. This
-     * constructor is used internally when the state of tracked nodes has changed.
+     * Creates a new instance of {@code NodeTracker} and initializes it with the given state. This constructor is used
+     * internally when the state of tracked nodes has changed.
      *
      * @param map the map with tracked nodes
+     * @param dependents the map with dependent selectors
+     * @param anchors the mapping from the identifiers of index entries to their current nodes
+     * @param current the mapping to the current instances of tracked nodes
+     * @param originals the mapping to the original instances of tracked nodes
+     * @param unindexed the set with selectors not yet indexed
+     * @param state the resolution state the selectors in the index have been evaluated with
      */
-    private NodeTracker(final Map<NodeSelector, TrackedNodeData> map) {
+    private NodeTracker(final Map<NodeSelector, TrackedNodeData> map, final PersistentNodeMap<Dependents> dependents,
+        final PersistentNodeMap<ImmutableNode> anchors, final PersistentNodeMap<ImmutableNode> current, final PersistentNodeMap<ImmutableNode> originals,
+        final Set<NodeSelector> unindexed, final Object state) {
         trackedNodes = map;
+        dependentSelectors = dependents;
+        dependencyAnchors = anchors;
+        currentNodes = current;
+        originalNodes = originals;
+        unindexedSelectors = unindexed;
+        resolutionState = state;
     }
 
     /**
@@ -274,8 +788,22 @@ final class NodeTracker {
             // there is not state to be updated
             return this;
         }
-        return new NodeTracker(trackedNodes.entrySet().stream()
-            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().isDetached() ? e.getValue() : e.getValue().detach(null))));
+        return new NodeTracker(
+            trackedNodes.entrySet().stream().collect(
+                Collectors.toMap(Map.Entry::getKey, e -> e.getValue().isDetached() ? e.getValue() : e.getValue().detach(getCurrentNode(e.getValue())))),
+            PersistentNodeMap.empty(), PersistentNodeMap.empty(), PersistentNodeMap.empty(), PersistentNodeMap.empty(), Collections.<NodeSelector>emptySet(),
+            resolutionState);
+    }
+
+    /**
+     * Gets the current instance of the tracked node represented by the given data object.
+     *
+     * @param data the data object
+     * @return the current tracked node
+     */
+    private ImmutableNode getCurrentNode(final TrackedNodeData data) {
+        final ImmutableNode current = data.isDetached() ? null : currentNodes.get(data.getNode());
+        return current != null ? current : data.getNode();
     }
 
     /**
@@ -291,6 +819,18 @@ final class NodeTracker {
         return getTrackedNodeData(selector).getDetachedModel();
     }
 
+    /**
+     * Gets the number of entries in the index of dependent selectors, i.e. the number of pairs of a node and a selector
+     * depending on it. This method is mainly used for testing purposes.
+     *
+     * @return the number of entries in the index
+     */
+    int getDependencyCount() {
+        final MutableInt count = new MutableInt();
+        dependentSelectors.forEach((node, entry) -> count.add(entry.selectors.size()));
+        return count.intValue();
+    }
+
     /**
      * Gets the current {@code ImmutableNode} instance associated with the given selector.
      *
@@ -299,7 +839,7 @@ final class NodeTracker {
      * @throws ConfigurationRuntimeException if no data for this selector is available
      */
     public ImmutableNode getTrackedNode(final NodeSelector selector) {
-        return getTrackedNodeData(selector).getNode();
+        return getCurrentNode(getTrackedNodeData(selector));
     }
 
     /**
@@ -338,9 +878,10 @@ final class NodeTracker {
      * @throws ConfigurationRuntimeException if the selector cannot be resolved
      */
     public NodeTracker replaceAndDetachTrackedNode(final NodeSelector selector, final ImmutableNode newNode) {
-        final Map<NodeSelector, TrackedNodeData> newState = new HashMap<>(trackedNodes);
-        newState.put(selector, getTrackedNodeData(selector).detach(newNode));
-        return new NodeTracker(newState);
+        final TrackedNodeData trackData = getTrackedNodeData(selector);
+        final Updater updater = new Updater(this, true);
+        updater.putData(selector, trackData.detach(newNode));
+        return updater.create();
     }
 
     /**
@@ -356,35 +897,46 @@ final class NodeTracker {
      */
     public NodeTracker trackNode(final ImmutableNode root, final NodeSelector selector, final NodeKeyResolver<ImmutableNode> resolver,
         final NodeHandler<ImmutableNode> handler) {
-        final Map<NodeSelector, TrackedNodeData> newState = new HashMap<>(trackedNodes);
-        final TrackedNodeData trackData = newState.get(selector);
-        newState.put(selector, trackDataForAddedObserver(root, selector, resolver, handler, trackData));
-        return new NodeTracker(newState);
+        final Updater updater = new Updater(this, true);
+        final TrackedNodeData trackData = trackedNodes.get(selector);
+        if (trackData != null) {
+            updater.putData(selector, trackData.observerAdded());
+        } else {
+            final RecordingNodeHandler recordingHandler = new RecordingNodeHandler(handler);
+            final ImmutableNode target = selector.select(root, resolver, recordingHandler);
+            if (target == null) {
+                throw new ConfigurationRuntimeException("Selector does not select unique node: " + selector);
+            }
+            final Set<ImmutableNode> deps = updater.updateDependencies(selector, Collections.<ImmutableNode>emptySet(), recordingHandler.getInspectedNodes());
+            updater.putData(selector, new TrackedNodeData(updater.originalNode(target)).updateDependencies(deps));
+            updater.resolvedWith(resolver);
+        }
+        return updater.create();
     }
 
     /**
      * Adds a number of nodes to be tracked. For each node in the passed in collection, a tracked node entry is created
-     * unless already one exists.
+     * unless already one exists. The selectors of new entries are not evaluated; so they are evaluated on the next update.
      *
      * @param selectors a collection with the {@code NodeSelector} objects
      * @param nodes a collection with the nodes to be tracked
      * @return the updated instance
      */
     public NodeTracker trackNodes(final Collection<NodeSelector> selectors, final Collection<ImmutableNode> nodes) {
-        final Map<NodeSelector, TrackedNodeData> newState = new HashMap<>(trackedNodes);
+        final Updater updater = new Updater(this, true);
         final Iterator<ImmutableNode> itNodes = nodes.iterator();
         selectors.forEach(selector -> {
             final ImmutableNode node = itNodes.next();
-            TrackedNodeData trackData = newState.get(selector);
+            final TrackedNodeData trackData = updater.getData(selector);
             if (trackData == null) {
-                trackData = new TrackedNodeData(node);
+                updater.putData(selector, new TrackedNodeData(updater.originalNode(node)));
+                updater.updateUnindexed(selector, true);
             } else {
-                trackData = trackData.observerAdded();
+                updater.putData(selector, trackData.observerAdded());
             }
-            newState.put(selector, trackData);
         });
 
-        return new NodeTracker(newState);
+        return updater.create();
     }
 
     /**
@@ -397,15 +949,9 @@ final class NodeTracker {
      */
     public NodeTracker untrackNode(final NodeSelector selector) {
         final TrackedNodeData trackData = getTrackedNodeData(selector);
-
-        final Map<NodeSelector, TrackedNodeData> newState = new HashMap<>(trackedNodes);
-        final TrackedNodeData newTrackData = trackData.observerRemoved();
-        if (newTrackData == null) {
-            newState.remove(selector);
-        } else {
-            newState.put(selector, newTrackData);
-        }
-        return new NodeTracker(newState);
+        final Updater updater = new Updater(this, true);
+        updater.putData(selector, trackData.observerRemoved());
+        return updater.create();
     }
 
     /**
@@ -430,8 +976,58 @@ final class NodeTracker {
             return this;
         }
 
-        final Map<NodeSelector, TrackedNodeData> newState = new HashMap<>();
-        trackedNodes.entrySet().forEach(e -> newState.put(e.getKey(), determineUpdatedTrackedNodeData(root, txTarget, resolver, handler, e)));
-        return new NodeTracker(newState);
+        final Updater updater = new Updater(this, false);
+        updater.resolvedWith(resolver);
+        trackedNodes.keySet().forEach(selector -> updater.evaluate(root, selector, txTarget, resolver, handler));
+        return updater.create();
+    }
+
+    /**
+     * Updates tracking information after a transaction has been executed on the node structure. This method works like the
+     * overloaded method, but it evaluates only the selectors that depend on nodes changed or removed by the transaction.
+     * The changed nodes are the nodes whose content - the value, the attributes, or the list of children - was modified
+     * directly. Nodes that have only been rebuilt because of changes on their descendants must be contained in the map
+     * with replaced nodes only. For tracked nodes whose selectors are not evaluated again, the replacement of the node is
+     * looked up in this map. If the resolution state of the passed in resolver differs from the one the selectors have
+     * been evaluated with before, the index cannot be used; then all selectors are evaluated again.
+     *
+     * @param root the new root node
+     * @param txTarget the {@code NodeSelector} referencing the target node of the current transaction (may be <b>null</b>)
+     * @param resolver the {@code NodeKeyResolver}
+     * @param handler the {@code NodeHandler}
+     * @param replacedNodes a map with the nodes replaced by the transaction and their replacements
+     * @param changedNodes a collection with the nodes whose content was changed by the transaction
+     * @param removedNodes a collection with all nodes removed by the transaction
+     * @return the updated instance
+     */
+    public NodeTracker update(final ImmutableNode root, final NodeSelector txTarget, final NodeKeyResolver<ImmutableNode> resolver,
+        final NodeHandler<ImmutableNode> handler, final Map<ImmutableNode, ImmutableNode> replacedNodes, final Collection<ImmutableNode> changedNodes,
+        final Collection<ImmutableNode> removedNodes) {
+        if (trackedNodes.isEmpty()) {
+            // there is not state to be updated
+            return this;
+        }
+
+        if (!Objects.equals(resolver.getResolutionState(), resolutionState)) {
+            final Updater updater = new Updater(this, false);
+            updater.resolvedWith(resolver);
+            updater.nodesReplaced(replacedNodes);
+            trackedNodes.keySet().forEach(selector -> updater.evaluate(root, selector, txTarget, resolver, handler));
+            return updater.create();
+        }
+
+        final Set<NodeSelector> affected = new HashSet<>(unindexedSelectors);
+        changedNodes.forEach(node -> {
+            final Dependents entry = dependentSelectors.get(node);
+            if (entry != null) {
+                affected.addAll(entry.selectors);
+            }
+        });
+
+        final Updater updater = new Updater(this, true);
+        updater.nodesRemoved(removedNodes, affected);
+        updater.nodesReplaced(replacedNodes);
+        affected.forEach(selector -> updater.evaluate(root, selector, txTarget, resolver, handler));
+        return updater.create();
     }
 }
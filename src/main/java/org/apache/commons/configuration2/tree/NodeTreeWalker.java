@@ -16,8 +16,14 @@
  */
 package org.apache.commons.configuration2.tree;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>
@@ -27,7 +33,8 @@ import java.util.List;
  * The methods provided by this class accept a {@link ConfigurationNodeVisitor} and visit all nodes in a hierarchy
  * starting from a given root node. Because a {@link NodeHandler} has to be passed in, too, arbitrary types of nodes can
  * be processed. The {@code walk()} methods differ in the order in which nodes are visited. Details can be found in the
- * method documentation.
+ * method documentation. Both traversals are implemented iteratively, so they work for arbitrarily deep hierarchies. In
+ * addition, the nodes of a hierarchy can be obtained as a {@code Stream} which can also be processed in parallel.
  * </p>
  * <p>
  * An instance of this class does not define any state; therefore, it can be shared and used concurrently. The
@@ -38,13 +45,151 @@ import java.util.List;
  * @since 2.0
  */
 public class NodeTreeWalker {
+    /**
+     * A helper class storing the state of a node on the stack of a DFS traversal. Instances are reused for all nodes on
+     * the same level of the hierarchy.
+     *
+     * @param <T> the type of the nodes involved
+     */
+    private static final class DfsFrame<T> {
+        /** The node. */
+        private T node;
+
+        /** The children of the node. */
+        private List<T> children;
+
+        /** The index of the next child to be processed. */
+        private int index;
+
+        /**
+         * Initializes this frame for the given node.
+         *
+         * @param node the node
+         * @param children the children of the node
+         */
+        void init(final T node, final List<T> children) {
+            this.node = node;
+            this.children = children;
+            index = 0;
+        }
+    }
+
+    /**
+     * A {@code Spliterator} implementation for the nodes of a hierarchy. The nodes are returned in the order of a DFS
+     * traversal (a node is returned before its children). The spliterator manages a stack with the roots of the subtrees
+     * still to be processed; on a split, the first half of these subtrees is handed over to the new spliterator. As the
+     * number of nodes is not known in advance, the estimated size is halved on each split.
+     *
+     * @param <T> the type of the nodes involved
+     */
+    private static final class NodeSpliterator<T> implements Spliterator<T> {
+        /** The {@code NodeHandler}. */
+        private final NodeHandler<T> handler;
+
+        /** Nodes to be returned before the pending subtrees without processing their children. */
+        private final Deque<T> pendingNodes;
+
+        /** The roots of the subtrees to be processed; the first element is processed next. */
+        private final Deque<T> pendingTrees;
+
+        /** The estimated number of remaining nodes. */
+        private long estimatedSize;
+
+        /**
+         * Creates a new instance of {@code NodeSpliterator} with the given initial state.
+         *
+         * @param handler the {@code NodeHandler}
+         * @param pendingNodes the nodes to be returned first
+         * @param pendingTrees the subtrees to be processed
+         * @param estimatedSize the estimated number of nodes
+         */
+        NodeSpliterator(final NodeHandler<T> handler, final Deque<T> pendingNodes, final Deque<T> pendingTrees, final long estimatedSize) {
+            this.handler = handler;
+            this.pendingNodes = pendingNodes;
+            this.pendingTrees = pendingTrees;
+            this.estimatedSize = estimatedSize;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        @Override
+        public long estimateSize() {
+            return pendingNodes.isEmpty() && pendingTrees.isEmpty() ? 0 : estimatedSize;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super T> action) {
+            while (!pendingNodes.isEmpty()) {
+                action.accept(pendingNodes.removeFirst());
+            }
+            while (!pendingTrees.isEmpty()) {
+                action.accept(nextTreeNode());
+            }
+        }
+
+        /**
+         * Returns the root of the next pending subtree and pushes its children on the stack.
+         *
+         * @return the next node
+         */
+        private T nextTreeNode() {
+            final T node = pendingTrees.removeFirst();
+            final List<T> children = handler.getChildren(node);
+            for (int i = children.size() - 1; i >= 0; i--) {
+                pendingTrees.addFirst(children.get(i));
+            }
+            return node;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (!pendingNodes.isEmpty()) {
+                action.accept(pendingNodes.removeFirst());
+                return true;
+            }
+            if (!pendingTrees.isEmpty()) {
+                action.accept(nextTreeNode());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            // Descend into a single pending subtree until there are multiple subtrees to distribute.
+            while (pendingTrees.size() == 1 && !handler.getChildren(pendingTrees.peekFirst()).isEmpty()) {
+                pendingNodes.addLast(nextTreeNode());
+            }
+            final int splitCount = pendingTrees.size() / 2;
+            if (splitCount == 0) {
+                return null;
+            }
+
+            final Deque<T> prefixTrees = new ArrayDeque<>(splitCount);
+            for (int i = 0; i < splitCount; i++) {
+                prefixTrees.addLast(pendingTrees.removeFirst());
+            }
+            final Deque<T> prefixNodes = new ArrayDeque<>(pendingNodes);
+            pendingNodes.clear();
+            estimatedSize >>>= 1;
+            return new NodeSpliterator<>(handler, prefixNodes, prefixTrees, estimatedSize);
+        }
+    }
+
+    /** The initial capacity of the stack used by a DFS traversal. */
+    private static final int INITIAL_DEPTH = 16;
+
     /** The default instance of this class. */
     public static final NodeTreeWalker INSTANCE = new NodeTreeWalker();
 
     /**
      * Helper method for performing a BFS traversal. Implementation node: This method organizes the nodes to be visited in
      * structures on the heap. Therefore, it can deal with larger structures than would be the case in a recursive approach
-     * (where the stack size limits the size of the structures which can be traversed).
+     * (where the stack size limits the size of the structures which can be traversed). The traversal stops as soon as the
+     * visitor's {@code terminate()} method returns <b>true</b>.
      *
      * @param root the root node to be navigated
      * @param visitor the visitor
@@ -52,14 +197,15 @@ public class NodeTreeWalker {
      * @param <T> the type of the nodes involved
      */
     private static <T> void bfs(final T root, final ConfigurationNodeVisitor<T> visitor, final NodeHandler<T> handler) {
-        final List<T> pendingNodes = new LinkedList<>();
+        final Deque<T> pendingNodes = new ArrayDeque<>();
         pendingNodes.add(root);
-        boolean cancel = false;
 
-        while (!pendingNodes.isEmpty() && !cancel) {
-            final T node = pendingNodes.remove(0);
+        while (!pendingNodes.isEmpty()) {
+            final T node = pendingNodes.removeFirst();
             visitor.visitBeforeChildren(node, handler);
-            cancel = visitor.terminate();
+            if (visitor.terminate()) {
+                break;
+            }
             pendingNodes.addAll(handler.getChildren(node));
         }
     }
@@ -86,23 +232,106 @@ public class NodeTreeWalker {
     }
 
     /**
-     * Recursive helper method for performing a DFS traversal.
+     * Helper method for performing a DFS traversal. This method does not use recursion; the path to the current node is
+     * stored in a list of {@link DfsFrame} objects which are reused for all nodes on the same level. For leaf nodes, no
+     * frame is needed at all. The traversal stops as soon as the visitor's {@code terminate()} method returns
+     * <b>true</b>.
      *
-     * @param node the current node
+     * @param root the root node to be navigated
      * @param visitor the visitor
      * @param handler the handler
      * @param <T> the type of the nodes involved
      */
-    private static <T> void dfs(final T node, final ConfigurationNodeVisitor<T> visitor, final NodeHandler<T> handler) {
-        if (!visitor.terminate()) {
-            visitor.visitBeforeChildren(node, handler);
-            handler.getChildren(node).forEach(c -> dfs(c, visitor, handler));
-            if (!visitor.terminate()) {
-                visitor.visitAfterChildren(node, handler);
+    private static <T> void dfs(final T root, final ConfigurationNodeVisitor<T> visitor, final NodeHandler<T> handler) {
+        if (visitor.terminate()) {
+            return;
+        }
+        visitor.visitBeforeChildren(root, handler);
+        final List<DfsFrame<T>> frames = new ArrayList<>(INITIAL_DEPTH);
+        int depth = pushFrame(frames, 0, root, handler.getChildren(root));
+
+        while (depth > 0) {
+            if (visitor.terminate()) {
+                return;
+            }
+            final DfsFrame<T> frame = frames.get(depth - 1);
+            if (frame.index < frame.children.size()) {
+                final T child = frame.children.get(frame.index++);
+                visitor.visitBeforeChildren(child, handler);
+                final List<T> children = handler.getChildren(child);
+                if (!children.isEmpty()) {
+                    depth = pushFrame(frames, depth, child, children);
+                } else if (!visitor.terminate()) {
+                    visitor.visitAfterChildren(child, handler);
+                }
+            } else {
+                visitor.visitAfterChildren(frame.node, handler);
+                frame.init(null, null);
+                depth--;
             }
         }
     }
 
+    /**
+     * Helper method for pushing a node on the stack of a DFS traversal. An existing frame on this level is reused if
+     * possible.
+     *
+     * @param frames the list with the frames
+     * @param depth the current depth of the stack
+     * @param node the node to be pushed
+     * @param children the children of this node
+     * @param <T> the type of the nodes involved
+     * @return the new depth of the stack
+     */
+    private static <T> int pushFrame(final List<DfsFrame<T>> frames, final int depth, final T node, final List<T> children) {
+        if (depth == frames.size()) {
+            frames.add(new DfsFrame<>());
+        }
+        frames.get(depth).init(node, children);
+        return depth + 1;
+    }
+
+    /**
+     * Returns a {@code Spliterator} over all nodes in the hierarchy represented by the given root node. The nodes are
+     * returned in the same order as they are visited by {@link #walkDFS(Object, ConfigurationNodeVisitor, NodeHandler)}
+     * (a node comes before its children). The spliterator supports splitting, so that a hierarchy can be processed in
+     * parallel. The hierarchy must not be changed while it is processed.
+     *
+     * @param root the root node of the hierarchy (may be <b>null</b>, then the spliterator is empty)
+     * @param handler the {@code NodeHandler} (must not be <b>null</b>)
+     * @param <T> the type of the nodes involved
+     * @return a {@code Spliterator} over the nodes of this hierarchy
+     * @throws IllegalArgumentException if the {@code NodeHandler} is <b>null</b>
+     * @since 2.11.0
+     */
+    public <T> Spliterator<T> spliterator(final T root, final NodeHandler<T> handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("NodeHandler must not be null!");
+        }
+        final Deque<T> pendingTrees = new ArrayDeque<>();
+        if (root != null) {
+            pendingTrees.add(root);
+        }
+        return new NodeSpliterator<>(handler, new ArrayDeque<>(), pendingTrees, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a sequential {@code Stream} over all nodes in the hierarchy represented by the given root node. This is a
+     * convenience method which creates a stream from the {@code Spliterator} returned by
+     * {@link #spliterator(Object, NodeHandler)}. Operations like {@code anyMatch()} or {@code findFirst()} stop the
+     * traversal as soon as their result is known. For large hierarchies, the stream can be turned into a parallel one.
+     *
+     * @param root the root node of the hierarchy (may be <b>null</b>, then the stream is empty)
+     * @param handler the {@code NodeHandler} (must not be <b>null</b>)
+     * @param <T> the type of the nodes involved
+     * @return a {@code Stream} over the nodes of this hierarchy
+     * @throws IllegalArgumentException if the {@code NodeHandler} is <b>null</b>
+     * @since 2.11.0
+     */
+    public <T> Stream<T> stream(final T root, final NodeHandler<T> handler) {
+        return StreamSupport.stream(spliterator(root, handler), false);
+    }
+
     /**
      * Visits all nodes in the hierarchy represented by the given root node in <em>breadth first search</em> manner. This
      * means that the nodes are visited in an order corresponding to the distance from the root node: first the root node is
@@ -16,6 +16,9 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * <p>
  * A concrete combiner implementation that is able to construct an override combination.
@@ -87,10 +90,9 @@ public class OverrideCombiner extends NodeCombiner {
         result.name(node1.getNodeName());
 
         // Process nodes from the first structure, which override the second
-        node1.forEach(child -> {
-            final ImmutableNode child2 = canCombine(node1, node2, child);
-            result.addChild(child2 != null ? combine(child, child2) : child);
-        });
+        final List<ImmutableNode> partners = new ArrayList<>(node1.getChildren().size());
+        node1.forEach(child -> partners.add(canCombine(node1, node2, child)));
+        result.addChildren(combineChildren(node1.getChildren(), partners));
 
         // Process nodes from the second structure, which are not contained
         // in the first structure
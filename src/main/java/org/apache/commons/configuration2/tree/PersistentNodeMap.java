@@ -0,0 +1,715 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import java.util.function.BiConsumer;
+
+/**
+ * <p>
+ * An internally used immutable map implementation with {@link ImmutableNode} objects as keys.
+ * </p>
+ * <p>
+ * This class is used by {@link TreeData} and related classes to store information about the nodes of a tree, for
+ * instance the parent of each node. Such maps can contain an entry for each node of a (potentially large) hierarchy.
+ * Because a model is updated by creating a new {@code TreeData} object, copying these maps on each change would be
+ * expensive. This implementation therefore uses a hash array mapped trie: An update operation returns a new instance
+ * which shares all parts of the structure with the original map that are not affected by the change. So the costs of
+ * an update are logarithmic in the size of the map rather than linear.
+ * </p>
+ * <p>
+ * Keys are compared by identity; this is the same semantic as for {@code ImmutableNode} which does not override
+ * {@code equals()}. <b>null</b> values are not supported; they cannot be distinguished from a missing key.
+ * </p>
+ * <p>
+ * To construct a map with many entries efficiently, a {@link Builder} can be used. A builder modifies the nodes of the
+ * trie it has created itself in place; nodes of the map it was created from are copied on first modification.
+ * </p>
+ *
+ * @param <V> the type of the values stored in this map
+ * @since 2.11.0
+ */
+final class PersistentNodeMap<V> {
+    /**
+     * A builder class for constructing a {@code PersistentNodeMap} with a larger number of modifications. The builder
+     * owns the nodes of the trie it creates and thus can update them without copying. When the map is created, the
+     * ownership is given up, so that the resulting map is not affected by further changes on the builder.
+     *
+     * @param <V> the type of the values stored in the map
+     */
+    static final class Builder<V> {
+        /** The current root node of the trie. */
+        private TrieNode root;
+
+        /** The current number of entries. */
+        private int size;
+
+        /** The token identifying the nodes owned by this builder. */
+        private Object edit;
+
+        /**
+         * Creates a new instance of {@code Builder} which is initialized from the given map.
+         *
+         * @param map the map to start with
+         */
+        private Builder(final PersistentNodeMap<V> map) {
+            root = map.root;
+            size = map.size;
+            edit = new Object();
+        }
+
+        /**
+         * Creates the map with the current content of this builder.
+         *
+         * @return the new map
+         */
+        public PersistentNodeMap<V> create() {
+            edit = new Object();
+            return size == 0 ? empty() : new PersistentNodeMap<>(root, size);
+        }
+
+        /**
+         * Invokes the given action for all entries contained in this builder.
+         *
+         * @param action the action to be invoked
+         */
+        public void forEach(final BiConsumer<? super ImmutableNode, ? super V> action) {
+            forEachInNode(root, action);
+        }
+
+        /**
+         * Gets the value stored for the given key.
+         *
+         * @param key the key
+         * @return the value of this key or <b>null</b> if it is not contained
+         */
+        @SuppressWarnings("unchecked")
+        public V get(final ImmutableNode key) {
+            return root != null ? (V) root.find(0, hash(key), key) : null;
+        }
+
+        /**
+         * Adds a mapping to this builder. An existing mapping for this key is overridden.
+         *
+         * @param key the key
+         * @param value the value (must not be <b>null</b>)
+         * @return a reference to this builder for method chaining
+         */
+        public Builder<V> put(final ImmutableNode key, final V value) {
+            final SizeChange change = new SizeChange();
+            root = putIntoNode(root, edit, key, value, change);
+            size += change.delta;
+            return this;
+        }
+
+        /**
+         * Removes the mapping for the given key from this builder. If the key is not contained, this method has no effect.
+         *
+         * @param key the key
+         * @return a reference to this builder for method chaining
+         */
+        public Builder<V> remove(final ImmutableNode key) {
+            if (root != null) {
+                final SizeChange change = new SizeChange();
+                root = root.remove(edit, 0, hash(key), key, change);
+                size += change.delta;
+            }
+            return this;
+        }
+
+        /**
+         * Gets the number of entries contained in this builder.
+         *
+         * @return the number of entries
+         */
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A node of the trie for a set of keys with the same hash code.
+     */
+    private static final class CollisionNode extends TrieNode {
+        /** The common hash code of all keys. */
+        private final int hash;
+
+        /** The array with keys and values. */
+        private Object[] array;
+
+        /**
+         * Creates a new instance of {@code CollisionNode}.
+         *
+         * @param edit the owner token
+         * @param hash the hash code
+         * @param array the array with key-value pairs
+         */
+        CollisionNode(final Object edit, final int hash, final Object[] array) {
+            super(edit);
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        Object find(final int shift, final int keyHash, final ImmutableNode key) {
+            final int idx = indexOf(key);
+            return idx >= 0 ? array[idx + 1] : null;
+        }
+
+        @Override
+        void forEach(final BiConsumer<ImmutableNode, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept((ImmutableNode) array[i], array[i + 1]);
+            }
+        }
+
+        /**
+         * Returns the index of the given key in the array or -1 if it cannot be found.
+         *
+         * @param key the key
+         * @return the index of this key
+         */
+        private int indexOf(final ImmutableNode key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        TrieNode put(final Object editor, final int shift, final int keyHash, final ImmutableNode key, final Object value, final SizeChange change) {
+            if (keyHash != hash) {
+                // nest this node into a bitmap node and add the new key there
+                final BitmapNode parent = new BitmapNode(editor, bit(hash, shift), new Object[] {null, this});
+                return parent.put(editor, shift, keyHash, key, value, change);
+            }
+
+            final int idx = indexOf(key);
+            if (idx >= 0) {
+                if (array[idx + 1] == value) {
+                    return this;
+                }
+                return withArray(editor, copyAndSet(array, idx + 1, value));
+            }
+
+            change.delta = 1;
+            final Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            return withArray(editor, newArray);
+        }
+
+        @Override
+        TrieNode remove(final Object editor, final int shift, final int keyHash, final ImmutableNode key, final SizeChange change) {
+            final int idx = indexOf(key);
+            if (idx < 0) {
+                return this;
+            }
+
+            change.delta = -1;
+            if (array.length == 2) {
+                return null;
+            }
+            return withArray(editor, removePair(array, idx / 2));
+        }
+
+        /**
+         * Returns a node with the given array. If this node is owned by the editor, it is updated in place.
+         *
+         * @param editor the current owner token
+         * @param newArray the new array
+         * @return the updated node
+         */
+        private CollisionNode withArray(final Object editor, final Object[] newArray) {
+            if (isEditable(editor)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(editor, hash, newArray);
+        }
+    }
+
+    /**
+     * A node of the trie that uses a bitmap to store the existing entries of a sparse array. Each entry is either a
+     * key-value pair or a reference to a sub node (then the key is <b>null</b>).
+     */
+    private static final class BitmapNode extends TrieNode {
+        /** The bitmap indicating which positions are occupied. */
+        private int bitmap;
+
+        /** The array with keys and values or sub nodes. */
+        private Object[] array;
+
+        /**
+         * Creates a new instance of {@code BitmapNode}.
+         *
+         * @param edit the owner token
+         * @param bitmap the bitmap
+         * @param array the array with entries
+         */
+        BitmapNode(final Object edit, final int bitmap, final Object[] array) {
+            super(edit);
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        Object find(final int shift, final int keyHash, final ImmutableNode key) {
+            final int bit = bit(keyHash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final int idx = 2 * index(bit);
+            final Object k = array[idx];
+            if (k == null) {
+                return ((TrieNode) array[idx + 1]).find(shift + BITS, keyHash, key);
+            }
+            return k == key ? array[idx + 1] : null;
+        }
+
+        @Override
+        void forEach(final BiConsumer<ImmutableNode, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((TrieNode) array[i + 1]).forEach(action);
+                } else {
+                    action.accept((ImmutableNode) array[i], array[i + 1]);
+                }
+            }
+        }
+
+        /**
+         * Returns the position in the array for the given bit.
+         *
+         * @param bit the bit
+         * @return the index of the corresponding entry
+         */
+        private int index(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        TrieNode put(final Object editor, final int shift, final int keyHash, final ImmutableNode key, final Object value, final SizeChange change) {
+            final int bit = bit(keyHash, shift);
+            final int pos = index(bit);
+            final int idx = 2 * pos;
+
+            if ((bitmap & bit) == 0) {
+                change.delta = 1;
+                final Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, idx);
+                newArray[idx] = key;
+                newArray[idx + 1] = value;
+                System.arraycopy(array, idx, newArray, idx + 2, array.length - idx);
+                return update(editor, bitmap | bit, newArray);
+            }
+
+            final Object k = array[idx];
+            final Object v = array[idx + 1];
+            if (k == null) {
+                final TrieNode subNode = ((TrieNode) v).put(editor, shift + BITS, keyHash, key, value, change);
+                return subNode == v ? this : updateEntry(editor, idx + 1, subNode);
+            }
+            if (k == key) {
+                return v == value ? this : updateEntry(editor, idx + 1, value);
+            }
+
+            change.delta = 1;
+            final TrieNode subNode = createSubNode(editor, shift + BITS, (ImmutableNode) k, v, keyHash, key, value);
+            final Object[] newArray = copyAndSet(array, idx, null);
+            newArray[idx + 1] = subNode;
+            return update(editor, bitmap, newArray);
+        }
+
+        @Override
+        TrieNode remove(final Object editor, final int shift, final int keyHash, final ImmutableNode key, final SizeChange change) {
+            final int bit = bit(keyHash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+
+            final int pos = index(bit);
+            final int idx = 2 * pos;
+            final Object k = array[idx];
+            if (k == null) {
+                final TrieNode subNode = ((TrieNode) array[idx + 1]).remove(editor, shift + BITS, keyHash, key, change);
+                if (subNode == array[idx + 1]) {
+                    return this;
+                }
+                if (subNode != null) {
+                    return updateEntry(editor, idx + 1, subNode);
+                }
+            } else if (k != key) {
+                return this;
+            } else {
+                change.delta = -1;
+            }
+
+            if (bitmap == bit) {
+                return null;
+            }
+            return update(editor, bitmap ^ bit, removePair(array, pos));
+        }
+
+        /**
+         * Returns a node with the given bitmap and array. If this node is owned by the editor, it is updated in place.
+         *
+         * @param editor the current owner token
+         * @param newBitmap the new bitmap
+         * @param newArray the new array
+         * @return the updated node
+         */
+        private BitmapNode update(final Object editor, final int newBitmap, final Object[] newArray) {
+            if (isEditable(editor)) {
+                bitmap = newBitmap;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(editor, newBitmap, newArray);
+        }
+
+        /**
+         * Returns a node in which a single element of the array is changed. If this node is owned by the editor, it is updated
+         * in place.
+         *
+         * @param editor the current owner token
+         * @param idx the index in the array
+         * @param value the new value
+         * @return the updated node
+         */
+        private BitmapNode updateEntry(final Object editor, final int idx, final Object value) {
+            if (isEditable(editor)) {
+                array[idx] = value;
+                return this;
+            }
+            return new BitmapNode(editor, bitmap, copyAndSet(array, idx, value));
+        }
+    }
+
+    /**
+     * A simple helper class to record whether an operation has changed the number of entries.
+     */
+    private static final class SizeChange {
+        /** The change of the size. */
+        private int delta;
+    }
+
+    /**
+     * The abstract base class for the nodes of the trie.
+     */
+    private abstract static class TrieNode {
+        /** The token of the builder owning this node; <b>null</b> for nodes of an immutable map. */
+        private final Object edit;
+
+        /**
+         * Creates a new instance of {@code TrieNode}.
+         *
+         * @param edit the owner token
+         */
+        TrieNode(final Object edit) {
+            this.edit = edit;
+        }
+
+        /**
+         * Searches for the value of the given key in the sub trie represented by this node.
+         *
+         * @param shift the current shift of the hash code
+         * @param keyHash the hash code of the key
+         * @param key the key
+         * @return the value of this key or <b>null</b> if it cannot be found
+         */
+        abstract Object find(int shift, int keyHash, ImmutableNode key);
+
+        /**
+         * Invokes the given action for all entries in the sub trie represented by this node.
+         *
+         * @param action the action to be invoked
+         */
+        abstract void forEach(BiConsumer<ImmutableNode, Object> action);
+
+        /**
+         * Tests whether this node can be modified in place by the owner of the given token.
+         *
+         * @param editor the current owner token
+         * @return a flag whether this node can be modified in place
+         */
+        boolean isEditable(final Object editor) {
+            return editor != null && editor == edit;
+        }
+
+        /**
+         * Adds a key-value pair to the sub trie represented by this node.
+         *
+         * @param editor the current owner token (may be <b>null</b>)
+         * @param shift the current shift of the hash code
+         * @param keyHash the hash code of the key
+         * @param key the key
+         * @param value the value
+         * @param change an object to record a change of the size
+         * @return the updated node
+         */
+        abstract TrieNode put(Object editor, int shift, int keyHash, ImmutableNode key, Object value, SizeChange change);
+
+        /**
+         * Removes a key from the sub trie represented by this node. Result is <b>null</b> if the node becomes empty.
+         *
+         * @param editor the current owner token (may be <b>null</b>)
+         * @param shift the current shift of the hash code
+         * @param keyHash the hash code of the key
+         * @param key the key
+         * @param change an object to record a change of the size
+         * @return the updated node
+         */
+        abstract TrieNode remove(Object editor, int shift, int keyHash, ImmutableNode key, SizeChange change);
+    }
+
+    /** The number of hash bits consumed per level of the trie. */
+    private static final int BITS = 5;
+
+    /** The mask for extracting the bits of a level. */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** The shared empty instance. */
+    private static final PersistentNodeMap<Object> EMPTY = new PersistentNodeMap<>(null, 0);
+
+    /**
+     * Returns the bit in the bitmap for the given hash code on the given level.
+     *
+     * @param keyHash the hash code
+     * @param shift the shift of the current level
+     * @return the bit representing this hash code
+     */
+    private static int bit(final int keyHash, final int shift) {
+        return 1 << ((keyHash >>> shift) & MASK);
+    }
+
+    /**
+     * Returns a copy of the given array with one element changed.
+     *
+     * @param array the array
+     * @param idx the index of the element to be changed
+     * @param value the new value
+     * @return the new array
+     */
+    private static Object[] copyAndSet(final Object[] array, final int idx, final Object value) {
+        final Object[] result = array.clone();
+        result[idx] = value;
+        return result;
+    }
+
+    /**
+     * Creates a sub node for two key-value pairs which share the same position on the current level.
+     *
+     * @param editor the current owner token
+     * @param shift the shift for the new node
+     * @param key1 the first key
+     * @param value1 the first value
+     * @param keyHash2 the hash code of the second key
+     * @param key2 the second key
+     * @param value2 the second value
+     * @return the new node
+     */
+    private static TrieNode createSubNode(final Object editor, final int shift, final ImmutableNode key1, final Object value1, final int keyHash2,
+        final ImmutableNode key2, final Object value2) {
+        final int keyHash1 = hash(key1);
+        if (keyHash1 == keyHash2) {
+            return new CollisionNode(editor, keyHash1, new Object[] {key1, value1, key2, value2});
+        }
+        final SizeChange dummy = new SizeChange();
+        return new BitmapNode(editor, 0, new Object[0]).put(editor, shift, keyHash1, key1, value1, dummy).put(editor, shift, keyHash2, key2, value2,
+            dummy);
+    }
+
+    /**
+     * Returns an empty map.
+     *
+     * @param <V> the type of the values
+     * @return an empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <V> PersistentNodeMap<V> empty() {
+        return (PersistentNodeMap<V>) EMPTY;
+    }
+
+    /**
+     * Invokes the given action for all entries in the trie with the given root node.
+     *
+     * @param root the root node (may be <b>null</b>)
+     * @param action the action to be invoked
+     * @param <V> the type of the values
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> void forEachInNode(final TrieNode root, final BiConsumer<? super ImmutableNode, ? super V> action) {
+        if (root != null) {
+            root.forEach((k, v) -> action.accept(k, (V) v));
+        }
+    }
+
+    /**
+     * Returns the hash code used for the given key.
+     *
+     * @param key the key
+     * @return the hash code of this key
+     */
+    private static int hash(final ImmutableNode key) {
+        return System.identityHashCode(key);
+    }
+
+    /**
+     * Adds a key-value pair to the trie with the given root node.
+     *
+     * @param root the root node (may be <b>null</b>)
+     * @param editor the current owner token (may be <b>null</b>)
+     * @param key the key
+     * @param value the value
+     * @param change an object to record a change of the size
+     * @return the new root node
+     */
+    private static TrieNode putIntoNode(final TrieNode root, final Object editor, final ImmutableNode key, final Object value, final SizeChange change) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported!");
+        }
+        final TrieNode node = root != null ? root : new BitmapNode(editor, 0, new Object[0]);
+        return node.put(editor, 0, hash(key), key, value, change);
+    }
+
+    /**
+     * Returns a copy of the given array with the key-value pair at the given position removed.
+     *
+     * @param array the array
+     * @param pos the position of the pair
+     * @return the new array
+     */
+    private static Object[] removePair(final Object[] array, final int pos) {
+        final Object[] newArray = new Object[array.length - 2];
+        final int idx = 2 * pos;
+        System.arraycopy(array, 0, newArray, 0, idx);
+        System.arraycopy(array, idx + 2, newArray, idx, newArray.length - idx);
+        return newArray;
+    }
+
+    /** The root node of the trie. */
+    private final TrieNode root;
+
+    /** The number of entries in this map. */
+    private final int size;
+
+    /**
+     * Creates a new instance of {@code PersistentNodeMap}.
+     *
+     * @param root the root node of the trie
+     * @param size the number of entries
+     */
+    private PersistentNodeMap(final TrieNode root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns a builder which is initialized with the content of this map. Modifications done via the builder do not
+     * affect this map.
+     *
+     * @return the new builder
+     */
+    public Builder<V> builder() {
+        return new Builder<>(this);
+    }
+
+    /**
+     * Tests whether this map contains the given key.
+     *
+     * @param key the key
+     * @return <b>true</b> if there is a mapping for this key, <b>false</b> otherwise
+     */
+    public boolean containsKey(final ImmutableNode key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Invokes the given action for all entries contained in this map. The order in which entries are processed is
+     * unspecified.
+     *
+     * @param action the action to be invoked
+     */
+    public void forEach(final BiConsumer<? super ImmutableNode, ? super V> action) {
+        forEachInNode(root, action);
+    }
+
+    /**
+     * Gets the value stored for the given key.
+     *
+     * @param key the key
+     * @return the value of this key or <b>null</b> if it is not contained
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final ImmutableNode key) {
+        return root != null ? (V) root.find(0, hash(key), key) : null;
+    }
+
+    /**
+     * Tests whether this map is empty.
+     *
+     * @return <b>true</b> if this map does not contain any entries, <b>false</b> otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a new map which contains all entries of this map plus the given mapping. An existing mapping for this key is
+     * overridden.
+     *
+     * @param key the key
+     * @param value the value (must not be <b>null</b>)
+     * @return the updated map
+     */
+    public PersistentNodeMap<V> put(final ImmutableNode key, final V value) {
+        final SizeChange change = new SizeChange();
+        final TrieNode newRoot = putIntoNode(root, null, key, value, change);
+        return newRoot == root ? this : new PersistentNodeMap<>(newRoot, size + change.delta);
+    }
+
+    /**
+     * Returns a new map which contains all entries of this map except for the mapping of the given key. If the key is not
+     * contained, this instance is returned.
+     *
+     * @param key the key
+     * @return the updated map
+     */
+    public PersistentNodeMap<V> remove(final ImmutableNode key) {
+        if (root == null) {
+            return this;
+        }
+        final SizeChange change = new SizeChange();
+        final TrieNode newRoot = root.remove(null, 0, hash(key), key, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentNodeMap<>(newRoot, size + change.delta);
+    }
+
+    /**
+     * Gets the number of entries in this map.
+     *
+     * @return the size of this map
+     */
+    public int size() {
+        return size;
+    }
+}
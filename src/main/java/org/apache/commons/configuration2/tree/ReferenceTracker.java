@@ -18,7 +18,6 @@ package org.apache.commons.configuration2.tree;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -46,8 +45,8 @@ import java.util.Map;
  * </p>
  */
 final class ReferenceTracker {
-    /** A map with reference data. */
-    private final Map<ImmutableNode, Object> references;
+    /** A map with reference data. This is a persistent map, so updates can share most of its structure. */
+    private final PersistentNodeMap<Object> references;
 
     /** A list with the removed references. */
     private final List<Object> removedReferences;
@@ -56,7 +55,7 @@ final class ReferenceTracker {
      * Creates a new instance of {@code ReferenceTracker}. This instance does not yet contain any data about references.
      */
     public ReferenceTracker() {
-        this(Collections.<ImmutableNode, Object>emptyMap(), Collections.emptyList());
+        this(PersistentNodeMap.empty(), Collections.emptyList());
     }
 
     /**
@@ -66,22 +65,26 @@ final class ReferenceTracker {
      * @param refs the references
      * @param removedRefs the removed references
      */
-    private ReferenceTracker(final Map<ImmutableNode, Object> refs, final List<Object> removedRefs) {
+    private ReferenceTracker(final PersistentNodeMap<Object> refs, final List<Object> removedRefs) {
         references = refs;
         removedReferences = removedRefs;
     }
 
     /**
      * Adds all references stored in the passed in map to the managed references. A new instance is created managing this
-     * new set of references.
+     * new set of references. <b>null</b> references are ignored.
      *
      * @param refs the references to be added
      * @return the new instance
      */
     public ReferenceTracker addReferences(final Map<ImmutableNode, ?> refs) {
-        final Map<ImmutableNode, Object> newRefs = new HashMap<>(references);
-        newRefs.putAll(refs);
-        return new ReferenceTracker(newRefs, removedReferences);
+        final PersistentNodeMap.Builder<Object> newRefs = references.builder();
+        refs.forEach((node, ref) -> {
+            if (ref != null) {
+                newRefs.put(node, ref);
+            }
+        });
+        return new ReferenceTracker(newRefs.create(), removedReferences);
     }
 
     /**
@@ -114,12 +117,12 @@ final class ReferenceTracker {
      */
     public ReferenceTracker updateReferences(final Map<ImmutableNode, ImmutableNode> replacedNodes, final Collection<ImmutableNode> removedNodes) {
         if (!references.isEmpty()) {
-            Map<ImmutableNode, Object> newRefs = null;
+            PersistentNodeMap.Builder<Object> newRefs = null;
             for (final Map.Entry<ImmutableNode, ImmutableNode> e : replacedNodes.entrySet()) {
                 final Object ref = references.get(e.getKey());
                 if (ref != null) {
                     if (newRefs == null) {
-                        newRefs = new HashMap<>(references);
+                        newRefs = references.builder();
                     }
                     newRefs.put(e.getValue(), ref);
                     newRefs.remove(e.getKey());
@@ -131,7 +134,7 @@ final class ReferenceTracker {
                 final Object ref = references.get(node);
                 if (ref != null) {
                     if (newRefs == null) {
-                        newRefs = new HashMap<>(references);
+                        newRefs = references.builder();
                     }
                     newRefs.remove(node);
                     if (newRemovedRefs == null) {
@@ -142,7 +145,7 @@ final class ReferenceTracker {
             }
 
             if (newRefs != null) {
-                return new ReferenceTracker(newRefs, newRemovedRefs);
+                return new ReferenceTracker(newRefs.create(), newRemovedRefs);
             }
         }
 
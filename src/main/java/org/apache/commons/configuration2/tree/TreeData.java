@@ -19,8 +19,6 @@ package org.apache.commons.configuration2.tree;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
 /**
  * An internally used helper class for storing information about the managed node structure. An instance of this class
@@ -30,42 +28,25 @@ import java.util.stream.Collectors;
  * @since 2.0
  */
 final class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHandler {
-    /**
-     * Checks whether the passed in node is subject of a replacement by another one. If so, the other node is returned. This
-     * is done until a node is found which had not been replaced. Updating the parent mapping may be expensive for large
-     * node structures. Therefore, it initially remains constant, and a map with replacements is used. When querying a
-     * parent node, the replacement map has to be consulted whether the parent node is still valid.
-     *
-     * @param replace the replacement node
-     * @param mapping the replacement mapping
-     * @return the corresponding node according to the mapping
-     */
-    private static ImmutableNode handleReplacements(final ImmutableNode replace, final Map<ImmutableNode, ImmutableNode> mapping) {
-        ImmutableNode node = replace;
-        ImmutableNode org;
-        do {
-            org = mapping.get(node);
-            if (org != null) {
-                node = org;
-            }
-        } while (org != null);
-        return node;
-    }
-
     /** The root node of the tree. */
     private final ImmutableNode root;
 
-    /** A map that associates the parent node to each node. */
-    private final Map<ImmutableNode, ImmutableNode> parentMapping;
+    /**
+     * A map that associates the parent node to each node. This is a persistent map, so updates of the tree can share most
+     * of its structure.
+     */
+    private final PersistentNodeMap<ImmutableNode> parentMapping;
 
     /**
      * Stores information about nodes which have been replaced by manipulations of the structure. This map is used to avoid
-     * that the parent mapping has to be updated after each change.
+     * that the parent mapping has to be updated after each change. Keys are the original nodes as referenced by the parent
+     * mapping; values are the nodes that currently replace them. So there are no chains of replacements, and a single
+     * lookup is sufficient to resolve a node.
      */
-    private final Map<ImmutableNode, ImmutableNode> replacementMapping;
+    private final PersistentNodeMap<ImmutableNode> replacementMapping;
 
-    /** An inverse replacement mapping. */
-    private final Map<ImmutableNode, ImmutableNode> inverseReplacementMapping;
+    /** An inverse replacement mapping. It maps current nodes to the original nodes they replace. */
+    private final PersistentNodeMap<ImmutableNode> inverseReplacementMapping;
 
     /** The node tracker. */
     private final NodeTracker nodeTracker;
@@ -79,26 +60,46 @@ final class TreeData extends AbstractImmutableNodeHandler implements ReferenceNo
      * @param root the root node of the current tree
      * @param parentMapping the mapping to parent nodes
      * @param replacements the map with the nodes that have been replaced
+     * @param inverseReplacements the inverse replacement mapping
      * @param tracker the {@code NodeTracker}
      * @param refTracker the {@code ReferenceTracker}
      */
-    public TreeData(final ImmutableNode root, final Map<ImmutableNode, ImmutableNode> parentMapping, final Map<ImmutableNode, ImmutableNode> replacements,
-        final NodeTracker tracker, final ReferenceTracker refTracker) {
+    public TreeData(final ImmutableNode root, final PersistentNodeMap<ImmutableNode> parentMapping, final PersistentNodeMap<ImmutableNode> replacements,
+        final PersistentNodeMap<ImmutableNode> inverseReplacements, final NodeTracker tracker, final ReferenceTracker refTracker) {
         this.root = root;
         this.parentMapping = parentMapping;
         replacementMapping = replacements;
-        inverseReplacementMapping = createInverseMapping(replacements);
+        inverseReplacementMapping = inverseReplacements;
         nodeTracker = tracker;
         referenceTracker = refTracker;
     }
 
     /**
-     * Returns a copy of the mapping from nodes to their parents.
+     * Gets the mapping from nodes to their parents. As the returned map is immutable, it can be used as starting point for
+     * an updated mapping without copying it.
      *
-     * @return the copy of the parent mapping
+     * @return the parent mapping
      */
-    public Map<ImmutableNode, ImmutableNode> copyParentMapping() {
-        return new HashMap<>(parentMapping);
+    public PersistentNodeMap<ImmutableNode> getParentMapping() {
+        return parentMapping;
+    }
+
+    /**
+     * Gets the map storing the replaced nodes. Like the parent mapping, this map is immutable.
+     *
+     * @return the replacement mapping
+     */
+    public PersistentNodeMap<ImmutableNode> getReplacementMapping() {
+        return replacementMapping;
+    }
+
+    /**
+     * Gets the inverse replacement mapping which maps current nodes to the original nodes they replace.
+     *
+     * @return the inverse replacement mapping
+     */
+    public PersistentNodeMap<ImmutableNode> getInverseReplacementMapping() {
+        return inverseReplacementMapping;
     }
 
     /**
@@ -107,17 +108,21 @@ final class TreeData extends AbstractImmutableNodeHandler implements ReferenceNo
      * @return the copy of the replacement mapping
      */
     public Map<ImmutableNode, ImmutableNode> copyReplacementMapping() {
-        return new HashMap<>(replacementMapping);
+        final Map<ImmutableNode, ImmutableNode> copy = new HashMap<>();
+        replacementMapping.forEach(copy::put);
+        return copy;
     }
 
     /**
-     * Creates the inverse replacement mapping.
+     * Gets the original node which is replaced by the given node. This is the node under which the given node is stored
+     * in the parent mapping. If the node does not replace another one, it is returned unchanged.
      *
-     * @param replacements the original replacement mapping
-     * @return the inverse replacement mapping
+     * @param node the node in question
+     * @return the original node replaced by this node
      */
-    private Map<ImmutableNode, ImmutableNode> createInverseMapping(final Map<ImmutableNode, ImmutableNode> replacements) {
-        return replacements.entrySet().stream().collect(Collectors.toMap(Entry::getValue, Entry::getKey));
+    public ImmutableNode getOriginalNode(final ImmutableNode node) {
+        final ImmutableNode org = inverseReplacementMapping.get(node);
+        return org != null ? org : node;
     }
 
     /**
@@ -142,13 +147,12 @@ final class TreeData extends AbstractImmutableNodeHandler implements ReferenceNo
         if (node == getRootNode()) {
             return null;
         }
-        final ImmutableNode org = handleReplacements(node, inverseReplacementMapping);
-
-        final ImmutableNode parent = parentMapping.get(org);
+        final ImmutableNode parent = parentMapping.get(getOriginalNode(node));
         if (parent == null) {
             throw new IllegalArgumentException("Cannot determine parent! " + node + " is not part of this model.");
         }
-        return handleReplacements(parent, replacementMapping);
+        final ImmutableNode replacement = replacementMapping.get(parent);
+        return replacement != null ? replacement : parent;
     }
 
     /**
@@ -189,7 +193,7 @@ final class TreeData extends AbstractImmutableNodeHandler implements ReferenceNo
      * @return the updated instance
      */
     public TreeData updateNodeTracker(final NodeTracker newTracker) {
-        return new TreeData(root, parentMapping, replacementMapping, newTracker, referenceTracker);
+        return new TreeData(root, parentMapping, replacementMapping, inverseReplacementMapping, newTracker, referenceTracker);
     }
 
     /**
@@ -200,6 +204,6 @@ final class TreeData extends AbstractImmutableNodeHandler implements ReferenceNo
      * @return the updated instance
      */
     public TreeData updateReferenceTracker(final ReferenceTracker newTracker) {
-        return new TreeData(root, parentMapping, replacementMapping, nodeTracker, newTracker);
+        return new TreeData(root, parentMapping, replacementMapping, inverseReplacementMapping, nodeTracker, newTracker);
     }
 }
@@ -16,8 +16,10 @@
  */
 package org.apache.commons.configuration2.tree;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -121,19 +123,28 @@ public class UnionCombiner extends NodeCombiner {
         result.addAttributes(node1.getAttributes());
 
         // Check if nodes can be combined
-        final List<ImmutableNode> children2 = new LinkedList<>(node2.getChildren());
+        final List<ImmutableNode> partners = new ArrayList<>(node1.getChildren().size());
+        final Map<ImmutableNode, Integer> combined = new IdentityHashMap<>();
         node1.forEach(child1 -> {
             final ImmutableNode child2 = findCombineNode(node1, node2, child1);
+            partners.add(child2);
             if (child2 != null) {
-                result.addChild(combine(child1, child2));
-                children2.remove(child2);
-            } else {
-                result.addChild(child1);
+                combined.merge(child2, 1, Integer::sum);
             }
         });
+        result.addChildren(combineChildren(node1.getChildren(), partners));
 
-        // Add remaining children of node 2
-        children2.forEach(result::addChild);
+        // Add remaining children of node 2; a combined node is skipped once for each combination
+        node2.forEach(child2 -> {
+            final Integer count = combined.get(child2);
+            if (count == null) {
+                result.addChild(child2);
+            } else if (count > 1) {
+                combined.put(child2, count - 1);
+            } else {
+                combined.remove(child2);
+            }
+        });
 
         return result.create();
     }
@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree.xpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.configuration2.tree.QueryResult;
+
+/**
+ * <p>
+ * An internally used class representing an XPATH expression from a simple subset of the XPATH syntax which can be
+ * evaluated directly on a {@link NodeHandler} without involving JXPath.
+ * </p>
+ * <p>
+ * The following constructs are supported:
+ * </p>
+ * <ul>
+ * <li>Child steps selecting nodes by name, separated by slashes, for instance {@code tables/table/name}. The key can
+ * start with a slash.</li>
+ * <li>Positional predicates, for instance {@code tables/table[2]}.</li>
+ * <li>Predicates testing an attribute for a literal value, for instance {@code tables/table[@name='users']}.</li>
+ * <li>A final step selecting an attribute, for instance {@code tables/table[1]/@name}.</li>
+ * </ul>
+ * <p>
+ * For all other expressions, {@link #parse(String)} returns <strong>null</strong>; they have to be evaluated by JXPath.
+ * The results produced by this class are the same as the ones JXPath would produce for the expression.
+ * </p>
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ */
+final class SimpleXPathExpression {
+    /**
+     * A class representing a predicate of a step. A predicate either selects a node at a specific position or tests an
+     * attribute for a specific value.
+     */
+    private static final class Predicate {
+        /** The name of the tested attribute; <strong>null</strong> for a positional predicate. */
+        private final String attributeName;
+
+        /** The expected value of the attribute. */
+        private final String attributeValue;
+
+        /** The 1-based position for a positional predicate. */
+        private final int position;
+
+        /**
+         * Creates a new instance of {@code Predicate}.
+         *
+         * @param attributeName the name of the tested attribute
+         * @param attributeValue the expected value of the attribute
+         * @param position the position
+         */
+        Predicate(final String attributeName, final String attributeValue, final int position) {
+            this.attributeName = attributeName;
+            this.attributeValue = attributeValue;
+            this.position = position;
+        }
+
+        /**
+         * Applies this predicate to the given list of nodes.
+         *
+         * @param nodes the nodes to be filtered
+         * @param handler the {@code NodeHandler}
+         * @param <T> the type of the nodes
+         * @return the nodes matching this predicate or <strong>null</strong> if an attribute value cannot be compared
+         */
+        <T> List<T> filter(final List<T> nodes, final NodeHandler<T> handler) {
+            if (attributeName == null) {
+                return position <= nodes.size() ? Collections.singletonList(nodes.get(position - 1)) : Collections.emptyList();
+            }
+
+            final List<T> result = new ArrayList<>();
+            for (final T node : nodes) {
+                final Object value = handler.getAttributeValue(node, attributeName);
+                if (value != null && !(value instanceof String)) {
+                    return null;
+                }
+                if (attributeValue.equals(value)) {
+                    result.add(node);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A class representing a step of the expression which selects the child nodes with a specific name.
+     */
+    private static final class Step {
+        /** The name of the selected child nodes. */
+        private final String name;
+
+        /** The predicates to be applied on the child nodes. */
+        private final Predicate[] predicates;
+
+        /**
+         * Creates a new instance of {@code Step}.
+         *
+         * @param name the name of the selected child nodes
+         * @param predicates the predicates of this step
+         */
+        Step(final String name, final List<Predicate> predicates) {
+            this.name = name;
+            this.predicates = predicates.toArray(new Predicate[0]);
+        }
+
+        /**
+         * Selects the child nodes of the given node matching this step.
+         *
+         * @param node the parent node
+         * @param handler the {@code NodeHandler}
+         * @param <T> the type of the nodes
+         * @return the selected child nodes or <strong>null</strong> if a predicate cannot be evaluated
+         */
+        <T> List<T> select(final T node, final NodeHandler<T> handler) {
+            List<T> children = handler.getChildren(node, name);
+            for (final Predicate predicate : predicates) {
+                if (children.isEmpty()) {
+                    break;
+                }
+                children = predicate.filter(children, handler);
+                if (children == null) {
+                    return null;
+                }
+            }
+            return children;
+        }
+    }
+
+    /**
+     * A simple recursive descent parser for the supported subset of the XPATH syntax. The methods of this class return
+     * <strong>null</strong> if they encounter a construct which is not supported.
+     */
+    private static final class Parser {
+        /** The key to be parsed. */
+        private final String key;
+
+        /** The current position in the key. */
+        private int pos;
+
+        /**
+         * Creates a new instance of {@code Parser}.
+         *
+         * @param key the key to be parsed
+         */
+        Parser(final String key) {
+            this.key = key;
+        }
+
+        /**
+         * Checks whether the character at the current position is the given one. If so, the position is advanced.
+         *
+         * @param c the expected character
+         * @return a flag whether the character was found
+         */
+        private boolean consume(final char c) {
+            if (pos < key.length() && key.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Parses the whole key.
+         *
+         * @return the resulting expression or <strong>null</strong>
+         */
+        SimpleXPathExpression parse() {
+            final List<Step> steps = new ArrayList<>();
+            consume(PATH_DELIMITER);
+            do {
+                if (consume(ATTR_PREFIX)) {
+                    final String attributeName = parseName();
+                    return attributeName != null && pos == key.length() ? new SimpleXPathExpression(steps, attributeName) : null;
+                }
+                final Step step = parseStep();
+                if (step == null) {
+                    return null;
+                }
+                steps.add(step);
+            } while (consume(PATH_DELIMITER));
+
+            return pos == key.length() ? new SimpleXPathExpression(steps, null) : null;
+        }
+
+        /**
+         * Parses a string literal in single or double quotes.
+         *
+         * @return the value of the literal or <strong>null</strong>
+         */
+        private String parseLiteral() {
+            if (pos >= key.length()) {
+                return null;
+            }
+            final char quote = key.charAt(pos);
+            if (quote != '\'' && quote != '"') {
+                return null;
+            }
+            final int end = key.indexOf(quote, pos + 1);
+            if (end < 0) {
+                return null;
+            }
+            final String literal = key.substring(pos + 1, end);
+            pos = end + 1;
+            return literal;
+        }
+
+        /**
+         * Parses a node or attribute name.
+         *
+         * @return the name or <strong>null</strong>
+         */
+        private String parseName() {
+            final int start = pos;
+            if (pos >= key.length() || !isNameStart(key.charAt(pos))) {
+                return null;
+            }
+            pos++;
+            while (pos < key.length() && isNamePart(key.charAt(pos))) {
+                pos++;
+            }
+            final String name = key.substring(start, pos);
+            return RESERVED_NAMES.contains(name) ? null : name;
+        }
+
+        /**
+         * Parses a predicate after the opening bracket.
+         *
+         * @return the predicate or <strong>null</strong>
+         */
+        private Predicate parsePredicate() {
+            if (consume(ATTR_PREFIX)) {
+                final String attributeName = parseName();
+                if (attributeName == null || !consume(EQUALS)) {
+                    return null;
+                }
+                final String value = parseLiteral();
+                return value != null && consume(PREDICATE_END) ? new Predicate(attributeName, value, 0) : null;
+            }
+
+            final int start = pos;
+            while (pos < key.length() && isDigit(key.charAt(pos))) {
+                pos++;
+            }
+            if (pos == start || pos - start > MAX_POSITION_DIGITS || !consume(PREDICATE_END)) {
+                return null;
+            }
+            final int position = Integer.parseInt(key.substring(start, pos - 1));
+            return position > 0 ? new Predicate(null, null, position) : null;
+        }
+
+        /**
+         * Parses a child step with its predicates.
+         *
+         * @return the step or <strong>null</strong>
+         */
+        private Step parseStep() {
+            final String name = parseName();
+            if (name == null) {
+                return null;
+            }
+            final List<Predicate> predicates = new ArrayList<>();
+            while (consume(PREDICATE_START)) {
+                final Predicate predicate = parsePredicate();
+                if (predicate == null) {
+                    return null;
+                }
+                predicates.add(predicate);
+            }
+            return new Step(name, predicates);
+        }
+    }
+
+    /** Constant for the path delimiter. */
+    private static final char PATH_DELIMITER = '/';
+
+    /** Constant for the attribute prefix. */
+    private static final char ATTR_PREFIX = '@';
+
+    /** Constant for the start of a predicate. */
+    private static final char PREDICATE_START = '[';
+
+    /** Constant for the end of a predicate. */
+    private static final char PREDICATE_END = ']';
+
+    /** Constant for the equals operator in a predicate. */
+    private static final char EQUALS = '=';
+
+    /** Constant for the maximum number of digits of a position in a predicate. */
+    private static final int MAX_POSITION_DIGITS = 9;
+
+    /**
+     * A set with names which have a special meaning in XPATH. Steps with these names are left to JXPath.
+     */
+    private static final Set<String> RESERVED_NAMES = new HashSet<>(Arrays.asList("and", "or", "div", "mod", "node", "text", "comment",
+        "processing-instruction"));
+
+    /**
+     * Checks whether the given character is an ASCII digit.
+     *
+     * @param c the character
+     * @return a flag whether this character is a digit
+     */
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Checks whether the given character can start a node or attribute name.
+     *
+     * @param c the character
+     * @return a flag whether this character can start a name
+     */
+    private static boolean isNameStart(final char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_';
+    }
+
+    /**
+     * Checks whether the given character can be part of a node or attribute name.
+     *
+     * @param c the character
+     * @return a flag whether this character can be part of a name
+     */
+    private static boolean isNamePart(final char c) {
+        return isNameStart(c) || isDigit(c) || c == '-' || c == '.';
+    }
+
+    /**
+     * Parses the given key. If it belongs to the supported subset of the XPATH syntax, a corresponding
+     * {@code SimpleXPathExpression} is returned. Otherwise, result is <strong>null</strong>.
+     *
+     * @param key the key to be parsed
+     * @return the expression for this key or <strong>null</strong>
+     */
+    public static SimpleXPathExpression parse(final String key) {
+        return new Parser(key).parse();
+    }
+
+    /** The child steps of this expression. */
+    private final Step[] steps;
+
+    /** The name of the selected attribute; <strong>null</strong> if this expression selects nodes. */
+    private final String attributeName;
+
+    /**
+     * Creates a new instance of {@code SimpleXPathExpression}.
+     *
+     * @param steps the child steps
+     * @param attributeName the name of the selected attribute or <strong>null</strong>
+     */
+    private SimpleXPathExpression(final List<Step> steps, final String attributeName) {
+        this.steps = steps.toArray(new Step[0]);
+        this.attributeName = attributeName;
+    }
+
+    /**
+     * Evaluates this expression on the given root node. The result is a list with the selected nodes or attributes. If the
+     * expression cannot be evaluated on this node structure - this is the case if an attribute has to be compared with a
+     * value which is not a string -, result is <strong>null</strong>; then JXPath has to be used instead.
+     *
+     * @param root the root node
+     * @param handler the {@code NodeHandler}
+     * @param <T> the type of the nodes
+     * @return a list with the results of the evaluation or <strong>null</strong>
+     */
+    public <T> List<QueryResult<T>> evaluate(final T root, final NodeHandler<T> handler) {
+        List<T> nodes = Collections.singletonList(root);
+        for (final Step step : steps) {
+            final List<T> selectedNodes = new ArrayList<>();
+            for (final T node : nodes) {
+                final List<T> children = step.select(node, handler);
+                if (children == null) {
+                    return null;
+                }
+                selectedNodes.addAll(children);
+            }
+            nodes = selectedNodes;
+        }
+
+        final List<QueryResult<T>> results = new ArrayList<>(nodes.size());
+        for (final T node : nodes) {
+            if (attributeName == null) {
+                results.add(QueryResult.createNodeResult(node));
+            } else if (handler.getAttributeValue(node, attributeName) != null) {
+                results.add(QueryResult.createAttributeResult(node, attributeName));
+            }
+        }
+        return results;
+    }
+}
@@ -16,19 +16,28 @@
  */
 package org.apache.commons.configuration2.tree.xpath;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import org.apache.commons.configuration2.tree.ExpressionEngine;
 import org.apache.commons.configuration2.tree.NodeAddData;
 import org.apache.commons.configuration2.tree.NodeHandler;
 import org.apache.commons.configuration2.tree.QueryResult;
+import org.apache.commons.jxpath.CompiledExpression;
 import org.apache.commons.jxpath.JXPathContext;
+import org.apache.commons.jxpath.Pointer;
 import org.apache.commons.jxpath.ri.JXPathContextReferenceImpl;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.mutable.MutableInt;
 
 /**
  * <p>
@@ -115,10 +124,83 @@ import org.apache.commons.lang3.StringUtils;
  * format because it makes explicit at which position new nodes should be added. For keys without a whitespace delimiter
  * there may be ambiguities.
  * </p>
+ * <p>
+ * Compiling an XPATH expression is a relatively expensive operation. As applications typically access the same keys
+ * over and over again, an instance keeps a cache with the compiled expressions for the keys it has evaluated. The
+ * maximum number of expressions in this cache can be specified when creating an instance; a value of 0 disables
+ * caching. If the cache is full, it is cleared, so that it adapts to the keys currently in use. The number of hits and
+ * misses of the cache can be queried for monitoring purposes.
+ * </p>
+ * <p>
+ * Many keys only use a small subset of the XPATH syntax: child steps selecting nodes by name, positional predicates
+ * like {@code [2]}, predicates comparing an attribute with a literal like {@code [@id='x']}, and a final step selecting
+ * an attribute like {@code @name}. Such keys are evaluated directly on the nodes of the configuration using the
+ * {@code NodeHandler}. Only keys using other XPATH features are passed to JXPath.
+ * </p>
  *
  * @since 1.3
  */
 public class XPathExpressionEngine implements ExpressionEngine {
+    /**
+     * A class representing an entry of the expression cache. For keys from the simple subset of the XPATH syntax, it
+     * stores the corresponding {@code SimpleXPathExpression}. The compiled JXPath expression is only created when it is
+     * needed.
+     */
+    private static final class CachedExpression {
+        /** The key of this expression. */
+        private final String key;
+
+        /** The simple expression for the key; <strong>null</strong> if the key cannot be evaluated directly. */
+        private final SimpleXPathExpression simpleExpression;
+
+        /** The compiled expression; created on demand. */
+        private volatile CompiledExpression compiledExpression;
+
+        /**
+         * Creates a new instance of {@code CachedExpression}.
+         *
+         * @param key the key
+         * @param simpleExpression the simple expression for the key or <strong>null</strong>
+         */
+        CachedExpression(final String key, final SimpleXPathExpression simpleExpression) {
+            this.key = key;
+            this.simpleExpression = simpleExpression;
+            if (simpleExpression == null) {
+                compiledExpression = JXPathContext.compile(key);
+            }
+        }
+
+        /**
+         * Gets the compiled expression for the key. It is created on first access.
+         *
+         * @return the compiled expression
+         */
+        CompiledExpression getCompiledExpression() {
+            CompiledExpression result = compiledExpression;
+            if (result == null) {
+                result = JXPathContext.compile(key);
+                compiledExpression = result;
+            }
+            return result;
+        }
+
+        /**
+         * Gets the simple expression for the key.
+         *
+         * @return the simple expression or <strong>null</strong>
+         */
+        SimpleXPathExpression getSimpleExpression() {
+            return simpleExpression;
+        }
+    }
+
+    /**
+     * Constant for the default maximum number of compiled expressions stored in the expression cache.
+     *
+     * @since 2.11.0
+     */
+    public static final int DEFAULT_EXPRESSION_CACHE_SIZE = 1024;
+
     /** Constant for the path delimiter. */
     static final String PATH_DELIMITER = "/";
 
@@ -158,6 +240,26 @@ public class XPathExpressionEngine implements ExpressionEngine {
         return results.stream().map(res -> (QueryResult<T>) createResult(res)).collect(Collectors.toList());
     }
 
+    /**
+     * Creates the canonical key of a node which is not the root node from its components.
+     *
+     * @param parentKey the key of the parent node
+     * @param nodeName the name of the node
+     * @param index the 1-based index of the node among its siblings with the same name
+     * @return the canonical key
+     */
+    private static String createCanonicalKey(final String parentKey, final String nodeName, final int index) {
+        final StringBuilder buf = new StringBuilder(BUF_SIZE);
+        if (StringUtils.isNotEmpty(parentKey)) {
+            buf.append(parentKey).append(PATH_DELIMITER);
+        }
+        buf.append(nodeName);
+        buf.append(START_INDEX);
+        buf.append(index);
+        buf.append(END_INDEX);
+        return buf.toString();
+    }
+
     /**
      * Creates a {@code QueryResult} object from the given result object of a query. Because of the node pointers involved
      * result objects can only be of two types:
@@ -217,24 +319,89 @@ public class XPathExpressionEngine implements ExpressionEngine {
         throw new IllegalArgumentException("Invalid node path: \"" + path + "\" " + msg);
     }
 
+    /**
+     * Evaluates a compiled expression on the given context and returns the selected nodes. This is analogous to
+     * {@link JXPathContext#selectNodes(String)}, but the expression does not have to be compiled again.
+     *
+     * @param context the context
+     * @param expression the compiled expression
+     * @return a list with the selected nodes
+     */
+    private static List<Object> selectNodes(final JXPathContext context, final CompiledExpression expression) {
+        final List<Object> results = new ArrayList<>();
+        final Iterator<?> pointers = expression.iteratePointers(context);
+        while (pointers.hasNext()) {
+            results.add(((Pointer) pointers.next()).getNode());
+        }
+        return results;
+    }
+
     /** The internally used context factory. */
     private final XPathContextFactory contextFactory;
 
+    /** The cache for compiled expressions. */
+    private final Map<String, CachedExpression> expressionCache;
+
+    /** The maximum number of expressions in the cache. */
+    private final int expressionCacheSize;
+
+    /** The number of cache hits. */
+    private final LongAdder expressionCacheHits;
+
+    /** The number of cache misses. */
+    private final LongAdder expressionCacheMisses;
+
+    /** A flag whether keys from the simple subset of the XPATH syntax are evaluated without JXPath. */
+    private final boolean simpleEvaluation;
+
     /**
      * Creates a new instance of {@code XPathExpressionEngine} with default settings.
      */
     public XPathExpressionEngine() {
-        this(new XPathContextFactory());
+        this(DEFAULT_EXPRESSION_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new instance of {@code XPathExpressionEngine} and sets the size of the cache for compiled expressions.
+     *
+     * @param cacheSize the maximum number of expressions in the cache for compiled expressions; 0 disables caching
+     * @throws IllegalArgumentException if the cache size is negative
+     * @since 2.11.0
+     */
+    public XPathExpressionEngine(final int cacheSize) {
+        this(new XPathContextFactory(), cacheSize, true);
     }
 
     /**
-     * Creates a new instance of {@code XPathExpressionEngine} and sets the context factory. This constructor is mainly used
-     * for testing purposes.
+     * Creates a new instance of {@code XPathExpressionEngine} and sets the context factory. The cache for compiled
+     * expressions and the direct evaluation of simple keys are disabled, so that all queries are directly passed to the
+     * contexts created by the factory. This constructor is mainly used for testing purposes.
      *
      * @param factory the {@code XPathContextFactory}
      */
     XPathExpressionEngine(final XPathContextFactory factory) {
+        this(factory, 0, false);
+    }
+
+    /**
+     * Creates a new instance of {@code XPathExpressionEngine} and sets the context factory, the size of the cache for
+     * compiled expressions, and the flag for the direct evaluation of simple keys.
+     *
+     * @param factory the {@code XPathContextFactory}
+     * @param cacheSize the maximum number of expressions in the cache for compiled expressions; 0 disables caching
+     * @param simpleEvaluation flag whether keys from the simple subset of the XPATH syntax are evaluated directly
+     * @throws IllegalArgumentException if the cache size is negative
+     */
+    private XPathExpressionEngine(final XPathContextFactory factory, final int cacheSize, final boolean simpleEvaluation) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + cacheSize);
+        }
         contextFactory = factory;
+        expressionCacheSize = cacheSize;
+        this.simpleEvaluation = simpleEvaluation;
+        expressionCache = new ConcurrentHashMap<>();
+        expressionCacheHits = new LongAdder();
+        expressionCacheMisses = new LongAdder();
     }
 
     @Override
@@ -248,6 +415,22 @@ public class XPathExpressionEngine implements ExpressionEngine {
         return buf.toString();
     }
 
+    /**
+     * {@inheritDoc} This implementation determines the indices of the child nodes in a single pass by counting the
+     * occurrences of each node name.
+     */
+    @Override
+    public <T> List<String> canonicalChildKeys(final T parent, final String parentKey, final NodeHandler<T> handler) {
+        final List<T> children = handler.getChildren(parent);
+        final List<String> keys = new ArrayList<>(children.size());
+        final Map<String, MutableInt> counters = new HashMap<>();
+        children.forEach(child -> {
+            final String nodeName = handler.nodeName(child);
+            keys.add(createCanonicalKey(parentKey, nodeName, counters.computeIfAbsent(nodeName, k -> new MutableInt()).incrementAndGet()));
+        });
+        return keys;
+    }
+
     /**
      * {@inheritDoc} This implementation works similar to {@code nodeKey()}, but always adds an index expression to the
      * resulting key.
@@ -259,16 +442,7 @@ public class XPathExpressionEngine implements ExpressionEngine {
             // this is the root node
             return StringUtils.defaultString(parentKey);
         }
-
-        final StringBuilder buf = new StringBuilder(BUF_SIZE);
-        if (StringUtils.isNotEmpty(parentKey)) {
-            buf.append(parentKey).append(PATH_DELIMITER);
-        }
-        buf.append(handler.nodeName(node));
-        buf.append(START_INDEX);
-        buf.append(determineIndex(parent, node, handler));
-        buf.append(END_INDEX);
-        return buf.toString();
+        return createCanonicalKey(parentKey, handler.nodeName(node), determineIndex(parent, node, handler));
     }
 
     /**
@@ -363,6 +537,28 @@ public class XPathExpressionEngine implements ExpressionEngine {
         return SPACE + key;
     }
 
+    /**
+     * Returns the cached expression for the given key. If possible, the expression is obtained from the cache. Otherwise,
+     * it is created and added to the cache.
+     *
+     * @param key the key
+     * @return the cached expression for this key
+     */
+    private CachedExpression getCachedExpression(final String key) {
+        CachedExpression expression = expressionCache.get(key);
+        if (expression != null) {
+            expressionCacheHits.increment();
+        } else {
+            expressionCacheMisses.increment();
+            expression = new CachedExpression(key, parseSimpleExpression(key));
+            if (expressionCache.size() >= expressionCacheSize) {
+                expressionCache.clear();
+            }
+            expressionCache.put(key, expression);
+        }
+        return expression;
+    }
+
     /**
      * Gets the {@code XPathContextFactory} used by this instance.
      *
@@ -372,6 +568,38 @@ public class XPathExpressionEngine implements ExpressionEngine {
         return contextFactory;
     }
 
+    /**
+     * Gets the number of queries for keys whose compiled expressions could be served from the expression cache.
+     *
+     * @return the number of cache hits
+     * @since 2.11.0
+     */
+    public long getExpressionCacheHitCount() {
+        return expressionCacheHits.sum();
+    }
+
+    /**
+     * Gets the number of queries for keys that had to be compiled because they were not contained in the expression
+     * cache.
+     *
+     * @return the number of cache misses
+     * @since 2.11.0
+     */
+    public long getExpressionCacheMissCount() {
+        return expressionCacheMisses.sum();
+    }
+
+    /**
+     * Gets the maximum number of compiled expressions stored in the expression cache. A value of 0 means that caching is
+     * disabled.
+     *
+     * @return the size of the expression cache
+     * @since 2.11.0
+     */
+    public int getExpressionCacheSize() {
+        return expressionCacheSize;
+    }
+
     /**
      * {@inheritDoc} This implementation creates an XPATH expression that selects the given node (under the assumption that
      * the passed in parent key is valid). As the {@code nodeKey()} implementation of
@@ -397,6 +625,17 @@ public class XPathExpressionEngine implements ExpressionEngine {
         return buf.toString();
     }
 
+    /**
+     * Parses the given key as a simple XPATH expression which can be evaluated without JXPath. Result is
+     * <strong>null</strong> if the key uses other XPATH features or if the direct evaluation of simple keys is disabled.
+     *
+     * @param key the key
+     * @return the simple expression for this key or <strong>null</strong>
+     */
+    private SimpleXPathExpression parseSimpleExpression(final String key) {
+        return simpleEvaluation ? SimpleXPathExpression.parse(key) : null;
+    }
+
     /**
      * {@inheritDoc} The expected format of the passed in key is explained in the class comment.
      */
@@ -432,8 +671,17 @@ public class XPathExpressionEngine implements ExpressionEngine {
             final QueryResult<T> result = createResult(root);
             return Collections.singletonList(result);
         }
+        final CachedExpression expression = expressionCacheSize > 0 ? getCachedExpression(key) : null;
+        final SimpleXPathExpression simpleExpression = expression != null ? expression.getSimpleExpression() : parseSimpleExpression(key);
+        if (simpleExpression != null) {
+            final List<QueryResult<T>> simpleResults = simpleExpression.evaluate(root, handler);
+            if (simpleResults != null) {
+                return simpleResults;
+            }
+        }
+
         final JXPathContext context = createContext(root, handler);
-        List<?> results = context.selectNodes(key);
+        List<?> results = expression != null ? selectNodes(context, expression.getCompiledExpression()) : context.selectNodes(key);
         if (results == null) {
             results = Collections.emptyList();
         }
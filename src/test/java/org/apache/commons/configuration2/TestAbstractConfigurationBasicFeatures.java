@@ -18,6 +18,7 @@ package org.apache.commons.configuration2;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -28,13 +29,16 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration2.convert.ConversionHandler;
 import org.apache.commons.configuration2.convert.DefaultConversionHandler;
@@ -43,6 +47,7 @@ import org.apache.commons.configuration2.convert.DisabledListDelimiterHandler;
 import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.event.EventListener;
 import org.apache.commons.configuration2.event.EventType;
+import org.apache.commons.configuration2.ex.ConversionException;
 import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
 import org.apache.commons.configuration2.interpol.Lookup;
 import org.apache.commons.lang3.ArrayUtils;
@@ -338,6 +343,190 @@ public class TestAbstractConfigurationBasicFeatures {
         checkListProperties(config);
     }
 
+    /**
+     * Tests whether converted values are cached if this is enabled.
+     */
+    @Test
+    public void testCacheConvertedValues() {
+        final BaseConfiguration config = new BaseConfiguration();
+        config.addProperty(KEY_PREFIX, "42");
+        config.setCacheConvertedValues(true);
+        assertTrue(config.isCacheConvertedValues());
+
+        assertEquals(42, config.getInt(KEY_PREFIX));
+        assertEquals(42, config.getInt(KEY_PREFIX));
+        assertEquals(Integer.valueOf(42), config.get(Integer.class, KEY_PREFIX));
+        assertEquals(42L, config.getLong(KEY_PREFIX));
+        assertEquals(2, config.getConvertedValueCacheHitCount());
+        assertEquals(2, config.getConvertedValueCacheMissCount());
+    }
+
+    /**
+     * Tests that conversions are performed by an overridden getConvertedProperty() method if caching is enabled.
+     */
+    @Test
+    public void testCacheConvertedValuesOverriddenGetConvertedProperty() {
+        final AtomicInteger conversionCount = new AtomicInteger();
+        final BaseConfiguration config = new BaseConfiguration() {
+            @Override
+            protected <T> T getConvertedProperty(final Class<T> cls, final String key) {
+                conversionCount.incrementAndGet();
+                return super.getConvertedProperty(cls, key);
+            }
+        };
+        config.addProperty(KEY_PREFIX, "42");
+        config.setCacheConvertedValues(true);
+
+        assertEquals(42, config.getInt(KEY_PREFIX));
+        assertEquals(42, config.getInt(KEY_PREFIX));
+        assertEquals(2, conversionCount.get());
+        assertEquals(1, config.getConvertedValueCacheHitCount());
+    }
+
+    /**
+     * Tests that the cache for converted values is disabled per default.
+     */
+    @Test
+    public void testCacheConvertedValuesDisabledByDefault() {
+        final BaseConfiguration config = new BaseConfiguration();
+        config.addProperty(KEY_PREFIX, "42");
+        assertFalse(config.isCacheConvertedValues());
+
+        assertEquals(42, config.getInt(KEY_PREFIX));
+        assertEquals(42, config.getInt(KEY_PREFIX));
+        assertEquals(0, config.getConvertedValueCacheHitCount());
+        assertEquals(0, config.getConvertedValueCacheMissCount());
+    }
+
+    /**
+     * Tests that a failed conversion reports the key and the value and fetches the value only once.
+     */
+    @Test
+    public void testCacheConvertedValuesConversionError() {
+        final AtomicInteger fetchCount = new AtomicInteger();
+        final BaseConfiguration wrapped = new BaseConfiguration();
+        wrapped.addProperty(KEY_PREFIX, "noNumber");
+        final AbstractConfiguration config = new TestConfigurationImpl(wrapped) {
+            @Override
+            protected Object getPropertyInternal(final String key) {
+                fetchCount.incrementAndGet();
+                return super.getPropertyInternal(key);
+            }
+        };
+        config.setCacheConvertedValues(true);
+
+        final ConversionException cex = assertThrows(ConversionException.class, () -> config.getInt(KEY_PREFIX));
+        assertTrue(cex.getMessage().contains("'" + KEY_PREFIX + "'"));
+        assertTrue(cex.getMessage().contains("'noNumber'"));
+        assertEquals(1, fetchCount.get());
+    }
+
+    /**
+     * Tests that the cache for converted values is not shared with a clone.
+     */
+    @Test
+    public void testCacheConvertedValuesClone() {
+        final BaseConfiguration config = new BaseConfiguration();
+        config.addProperty(KEY_PREFIX, "42");
+        config.setCacheConvertedValues(true);
+        assertEquals(42, config.getInt(KEY_PREFIX));
+
+        final BaseConfiguration copy = (BaseConfiguration) config.clone();
+        assertTrue(copy.isCacheConvertedValues());
+        assertEquals(0, copy.getConvertedValueCacheMissCount());
+        copy.setProperty(KEY_PREFIX, "43");
+        assertEquals(43, copy.getInt(KEY_PREFIX));
+        assertEquals(42, config.getInt(KEY_PREFIX));
+        assertEquals(1, config.getConvertedValueCacheHitCount());
+        assertEquals(1, copy.getConvertedValueCacheMissCount());
+    }
+
+    /**
+     * Tests that the cache for converted values is cleared when the configuration is changed, even if detail events are
+     * disabled.
+     */
+    @Test
+    public void testCacheConvertedValuesInvalidatedOnChange() {
+        final BaseConfiguration config = new BaseConfiguration();
+        config.addProperty(KEY_PREFIX, "42");
+        config.setCacheConvertedValues(true);
+        assertEquals(42, config.getInt(KEY_PREFIX));
+
+        config.setProperty(KEY_PREFIX, "43");
+        assertEquals(43, config.getInt(KEY_PREFIX));
+        config.setDetailEvents(false);
+        config.setProperty(KEY_PREFIX, "44");
+        assertEquals(44, config.getInt(KEY_PREFIX));
+        config.clearProperty(KEY_PREFIX);
+        assertEquals(-1, config.getInt(KEY_PREFIX, -1));
+        config.addProperty(KEY_PREFIX, "45");
+        assertEquals(45, config.getInt(KEY_PREFIX));
+        config.clear();
+        assertNull(config.getInteger(KEY_PREFIX, null));
+        assertEquals(0, config.getConvertedValueCacheHitCount());
+    }
+
+    /**
+     * Tests that the cache for converted values is cleared if another conversion handler is set.
+     */
+    @Test
+    public void testCacheConvertedValuesSetConversionHandler() {
+        final BaseConfiguration config = new BaseConfiguration();
+        config.addProperty(KEY_PREFIX, "42");
+        config.setCacheConvertedValues(true);
+        assertEquals(42, config.getInt(KEY_PREFIX));
+
+        config.setConversionHandler(new DefaultConversionHandler());
+        assertEquals(42, config.getInt(KEY_PREFIX));
+        assertEquals(0, config.getConvertedValueCacheHitCount());
+        assertEquals(2, config.getConvertedValueCacheMissCount());
+
+        config.setCacheConvertedValues(false);
+        assertFalse(config.isCacheConvertedValues());
+        assertEquals(42, config.getInt(KEY_PREFIX));
+        assertEquals(2, config.getConvertedValueCacheMissCount());
+    }
+
+    /**
+     * Tests that the results of conversions to mutable types are not cached, so that modifying a returned object does
+     * not affect further calls.
+     */
+    @Test
+    public void testCacheConvertedValuesMutableTypes() {
+        final BaseConfiguration config = new BaseConfiguration();
+        config.addProperty(KEY_PREFIX, "2024-01-15 10:30:00");
+        config.setCacheConvertedValues(true);
+
+        final Date date = config.get(Date.class, KEY_PREFIX);
+        final long time = date.getTime();
+        date.setTime(0);
+        assertEquals(time, config.get(Date.class, KEY_PREFIX).getTime());
+        final Calendar calendar = config.get(Calendar.class, KEY_PREFIX);
+        calendar.add(Calendar.YEAR, 1);
+        assertEquals(time, config.get(Calendar.class, KEY_PREFIX).getTimeInMillis());
+        assertEquals(0, config.getConvertedValueCacheHitCount());
+    }
+
+    /**
+     * Tests that values containing variables are not cached because the values of variables can change without the
+     * configuration being changed.
+     */
+    @Test
+    public void testCacheConvertedValuesWithVariables() {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("port", "8080");
+        final BaseConfiguration config = new BaseConfiguration();
+        config.getInterpolator().registerLookup("test", variables::get);
+        config.addProperty(KEY_PREFIX, "${test:port}");
+        config.setCacheConvertedValues(true);
+
+        assertEquals(8080, config.getInt(KEY_PREFIX));
+        variables.put("port", "8081");
+        assertEquals(8081, config.getInt(KEY_PREFIX));
+        assertEquals(0, config.getConvertedValueCacheHitCount());
+        assertEquals(2, config.getConvertedValueCacheMissCount());
+    }
+
     /**
      * Tests the clear() implementation of AbstractConfiguration if the iterator returned by getKeys() does not support the
      * remove() operation.
@@ -36,6 +36,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
 import org.apache.commons.configuration2.event.ConfigurationEvent;
@@ -50,6 +51,7 @@ import org.apache.commons.configuration2.tree.InMemoryNodeModel;
 import org.apache.commons.configuration2.tree.NodeHandler;
 import org.apache.commons.configuration2.tree.NodeModel;
 import org.apache.commons.configuration2.tree.NodeStructureHelper;
+import org.apache.commons.configuration2.tree.QueryResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -563,6 +565,22 @@ public class TestAbstractHierarchicalConfiguration {
         assertEquals("order.key3", it.next());
     }
 
+    /**
+     * Tests that getKeys() with a prefix takes an overridden fetchNodeList() method into account.
+     */
+    @Test
+    public void testGetKeysPrefixOverriddenFetchNodeList() {
+        final BaseHierarchicalConfiguration testConfig = new BaseHierarchicalConfiguration(config) {
+            @Override
+            protected List<QueryResult<ImmutableNode>> fetchNodeList(final String key) {
+                return super.fetchNodeList("alias".equals(key) ? "tables.table(1)" : key);
+            }
+        };
+        final List<String> keys = new ArrayList<>();
+        testConfig.getKeys("alias").forEachRemaining(keys::add);
+        assertEquals(Arrays.asList("alias.name", "alias.fields.field.name"), keys);
+    }
+
     @Test
     public void testGetKeysString() {
         // add some more properties to make it more interesting
@@ -650,6 +668,37 @@ public class TestAbstractHierarchicalConfiguration {
         checkGetProperty(config);
     }
 
+    /**
+     * Tests that getProperty() takes an overridden fetchNodeList() method into account.
+     */
+    @Test
+    public void testGetPropertyOverriddenFetchNodeList() {
+        final BaseHierarchicalConfiguration testConfig = new BaseHierarchicalConfiguration(config) {
+            @Override
+            protected List<QueryResult<ImmutableNode>> fetchNodeList(final String key) {
+                return super.fetchNodeList("alias".equals(key) ? "tables.table(0).name" : key);
+            }
+        };
+        assertEquals(NodeStructureHelper.table(0), testConfig.getString("alias"));
+        assertTrue(testConfig.containsKey("alias"));
+    }
+
+    /**
+     * Tests that getProperty() uses an overridden queryNodes() method.
+     */
+    @Test
+    public void testGetPropertyOverriddenQueryNodes() {
+        final BaseHierarchicalConfiguration testConfig = new BaseHierarchicalConfiguration(config) {
+            @Override
+            protected void queryNodes(final String key, final Consumer<? super QueryResult<ImmutableNode>> consumer) {
+                final NodeHandler<ImmutableNode> handler = getModel().getNodeHandler();
+                getExpressionEngine().query(handler.getRootNode(), "alias".equals(key) ? "tables.table(1).name" : key, handler, consumer);
+            }
+        };
+        assertEquals(NodeStructureHelper.table(1), testConfig.getString("alias"));
+        assertEquals(NodeStructureHelper.table(0), testConfig.getString("tables.table(0).name"));
+    }
+
     /**
      * Tests whether keys that contains brackets can be used.
      */
@@ -844,6 +893,22 @@ public class TestAbstractHierarchicalConfiguration {
         assertEquals("", cache.get(getRootNode()));
     }
 
+    /**
+     * Tests whether nodeKey() generates correct keys for many siblings if the same cache is used for all of them.
+     */
+    @Test
+    public void testNodeKeyCacheSiblings() {
+        final Map<ImmutableNode, String> cache = new HashMap<>();
+        final ImmutableNode nodeFields = NodeStructureHelper.nodeForKey(getRootNode(), "tables/table(1)/fields");
+        final NodeHandler<ImmutableNode> handler = config.getModel().getNodeHandler();
+        for (final ImmutableNode field : nodeFields) {
+            assertEquals(config.nodeKey(field, new HashMap<>(), handler), config.nodeKey(field, cache, handler));
+        }
+        for (int i = 0; i < nodeFields.getChildren().size(); i++) {
+            assertEquals("tables(0).table(1).fields(0).field(" + i + ")", cache.get(nodeFields.getChildren().get(i)));
+        }
+    }
+
     /**
      * Tests whether the cache is used by nodeKey().
      */
@@ -940,6 +1005,21 @@ public class TestAbstractHierarchicalConfiguration {
         assertEquals(42, config.getInt("test.items.item"));
     }
 
+    /**
+     * Tests that setProperty() takes an overridden fetchNodeList() method into account.
+     */
+    @Test
+    public void testSetPropertyOverriddenFetchNodeList() {
+        final BaseHierarchicalConfiguration testConfig = new BaseHierarchicalConfiguration(config) {
+            @Override
+            protected List<QueryResult<ImmutableNode>> fetchNodeList(final String key) {
+                return super.fetchNodeList("alias".equals(key) ? "tables.table(0).name" : key);
+            }
+        };
+        testConfig.setProperty("alias", "changed");
+        assertEquals("changed", testConfig.getString("tables.table(0).name"));
+    }
+
     /**
      * Tests whether the correct size is calculated.
      */
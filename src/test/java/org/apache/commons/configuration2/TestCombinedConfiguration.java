@@ -251,6 +251,23 @@ public class TestCombinedConfiguration {
         return config;
     }
 
+    /**
+     * Creates a node combiner which counts the combinations of root nodes. It delegates to a union combiner.
+     *
+     * @param counter the counter for combinations
+     * @return the counting combiner
+     */
+    private static NodeCombiner createCountingCombiner(final AtomicInteger counter) {
+        final NodeCombiner union = new UnionCombiner();
+        return new NodeCombiner() {
+            @Override
+            public ImmutableNode combine(final ImmutableNode node1, final ImmutableNode node2) {
+                counter.incrementAndGet();
+                return union.combine(node1, node2);
+            }
+        };
+    }
+
     /** The configuration to be tested. */
     private CombinedConfiguration config;
 
@@ -860,6 +877,22 @@ public class TestCombinedConfiguration {
         assertThrows(IllegalArgumentException.class, () -> config.getSource(null));
     }
 
+    /**
+     * Tests whether the sources of keys are determined correctly after child configurations have been changed.
+     */
+    @Test
+    public void testGetSourcesAfterChange() {
+        setUpSourceTest();
+        assertEquals(Collections.singleton(config.getConfiguration(CHILD1)), config.getSources(TEST_KEY));
+        assertEquals(Collections.singleton(config.getConfiguration(CHILD2)), config.getSources("another.key"));
+
+        config.getConfiguration(CHILD1).addProperty("new.key1", "1");
+        config.getConfiguration(CHILD2).addProperty("new.key2", "2");
+        assertEquals(Collections.singleton(config.getConfiguration(CHILD1)), config.getSources("new.key1"));
+        assertEquals(Collections.singleton(config.getConfiguration(CHILD2)), config.getSources("new.key2"));
+        assertEquals(Collections.singleton(config.getConfiguration(CHILD1)), config.getSources(TEST_KEY));
+    }
+
     /**
      * Tests whether multiple sources of a key can be retrieved.
      */
@@ -926,6 +959,24 @@ public class TestCombinedConfiguration {
         assertNull(config.getConfiguration(TEST_NAME));
     }
 
+    /**
+     * Tests that an explicit invalidation causes the whole combined structure to be reconstructed.
+     */
+    @Test
+    public void testInvalidateRecombinesAllConfigurations() {
+        final AtomicInteger counter = new AtomicInteger();
+        config.setNodeCombiner(createCountingCombiner(counter));
+        config.addConfiguration(setUpTestConfiguration());
+        config.addConfiguration(setUpTestConfiguration());
+        config.addConfiguration(setUpTestConfiguration());
+        assertTrue(config.getBoolean(TEST_KEY));
+        assertEquals(2, counter.get());
+
+        config.invalidate();
+        assertTrue(config.getBoolean(TEST_KEY));
+        assertEquals(4, counter.get());
+    }
+
     /**
      * Tests whether only a single invalidate event is fired for a change. This test is related to CONFIGURATION-315.
      */
@@ -981,6 +1032,28 @@ public class TestCombinedConfiguration {
         checkRemoveConfig(c);
     }
 
+    /**
+     * Tests whether the combined structure is correctly reconstructed after a configuration in the middle was removed.
+     */
+    @Test
+    public void testRemoveConfigurationRecombines() {
+        final AtomicInteger counter = new AtomicInteger();
+        config.setNodeCombiner(createCountingCombiner(counter));
+        for (int i = 0; i < 3; i++) {
+            final BaseHierarchicalConfiguration child = new BaseHierarchicalConfiguration();
+            child.addProperty("child" + i, i);
+            config.addConfiguration(child);
+        }
+        assertEquals(1, config.getInt("child1"));
+        assertEquals(2, counter.get());
+
+        config.removeConfigurationAt(1);
+        assertFalse(config.containsKey("child1"));
+        assertEquals(0, config.getInt("child0"));
+        assertEquals(2, config.getInt("child2"));
+        assertEquals(3, counter.get());
+    }
+
     /**
      * Tests removing a configuration by index.
      */
@@ -1097,6 +1170,64 @@ public class TestCombinedConfiguration {
         assertFalse(config.getBoolean(SUB_KEY + '.' + TEST_KEY));
     }
 
+    /**
+     * Tests that changes on the children of a contained combined configuration are visible.
+     */
+    @Test
+    public void testUpdateNestedCombinedConfiguration() {
+        final BaseHierarchicalConfiguration grandChild = new BaseHierarchicalConfiguration();
+        grandChild.addProperty("nested.key", 1);
+        final CombinedConfiguration nested = new CombinedConfiguration();
+        nested.addConfiguration(grandChild);
+        final BaseHierarchicalConfiguration child = new BaseHierarchicalConfiguration();
+        child.addProperty("other.key", 1);
+        config.addConfiguration(child);
+        config.addConfiguration(nested);
+        assertEquals(1, config.getInt("nested.key"));
+
+        grandChild.setProperty("nested.key", 2);
+        assertEquals(2, config.getInt("nested.key"));
+
+        child.setProperty("other.key", 2);
+        grandChild.setProperty("nested.key", 3);
+        assertEquals(2, config.getInt("other.key"));
+        assertEquals(3, config.getInt("nested.key"));
+    }
+
+    /**
+     * Tests that an update of a contained configuration only causes the combinations starting with this configuration to
+     * be recomputed.
+     */
+    @Test
+    public void testUpdateContainedConfigurationIncremental() {
+        final AtomicInteger counter = new AtomicInteger();
+        config.setNodeCombiner(createCountingCombiner(counter));
+        final List<AbstractConfiguration> children = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final AbstractConfiguration child = setUpTestConfiguration();
+            child.addProperty("child" + i, i);
+            children.add(child);
+            config.addConfiguration(child);
+        }
+        assertEquals(0, config.getInt("child0"));
+        assertEquals(2, counter.get());
+
+        children.get(2).setProperty("child2", 20);
+        assertEquals(20, config.getInt("child2"));
+        assertEquals(3, counter.get());
+
+        children.get(1).setProperty("child1", 10);
+        assertEquals(10, config.getInt("child1"));
+        assertEquals(20, config.getInt("child2"));
+        assertEquals(5, counter.get());
+
+        children.get(0).addProperty("newProperty", "new");
+        assertEquals("new", config.getString("newProperty"));
+        assertEquals(0, config.getInt("child0"));
+        assertEquals(7, counter.get());
+        listener.checkEvent(7, 0);
+    }
+
     /**
      * Tests if an update of a contained configuration leeds to an invalidation of the combined configuration.
      */
@@ -17,13 +17,21 @@
 package org.apache.commons.configuration2;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.commons.configuration2.event.ConfigurationEvent;
+import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
+import org.apache.commons.configuration2.tree.ImmutableNode;
 
 import org.junit.jupiter.api.Test;
 
@@ -37,6 +45,147 @@ public class TestConfigurationLookup {
     /** Constant for the value of the test variable. */
     private static final Object VALUE = "SomeTestValue";
 
+    /**
+     * Tests whether a change listener is notified about changes of the configuration.
+     */
+    @Test
+    public void testAddChangeListener() {
+        final BaseConfiguration conf = new BaseConfiguration();
+        final ConfigurationLookup lookup = new ConfigurationLookup(conf);
+        final List<String> changes = new ArrayList<>();
+        assertTrue(lookup.addChangeListener(changes::add));
+
+        conf.addProperty(VAR, VALUE);
+        conf.setProperty(VAR, "otherValue");
+        conf.clearProperty(VAR);
+        conf.clear();
+        assertEquals(Arrays.asList(VAR, VAR, VAR, null), changes);
+    }
+
+    /**
+     * Tests that no change listener can be registered if the configuration does not fire events.
+     */
+    @Test
+    public void testAddChangeListenerNoEventSource() {
+        final ImmutableConfiguration conf = ConfigurationUtils.unmodifiableConfiguration(new BaseConfiguration());
+        final ConfigurationLookup lookup = new ConfigurationLookup(conf);
+        assertFalse(lookup.addChangeListener(name -> {
+            throw new AssertionError("Unexpected change: " + name);
+        }));
+    }
+
+    /**
+     * Tests whether a change listener can be removed again.
+     */
+    @Test
+    public void testRemoveChangeListener() {
+        final BaseConfiguration conf = new BaseConfiguration();
+        final ConfigurationLookup lookup = new ConfigurationLookup(conf);
+        final List<String> changes = new ArrayList<>();
+        final Consumer<String> listener = changes::add;
+        final int listenerCount = conf.getEventListeners(ConfigurationEvent.ANY).size();
+        assertTrue(lookup.addChangeListener(listener));
+
+        assertTrue(lookup.removeChangeListener(listener));
+        assertFalse(lookup.removeChangeListener(listener));
+        conf.addProperty(VAR, VALUE);
+        assertTrue(changes.isEmpty());
+        assertEquals(listenerCount, conf.getEventListeners(ConfigurationEvent.ANY).size());
+    }
+
+    /**
+     * Tests whether interpolation results depending on a configuration are cached and invalidated when the configuration
+     * is changed.
+     */
+    @Test
+    public void testCachedInterpolationInvalidatedOnChange() {
+        final BaseConfiguration conf = new BaseConfiguration();
+        conf.addProperty("port", 8080);
+        conf.addProperty("host", "localhost");
+        final ConfigurationInterpolator interpolator = conf.getInterpolator();
+        interpolator.setCacheResults(true);
+
+        assertEquals(8080, interpolator.interpolate("${port}"));
+        assertEquals(8080, interpolator.interpolate("${port}"));
+        assertEquals(1, interpolator.getResultCacheHitCount());
+        conf.setProperty("port", 8081);
+        assertEquals(8081, interpolator.interpolate("${port}"));
+        assertEquals(2, interpolator.getResultCacheMissCount());
+        conf.setProperty("host", "otherhost");
+        assertEquals(8081, interpolator.interpolate("${port}"));
+        assertEquals(2, interpolator.getResultCacheHitCount());
+    }
+
+    /**
+     * Tests that cached interpolation results depending on a hierarchical configuration are invalidated if a property
+     * is changed using a different, but equivalent key.
+     */
+    @Test
+    public void testCachedInterpolationInvalidatedOnChangeEquivalentKey() {
+        final BaseHierarchicalConfiguration conf = new BaseHierarchicalConfiguration();
+        conf.addProperty("a.b", "v1");
+        final ConfigurationInterpolator interpolator = conf.getInterpolator();
+        interpolator.setCacheResults(true);
+        assertEquals("v1", interpolator.interpolate("${a.b}"));
+
+        conf.setProperty("a(0).b", "v2");
+        assertEquals("v2", interpolator.interpolate("${a.b}"));
+    }
+
+    /**
+     * Tests that cached interpolation results are invalidated if the configuration is changed while detail events are
+     * disabled.
+     */
+    @Test
+    public void testCachedInterpolationInvalidatedDetailEventsDisabled() {
+        final BaseConfiguration conf = new BaseConfiguration();
+        conf.addProperty("port", 8080);
+        final ConfigurationInterpolator interpolator = conf.getInterpolator();
+        interpolator.setCacheResults(true);
+        assertEquals("port 8080", interpolator.interpolate("port ${port}"));
+
+        conf.setDetailEvents(false);
+        conf.setProperty("port", 8081);
+        assertEquals("port 8081", interpolator.interpolate("port ${port}"));
+    }
+
+    /**
+     * Tests that cached interpolation results of a connected sub configuration are invalidated if the parent
+     * configuration is changed.
+     */
+    @Test
+    public void testCachedInterpolationInvalidatedOnParentChange() {
+        final BaseHierarchicalConfiguration conf = new BaseHierarchicalConfiguration();
+        conf.addProperty("limits.max", 1);
+        final HierarchicalConfiguration<ImmutableNode> sub = conf.configurationAt("limits", true);
+        final ConfigurationInterpolator interpolator = ((AbstractConfiguration) sub).getInterpolator();
+        interpolator.setCacheResults(true);
+        assertEquals("max 1", interpolator.interpolate("max ${max}"));
+        assertEquals("max 1", interpolator.interpolate("max ${max}"));
+        assertEquals(1, interpolator.getResultCacheHitCount());
+
+        conf.setProperty("limits.max", 2);
+        assertEquals("max 2", interpolator.interpolate("max ${max}"));
+    }
+
+    /**
+     * Tests that interpolation results depending on a configuration whose changes cannot be detected are not cached.
+     */
+    @Test
+    public void testCachedInterpolationNotObservableConfiguration() {
+        final BaseConfiguration child = new BaseConfiguration();
+        child.addProperty("port", 8080);
+        final CompositeConfiguration conf = new CompositeConfiguration();
+        conf.addConfiguration(child);
+        final ConfigurationInterpolator interpolator = conf.getInterpolator();
+        interpolator.setCacheResults(true);
+        assertEquals("port 8080", interpolator.interpolate("port ${port}"));
+
+        child.setProperty("port", 8081);
+        assertEquals("port 8081", interpolator.interpolate("port ${port}"));
+        assertEquals(0, interpolator.getResultCacheHitCount());
+    }
+
     /**
      * Tries to create an instance without a configuration.
      */
@@ -332,6 +332,19 @@ public class TestDataConfiguration {
         conf.addProperty("email.object", new InternetAddress("dev@test.org"));
     }
 
+    /**
+     * Tests that enabling the cache for converted values does not hide changes of the wrapped configuration.
+     */
+    @Test
+    public void testCacheConvertedValuesWrappedConfigurationChanged() {
+        conf.getConfiguration().setProperty("limit.max", "80");
+        conf.setCacheConvertedValues(true);
+        assertEquals(80, conf.getInt("limit.max"));
+
+        conf.getConfiguration().setProperty("limit.max", "81");
+        assertEquals(81, conf.getInt("limit.max"));
+    }
+
     /**
      * Tests whether properties can be cleared.
      */
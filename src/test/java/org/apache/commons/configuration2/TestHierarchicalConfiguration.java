@@ -17,19 +17,28 @@
 package org.apache.commons.configuration2;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
+import org.apache.commons.configuration2.convert.DefaultConversionHandler;
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
+import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
 import org.apache.commons.configuration2.tree.DefaultConfigurationKey;
 import org.apache.commons.configuration2.tree.DefaultExpressionEngine;
+import org.apache.commons.configuration2.tree.DefaultExpressionEngineSymbols;
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.commons.configuration2.tree.NodeStructureHelper;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,6 +48,20 @@ import org.junit.jupiter.api.Test;
  * Test class for {@code BaseHierarchicalConfiguration}.
  */
 public class TestHierarchicalConfiguration {
+    /**
+     * A conversion handler which counts the conversions it performs.
+     */
+    private static final class CountingConversionHandler extends DefaultConversionHandler {
+        /** The number of conversions. */
+        private int conversionCount;
+
+        @Override
+        public <T> T to(final Object src, final Class<T> targetCls, final ConfigurationInterpolator ci) {
+            conversionCount++;
+            return super.to(src, targetCls, ci);
+        }
+    }
+
     /** Constant for a changed name. */
     private static final String NEW_NAME = "alteredName";
 
@@ -130,6 +153,133 @@ public class TestHierarchicalConfiguration {
         config.getNodeModel().setRootNode(root);
     }
 
+    /**
+     * Tests whether converted values are cached in the nodes if this feature is enabled.
+     */
+    @Test
+    public void testCacheConvertedNodeValues() {
+        final CountingConversionHandler handler = new CountingConversionHandler();
+        config.setConversionHandler(handler);
+        config.setCacheConvertedValues(true);
+        config.addProperty("limits.max", "100");
+
+        assertEquals(100, config.getInt("limits.max"));
+        assertEquals(100, config.getInt("limits.max"));
+        assertEquals(100L, config.getLong("limits.max"));
+        assertEquals(100L, config.getLong("limits.max"));
+        assertEquals(2, handler.conversionCount);
+        assertEquals(2, config.getConvertedValueCacheHitCount());
+        assertEquals(2, config.getConvertedValueCacheMissCount());
+    }
+
+    /**
+     * Tests that a connected sub configuration sees changes of a cached property performed via its parent.
+     */
+    @Test
+    public void testCacheConvertedNodeValuesConnectedSubConfiguration() {
+        config.setCacheConvertedValues(true);
+        config.addProperty("limits.max", "80");
+        final BaseHierarchicalConfiguration sub = (BaseHierarchicalConfiguration) config.configurationAt("limits", true);
+        sub.setCacheConvertedValues(true);
+        assertEquals(80, sub.getInt("max"));
+
+        config.setProperty("limits.max", "81");
+        assertEquals(81, sub.getInt("max"));
+        assertEquals("81", sub.getString("max"));
+    }
+
+    /**
+     * Tests that converted node values are not cached per default.
+     */
+    @Test
+    public void testCacheConvertedNodeValuesDisabled() {
+        final CountingConversionHandler handler = new CountingConversionHandler();
+        config.setConversionHandler(handler);
+        config.addProperty("limits.max", "100");
+
+        assertFalse(config.isCacheConvertedValues());
+        assertEquals(100, config.getInt("limits.max"));
+        assertEquals(100, config.getInt("limits.max"));
+        assertEquals(2, handler.conversionCount);
+    }
+
+    /**
+     * Tests that the results of conversions to mutable types are not cached in the nodes, so that modifying a returned
+     * object does not affect further calls.
+     */
+    @Test
+    public void testCacheConvertedNodeValuesMutableTypes() {
+        config.setCacheConvertedValues(true);
+        config.addProperty("limits.expiry", "2024-01-15 10:30:00");
+
+        final Date date = config.get(Date.class, "limits.expiry");
+        final long time = date.getTime();
+        date.setTime(0);
+        assertEquals(time, config.get(Date.class, "limits.expiry").getTime());
+        final Calendar calendar = config.get(Calendar.class, "limits.expiry");
+        calendar.add(Calendar.YEAR, 1);
+        assertEquals(time, config.get(Calendar.class, "limits.expiry").getTimeInMillis());
+    }
+
+    /**
+     * Tests that caching of converted node values takes an overridden getPropertyInternal() method into account.
+     */
+    @Test
+    public void testCacheConvertedNodeValuesOverriddenGetPropertyInternal() {
+        final BaseHierarchicalConfiguration prefixConfig = new BaseHierarchicalConfiguration() {
+            @Override
+            protected Object getPropertyInternal(final String key) {
+                final Object value = super.getPropertyInternal(key);
+                return value != null ? "1" + value : null;
+            }
+        };
+        prefixConfig.setCacheConvertedValues(true);
+        prefixConfig.addProperty("limits.max", "100");
+
+        assertEquals(1100, prefixConfig.getInt("limits.max"));
+        assertEquals(1100, prefixConfig.getInt("limits.max"));
+    }
+
+    /**
+     * Tests that a cached converted value is discarded when the property is changed.
+     */
+    @Test
+    public void testCacheConvertedNodeValuesPropertyChanged() {
+        config.setCacheConvertedValues(true);
+        config.addProperty("limits.max", "100");
+        assertEquals(100, config.getInt("limits.max"));
+
+        config.setProperty("limits.max", "200");
+        assertEquals(200, config.getInt("limits.max"));
+    }
+
+    /**
+     * Tests that sub configurations inherit the flag for caching converted node values.
+     */
+    @Test
+    public void testCacheConvertedNodeValuesSubConfiguration() {
+        config.setCacheConvertedValues(true);
+        config.addProperty("limits.max", "100");
+        final HierarchicalConfiguration<ImmutableNode> sub = config.configurationAt("limits");
+
+        assertTrue(((BaseHierarchicalConfiguration) sub).isCacheConvertedValues());
+        assertEquals(100, sub.getInt("max"));
+    }
+
+    /**
+     * Tests that values containing variables are not cached, so that changes of the referenced properties are visible.
+     */
+    @Test
+    public void testCacheConvertedNodeValuesWithVariables() {
+        config.setCacheConvertedValues(true);
+        config.addProperty("limits.base", "10");
+        config.addProperty("limits.max", "${limits.base}");
+        assertEquals(10, config.getInt("limits.max"));
+
+        config.setProperty("limits.base", "20");
+        assertEquals(20, config.getInt("limits.max"));
+    }
+
     /**
      * Tests the result of childConfigurationsAt() if the key does not point to an existing node.
      */
@@ -339,6 +489,108 @@ public class TestHierarchicalConfiguration {
         checkConfigurationsAtWithUpdate(true, NEW_NAME);
     }
 
+    /**
+     * Tests whether a batch of updates is applied to the configuration. Later updates must see the results of earlier ones.
+     */
+    @Test
+    public void testExecuteBatch() {
+        config.setListDelimiterHandler(new DefaultListDelimiterHandler(','));
+        config.executeBatch(batch -> {
+            batch.addProperty("db.host", "localhost");
+            batch.addProperty("db.port", "8080");
+            batch.setProperty("db.port", "1,2");
+            batch.addNodes("db.pool", Collections.singleton(NodeStructureHelper.createNode("size", 10)));
+            batch.clearProperty("tables.table(1).name");
+            batch.clearTree("tables.table(0)");
+        });
+        assertEquals("localhost", config.getString("db.host"));
+        assertEquals(Arrays.asList("1", "2"), config.getList("db.port"));
+        assertEquals(10, config.getInt("db.pool.size"));
+        assertEquals(0, config.getMaxIndex("db"));
+        assertEquals(0, config.getMaxIndex("tables.table"));
+        assertNull(config.getString("tables.table.name"));
+        assertEquals(NodeStructureHelper.field(1, 0), config.getString("tables.table.fields.field(0).name"));
+    }
+
+    /**
+     * Tries to execute a null batch.
+     */
+    @Test
+    public void testExecuteBatchNull() {
+        assertThrows(IllegalArgumentException.class, () -> config.executeBatch(null));
+    }
+
+    /**
+     * Tests whether a batch can be executed on a connected sub configuration.
+     */
+    @Test
+    public void testExecuteBatchSubConfigConnected() {
+        final BaseHierarchicalConfiguration subConfig = (BaseHierarchicalConfiguration) config.configurationAt("tables.table(1)", true);
+        subConfig.executeBatch(batch -> {
+            batch.setProperty("name", "testTable");
+            batch.addProperty("fields.field(-1).name", "testField");
+        });
+        assertEquals("testTable", config.getString("tables.table(1).name"));
+        assertEquals("testField", config.getString("tables.table(1).fields.field(" + NodeStructureHelper.fieldsLength(1) + ").name"));
+        assertEquals("testTable", subConfig.getString("name"));
+    }
+
+    /**
+     * Tests whether the keys of the configuration are updated after a change of the configuration.
+     */
+    @Test
+    public void testGetKeysAfterUpdate() {
+        final List<String> keys = new ArrayList<>();
+        config.getKeys().forEachRemaining(keys::add);
+        config.addProperty("tables.table(0)[@type]", "system");
+        config.clearTree("tables.table.fields");
+
+        final List<String> keysAfterUpdate = new ArrayList<>();
+        config.getKeys().forEachRemaining(keysAfterUpdate::add);
+        assertEquals(Arrays.asList("tables.table.name", "tables.table.fields.field.name"), keys);
+        assertEquals(Arrays.asList("tables.table[@type]", "tables.table.name"), keysAfterUpdate);
+        assertEquals(2, config.size());
+    }
+
+    /**
+     * Tests that the keys of the configuration are updated if the expression engine is changed.
+     */
+    @Test
+    public void testGetKeysAfterUpdateOfExpressionEngine() {
+        config.getKeys();
+        final DefaultExpressionEngineSymbols symbols = new DefaultExpressionEngineSymbols.Builder(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS)
+            .setPropertyDelimiter("/").create();
+        config.setExpressionEngine(new DefaultExpressionEngine(symbols));
+
+        final List<String> keys = new ArrayList<>();
+        config.getKeys().forEachRemaining(keys::add);
+        assertEquals(Arrays.asList("tables/table/name", "tables/table/fields/field/name"), keys);
+    }
+
+    /**
+     * Tests that an iterator for keys with a prefix is not affected by later changes of the configuration.
+     */
+    @Test
+    public void testGetKeysPrefixConcurrentUpdate() {
+        final Iterator<String> it = config.getKeys("tables.table(1)");
+        config.clearTree("tables");
+
+        final List<String> keys = new ArrayList<>();
+        it.forEachRemaining(keys::add);
+        assertEquals(Arrays.asList("tables.table(1).name", "tables.table(1).fields.field.name"), keys);
+        assertFalse(config.getKeys("tables.table(1)").hasNext());
+    }
+
+    /**
+     * Tests that the iterator returned by getKeys() does not support removing keys.
+     */
+    @Test
+    public void testGetKeysRemoveNotSupported() {
+        final Iterator<String> it = config.getKeys();
+        it.next();
+        assertThrows(UnsupportedOperationException.class, it::remove);
+    }
+
     /**
      * Tests whether immutable configurations for the children of a given node can be queried.
      */
@@ -448,6 +700,46 @@ public class TestHierarchicalConfiguration {
         InterpolationTestHelper.testInterpolationSubset(config);
     }
 
+    /**
+     * Tests whether a snapshot of the configuration can be created which is not affected by later changes.
+     */
+    @Test
+    public void testSnapshot() {
+        config.setListDelimiterHandler(new DefaultListDelimiterHandler(','));
+        final ImmutableHierarchicalConfiguration snapshot = config.snapshot();
+        config.setProperty("tables.table(0).name", "changedTable");
+        config.addProperty("tables.table(0).fields.field(-1).name", "newField");
+
+        assertEquals(NodeStructureHelper.table(0), snapshot.getString("tables.table(0).name"));
+        assertEquals(NodeStructureHelper.fieldsLength(0) - 1, snapshot.getMaxIndex("tables.table(0).fields.field"));
+        assertEquals("changedTable", config.getString("tables.table(0).name"));
+        assertFalse(snapshot instanceof Configuration);
+    }
+
+    /**
+     * Tests that a snapshot shares the node structure of the configuration.
+     */
+    @Test
+    public void testSnapshotSharesNodes() {
+        final ImmutableHierarchicalConfiguration snapshot = config.snapshot();
+        final ImmutableHierarchicalConfiguration sub = snapshot.immutableConfigurationAt("tables.table(1)");
+        assertEquals(NodeStructureHelper.table(1), sub.getString("name"));
+        assertEquals(config.getNodeModel().getRootNode().getNodeName(), snapshot.getRootElementName());
+    }
+
+    /**
+     * Tests whether a snapshot can be created from a connected sub configuration.
+     */
+    @Test
+    public void testSnapshotSubConfigConnected() {
+        final BaseHierarchicalConfiguration subConfig = (BaseHierarchicalConfiguration) config.configurationAt("tables.table(1)", true);
+        final ImmutableHierarchicalConfiguration snapshot = subConfig.snapshot();
+        config.setProperty("tables.table(1).name", "testTable");
+
+        assertEquals("testTable", subConfig.getString("name"));
+        assertEquals(NodeStructureHelper.table(1), snapshot.getString("name"));
+    }
+
     /**
      * Tests whether interpolation with a subset configuration works over multiple layers.
      */
@@ -362,6 +362,19 @@ public class TestSubnodeConfiguration {
         checkSubConfigContent();
     }
 
+    /**
+     * Tests that a subnode configuration becomes detached after the expression engine of the parent was changed, even if
+     * the update does not affect the node of the subnode configuration.
+     */
+    @Test
+    public void testParentChangeDetachExpressionEngine() {
+        setUpSubnodeConfig();
+        parent.setExpressionEngine(new XPathExpressionEngine());
+        parent.setProperty("tables/table[2]/name", "other");
+        parent.setProperty("tables/table[1]/name", "changed");
+        checkSubConfigContent();
+    }
+
     /**
      * Tests detaching a subnode configuration if an exception is thrown during reconstruction. This can happen e.g. if the
      * expression engine is changed for the parent.
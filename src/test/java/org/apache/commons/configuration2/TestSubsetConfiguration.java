@@ -48,6 +48,21 @@ public class TestSubsetConfiguration {
     static final String TEST_DIR = ConfigurationAssert.TEST_DIR_NAME;
     static final String TEST_FILE = "testDigesterConfiguration2.xml";
 
+    /**
+     * Tests that a subset enabling the cache for converted values sees changes of its parent.
+     */
+    @Test
+    public void testCacheConvertedValuesParentChanged() {
+        final Configuration config = new BaseConfiguration();
+        config.setProperty("test.max", "80");
+        final SubsetConfiguration subset = (SubsetConfiguration) config.subset("test");
+        subset.setCacheConvertedValues(true);
+        assertEquals(80, subset.getInt("max"));
+
+        config.setProperty("test.max", "81");
+        assertEquals(81, subset.getInt("max"));
+    }
+
     @Test
     public void testClear() {
         final Configuration config = new BaseConfiguration();
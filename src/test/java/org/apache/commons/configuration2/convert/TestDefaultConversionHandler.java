@@ -18,7 +18,10 @@ package org.apache.commons.configuration2.convert;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -29,6 +32,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 
 import org.apache.commons.configuration2.ex.ConversionException;
 import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
@@ -80,6 +84,25 @@ public class TestDefaultConversionHandler {
         handler = new DefaultConversionHandler();
     }
 
+    /**
+     * Tests whether the built-in converters are returned for standard data types.
+     */
+    @Test
+    public void testGetConverterBuiltIn() {
+        final ValueConverter<? extends Integer> converter = handler.getConverter(Integer.TYPE);
+        assertNotNull(converter);
+        assertEquals(Integer.valueOf(42), converter.convert("42", handler));
+        assertSame(converter, handler.getConverter(Integer.TYPE));
+    }
+
+    /**
+     * Tests getConverter() for a target class for which no conversion is available.
+     */
+    @Test
+    public void testGetConverterUnsupported() {
+        assertNull(handler.getConverter(UUID.class));
+    }
+
     /**
      * Tests whether the default date format is used if no format has been set.
      */
@@ -100,6 +123,61 @@ public class TestDefaultConversionHandler {
         assertEquals(DefaultConversionHandler.LIST_DELIMITER_HANDLER, handler.getListDelimiterHandler());
     }
 
+    /**
+     * Tests whether a converter for a custom type can be registered.
+     */
+    @Test
+    public void testRegisterConverter() {
+        final UUID uuid = UUID.randomUUID();
+        assertThrows(ConversionException.class, () -> handler.to(uuid.toString(), UUID.class, null));
+        handler.registerConverter(UUID.class, (value, h) -> UUID.fromString(String.valueOf(value)));
+        assertEquals(uuid, handler.to(uuid.toString(), UUID.class, null));
+        assertSame(uuid, handler.to(uuid, UUID.class, null));
+        final List<UUID> uuids = new ArrayList<>();
+        handler.toCollection(new String[] {uuid.toString(), uuid.toString()}, UUID.class, null, uuids);
+        assertEquals(Arrays.asList(uuid, uuid), uuids);
+    }
+
+    /**
+     * Tests that a registered converter replaces the built-in conversion for this class.
+     */
+    @Test
+    public void testRegisterConverterReplacesBuiltIn() {
+        handler.registerConverter(Integer.class, (value, h) -> Integer.valueOf(String.valueOf(value).trim().replace("_", "")));
+        assertEquals(Integer.valueOf(1000000), handler.to(" 1_000_000 ", Integer.class, null));
+        assertEquals(Integer.valueOf(1), handler.to("1", Integer.TYPE, null));
+        assertThrows(ConversionException.class, () -> handler.to(" 1_000 ", Integer.TYPE, null));
+    }
+
+    /**
+     * Tries to register a converter for a null target class.
+     */
+    @Test
+    public void testRegisterConverterNullClass() {
+        assertThrows(IllegalArgumentException.class, () -> handler.registerConverter(null, (value, h) -> value));
+    }
+
+    /**
+     * Tries to register a null converter.
+     */
+    @Test
+    public void testRegisterConverterNullConverter() {
+        assertThrows(IllegalArgumentException.class, () -> handler.registerConverter(UUID.class, null));
+    }
+
+    /**
+     * Tests whether a registered converter can be removed again.
+     */
+    @Test
+    public void testRemoveConverter() {
+        handler.registerConverter(Integer.class, (value, h) -> -1);
+        assertEquals(Integer.valueOf(-1), handler.to("1", Integer.class, null));
+        assertTrue(handler.removeConverter(Integer.class));
+        assertEquals(Integer.valueOf(1), handler.to("1", Integer.class, null));
+        assertFalse(handler.removeConverter(Integer.class));
+        assertFalse(handler.removeConverter(null));
+    }
+
     /**
      * Tests whether the date format can be changed.
      */
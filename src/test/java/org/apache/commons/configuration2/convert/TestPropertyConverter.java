@@ -18,6 +18,7 @@
 package org.apache.commons.configuration2.convert;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -26,6 +27,7 @@ import java.lang.annotation.ElementType;
 import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.UUID;
 import java.util.regex.Pattern;
 
 import org.apache.commons.configuration2.ex.ConversionException;
@@ -39,6 +41,17 @@ public class TestPropertyConverter {
     /** Constant for an enumeration class used by some tests. */
     private static final Class<ElementType> ENUM_CLASS = ElementType.class;
 
+    /**
+     * Tests that the built-in converters are determined once per target class.
+     */
+    @Test
+    public void testGetConverter() {
+        final ValueConverter<?> converter = PropertyConverter.getConverter(ENUM_CLASS);
+        assertSame(converter, PropertyConverter.getConverter(ENUM_CLASS));
+        assertEquals(ElementType.METHOD, converter.convert("METHOD", null));
+        assertNull(PropertyConverter.getConverter(UUID.class));
+    }
+
     /**
      * See CONFIGURATION-766.
      */
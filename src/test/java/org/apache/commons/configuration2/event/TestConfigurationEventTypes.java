@@ -82,6 +82,14 @@ public class TestConfigurationEventTypes {
         assertEquals(Event.ANY, ConfigurationErrorEvent.ANY.getSuperType());
     }
 
+    /**
+     * Tests the event type for a batch update operation.
+     */
+    @Test
+    public void testBatchUpdateEventType() {
+        checkHierarchicalEvent(ConfigurationEvent.BATCH_UPDATE);
+    }
+
     /**
      * Tests the event type for clearing a whole configuration.
      */
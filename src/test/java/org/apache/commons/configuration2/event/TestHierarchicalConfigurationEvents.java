@@ -93,6 +93,39 @@ public class TestHierarchicalConfigurationEvents extends AbstractTestConfigurati
         listener.done();
     }
 
+    /**
+     * Tests that a batch of updates generates only a single pair of batch update events.
+     */
+    @Test
+    public void testExecuteBatchEvent() {
+        final BaseHierarchicalConfiguration hc = (BaseHierarchicalConfiguration) config;
+        hc.executeBatch(batch -> {
+            batch.addProperty(TEST_PROPNAME, TEST_PROPVALUE);
+            batch.setProperty(EXIST_PROPERTY, "new value");
+            batch.clearTree("other");
+        });
+        listener.checkEvent(ConfigurationEvent.BATCH_UPDATE, null, null, true);
+        listener.checkEvent(ConfigurationEvent.BATCH_UPDATE, null, null, false);
+        listener.done();
+        assertEquals(TEST_PROPVALUE, hc.getString(TEST_PROPNAME));
+        assertEquals("new value", hc.getString(EXIST_PROPERTY));
+    }
+
+    /**
+     * Tests whether a batch executed on a connected sub configuration triggers a change event of the parent.
+     */
+    @Test
+    public void testExecuteBatchEventSubConfiguration() {
+        final BaseHierarchicalConfiguration sub = (BaseHierarchicalConfiguration) ((BaseHierarchicalConfiguration) config).configurationAt("event", true);
+        sub.executeBatch(batch -> batch.addProperty("newProp", "newValue"));
+        final ConfigurationEvent event = listener.nextEvent(ConfigurationEvent.SUBNODE_CHANGED);
+        final ConfigurationEvent evSub = assertInstanceOf(ConfigurationEvent.class, event.getPropertyValue());
+        assertEquals(ConfigurationEvent.BATCH_UPDATE, evSub.getEventType());
+        listener.nextEvent(ConfigurationEvent.SUBNODE_CHANGED);
+        listener.done();
+        assertEquals("newValue", config.getString("event.newProp"));
+    }
+
     /**
      * Tests whether manipulations of a connected sub configuration trigger correct events.
      */
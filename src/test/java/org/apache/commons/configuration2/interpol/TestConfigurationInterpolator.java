@@ -45,6 +45,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.apache.commons.text.lookup.StringLookupFactory;
@@ -55,6 +57,63 @@ import org.junit.jupiter.api.Test;
  * Test class for ConfigurationInterpolator.
  */
 public class TestConfigurationInterpolator {
+    /**
+     * A test lookup implementation which is backed by a map and reports changes of its values.
+     */
+    private static final class ObservableMapLookup implements CacheableLookup {
+        /** The values of the variables. */
+        private final Map<String, Object> values = new HashMap<>();
+
+        /** The registered change listeners. */
+        private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+        /** The current version of the values. */
+        private volatile Object version;
+
+        @Override
+        public boolean addChangeListener(final Consumer<String> listener) {
+            listeners.add(listener);
+            return true;
+        }
+
+        @Override
+        public Object getVersion() {
+            return version;
+        }
+
+        @Override
+        public Object lookup(final String variable) {
+            return values.get(variable);
+        }
+
+        @Override
+        public boolean removeChangeListener(final Consumer<String> listener) {
+            return listeners.remove(listener);
+        }
+
+        /**
+         * Sets the value of a variable and notifies the change listeners.
+         *
+         * @param variable the name of the variable
+         * @param value the new value
+         */
+        void setValue(final String variable, final Object value) {
+            values.put(variable, value);
+            listeners.forEach(l -> l.accept(variable));
+        }
+
+        /**
+         * Sets the value of a variable without notifying the change listeners; only the version is changed.
+         *
+         * @param variable the name of the variable
+         * @param value the new value
+         */
+        void setValueSilently(final String variable, final Object value) {
+            values.put(variable, value);
+            version = new Object();
+        }
+    }
+
     /** Constant for a test variable name. */
     private static final String TEST_NAME = "varname";
 
@@ -144,6 +203,237 @@ public class TestConfigurationInterpolator {
         assertEquals(lookups, lookups2);
     }
 
+    /**
+     * Tests whether interpolation results are cached if this is enabled.
+     */
+    @Test
+    public void testCacheResults() {
+        final ObservableMapLookup lookup = new ObservableMapLookup();
+        lookup.setValue("port", 8080);
+        interpolator.addDefaultLookup(lookup);
+        interpolator.setCacheResults(true);
+        assertTrue(interpolator.isCacheResults());
+
+        assertEquals(8080, interpolator.interpolate("${port}"));
+        assertEquals(8080, interpolator.interpolate("${port}"));
+        assertEquals("no variables", interpolator.interpolate("no variables"));
+        assertEquals(1, interpolator.getResultCacheHitCount());
+        assertEquals(1, interpolator.getResultCacheMissCount());
+    }
+
+    /**
+     * Tests that the result cache is cleared when a lookup is registered.
+     */
+    @Test
+    public void testCacheResultsClearedOnRegisterLookup() {
+        interpolator.addDefaultLookup(new ObservableMapLookup());
+        interpolator.setCacheResults(true);
+        final String value = "${" + TEST_PREFIX + ":" + TEST_NAME + "}";
+        assertEquals(value, interpolator.interpolate(value));
+        assertEquals(value, interpolator.interpolate(value));
+        assertEquals(1, interpolator.getResultCacheHitCount());
+
+        interpolator.registerLookup(TEST_PREFIX, setUpTestLookup());
+        assertEquals(TEST_VALUE, interpolator.interpolate(value));
+    }
+
+    /**
+     * Tests that the result cache is disabled per default.
+     */
+    @Test
+    public void testCacheResultsDisabledByDefault() {
+        final ObservableMapLookup lookup = new ObservableMapLookup();
+        lookup.setValue("port", 8080);
+        interpolator.addDefaultLookup(lookup);
+        assertFalse(interpolator.isCacheResults());
+
+        assertEquals(8080, interpolator.interpolate("${port}"));
+        assertEquals(8080, interpolator.interpolate("${port}"));
+        assertEquals(0, interpolator.getResultCacheHitCount());
+        assertEquals(0, interpolator.getResultCacheMissCount());
+    }
+
+    /**
+     * Tests that only the results depending on a changed variable are removed from the cache.
+     */
+    @Test
+    public void testCacheResultsInvalidatedOnChange() {
+        final ObservableMapLookup lookup = new ObservableMapLookup();
+        lookup.setValue("port", 8080);
+        lookup.setValue("timeout", 30);
+        interpolator.addDefaultLookup(lookup);
+        interpolator.setCacheResults(true);
+        assertEquals(8080, interpolator.interpolate("${port}"));
+        assertEquals(30, interpolator.interpolate("${timeout}"));
+
+        lookup.setValue("port", 8081);
+        assertEquals(8081, interpolator.interpolate("${port}"));
+        assertEquals(30, interpolator.interpolate("${timeout}"));
+        assertEquals(1, interpolator.getResultCacheHitCount());
+        assertEquals(3, interpolator.getResultCacheMissCount());
+    }
+
+    /**
+     * Tests that the change listener registered at a lookup is removed when the lookup is removed or replaced.
+     */
+    @Test
+    public void testCacheResultsListenerRemovedWithLookup() {
+        final ObservableMapLookup lookup = new ObservableMapLookup();
+        final ObservableMapLookup defLookup = new ObservableMapLookup();
+        lookup.setValue(TEST_NAME, TEST_VALUE);
+        defLookup.setValue(TEST_NAME, TEST_VALUE);
+        interpolator.registerLookup(TEST_PREFIX, lookup);
+        interpolator.addDefaultLookup(defLookup);
+        interpolator.setCacheResults(true);
+        assertEquals(TEST_VALUE, interpolator.interpolate("${" + TEST_PREFIX + ":" + TEST_NAME + "}"));
+        assertEquals(TEST_VALUE, interpolator.interpolate("${" + TEST_NAME + "}"));
+        assertEquals(1, lookup.listeners.size());
+        assertEquals(1, defLookup.listeners.size());
+
+        interpolator.registerLookup(TEST_PREFIX, setUpTestLookup());
+        assertTrue(lookup.listeners.isEmpty());
+        interpolator.registerLookup(TEST_PREFIX, lookup);
+        assertEquals(TEST_VALUE, interpolator.interpolate("${" + TEST_PREFIX + ":" + TEST_NAME + "}"));
+        assertTrue(interpolator.deregisterLookup(TEST_PREFIX));
+        assertTrue(lookup.listeners.isEmpty());
+        assertTrue(interpolator.removeDefaultLookup(defLookup));
+        assertTrue(defLookup.listeners.isEmpty());
+    }
+
+    /**
+     * Tests that the change listeners registered at lookups are removed when caching is disabled.
+     */
+    @Test
+    public void testCacheResultsListenerRemovedWhenDisabled() {
+        final ObservableMapLookup lookup = new ObservableMapLookup();
+        lookup.setValue("port", 8080);
+        interpolator.addDefaultLookup(lookup);
+        interpolator.setCacheResults(true);
+        assertEquals(8080, interpolator.interpolate("${port}"));
+        assertEquals(1, lookup.listeners.size());
+
+        interpolator.setCacheResults(false);
+        assertTrue(lookup.listeners.isEmpty());
+        interpolator.setCacheResults(true);
+        assertEquals(8080, interpolator.interpolate("${port}"));
+        lookup.setValue("port", 8081);
+        assertEquals(8081, interpolator.interpolate("${port}"));
+        assertEquals(1, lookup.listeners.size());
+    }
+
+    /**
+     * Tests that all results depending on a lookup are removed from the cache if it reports a change without a variable
+     * name.
+     */
+    @Test
+    public void testCacheResultsInvalidatedOnUnnamedChange() {
+        final ObservableMapLookup lookup = new ObservableMapLookup();
+        lookup.setValue("port", 8080);
+        lookup.setValue("timeout", 30);
+        interpolator.addDefaultLookup(lookup);
+        interpolator.setCacheResults(true);
+        assertEquals(8080, interpolator.interpolate("${port}"));
+        assertEquals(30, interpolator.interpolate("${timeout}"));
+
+        lookup.values.put("port", 8081);
+        lookup.values.put("timeout", 60);
+        lookup.listeners.forEach(l -> l.accept(null));
+        assertEquals(8081, interpolator.interpolate("${port}"));
+        assertEquals(60, interpolator.interpolate("${timeout}"));
+        assertEquals(0, interpolator.getResultCacheHitCount());
+    }
+
+    /**
+     * Tests that a cached result is discarded if the version of a lookup changes, even if no change is reported.
+     */
+    @Test
+    public void testCacheResultsInvalidatedOnVersionChange() {
+        final ObservableMapLookup lookup = new ObservableMapLookup();
+        lookup.setValue("port", 8080);
+        interpolator.addDefaultLookup(lookup);
+        interpolator.setCacheResults(true);
+        assertEquals("port 8080", interpolator.interpolate("port ${port}"));
+        assertEquals("port 8080", interpolator.interpolate("port ${port}"));
+
+        lookup.setValueSilently("port", 8081);
+        assertEquals("port 8081", interpolator.interpolate("port ${port}"));
+        assertEquals("port 8081", interpolator.interpolate("port ${port}"));
+        assertEquals(2, interpolator.getResultCacheHitCount());
+        assertEquals(2, interpolator.getResultCacheMissCount());
+    }
+
+    /**
+     * Tests that the number of cached results is limited.
+     */
+    @Test
+    public void testCacheResultsLimited() {
+        final ObservableMapLookup lookup = new ObservableMapLookup();
+        lookup.setValue("port", 8080);
+        interpolator.addDefaultLookup(lookup);
+        interpolator.setCacheResults(true);
+        final int count = 5000;
+        for (int i = 0; i < count; i++) {
+            interpolator.interpolate(i + ":${port}");
+        }
+
+        assertEquals("0:8080", interpolator.interpolate("0:${port}"));
+        assertEquals(0, interpolator.getResultCacheHitCount());
+        assertEquals(count + 1, interpolator.getResultCacheMissCount());
+    }
+
+    /**
+     * Tests that results involving the parent interpolator are not cached.
+     */
+    @Test
+    public void testCacheResultsParentInterpolator() {
+        final ConfigurationInterpolator parent = new ConfigurationInterpolator();
+        parent.addDefaultLookup(setUpTestLookup(TEST_NAME, 42));
+        interpolator.setParentInterpolator(parent);
+        interpolator.setCacheResults(true);
+
+        assertEquals(42, interpolator.interpolate("${" + TEST_NAME + "}"));
+        assertEquals(42, interpolator.interpolate("${" + TEST_NAME + "}"));
+        assertEquals(0, interpolator.getResultCacheHitCount());
+        assertEquals(2, interpolator.getResultCacheMissCount());
+    }
+
+    /**
+     * Tests that results depending on lookups which do not report changes are not cached.
+     */
+    @Test
+    public void testCacheResultsUncacheableLookup() {
+        final Map<String, Object> values = new HashMap<>();
+        values.put(TEST_NAME, 1);
+        interpolator.registerLookup(TEST_PREFIX, values::get);
+        interpolator.setCacheResults(true);
+        final String value = "${" + TEST_PREFIX + ":" + TEST_NAME + "}";
+
+        assertEquals(1, interpolator.interpolate(value));
+        values.put(TEST_NAME, 2);
+        assertEquals(2, interpolator.interpolate(value));
+        assertEquals(0, interpolator.getResultCacheHitCount());
+    }
+
+    /**
+     * Tests that a cached result is invalidated if a variable referenced indirectly by the value of another variable
+     * changes.
+     */
+    @Test
+    public void testCacheResultsVariableChain() {
+        final ObservableMapLookup lookup = new ObservableMapLookup();
+        lookup.setValue("env", "prod");
+        lookup.setValue("region", "${env}-eu");
+        lookup.setValue("cluster", "${region}/main");
+        interpolator.addDefaultLookup(lookup);
+        interpolator.setCacheResults(true);
+        assertEquals("url: prod-eu/main", interpolator.interpolate("url: ${cluster}"));
+        assertEquals("url: prod-eu/main", interpolator.interpolate("url: ${cluster}"));
+
+        lookup.setValue("env", "test");
+        assertEquals("url: test-eu/main", interpolator.interpolate("url: ${cluster}"));
+        assertEquals(1, interpolator.getResultCacheHitCount());
+    }
+
     /**
      * Tests whether a null collection of default lookups is handled correctly.
      */
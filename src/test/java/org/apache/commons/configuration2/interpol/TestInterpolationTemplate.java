@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.interpol;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@code InterpolationTemplate}.
+ */
+public class TestInterpolationTemplate {
+    /** A map with the values of the test variables. */
+    private Map<String, String> variables;
+
+    /**
+     * Compiles and renders the given string.
+     *
+     * @param source the string
+     * @param substitutionInVariables the flag whether substitution in variables is enabled
+     * @return the result of the substitution
+     */
+    private String render(final String source, final boolean substitutionInVariables) {
+        return InterpolationTemplate.compile(source, substitutionInVariables).render(variables::get,
+            s -> InterpolationTemplate.compile(s, substitutionInVariables));
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        variables = new HashMap<>();
+        variables.put("name", "value");
+        variables.put("other", "another value");
+        variables.put("chain", "(${name})");
+    }
+
+    /**
+     * Tests that a cyclic variable reference is detected.
+     */
+    @Test
+    public void testRenderCyclicReference() {
+        variables.put("a", "${b}");
+        variables.put("b", "x${a}");
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> render("${a}", false));
+        assertEquals("Infinite loop in property interpolation of ${a}: a->b", exception.getMessage());
+    }
+
+    /**
+     * Tests whether default values of variables are taken into account.
+     */
+    @Test
+    public void testRenderDefaultValue() {
+        assertEquals("value, default, ", render("${name:-default}, ${unknown:-default}, ${unknown:-}", false));
+    }
+
+    /**
+     * Tests that a variable is escaped if it follows a variable whose value ends with the escape character, as done by
+     * {@code StringSubstitutor}.
+     */
+    @Test
+    public void testRenderEscapedByVariableValue() {
+        variables.put("dollar", "a$");
+        assertEquals("a${name}", render("${dollar}${name}", false));
+        assertEquals("a${name}", render("${dollar}${name}", true));
+        assertEquals("a$${name}", render("${dollar}$${name}", false));
+    }
+
+    /**
+     * Tests that escaped variables are not substituted and the escape character is removed.
+     */
+    @Test
+    public void testRenderEscapedVariable() {
+        assertEquals("${name} = value, $${name}", render("$${name} = ${name}, $$${name}", false));
+        assertEquals("${name}", render("$${name}", false));
+    }
+
+    /**
+     * Tests that the escape character is kept if the escaped variable is not terminated, as done by
+     * {@code StringSubstitutor}.
+     */
+    @Test
+    public void testRenderEscapedVariableUnterminated() {
+        assertEquals("q$${xq", render("q$${xq", false));
+        assertEquals("q$${xq", render("q$${xq", true));
+        assertEquals("${name} $${name", render("$${name} $${name", false));
+        assertEquals("qx${${:}--q", render("qx$${${:}--q", false));
+        assertEquals("qx$${${:}--q", render("qx$${${:}--q", true));
+    }
+
+    /**
+     * Tests that a string without variables is returned unchanged.
+     */
+    @Test
+    public void testRenderLiteral() {
+        final String source = "no variables here, $ {name}";
+        assertSame(source, render(source, false));
+    }
+
+    /**
+     * Tests whether variables in variable names are ignored if substitution in variables is disabled.
+     */
+    @Test
+    public void testRenderNestedVariableDisabled() {
+        variables.put("key.value", "nested");
+        final String source = "${key.${name}}";
+        assertSame(source, render(source, false));
+    }
+
+    /**
+     * Tests whether variables in variable names are substituted if this is enabled.
+     */
+    @Test
+    public void testRenderNestedVariableEnabled() {
+        variables.put("key.value", "nested");
+        assertEquals("[nested]", render("[${key.${name}}]", true));
+        assertEquals("default", render("${key.${other}:-default}", true));
+        assertEquals("${key.${other}}", render("${key.${other}}", true));
+    }
+
+    /**
+     * Tests that unknown variables remain in the result.
+     */
+    @Test
+    public void testRenderUnknownVariable() {
+        final String source = "${unknown} and ${another}";
+        assertSame(source, render(source, false));
+        assertEquals("${unknown} and value", render("${unknown} and ${name}", false));
+    }
+
+    /**
+     * Tests that an unterminated variable and the text following it are not substituted.
+     */
+    @Test
+    public void testRenderUnterminatedVariable() {
+        assertEquals("value ${name ${other", render("${name} ${name ${other", true));
+    }
+
+    /**
+     * Tests whether variables in variable values are substituted, too.
+     */
+    @Test
+    public void testRenderVariableChain() {
+        assertEquals("<(value)>", render("<${chain}>", false));
+    }
+
+    /**
+     * Tests a successful substitution of multiple variables.
+     */
+    @Test
+    public void testRenderVariables() {
+        assertEquals("name = value, other = another value.", render("name = ${name}, other = ${other}.", false));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.apache.commons.configuration2.tree.DefaultExpressionEngine;
+import org.apache.commons.configuration2.tree.ExpressionEngine;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.configuration2.tree.xpath.XPathExpressionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the generation of canonical keys for all children of a node with a large number of siblings having the
+ * same name.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CanonicalKeyBenchmark {
+
+    /** The expression engine to be used. */
+    @Param({"default", "xpath"})
+    private String engineType;
+
+    /** The number of sibling nodes. */
+    @Param({"1000", "10000"})
+    private int size;
+
+    /** The configuration. */
+    private BaseHierarchicalConfiguration config;
+
+    /** The expression engine. */
+    private ExpressionEngine engine;
+
+    /** The node handler. */
+    private NodeHandler<ImmutableNode> handler;
+
+    /** The parent node of the siblings. */
+    private ImmutableNode parent;
+
+    /**
+     * Generates the keys of all siblings in a single pass.
+     */
+    @Benchmark
+    public List<String> canonicalChildKeys() {
+        return engine.canonicalChildKeys(parent, "list", handler);
+    }
+
+    /**
+     * Generates the keys of all siblings by calling {@code canonicalKey()} for each node; this scans the siblings for
+     * each single node.
+     */
+    @Benchmark
+    public List<String> canonicalKeyPerNode() {
+        final List<String> keys = new ArrayList<>(size);
+        parent.forEach(child -> keys.add(engine.canonicalKey(child, "list", handler)));
+        return keys;
+    }
+
+    /**
+     * Generates the keys of all siblings via the configuration using a shared cache, as done when tracking nodes.
+     */
+    @Benchmark
+    public Map<ImmutableNode, String> nodeKeysWithCache() {
+        final Map<ImmutableNode, String> cache = new HashMap<>();
+        parent.forEach(child -> config.nodeKey(child, cache, handler));
+        return cache;
+    }
+
+    @Setup
+    public void setUp() {
+        final ImmutableNode.Builder listBuilder = new ImmutableNode.Builder(size).name("list");
+        for (int i = 0; i < size; i++) {
+            listBuilder.addChild(new ImmutableNode.Builder().name("item").value(i).create());
+        }
+        parent = listBuilder.create();
+        config = new BaseHierarchicalConfiguration();
+        config.getNodeModel().setRootNode(new ImmutableNode.Builder().addChild(parent).create());
+        engine = "xpath".equals(engineType) ? new XPathExpressionEngine() : DefaultExpressionEngine.INSTANCE;
+        config.setExpressionEngine(engine);
+        handler = config.getNodeModel().getNodeHandler();
+    }
+}
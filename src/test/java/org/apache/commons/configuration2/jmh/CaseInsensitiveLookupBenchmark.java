@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.apache.commons.configuration2.tree.DefaultExpressionEngine;
+import org.apache.commons.configuration2.tree.DefaultExpressionEngineSymbols;
+import org.apache.commons.configuration2.tree.NodeNameMatchers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks property lookups in a hierarchical configuration using a {@code DefaultExpressionEngine} with an exact
+ * and a case-insensitive node name matcher. The keys are spelled exactly like the node names and in a different case.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CaseInsensitiveLookupBenchmark {
+
+    /** The number of sections in the configuration. */
+    private static final int SECTIONS = 50;
+
+    /** The number of entries in each section. */
+    private static final int ENTRIES = 20;
+
+    /** A flag whether node names are matched ignoring case. */
+    @Param({"false", "true"})
+    private boolean ignoreCase;
+
+    /** The configuration. */
+    private BaseHierarchicalConfiguration config;
+
+    /**
+     * Looks up a key whose case differs from the node names. This is only successful for the case-insensitive matcher.
+     *
+     * @return the value of the key
+     */
+    @Benchmark
+    public String getStringDifferentCase() {
+        return config.getString("section25.ENTRY10");
+    }
+
+    /**
+     * Looks up a key that is spelled exactly like the node names.
+     *
+     * @return the value of the key
+     */
+    @Benchmark
+    public String getStringSameCase() {
+        return config.getString("Section25.Entry10");
+    }
+
+    @Setup
+    public void setUp() {
+        config = new BaseHierarchicalConfiguration();
+        for (int i = 0; i < SECTIONS; i++) {
+            for (int j = 0; j < ENTRIES; j++) {
+                config.addProperty("Section" + i + ".Entry" + j, "value" + j);
+            }
+        }
+        config.setExpressionEngine(new DefaultExpressionEngine(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS,
+            ignoreCase ? NodeNameMatchers.EQUALS_IGNORE_CASE : NodeNameMatchers.EQUALS));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.apache.commons.configuration2.CombinedConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@code CombinedConfiguration.getSources()} for a combined configuration with multiple large child
+ * configurations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CombinedConfigurationGetSourcesBenchmark {
+
+    /** The number of child configurations. */
+    private static final int LAYERS = 5;
+
+    /** The number of properties in each child configuration. */
+    @Param({"1000", "10000"})
+    private int size;
+
+    /** The combined configuration. */
+    private CombinedConfiguration config;
+
+    /** A counter for selecting the next key. */
+    private int counter;
+
+    @Benchmark
+    public Set<Configuration> getSources() {
+        final int idx = counter++;
+        return config.getSources("layer" + idx % LAYERS + ".property" + idx % size);
+    }
+
+    @Setup
+    public void setUp() {
+        config = new CombinedConfiguration();
+        for (int l = 0; l < LAYERS; l++) {
+            final BaseHierarchicalConfiguration layer = new BaseHierarchicalConfiguration();
+            for (int i = 0; i < size; i++) {
+                layer.addProperty("layer" + l + ".property" + i, i);
+            }
+            config.addConfiguration(layer);
+        }
+    }
+}
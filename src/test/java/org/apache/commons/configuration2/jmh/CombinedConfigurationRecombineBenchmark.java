@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.apache.commons.configuration2.CombinedConfiguration;
+import org.apache.commons.configuration2.tree.OverrideCombiner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the reconstruction of the node structure of a {@code CombinedConfiguration} with many layers after a
+ * change in one of its child configurations. Each benchmark changes a property in a child configuration and then reads
+ * a property of the combined configuration, which causes the combined structure to be updated.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CombinedConfigurationRecombineBenchmark {
+
+    /** The number of child configurations. */
+    private static final int LAYERS = 15;
+
+    /** The number of properties in each child configuration. */
+    @Param({"1000", "10000"})
+    private int size;
+
+    /** The combined configuration. */
+    private CombinedConfiguration config;
+
+    /** The child configurations. */
+    private List<BaseHierarchicalConfiguration> layers;
+
+    /** A counter for generating property values. */
+    private int counter;
+
+    @Benchmark
+    public Object changeFirstLayer() {
+        return changeLayer(0);
+    }
+
+    @Benchmark
+    public Object changeLastLayer() {
+        return changeLayer(LAYERS - 1);
+    }
+
+    @Benchmark
+    public Object changeMiddleLayer() {
+        return changeLayer(LAYERS / 2);
+    }
+
+    /**
+     * Changes a property in the child configuration with the given index and reads a property from the combined
+     * configuration.
+     *
+     * @param index the index of the child configuration
+     * @return the property read from the combined configuration
+     */
+    private Object changeLayer(final int index) {
+        layers.get(index).setProperty("app.changed", counter++);
+        return config.getProperty("app.changed");
+    }
+
+    @Setup
+    public void setUp() {
+        config = new CombinedConfiguration(new OverrideCombiner());
+        layers = new ArrayList<>(LAYERS);
+        for (int l = 0; l < LAYERS; l++) {
+            final BaseHierarchicalConfiguration layer = new BaseHierarchicalConfiguration();
+            for (int i = 0; i < size / 10; i++) {
+                for (int j = 0; j < 10; j++) {
+                    layer.addProperty("app.section" + i + ".property" + j, l);
+                }
+            }
+            layer.addProperty("app.changed", -1);
+            layers.add(layer);
+            config.addConfiguration(layer);
+        }
+        config.getProperty("app.changed");
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.lang.annotation.ElementType;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.convert.DefaultConversionHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks conversions of string values to different target types by {@code DefaultConversionHandler}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConversionBenchmark {
+
+    /** The target type of the conversion. */
+    @Param({"int", "Locale", "ElementType", "Duration"})
+    private String targetType;
+
+    /** The conversion handler. */
+    private DefaultConversionHandler handler;
+
+    /** The target class of the conversion. */
+    private Class<?> targetClass;
+
+    /** The value to be converted. */
+    private String value;
+
+    /**
+     * Converts the value to the target class.
+     *
+     * @return the converted value
+     */
+    @Benchmark
+    public Object convert() {
+        return handler.to(value, targetClass, null);
+    }
+
+    @Setup
+    public void setUp() {
+        handler = new DefaultConversionHandler();
+        switch (targetType) {
+        case "int":
+            targetClass = Integer.TYPE;
+            value = "42";
+            break;
+        case "Locale":
+            targetClass = Locale.class;
+            value = "de_DE";
+            break;
+        case "ElementType":
+            targetClass = ElementType.class;
+            value = "METHOD";
+            break;
+        default:
+            targetClass = Duration.class;
+            value = "PT15M";
+            break;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks typed getter methods of a flat configuration with and without the cache for converted values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConvertedValueCacheBenchmark {
+
+    /** A flag whether converted values are cached. */
+    @Param({"false", "true"})
+    private boolean cache;
+
+    /** The configuration. */
+    private BaseConfiguration config;
+
+    @Benchmark
+    public boolean getBoolean() {
+        return config.getBoolean("server.enabled");
+    }
+
+    @Benchmark
+    public Duration getDuration() {
+        return config.getDuration("server.timeout");
+    }
+
+    @Benchmark
+    public int getInt() {
+        return config.getInt("server.port");
+    }
+
+    @Benchmark
+    public long getLong() {
+        return config.getLong("server.maxSize");
+    }
+
+    @Setup
+    public void setUp() {
+        config = new BaseConfiguration();
+        config.addProperty("server.enabled", "true");
+        config.addProperty("server.timeout", "PT30S");
+        config.addProperty("server.port", "8080");
+        config.addProperty("server.maxSize", "1099511627776");
+        config.setCacheConvertedValues(cache);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the enumeration of keys of a hierarchical configuration which is not changed between the calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HierarchicalConfigurationGetKeysBenchmark {
+
+    /** The number of sections in the test configuration. */
+    private static final int SECTIONS = 500;
+
+    /** The number of properties in the test configuration. */
+    @Param({"1000", "50000"})
+    private int size;
+
+    /** The configuration to be queried. */
+    private BaseHierarchicalConfiguration config;
+
+    @Benchmark
+    public String firstKey() {
+        return config.getKeys().next();
+    }
+
+    @Benchmark
+    public String firstKeyWithPrefix() {
+        return config.getKeys("section7").next();
+    }
+
+    @Benchmark
+    public int iterateKeys() {
+        int count = 0;
+        for (final Iterator<String> it = config.getKeys(); it.hasNext(); it.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Setup
+    public void setUp() {
+        config = new BaseHierarchicalConfiguration();
+        for (int i = 0; i < size; i++) {
+            config.addProperty("section" + i % SECTIONS + ".key" + i, i);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the lookup of single property values in a hierarchical configuration. Run it with the GC profiler (for
+ * instance {@code -prof gc}) to obtain the number of bytes allocated per lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx1G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HierarchicalConfigurationGetPropertyBenchmark {
+
+    /** The number of sections in the test configuration. */
+    private static final int SECTIONS = 50;
+
+    /** The key to be queried. */
+    @Param({"section7.sub.key", "section7.sub[@attr]", "section7.sub.missing"})
+    private String key;
+
+    /** The configuration to be queried. */
+    private BaseHierarchicalConfiguration config;
+
+    @Benchmark
+    public Object getProperty() {
+        return config.getProperty(key);
+    }
+
+    @Benchmark
+    public String getString() {
+        return config.getString(key);
+    }
+
+    @Setup
+    public void setUp() {
+        config = new BaseHierarchicalConfiguration();
+        for (int i = 0; i < SECTIONS; i++) {
+            config.addProperty("section" + i + ".sub.key", i);
+            config.addProperty("section" + i + ".sub.name", "name" + i);
+            config.addProperty("section" + i + ".sub[@attr]", "attr" + i);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the heap footprint of a large tree of {@code ImmutableNode} objects. The tree is generated in a way similar
+ * to a parsed XML document: each node name and attribute name is a new string instance, and most nodes have one or two
+ * attributes. The retained heap of the resulting tree is reported as an auxiliary counter; the time to build the tree
+ * is measured as well.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ImmutableNodeFootprintBenchmark {
+
+    /**
+     * A state class reporting the heap retained by the generated tree.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        /** The number of bytes retained by the tree. */
+        public long retainedBytes;
+
+        /** The number of bytes retained per node of the tree. */
+        public long bytesPerNode;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+            bytesPerNode = 0;
+        }
+    }
+
+    /** The number of children of each section node. */
+    private static final int ENTRIES_PER_SECTION = 9;
+
+    /**
+     * Returns a new string instance with the given content. This simulates a parser which creates new strings for each
+     * element name it encounters.
+     *
+     * @param s the string
+     * @return a new string instance with the same content
+     */
+    private static String fresh(final String s) {
+        return new String(s.toCharArray());
+    }
+
+    /**
+     * Determines the amount of heap currently in use after a garbage collection.
+     *
+     * @return the used heap in bytes
+     */
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** The total number of nodes to generate. */
+    @Param({"100000", "1000000"})
+    private int size;
+
+    /** The root node of the generated tree; kept to prevent it from being collected. */
+    private ImmutableNode root;
+
+    /** The heap in use before the tree is generated. */
+    private long baseline;
+
+    @Benchmark
+    public ImmutableNode createTree(final Footprint footprint) {
+        root = createTree();
+        footprint.retainedBytes = usedHeap() - baseline;
+        footprint.bytesPerNode = footprint.retainedBytes / size;
+        return root;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        root = null;
+        baseline = usedHeap();
+    }
+
+    /**
+     * Generates the tree. The root node has a number of section nodes; each section has a fixed number of entries.
+     *
+     * @return the root node of the tree
+     */
+    private ImmutableNode createTree() {
+        final int sectionCount = Math.max(1, size / (ENTRIES_PER_SECTION + 1));
+        final ImmutableNode.Builder rootBuilder = new ImmutableNode.Builder(sectionCount).name(fresh("config"));
+        for (int i = 0; i < sectionCount; i++) {
+            final ImmutableNode.Builder sectionBuilder = new ImmutableNode.Builder(ENTRIES_PER_SECTION).name(fresh("section"));
+            sectionBuilder.addAttribute(fresh("id"), "s" + i);
+            for (int j = 0; j < ENTRIES_PER_SECTION; j++) {
+                final ImmutableNode.Builder entryBuilder = new ImmutableNode.Builder().name(fresh("entry")).value("value" + j);
+                entryBuilder.addAttribute(fresh("key"), "k" + j);
+                if (j % 3 == 0) {
+                    entryBuilder.addAttribute(fresh("type"), "string");
+                }
+                sectionBuilder.addChild(entryBuilder.create());
+            }
+            rootBuilder.addChild(sectionBuilder.create());
+        }
+        return rootBuilder.create();
+    }
+}
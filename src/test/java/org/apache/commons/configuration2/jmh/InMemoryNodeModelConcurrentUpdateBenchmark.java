@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.apache.commons.configuration2.tree.InMemoryNodeModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks concurrent updates of an {@code InMemoryNodeModel} with the different update strategies. Multiple threads
+ * set properties in disjoint parts of the model. After each iteration the conflict and retry counters of the model are
+ * printed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InMemoryNodeModelConcurrentUpdateBenchmark {
+
+    /**
+     * The state of a single benchmark thread. Each thread updates its own property.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        /** The key updated by this thread. */
+        private String key;
+
+        /** A counter for generating new property values. */
+        private int counter;
+
+        @Setup
+        public void setUp(final InMemoryNodeModelConcurrentUpdateBenchmark benchmark) {
+            key = "thread" + benchmark.threadIndex.getAndIncrement() + ".value";
+        }
+    }
+
+    /** The number of properties in the model which are not affected by updates. */
+    private static final int SIZE = 10000;
+
+    /** The update strategy to be tested. */
+    @Param({"OPTIMISTIC", "COMBINING"})
+    private InMemoryNodeModel.UpdateStrategy strategy;
+
+    /** The configuration acting as key resolver. */
+    private BaseHierarchicalConfiguration config;
+
+    /** The model to be updated. */
+    private InMemoryNodeModel model;
+
+    /** The counter for assigning keys to threads. */
+    private final AtomicInteger threadIndex = new AtomicInteger();
+
+    @TearDown(Level.Iteration)
+    public void printCounters() {
+        System.out.printf("%nupdates: %d, conflicts: %d, retries: %d%n", model.getUpdateCount(), model.getConflictCount(), model.getRetryCount());
+    }
+
+    @Setup
+    public void setUp() {
+        config = new BaseHierarchicalConfiguration();
+        for (int i = 0; i < SIZE; i++) {
+            config.addProperty("data.group" + i / 10 + ".item", i);
+        }
+        model = config.getNodeModel();
+        model.setUpdateStrategy(strategy);
+    }
+
+    @Benchmark
+    public void setProperty(final ThreadState state) {
+        model.setProperty(state.key, state.counter++, config);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks updates of an {@code InMemoryNodeModel}. A property located on a short path is changed while the model
+ * contains a large subtree which is not affected by the update. The costs of an update should depend on the depth of
+ * the changed node, but not on the total number of nodes in the model.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InMemoryNodeModelUpdateBenchmark {
+
+    /** The number of children of a group node in the large subtree. */
+    private static final int GROUP_SIZE = 10;
+
+    /**
+     * Creates a path of nodes with the given depth. The last node on the path has a value.
+     *
+     * @param depth the depth of the path
+     * @return the root node of the path
+     */
+    private static ImmutableNode createPath(final int depth) {
+        ImmutableNode node = new ImmutableNode.Builder().name("leaf").value(0).create();
+        for (int i = depth - 1; i > 0; i--) {
+            node = new ImmutableNode.Builder(1).name("level" + i).addChild(node).create();
+        }
+        return node;
+    }
+
+    /**
+     * Creates a subtree with the given number of leaf nodes. The leaves are organized in groups.
+     *
+     * @param size the number of leaf nodes
+     * @return the root node of the subtree
+     */
+    private static ImmutableNode createSubtree(final int size) {
+        final ImmutableNode.Builder builder = new ImmutableNode.Builder(size / GROUP_SIZE);
+        for (int i = 0; i < size / GROUP_SIZE; i++) {
+            final ImmutableNode.Builder group = new ImmutableNode.Builder(GROUP_SIZE);
+            for (int j = 0; j < GROUP_SIZE; j++) {
+                group.addChild(new ImmutableNode.Builder().name("item").value(j).create());
+            }
+            builder.addChild(group.name("group").create());
+        }
+        return builder.name("data").create();
+    }
+
+    /** The number of nodes in the subtree not affected by updates. */
+    @Param({"1000", "10000", "100000", "300000"})
+    private int size;
+
+    /** The depth of the property to be updated. */
+    @Param({"3", "10"})
+    private int depth;
+
+    /** The configuration to be updated. */
+    private BaseHierarchicalConfiguration config;
+
+    /** The key of the property to be updated. */
+    private String key;
+
+    /** A counter for generating new property values. */
+    private int counter;
+
+    @Benchmark
+    public void setProperty() {
+        config.setProperty(key, counter++);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        final ImmutableNode root = new ImmutableNode.Builder(2).name("config").addChild(createSubtree(size)).addChild(createPath(depth)).create();
+        config = new BaseHierarchicalConfiguration();
+        config.getNodeModel().setRootNode(root);
+        final StringBuilder buf = new StringBuilder();
+        for (int i = 1; i < depth; i++) {
+            buf.append("level").append(i).append('.');
+        }
+        key = buf.append("leaf").toString();
+    }
+}
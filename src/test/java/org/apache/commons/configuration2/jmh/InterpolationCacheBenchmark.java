@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks reading properties whose values contain chains of variables, with and without the cache for interpolation
+ * results of {@code ConfigurationInterpolator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InterpolationCacheBenchmark {
+
+    /** A flag whether interpolation results are cached. */
+    @Param({"false", "true"})
+    private boolean cache;
+
+    /** The configuration. */
+    private BaseHierarchicalConfiguration config;
+
+    /**
+     * Reads a property referencing a chain of three variables.
+     *
+     * @return the interpolated value
+     */
+    @Benchmark
+    public String getVariableChain() {
+        return config.getString("service.url");
+    }
+
+    /**
+     * Reads a property referencing a variable which is changed before each access, so that the cached result is
+     * invalidated each time.
+     *
+     * @return the interpolated value
+     */
+    @Benchmark
+    public String getVariableChainWithUpdate() {
+        config.setProperty("deployment.env", "prod");
+        return config.getString("service.url");
+    }
+
+    @Setup
+    public void setUp() {
+        config = new BaseHierarchicalConfiguration();
+        config.addProperty("deployment.env", "prod");
+        config.addProperty("deployment.region", "${deployment.env}-eu-west");
+        config.addProperty("deployment.cluster", "${deployment.region}/cluster-1");
+        config.addProperty("service.url", "https://service.${deployment.cluster}.example.com/api");
+        for (int i = 0; i < 100; i++) {
+            config.addProperty("other.key" + i, "value" + i);
+        }
+        config.getInterpolator().setCacheResults(cache);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the interpolation of strings of different shapes by {@code ConfigurationInterpolator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InterpolationTemplateBenchmark {
+
+    /** The interpolator. */
+    private ConfigurationInterpolator interpolator;
+
+    /**
+     * Interpolates a string without variables.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object interpolateLiteral() {
+        return interpolator.interpolate("jdbc:postgresql://db.example.com:5432/inventory?ssl=true&connectTimeout=10");
+    }
+
+    /**
+     * Interpolates a string with multiple variables embedded in literal text.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object interpolateMultipleVariables() {
+        return interpolator.interpolate("jdbc:postgresql://${db.host}:${db.port}/${db.name}?ssl=true&connectTimeout=10");
+    }
+
+    /**
+     * Interpolates a string with a variable whose value contains another variable.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object interpolateNestedVariables() {
+        return interpolator.interpolate("url=${db.url}");
+    }
+
+    @Setup
+    public void setUp() {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("db.host", "db.example.com");
+        values.put("db.port", 5432);
+        values.put("db.name", "inventory");
+        values.put("db.url", "jdbc:postgresql://${db.host}:${db.port}/${db.name}");
+        interpolator = new ConfigurationInterpolator();
+        interpolator.addDefaultLookup(values::get);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the allocations caused by a single update transaction of an {@code InMemoryNodeModel} which touches many
+ * nodes with the same parent: {@code setProperty()} on a list key and {@code clearTree()} on a wide subtree. For each
+ * transaction the number of newly created nodes and the number of bytes allocated by the current thread are reported as
+ * auxiliary counters. Each ancestor of the changed nodes should be created only once, so the number of new nodes
+ * should be the number of changed nodes plus the length of the path to the root.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 50)
+@Measurement(iterations = 50)
+public class ModelTransactionBenchmark {
+
+    /**
+     * A state class reporting the allocations of a transaction.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Allocations {
+        /** The number of bytes allocated by the transaction. */
+        public long allocatedBytes;
+
+        /** The number of nodes created by the transaction. */
+        public long createdNodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            allocatedBytes = 0;
+            createdNodes = 0;
+        }
+    }
+
+    /** The key of the list in the test configuration. */
+    private static final String LIST_KEY = "a.b.list.item";
+
+    /** The number of further children of the parent of the list. */
+    private static final int OTHER_CHILDREN = 50;
+
+    /**
+     * Adds all nodes of the given tree to the given set.
+     *
+     * @param node the root node of the tree
+     * @param nodes the set to be filled
+     */
+    private static void collectNodes(final ImmutableNode node, final Set<ImmutableNode> nodes) {
+        nodes.add(node);
+        node.forEach(child -> collectNodes(child, nodes));
+    }
+
+    /**
+     * Counts the nodes of the given tree which are not contained in the given set of existing nodes.
+     *
+     * @param node the root node of the tree
+     * @param existingNodes the nodes of the tree before the transaction
+     * @return the number of new nodes
+     */
+    private static long countCreatedNodes(final ImmutableNode node, final Set<ImmutableNode> existingNodes) {
+        if (existingNodes.contains(node)) {
+            return 0;
+        }
+        long count = 1;
+        for (final ImmutableNode child : node) {
+            count += countCreatedNodes(child, existingNodes);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread.
+     *
+     * @return the allocated bytes
+     */
+    private static long threadAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /** The number of items in the list. */
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    /** The configuration to be updated. */
+    private BaseHierarchicalConfiguration config;
+
+    /** The new values for the list. */
+    private List<Integer> newValues;
+
+    /** The nodes of the configuration before the transaction. */
+    private Set<ImmutableNode> existingNodes;
+
+    /**
+     * Removes all items of the list in a single transaction.
+     *
+     * @param allocations the state for reporting allocations
+     */
+    @Benchmark
+    public void clearTree(final Allocations allocations) {
+        final long start = threadAllocatedBytes();
+        config.clearTree(LIST_KEY);
+        record(allocations, start);
+    }
+
+    /**
+     * Changes the values of all items of the list in a single transaction.
+     *
+     * @param allocations the state for reporting allocations
+     */
+    @Benchmark
+    public void setProperty(final Allocations allocations) {
+        final long start = threadAllocatedBytes();
+        config.setProperty(LIST_KEY, newValues);
+        record(allocations, start);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        final List<Integer> values = new ArrayList<>(size);
+        newValues = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+            newValues.add(-i);
+        }
+        config = new BaseHierarchicalConfiguration();
+        config.addProperty(LIST_KEY, values);
+        for (int i = 0; i < OTHER_CHILDREN; i++) {
+            config.addProperty("a.b.other" + i, i);
+        }
+
+        existingNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectNodes(config.getNodeModel().getNodeHandler().getRootNode(), existingNodes);
+    }
+
+    /**
+     * Stores the allocations of the transaction in the given state object.
+     *
+     * @param allocations the state for reporting allocations
+     * @param start the allocated bytes before the transaction
+     */
+    private void record(final Allocations allocations, final long start) {
+        allocations.allocatedBytes = threadAllocatedBytes() - start;
+        allocations.createdNodes = countCreatedNodes(config.getNodeModel().getNodeHandler().getRootNode(), existingNodes);
+    }
+}
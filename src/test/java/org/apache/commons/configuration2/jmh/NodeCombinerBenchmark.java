@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.MergeCombiner;
+import org.apache.commons.configuration2.tree.NodeCombiner;
+import org.apache.commons.configuration2.tree.OverrideCombiner;
+import org.apache.commons.configuration2.tree.UnionCombiner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the combination of two large node structures by the different combiner implementations, either
+ * sequentially or in the common fork/join pool. The node structures are generated synthetically; they consist of a
+ * number of modules with nested sections, of which a part exists in both structures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NodeCombinerBenchmark {
+
+    /** The number of sections per module. */
+    private static final int SECTIONS = 20;
+
+    /** The number of properties per section. */
+    private static final int PROPERTIES = 25;
+
+    /**
+     * Generates a node structure. Modules with an index in the given range are created; so two structures generated with
+     * overlapping ranges share a part of their modules.
+     *
+     * @param from the index of the first module
+     * @param to the index after the last module
+     * @param prefix a prefix for property values to distinguish the structures
+     * @return the root node of the structure
+     */
+    private static ImmutableNode createTree(final int from, final int to, final String prefix) {
+        final ImmutableNode.Builder root = new ImmutableNode.Builder(to - from).name("config");
+        for (int m = from; m < to; m++) {
+            final ImmutableNode.Builder module = new ImmutableNode.Builder(SECTIONS).name("module" + m);
+            for (int s = 0; s < SECTIONS; s++) {
+                final ImmutableNode.Builder section = new ImmutableNode.Builder(PROPERTIES).name("section" + s);
+                section.addAttribute("id", "s" + s);
+                for (int p = 0; p < PROPERTIES; p++) {
+                    section.addChild(new ImmutableNode.Builder().name("property" + p).value(prefix + p).create());
+                }
+                module.addChild(section.create());
+            }
+            root.addChild(module.create());
+        }
+        return root.create();
+    }
+
+    /** The combiner to be tested. */
+    @Param({"union", "override", "merge"})
+    private String combinerType;
+
+    /** The number of modules in each of the node structures. */
+    @Param({"100", "400"})
+    private int modules;
+
+    /** A flag whether the combination is done in parallel. */
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    /** The combiner. */
+    private NodeCombiner combiner;
+
+    /** The first node structure. */
+    private ImmutableNode root1;
+
+    /** The second node structure. */
+    private ImmutableNode root2;
+
+    @Benchmark
+    public ImmutableNode combine() {
+        return combiner.combine(root1, root2);
+    }
+
+    @Setup
+    public void setUp() {
+        switch (combinerType) {
+        case "override":
+            combiner = new OverrideCombiner();
+            break;
+        case "merge":
+            combiner = new MergeCombiner();
+            break;
+        default:
+            combiner = new UnionCombiner();
+            break;
+        }
+        if (parallel) {
+            combiner.setForkJoinPool(ForkJoinPool.commonPool());
+        }
+        root1 = createTree(0, modules, "a");
+        root2 = createTree(modules / 2, modules + modules / 2, "b");
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.tree.ConfigurationNodeVisitorAdapter;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.InMemoryNodeModel;
+import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.configuration2.tree.NodeTreeWalker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks scans over all nodes of a large hierarchy using {@code NodeTreeWalker}: a DFS walk with a visitor, and
+ * sequential and parallel streams. The scan counts the nodes with a value matching a condition. In addition, a search
+ * for a single node is measured which can stop early.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NodeTreeWalkerBenchmark {
+
+    /** The number of children of each section node. */
+    private static final int SECTION_SIZE = 100;
+
+    /**
+     * Checks whether the given node matches the condition of the scan.
+     *
+     * @param node the node
+     * @return a flag whether the node matches
+     */
+    private static boolean matches(final ImmutableNode node) {
+        final Object value = node.getValue();
+        return value instanceof String && ((String) value).hashCode() % 7 == 0;
+    }
+
+    /** The total number of leaf nodes in the hierarchy. */
+    @Param({"10000", "1000000"})
+    private int size;
+
+    /** The root node of the hierarchy. */
+    private ImmutableNode root;
+
+    /** The node handler. */
+    private NodeHandler<ImmutableNode> handler;
+
+    /** The value of the node to be searched for; it is located in the middle of the hierarchy. */
+    private String searchValue;
+
+    /**
+     * Searches for a specific node using a sequential stream.
+     *
+     * @return a flag whether the node was found
+     */
+    @Benchmark
+    public boolean findNode() {
+        return NodeTreeWalker.INSTANCE.stream(root, handler).anyMatch(node -> searchValue.equals(node.getValue()));
+    }
+
+    /**
+     * Scans the hierarchy using a parallel stream.
+     *
+     * @return the number of matching nodes
+     */
+    @Benchmark
+    public long parallelStream() {
+        return NodeTreeWalker.INSTANCE.stream(root, handler).parallel().filter(NodeTreeWalkerBenchmark::matches).count();
+    }
+
+    /**
+     * Scans the hierarchy using a sequential stream.
+     *
+     * @return the number of matching nodes
+     */
+    @Benchmark
+    public long sequentialStream() {
+        return NodeTreeWalker.INSTANCE.stream(root, handler).filter(NodeTreeWalkerBenchmark::matches).count();
+    }
+
+    @Setup
+    public void setUp() {
+        final int sectionCount = size / SECTION_SIZE;
+        final ImmutableNode.Builder rootBuilder = new ImmutableNode.Builder(sectionCount).name("config");
+        for (int i = 0; i < sectionCount; i++) {
+            final ImmutableNode.Builder sectionBuilder = new ImmutableNode.Builder(SECTION_SIZE).name("section");
+            for (int j = 0; j < SECTION_SIZE; j++) {
+                sectionBuilder.addChild(new ImmutableNode.Builder().name("entry").value("value" + i + "_" + j).create());
+            }
+            rootBuilder.addChild(sectionBuilder.create());
+        }
+        root = rootBuilder.create();
+        handler = new InMemoryNodeModel(root).getNodeHandler();
+        searchValue = "value" + sectionCount / 2 + "_0";
+    }
+
+    /**
+     * Scans the hierarchy using a DFS walk with a visitor.
+     *
+     * @return the number of matching nodes
+     */
+    @Benchmark
+    public long walkDFS() {
+        final long[] count = new long[1];
+        NodeTreeWalker.INSTANCE.walkDFS(root, new ConfigurationNodeVisitorAdapter<ImmutableNode>() {
+            @Override
+            public void visitBeforeChildren(final ImmutableNode node, final NodeHandler<ImmutableNode> handler) {
+                if (matches(node)) {
+                    count[0]++;
+                }
+            }
+        }, handler);
+        return count[0];
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.apache.commons.configuration2.sync.NoOpSynchronizer;
+import org.apache.commons.configuration2.sync.ReadWriteSynchronizer;
+import org.apache.commons.configuration2.sync.StampedLockSynchronizer;
+import org.apache.commons.configuration2.sync.Synchronizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks concurrent access to a configuration with the different {@code Synchronizer} implementations. In the
+ * <em>read</em> group all threads read properties; in the <em>readWrite</em> group one thread updates a property
+ * while the other threads read.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SynchronizerBenchmark {
+
+    /** The number of properties in the configuration. */
+    private static final int PROPERTY_COUNT = 100;
+
+    /**
+     * Creates the synchronizer with the given name.
+     *
+     * @param name the name
+     * @return the synchronizer
+     */
+    private static Synchronizer createSynchronizer(final String name) {
+        switch (name) {
+        case "ReadWrite":
+            return new ReadWriteSynchronizer();
+        case "StampedLock":
+            return new StampedLockSynchronizer();
+        default:
+            return NoOpSynchronizer.INSTANCE;
+        }
+    }
+
+    /** The synchronizer to be used. */
+    @Param({"NoOp", "ReadWrite", "StampedLock"})
+    private String synchronizer;
+
+    /** The configuration. */
+    private BaseHierarchicalConfiguration config;
+
+    /** A counter for generating new property values. */
+    private int counter;
+
+    /**
+     * Reads a property while no updates happen.
+     *
+     * @return the property value
+     */
+    @Benchmark
+    @Group("read")
+    @GroupThreads(8)
+    public Object read() {
+        return config.getProperty("database.tables.table50.name");
+    }
+
+    /**
+     * Reads a property while another thread performs updates.
+     *
+     * @return the property value
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(7)
+    public Object readWhileWriting() {
+        return config.getProperty("database.tables.table50.name");
+    }
+
+    @Setup
+    public void setUp() {
+        config = new BaseHierarchicalConfiguration();
+        for (int i = 0; i < PROPERTY_COUNT; i++) {
+            config.addProperty("database.tables.table" + i + ".name", "table" + i);
+        }
+        config.addProperty("database.version", 0);
+        config.setSynchronizer(createSynchronizer(synchronizer));
+    }
+
+    /**
+     * Updates a property concurrently to readers.
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void write() {
+        config.setProperty("database.version", ++counter);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.apache.commons.configuration2.HierarchicalConfiguration;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks updates of a hierarchical configuration with a large number of tracked nodes. A sub configuration
+ * supporting updates is created for each child of a list node; then properties are changed either through the sub
+ * configurations or through the parent configuration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrackedNodesUpdateBenchmark {
+
+    /** The number of tracked nodes. */
+    @Param({"1000", "10000"})
+    private int size;
+
+    /** The parent configuration. */
+    private BaseHierarchicalConfiguration config;
+
+    /** The sub configurations for the tracked nodes. */
+    private List<HierarchicalConfiguration<ImmutableNode>> tenants;
+
+    /** A counter for selecting the next tracked node and generating property values. */
+    private int counter;
+
+    @Benchmark
+    public void setPropertyOnParent() {
+        final int idx = counter++;
+        config.setProperty("tenants.tenant(" + idx % size + ").value", idx);
+    }
+
+    @Benchmark
+    public void setPropertyOnSubConfiguration() {
+        final int idx = counter++;
+        tenants.get(idx % size).setProperty("value", idx);
+    }
+
+    @Benchmark
+    public void setUnrelatedProperty() {
+        config.setProperty("global.value", counter++);
+    }
+
+    @Setup
+    public void setUp() {
+        config = new BaseHierarchicalConfiguration();
+        config.addProperty("global.value", -1);
+        for (int i = 0; i < size; i++) {
+            config.addProperty("tenants.tenant(-1).name", "tenant" + i);
+            config.addProperty("tenants.tenant.value", i);
+        }
+        tenants = config.configurationsAt("tenants.tenant", true);
+        // the first update evaluates the selectors of the new tracked nodes
+        config.setProperty("global.value", 0);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.apache.commons.configuration2.tree.xpath.XPathExpressionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks property lookups in a hierarchical configuration using an {@code XPathExpressionEngine}, with and without
+ * the cache for compiled expressions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms1G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class XPathExpressionEngineBenchmark {
+
+    /** The number of distinct keys that are queried. */
+    private static final int KEY_COUNT = 100;
+
+    /** The size of the expression cache; 0 disables caching. */
+    @Param({"0", "1024"})
+    private int cacheSize;
+
+    /** The configuration to be queried. */
+    private BaseHierarchicalConfiguration config;
+
+    /** The keys to be queried. */
+    private String[] keys;
+
+    /** A counter for selecting the next key. */
+    private int counter;
+
+    @Benchmark
+    public Object getProperty() {
+        return config.getProperty(keys[counter++ % KEY_COUNT]);
+    }
+
+    @Setup
+    public void setUp() {
+        config = new BaseHierarchicalConfiguration();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            config.addProperty("servers.server(-1).name", "server" + i);
+            config.addProperty("servers.server.port", 8000 + i);
+        }
+        config.setExpressionEngine(new XPathExpressionEngine(cacheSize));
+        keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = i % 2 == 0 ? "servers/server[" + (i + 1) + "]/port" : "servers/server[name='server" + i + "']/port";
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@code StampedLockSynchronizer}.
+ */
+public class TestStampedLockSynchronizer {
+    /** Constant for the total amount of money in the system. */
+    private static final long TOTAL_MONEY = 1000000L;
+
+    /** The synchronizer to be tested. */
+    private StampedLockSynchronizer sync;
+
+    /** Counts the operations executed via read(). */
+    private AtomicInteger readOperations;
+
+    /**
+     * Executes a write operation in another thread and waits until it is complete.
+     *
+     * @throws InterruptedException if the thread is interrupted
+     */
+    private void writeInOtherThread() throws InterruptedException {
+        final Thread writer = new Thread(() -> {
+            sync.beginWrite();
+            sync.endWrite();
+        });
+        writer.start();
+        writer.join();
+    }
+
+    /**
+     * Returns an operation which reads the value of the given counter between calls of beginRead() and endRead().
+     *
+     * @param counter the counter
+     * @return the read operation
+     */
+    private Supplier<Long> readOperation(final AtomicLong counter) {
+        return () -> {
+            sync.beginRead();
+            try {
+                return counter.get();
+            } finally {
+                sync.endRead();
+            }
+        };
+    }
+
+    @BeforeEach
+    public void setUp() {
+        readOperations = new AtomicInteger();
+        sync = new StampedLockSynchronizer() {
+            @Override
+            public <T> T read(final Supplier<T> operation) {
+                readOperations.incrementAndGet();
+                return super.read(operation);
+            }
+        };
+    }
+
+    /**
+     * Tests that a read lock acquired outside of read() blocks writers.
+     */
+    @Test
+    public void testBeginReadBlocksWriters() throws InterruptedException {
+        final AtomicInteger writes = new AtomicInteger();
+        final Thread writer = new Thread(() -> {
+            sync.beginWrite();
+            writes.incrementAndGet();
+            sync.endWrite();
+        });
+        sync.beginRead();
+        try {
+            writer.start();
+            writer.join(100);
+            assertEquals(0, writes.get());
+        } finally {
+            sync.endRead();
+        }
+        writer.join();
+        assertEquals(1, writes.get());
+    }
+
+    /**
+     * Tests that endRead() fails if no read operation has been started.
+     */
+    @Test
+    public void testEndReadWithoutBeginRead() {
+        assertThrows(IllegalMonitorStateException.class, sync::endRead);
+    }
+
+    /**
+     * Tests that endWrite() fails if no write operation has been started.
+     */
+    @Test
+    public void testEndWriteWithoutBeginWrite() {
+        assertThrows(IllegalMonitorStateException.class, sync::endWrite);
+    }
+
+    /**
+     * Tests whether configurations use optimistic reads for their basic read operations.
+     */
+    @Test
+    public void testReadConfiguration() {
+        final BaseHierarchicalConfiguration config = new BaseHierarchicalConfiguration();
+        config.setSynchronizer(sync);
+        config.addProperty("test.key", "value");
+        assertEquals("value", config.getProperty("test.key"));
+        assertTrue(config.containsKey("test.key"));
+        assertFalse(config.isEmpty());
+        assertEquals(1, config.size());
+        config.lock(LockMode.READ);
+        try {
+            assertEquals("value", config.getString("test.key"));
+        } finally {
+            config.unlock(LockMode.READ);
+        }
+        assertTrue(readOperations.get() > 0);
+    }
+
+    /**
+     * Tests that a configuration storing its data in a map which is not thread-safe does not use optimistic reads, but
+     * returns consistent results while it is updated concurrently.
+     */
+    @Test
+    public void testReadConfigurationConcurrentWrites() throws InterruptedException {
+        final int numberOfUpdates = 10000;
+        final int numberOfKeys = 64;
+        final BaseConfiguration config = new BaseConfiguration();
+        config.setSynchronizer(sync);
+        config.addProperty("fixed", "value");
+        final AtomicInteger errors = new AtomicInteger();
+
+        final Thread updateThread = new Thread(() -> {
+            for (int i = 0; i < numberOfUpdates; i++) {
+                final String key = "key" + i % numberOfKeys;
+                if (config.containsKey(key)) {
+                    config.clearProperty(key);
+                } else {
+                    config.addProperty(key, i);
+                }
+            }
+        });
+        final Thread[] readerThreads = new Thread[3];
+        for (int i = 0; i < readerThreads.length; i++) {
+            readerThreads[i] = new Thread(() -> {
+                for (int j = 0; j < numberOfUpdates; j++) {
+                    try {
+                        if (!"value".equals(config.getProperty("fixed")) || !config.containsKey("fixed")) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (final RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        updateThread.start();
+        for (final Thread t : readerThreads) {
+            t.start();
+        }
+
+        updateThread.join();
+        for (final Thread t : readerThreads) {
+            t.join();
+        }
+        assertEquals(0, errors.get());
+        assertEquals(0, readOperations.get());
+    }
+
+    /**
+     * Tests that an exception thrown by an operation is discarded if the operation was invalidated by a concurrent
+     * update.
+     */
+    @Test
+    public void testReadExceptionDiscardedOnConcurrentWrite() {
+        final AtomicLong counter = new AtomicLong();
+        final Long result = sync.read(() -> {
+            sync.beginRead();
+            try {
+                if (counter.incrementAndGet() == 1) {
+                    writeInOtherThread();
+                    throw new IllegalStateException("Inconsistent data");
+                }
+                return counter.get();
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                sync.endRead();
+            }
+        });
+        assertEquals(2L, result.longValue());
+    }
+
+    /**
+     * Tests that an exception thrown by an operation is propagated if there was no concurrent update.
+     */
+    @Test
+    public void testReadExceptionPropagated() {
+        final Supplier<Object> operation = () -> {
+            sync.beginRead();
+            try {
+                throw new IllegalStateException("Test exception");
+            } finally {
+                sync.endRead();
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> sync.read(operation));
+        // the synchronizer is still usable for writes
+        sync.beginWrite();
+        sync.endWrite();
+    }
+
+    /**
+     * Tests that a read operation can be nested in a write operation of the same thread.
+     */
+    @Test
+    public void testReadInWrite() {
+        final AtomicLong counter = new AtomicLong(42);
+        sync.beginWrite();
+        try {
+            assertEquals(42L, sync.read(readOperation(counter)).longValue());
+            sync.beginRead();
+            sync.endRead();
+        } finally {
+            sync.endWrite();
+        }
+    }
+
+    /**
+     * Tests that an operation is repeated if a write operation happened concurrently.
+     */
+    @Test
+    public void testReadRepeatedOnConcurrentWrite() {
+        final AtomicLong counter = new AtomicLong();
+        final Long result = sync.read(() -> {
+            sync.beginRead();
+            try {
+                if (counter.incrementAndGet() == 1) {
+                    writeInOtherThread();
+                }
+                return counter.get();
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                sync.endRead();
+            }
+        });
+        assertEquals(2L, result.longValue());
+    }
+
+    /**
+     * Tests that an operation is executed only once if there is no concurrent update.
+     */
+    @Test
+    public void testReadWithoutConcurrentWrite() {
+        final AtomicLong counter = new AtomicLong();
+        final Long result = sync.read(() -> {
+            counter.incrementAndGet();
+            return readOperation(counter).get();
+        });
+        assertEquals(1L, result.longValue());
+    }
+
+    /**
+     * Tests whether the synchronizer is reentrant.
+     */
+    @Test
+    public void testReentrance() {
+        sync.beginWrite();
+        sync.beginRead();
+        sync.beginRead();
+        sync.endRead();
+        sync.endRead();
+        sync.beginWrite();
+        sync.endWrite();
+        sync.endWrite();
+        sync.beginRead();
+        sync.beginRead();
+        sync.endRead();
+        sync.endRead();
+    }
+
+    /**
+     * Performs a test of the synchronizer in which money is transferred between two accounts while other threads
+     * check with optimistic reads that the total amount of money stays constant.
+     */
+    @Test
+    public void testSynchronizerInAction() throws InterruptedException {
+        final int numberOfUpdates = 10000;
+        final int numberOfReads = numberOfUpdates / 2;
+        final long[] accounts = {TOTAL_MONEY / 2, TOTAL_MONEY / 2};
+        final AtomicInteger errors = new AtomicInteger();
+        final Supplier<Long> sum = () -> {
+            sync.beginRead();
+            try {
+                return accounts[0] + accounts[1];
+            } finally {
+                sync.endRead();
+            }
+        };
+
+        final Thread[] updateThreads = new Thread[2];
+        for (int i = 0; i < updateThreads.length; i++) {
+            updateThreads[i] = new Thread(() -> {
+                final Random random = new Random();
+                for (int j = 0; j < numberOfUpdates; j++) {
+                    sync.beginWrite();
+                    final int source = accounts[0] < accounts[1] ? 0 : 1;
+                    final long x = Math.round(random.nextDouble() * (accounts[source] - 1)) + 1;
+                    accounts[source] -= x;
+                    accounts[1 - source] += x;
+                    sync.endWrite();
+                }
+            });
+            updateThreads[i].start();
+        }
+        final Thread[] readerThreads = new Thread[3];
+        for (int i = 0; i < readerThreads.length; i++) {
+            readerThreads[i] = new Thread(() -> {
+                for (int j = 0; j < numberOfReads; j++) {
+                    if (sync.read(sum).longValue() != TOTAL_MONEY) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+            readerThreads[i].start();
+        }
+
+        for (final Thread t : updateThreads) {
+            t.join();
+        }
+        for (final Thread t : readerThreads) {
+            t.join();
+        }
+        assertEquals(0, errors.get());
+        assertEquals(TOTAL_MONEY, sum.get().longValue());
+    }
+}
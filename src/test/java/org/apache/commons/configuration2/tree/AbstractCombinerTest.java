@@ -16,10 +16,13 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.ConfigurationAssert;
@@ -34,6 +37,35 @@ import org.junit.jupiter.api.Test;
  * configurations, which are to be combined. Concrete sub classes only need to create the correct combiner object.
  */
 public abstract class AbstractCombinerTest {
+    /**
+     * Checks whether two node structures are equal. Nodes are compared by their names, values, attributes, and children.
+     *
+     * @param expected the expected node structure
+     * @param actual the actual node structure
+     */
+    private static void checkNodesEqual(final ImmutableNode expected, final ImmutableNode actual) {
+        assertEquals(expected.getNodeName(), actual.getNodeName());
+        assertEquals(expected.getValue(), actual.getValue());
+        assertEquals(expected.getAttributes(), actual.getAttributes());
+        assertEquals(expected.getChildren().size(), actual.getChildren().size());
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            checkNodesEqual(expected.getChildren().get(i), actual.getChildren().get(i));
+        }
+    }
+
+    /**
+     * Loads the given XML test configuration and returns its root node.
+     *
+     * @param file the file to be loaded
+     * @return the root node of this configuration
+     * @throws ConfigurationException if an error occurs
+     */
+    private static ImmutableNode loadRootNode(final File file) throws ConfigurationException {
+        final XMLConfiguration conf = new XMLConfiguration();
+        new FileHandler(conf).load(file);
+        return conf.getNodeModel().getNodeHandler().getRootNode();
+    }
+
     /** Constant for the first test configuration. */
     private static final File CONF1 = ConfigurationAssert.getTestFile("testcombine1.xml");
 
@@ -50,11 +82,7 @@ public abstract class AbstractCombinerTest {
      * @throws ConfigurationException if an error occurs
      */
     protected BaseHierarchicalConfiguration createCombinedConfiguration() throws ConfigurationException {
-        final XMLConfiguration conf1 = new XMLConfiguration();
-        new FileHandler(conf1).load(CONF1);
-        final XMLConfiguration conf2 = new XMLConfiguration();
-        new FileHandler(conf2).load(CONF2);
-        final ImmutableNode cn = combiner.combine(conf1.getNodeModel().getNodeHandler().getRootNode(), conf2.getNodeModel().getNodeHandler().getRootNode());
+        final ImmutableNode cn = combiner.combine(loadRootNode(CONF1), loadRootNode(CONF2));
 
         final BaseHierarchicalConfiguration result = new BaseHierarchicalConfiguration();
         result.getNodeModel().setRootNode(cn);
@@ -82,5 +110,24 @@ public abstract class AbstractCombinerTest {
     public void testInit() {
         assertTrue(combiner.getListNodes().isEmpty());
         assertFalse(combiner.isListNode(NodeStructureHelper.createNode("test", null)));
+        assertNull(combiner.getForkJoinPool());
+    }
+
+    /**
+     * Tests whether a combination in a fork/join pool produces the same result as a sequential combination.
+     */
+    @Test
+    public void testParallelCombination() throws ConfigurationException {
+        final ImmutableNode root1 = loadRootNode(CONF1);
+        final ImmutableNode root2 = loadRootNode(CONF2);
+        final ImmutableNode expected = combiner.combine(root1, root2);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            combiner.setForkJoinPool(pool);
+            checkNodesEqual(expected, combiner.combine(root1, root2));
+            checkNodesEqual(combiner.combine(root2, root1), pool.submit(() -> combiner.combine(root2, root1)).join());
+        } finally {
+            pool.shutdown();
+        }
     }
 }
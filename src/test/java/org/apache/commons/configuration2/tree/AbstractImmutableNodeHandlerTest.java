@@ -29,6 +29,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.Test;
 
@@ -161,6 +163,18 @@ public abstract class AbstractImmutableNodeHandlerTest {
         }
     }
 
+    /**
+     * Tests a filter operation on child nodes using a matcher which ignores case.
+     */
+    @Test
+    public void testNodeHandlerGetMatchingChildrenIgnoreCase() {
+        final NodeHandler<ImmutableNode> handler = createHandler(ROOT_PERSONAE_TREE);
+        final List<ImmutableNode> children = handler.getMatchingChildren(ROOT_PERSONAE_TREE, NodeNameMatchers.EQUALS_IGNORE_CASE, "ACHILLES");
+        assertEquals(handler.getChildren(ROOT_PERSONAE_TREE, "Achilles"), children);
+        assertEquals(3, handler.getMatchingChildrenCount(ROOT_PERSONAE_TREE, NodeNameMatchers.EQUALS_IGNORE_CASE, "achilles"));
+        assertThrows(UnsupportedOperationException.class, () -> children.add(null));
+    }
+
     /**
      * Tests whether the collection of children cannot be modified.
      */
@@ -190,6 +204,25 @@ public abstract class AbstractImmutableNodeHandlerTest {
         assertEquals(3, handler.getChildrenCount(ROOT_PERSONAE_TREE, "Achilles"));
     }
 
+    /**
+     * Tests whether the handler caches converted node values in the nodes.
+     */
+    @Test
+    public void testNodeHandlerGetConvertedValue() {
+        final NodeHandler<ImmutableNode> handler = createHandler(ROOT_AUTHORS_TREE);
+        final ImmutableNode node = new ImmutableNode.Builder().name("value").value("42").create();
+        final Object conversion = new Object();
+        final AtomicInteger count = new AtomicInteger();
+        final Function<Object, Integer> converter = v -> {
+            count.incrementAndGet();
+            return Integer.valueOf((String) v);
+        };
+
+        assertEquals(Integer.valueOf(42), handler.getConvertedValue(node, Integer.class, conversion, converter));
+        assertEquals(Integer.valueOf(42), handler.getConvertedValue(node, Integer.class, conversion, converter));
+        assertEquals(1, count.get());
+    }
+
     /**
      * Tests a filter operation on child nodes.
      */
@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -401,6 +402,76 @@ public class TestDefaultConfigurationKey {
         assertFalse(kit.hasNext());
     }
 
+    /**
+     * Tests iterating over a parsed key.
+     */
+    @Test
+    public void testIterateParsedKey() {
+        key.append(TESTKEY);
+        final DefaultConfigurationKey.ParsedKey parsedKey = key.parse();
+        assertEquals(5, parsedKey.size());
+        key.append("other");
+        final DefaultConfigurationKey.KeyIterator it = parsedKey.iterator();
+        assertEquals("tables", it.nextKey());
+        assertFalse(it.hasIndex());
+        assertEquals("table", it.nextKey());
+        assertTrue(it.hasIndex());
+        assertEquals(0, it.getIndex());
+        assertEquals("fields", it.nextKey());
+        assertFalse(it.hasIndex());
+        assertEquals(-1, it.getIndex());
+        final DefaultConfigurationKey.KeyIterator it2 = (DefaultConfigurationKey.KeyIterator) it.clone();
+        assertEquals("field", it.nextKey(true));
+        assertEquals(1, it.getIndex());
+        assertFalse(it.isAttribute());
+        assertEquals("dataType", it.nextKey());
+        assertEquals("[@dataType]", it.currentKey(true));
+        assertTrue(it.isAttribute());
+        assertFalse(it.isPropertyKey());
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+        assertEquals("field", it2.nextKey());
+        assertTrue(it2.hasNext());
+    }
+
+    /**
+     * Tests whether a parsed key provides the case-folded names of its parts.
+     */
+    @Test
+    public void testIterateParsedKeyFoldedNames() {
+        final DefaultConfigurationKey.ParsedKey parsedKey = new DefaultConfigurationKey(expressionEngine, "Tables.table(1).FIELDS[@Name]").parse();
+        final DefaultConfigurationKey.KeyIterator it = parsedKey.iterator();
+        it.nextKey();
+        assertEquals("tables", it.currentFoldedKey());
+        it.nextKey();
+        assertSame(it.currentKey(), it.currentFoldedKey());
+        it.nextKey();
+        assertEquals("fields", it.currentFoldedKey());
+        assertEquals("Name", it.nextKey());
+        assertEquals("name", it.currentFoldedKey());
+
+        final DefaultConfigurationKey.KeyIterator it2 = new DefaultConfigurationKey(expressionEngine, "Tables").iterator();
+        it2.nextKey();
+        assertEquals("Tables", it2.currentFoldedKey());
+    }
+
+    /**
+     * Tests iterating over a parsed key if the attribute markers equal the property delimiter.
+     */
+    @Test
+    public void testIterateParsedKeyAttributeEqualsPropertyDelimiter() {
+        expressionEngine = new DefaultExpressionEngine(
+            symbols().setAttributeEnd(null).setAttributeStart(DefaultExpressionEngineSymbols.DEFAULT_PROPERTY_DELIMITER).create());
+        final DefaultConfigurationKey.KeyIterator kit = new DefaultConfigurationKey(expressionEngine, "this.isa.key").parse().iterator();
+        assertEquals("this", kit.next());
+        assertFalse(kit.isAttribute());
+        assertEquals("isa", kit.next());
+        assertFalse(kit.isAttribute());
+        assertEquals("key", kit.next());
+        assertTrue(kit.isAttribute());
+        assertTrue(kit.isPropertyKey());
+    }
+
     /**
      * Tests iterating over some funny keys.
      */
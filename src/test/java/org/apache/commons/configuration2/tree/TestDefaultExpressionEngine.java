@@ -22,8 +22,10 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeAll;
@@ -141,6 +143,18 @@ public class TestDefaultExpressionEngine {
         assertEquals(expValue, result.getAttributeValue(handler), "Wrong attribute value for key " + key);
     }
 
+    /**
+     * Checks whether canonicalChildKeys() returns the same keys as canonicalKey() for all children of the given node.
+     *
+     * @param parent the parent node
+     * @param testHandler the node handler
+     */
+    private void checkCanonicalChildKeys(final ImmutableNode parent, final NodeHandler<ImmutableNode> testHandler) {
+        final List<String> expected = new ArrayList<>();
+        parent.forEach(child -> expected.add(engine.canonicalKey(child, "parent", testHandler)));
+        assertEquals(expected, engine.canonicalChildKeys(parent, "parent", testHandler));
+    }
+
     /**
      * Helper method for checking the evaluation of a key. Queries the expression engine and tests if the expected results
      * are returned.
@@ -285,6 +299,51 @@ public class TestDefaultExpressionEngine {
         assertEquals("@test", engine.attributeKey("", "test"));
     }
 
+    /**
+     * Tests whether the canonical keys of all child nodes can be determined at once.
+     */
+    @Test
+    public void testCanonicalChildKeys() {
+        final ImmutableNode parent = new ImmutableNode.Builder().addChild(createNode("a", 1)).addChild(createNode("b", 2))
+            .addChild(createNode("a", 3)).addChild(createNode("A", 4)).addChild(createNode("a", 5)).create();
+        final NodeHandler<ImmutableNode> testHandler = new InMemoryNodeModel(parent).getNodeHandler();
+        assertEquals(Arrays.asList("parent.a(0)", "parent.b(0)", "parent.a(1)", "parent.A(0)", "parent.a(2)"),
+            engine.canonicalChildKeys(parent, "parent", testHandler));
+        checkCanonicalChildKeys(parent, testHandler);
+        checkCanonicalChildKeys(fetchNode("tables.table(1).fields"), handler);
+    }
+
+    /**
+     * Tests canonicalChildKeys() if a custom node name matcher is used.
+     */
+    @Test
+    public void testCanonicalChildKeysCustomMatcher() {
+        final NodeMatcher<String> matcher = new NodeMatcher<String>() {
+            @Override
+            public <T> boolean matches(final T node, final NodeHandler<T> h, final String criterion) {
+                return StringUtils.startsWith(h.nodeName(node), criterion);
+            }
+        };
+        engine = new DefaultExpressionEngine(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS, matcher);
+        final ImmutableNode parent = new ImmutableNode.Builder().addChild(createNode("a", 1)).addChild(createNode("ab", 2))
+            .addChild(createNode("a", 3)).create();
+        final NodeHandler<ImmutableNode> testHandler = new InMemoryNodeModel(parent).getNodeHandler();
+        checkCanonicalChildKeys(parent, testHandler);
+    }
+
+    /**
+     * Tests canonicalChildKeys() if node names are matched ignoring case.
+     */
+    @Test
+    public void testCanonicalChildKeysIgnoreCase() {
+        engine = new DefaultExpressionEngine(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS, NodeNameMatchers.EQUALS_IGNORE_CASE);
+        final ImmutableNode parent = new ImmutableNode.Builder().addChild(createNode("a", 1)).addChild(createNode("b", 2))
+            .addChild(createNode("A", 3)).addChild(createNode("a", 4)).create();
+        final NodeHandler<ImmutableNode> testHandler = new InMemoryNodeModel(parent).getNodeHandler();
+        assertEquals(Arrays.asList("parent.a(0)", "parent.b(0)", "parent.A(1)", "parent.a(2)"), engine.canonicalChildKeys(parent, "parent", testHandler));
+        checkCanonicalChildKeys(parent, testHandler);
+    }
+
     /**
      * Tests whether a canonical key can be queried if all child nodes have different names.
      */
@@ -346,6 +405,68 @@ public class TestDefaultExpressionEngine {
         assertThrows(IllegalArgumentException.class, () -> new DefaultExpressionEngine(null));
     }
 
+    /**
+     * Tries to create an instance with a negative size of the key cache.
+     */
+    @Test
+    public void testInitNegativeKeyCacheSize() {
+        assertThrows(IllegalArgumentException.class, () -> new DefaultExpressionEngine(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS, null, -1));
+    }
+
+    /**
+     * Tests that the key cache is cleared when its maximum size is reached.
+     */
+    @Test
+    public void testKeyCacheBounded() {
+        engine = new DefaultExpressionEngine(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS, null, 2);
+        checkKey("tables.table.name", "name", 2);
+        checkKey("tables.table[@type]", "type", 2);
+        checkKey("tables.table.name", "name", 2);
+        checkKey("tables.table(0).fields.field.name", "name", 5);
+        checkKey("tables.table.name", "name", 2);
+        assertEquals(1, engine.getKeyCacheHitCount());
+        assertEquals(4, engine.getKeyCacheMissCount());
+    }
+
+    /**
+     * Tests that no statistics are collected if the key cache is disabled.
+     */
+    @Test
+    public void testKeyCacheDisabled() {
+        engine = new DefaultExpressionEngine(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS, null, 0);
+        checkKey("tables.table.name", "name", 2);
+        checkKey("tables.table.name", "name", 2);
+        assertEquals(0, engine.getKeyCacheSize());
+        assertEquals(0, engine.getKeyCacheHitCount());
+        assertEquals(0, engine.getKeyCacheMissCount());
+    }
+
+    /**
+     * Tests whether parsed keys are cached and reused by queries and add operations.
+     */
+    @Test
+    public void testKeyCacheHitsAndMisses() {
+        engine = new DefaultExpressionEngine(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS, null, 10);
+        assertEquals(10, engine.getKeyCacheSize());
+        checkKeyValue("tables.table(0).name", "name", TABLES[0]);
+        checkKeyValue("tables.table(0).name", "name", TABLES[0]);
+        checkKey("tables.table.fields.field.name", "name", 10);
+        checkKey("tables.table.fields.field.name", "name", 10);
+        final NodeAddData<ImmutableNode> data = engine.prepareAdd(root, "tables.table(0).name", handler);
+        assertEquals("name", data.getNewNodeName());
+        assertEquals(TABLES[0], data.getParent().getChildren().get(0).getValue());
+        assertEquals(3, engine.getKeyCacheHitCount());
+        assertEquals(2, engine.getKeyCacheMissCount());
+    }
+
+    /**
+     * Tests that the default size of the key cache is used if no size is specified.
+     */
+    @Test
+    public void testKeyCacheSizeDefault() {
+        assertEquals(DefaultExpressionEngine.DEFAULT_KEY_CACHE_SIZE, engine.getKeyCacheSize());
+    }
+
     /**
      * Tests obtaining keys for nodes.
      */
@@ -599,6 +720,21 @@ public class TestDefaultExpressionEngine {
         checkKey("tables.table.fields.field(1).name", "name", 2);
     }
 
+    /**
+     * Tests a query with a case-insensitive node name matcher. The query is executed multiple times, so that the parsed key
+     * is obtained from the cache.
+     */
+    @Test
+    public void testQueryKeyIgnoreCase() {
+        engine = new DefaultExpressionEngine(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS, NodeNameMatchers.EQUALS_IGNORE_CASE);
+        for (int i = 0; i < 2; i++) {
+            checkKey("Tables.TABLE.Fields.field(1).NAME", "name", 2);
+            checkAttributeValue("TABLES.table(0)[@type]", "type", TAB_TYPES[0]);
+        }
+        assertEquals(2, engine.getKeyCacheMissCount());
+        assertEquals(2, engine.getKeyCacheHitCount());
+    }
+
     /**
      * Tests whether the node matcher is used when querying keys.
      */
@@ -661,4 +797,52 @@ public class TestDefaultExpressionEngine {
     public void testQueryRootNodeNullKey() {
         checkQueryRootNode(null);
     }
+
+    /**
+     * Tests whether a query passing the results to a consumer yields the same results as a query returning a list.
+     */
+    @Test
+    public void testQueryWithConsumer() {
+        final String[] keys = {"tables.table.name", "tables.table.fields.field.name", "tables.table[@type]", "tables.table(1).fields.field(2).name",
+            "tables.table(0)[@type]", "tables.table(2).name", "connection..settings.usr..name", "", "tables.nonExisting"};
+        for (final String key : keys) {
+            final List<QueryResult<ImmutableNode>> results = new ArrayList<>();
+            engine.query(root, key, handler, results::add);
+            assertEquals(engine.query(root, key, handler), results, "Wrong results for key " + key);
+        }
+    }
+
+    /**
+     * Tests a query with a consumer if the same delimiter is used for properties and attributes.
+     */
+    @Test
+    public void testQueryWithConsumerAttributeEmulation() {
+        final DefaultExpressionEngineSymbols symbols = new DefaultExpressionEngineSymbols.Builder(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS)
+            .setAttributeEnd(null).setAttributeStart(DefaultExpressionEngineSymbols.DEFAULT_PROPERTY_DELIMITER).create();
+        engine = new DefaultExpressionEngine(symbols);
+        final List<QueryResult<ImmutableNode>> results = new ArrayList<>();
+        engine.query(root, "tables.table.type", handler, results::add);
+        assertEquals(2, results.size());
+        for (int i = 0; i < TAB_TYPES.length; i++) {
+            assertTrue(results.get(i).isAttributeResult());
+            assertEquals(TAB_TYPES[i], results.get(i).getAttributeValue(handler));
+        }
+    }
+
+    /**
+     * Tests that a query with a consumer takes an overridden {@code findNodesForKey()} method into account.
+     */
+    @Test
+    public void testQueryWithConsumerOverriddenFindNodesForKey() {
+        engine = new DefaultExpressionEngine(DefaultExpressionEngineSymbols.DEFAULT_SYMBOLS) {
+            @Override
+            protected <T> void findNodesForKey(final DefaultConfigurationKey.KeyIterator keyPart, final T node,
+                final Consumer<? super QueryResult<T>> consumer, final NodeHandler<T> handler) {
+                consumer.accept(QueryResult.createNodeResult(node));
+            }
+        };
+        final List<QueryResult<ImmutableNode>> results = new ArrayList<>();
+        engine.query(root, "tables.table.name", handler, results::add);
+        assertEquals(Arrays.asList(QueryResult.createNodeResult(root)), results);
+    }
 }
@@ -17,7 +17,9 @@
 package org.apache.commons.configuration2.tree;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -28,6 +30,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.Test;
 
@@ -269,6 +273,141 @@ public class TestImmutableNode {
         assertTrue(node2.getChildren(null).isEmpty());
     }
 
+    /**
+     * Tests whether the name index returns the children with a given name in their original order.
+     */
+    @Test
+    public void testGetChildrenByNameIndex() {
+        final ImmutableNode a1 = new ImmutableNode.Builder().name("a").value(1).create();
+        final ImmutableNode b = new ImmutableNode.Builder().name("b").create();
+        final ImmutableNode a2 = new ImmutableNode.Builder().name("a").value(2).create();
+        final ImmutableNode node = setUpBuilder().addChildren(Arrays.asList(a1, b, a2)).create();
+        final List<ImmutableNode> children = node.getChildrenByName("a");
+        assertEquals(Arrays.asList(a1, a2), children);
+        assertSame(children, node.getChildrenByName("a"));
+        assertEquals(Collections.singletonList(b), node.getChildrenByName("b"));
+        assertTrue(node.getChildrenByName("c").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> children.add(b));
+    }
+
+    /**
+     * Tests a lookup of children by name ignoring case.
+     */
+    @Test
+    public void testGetChildrenByNameIgnoreCase() {
+        final ImmutableNode c1 = new ImmutableNode.Builder().name("Child").create();
+        final ImmutableNode c2 = new ImmutableNode.Builder().name("CHILD").create();
+        final ImmutableNode c3 = new ImmutableNode.Builder().name("other").create();
+        final ImmutableNode node = setUpBuilder().addChildren(Arrays.asList(c1, c2, c3)).create();
+        assertEquals(Arrays.asList(c1, c2), node.getChildrenByNameIgnoreCase("child"));
+        assertEquals(Collections.singletonList(c3), node.getChildrenByNameIgnoreCase("OTHER"));
+        assertTrue(node.getChildrenByNameIgnoreCase("unknown").isEmpty());
+    }
+
+    /**
+     * Tests that converted values are cached per target type.
+     */
+    @Test
+    public void testGetConvertedValue() {
+        final ImmutableNode node = new ImmutableNode.Builder().name(NAME).value("42").create();
+        final Object conversion = new Object();
+        final AtomicInteger count = new AtomicInteger();
+        final Function<Object, Integer> toInt = v -> {
+            count.incrementAndGet();
+            return Integer.valueOf((String) v);
+        };
+        final Function<Object, Long> toLong = v -> {
+            count.incrementAndGet();
+            return Long.valueOf((String) v);
+        };
+
+        assertEquals(Integer.valueOf(42), node.getConvertedValue(Integer.class, conversion, toInt));
+        assertEquals(Long.valueOf(42), node.getConvertedValue(Long.class, conversion, toLong));
+        assertEquals(Integer.valueOf(42), node.getConvertedValue(Integer.class, conversion, toInt));
+        assertEquals(Long.valueOf(42), node.getConvertedValue(Long.class, conversion, toLong));
+        assertEquals(2, count.get());
+    }
+
+    /**
+     * Tests that a cached converted value is not used for a different conversion.
+     */
+    @Test
+    public void testGetConvertedValueOtherConversion() {
+        final ImmutableNode node = new ImmutableNode.Builder().name(NAME).value("42").create();
+        final Object conversion1 = new Object();
+        final Object conversion2 = new Object();
+
+        assertEquals(Integer.valueOf(42), node.getConvertedValue(Integer.class, conversion1, v -> 42));
+        assertEquals(Integer.valueOf(43), node.getConvertedValue(Integer.class, conversion2, v -> 43));
+        assertEquals(Integer.valueOf(43), node.getConvertedValue(Integer.class, conversion2, v -> 44));
+        assertEquals(Integer.valueOf(45), node.getConvertedValue(Integer.class, conversion1, v -> 45));
+    }
+
+    /**
+     * Tests that a conversion yielding null is not cached.
+     */
+    @Test
+    public void testGetConvertedValueNull() {
+        final ImmutableNode node = new ImmutableNode.Builder().name(NAME).value("x").create();
+        final Object conversion = new Object();
+
+        assertNull(node.getConvertedValue(Integer.class, conversion, v -> null));
+        assertEquals(Integer.valueOf(1), node.getConvertedValue(Integer.class, conversion, v -> 1));
+    }
+
+    /**
+     * Tests that a node created from another one does not inherit its converted values.
+     */
+    @Test
+    public void testGetConvertedValueNewNode() {
+        final ImmutableNode node = new ImmutableNode.Builder().name(NAME).value("1").create();
+        final Object conversion = new Object();
+        final Function<Object, Integer> toInt = v -> Integer.valueOf((String) v);
+        assertEquals(Integer.valueOf(1), node.getConvertedValue(Integer.class, conversion, toInt));
+
+        final ImmutableNode node2 = node.setValue("2");
+        assertEquals(Integer.valueOf(2), node2.getConvertedValue(Integer.class, conversion, toInt));
+        assertEquals(Integer.valueOf(1), node.getConvertedValue(Integer.class, conversion, toInt));
+    }
+
+    /**
+     * Tests that case folding is compatible with String.equalsIgnoreCase().
+     */
+    @Test
+    public void testFoldCase() {
+        final String[] names = {"key", "KEY", "Key", "k\u0130y", "k\u0131y", "stra\u00dfe", "STRASSE", "\u03a3igma", "\u03c2igma"};
+        for (final String n1 : names) {
+            for (final String n2 : names) {
+                assertEquals(n1.equalsIgnoreCase(n2), ImmutableNode.foldCase(n1).equals(ImmutableNode.foldCase(n2)), n1 + " - " + n2);
+            }
+        }
+    }
+
+    /**
+     * Tests case folding of names consisting only of ASCII characters.
+     */
+    @Test
+    public void testFoldCaseAscii() {
+        final String name = "lower.case_name-1";
+        assertSame(name, ImmutableNode.foldCase(name));
+        assertEquals("mixed.case_name-1", ImmutableNode.foldCase("Mixed.CASE_name-1"));
+        assertEquals("", ImmutableNode.foldCase(""));
+        assertNull(ImmutableNode.foldCase(null));
+    }
+
+    /**
+     * Tests whether the names of nodes and attributes are interned.
+     */
+    @Test
+    public void testNamesInterned() {
+        final String name = new String(NAME.toCharArray());
+        final ImmutableNode node = new ImmutableNode.Builder().name(name).addAttribute(new String(NAME.toCharArray()), VALUE)
+            .addAttribute("other", VALUE).create();
+        assertSame(NAME, node.getNodeName());
+        assertSame(NAME, node.getAttributes().keySet().stream().filter(NAME::equals).findFirst().get());
+        assertSame(NAME, node.setValue("newValue").getNodeName());
+    }
+
     /**
      * Tests whether multiple child nodes can be added to a builder.
      */
@@ -362,6 +501,36 @@ public class TestImmutableNode {
         checkAttributes(node, attrs);
     }
 
+    /**
+     * Tests whether a node can have a larger number of attributes than fit into the compact representation.
+     */
+    @Test
+    public void testNodeWithManyAttributes() {
+        final Map<String, Object> attrs = new HashMap<>();
+        for (int i = 0; i < 32; i++) {
+            attrs.put(NAME + i, i);
+        }
+        final ImmutableNode node = setUpBuilder().addAttributes(attrs).create();
+        checkAttributes(node, attrs);
+        final ImmutableNode node2 = node.removeAttribute(NAME + 0).removeAttribute(NAME + 1);
+        attrs.remove(NAME + 0);
+        attrs.remove(NAME + 1);
+        checkAttributes(node2, attrs);
+    }
+
+    /**
+     * Tests whether null values of attributes are handled by the compact attribute representation.
+     */
+    @Test
+    public void testNodeWithNullAttributeValue() {
+        final ImmutableNode node = setUpBuilder().addAttribute("a", null).addAttribute("b", 1).create();
+        assertEquals(2, node.getAttributes().size());
+        assertTrue(node.getAttributes().containsKey("a"));
+        assertNull(node.getAttributes().get("a"));
+        assertFalse(node.getAttributes().containsKey("c"));
+        assertEquals(node.getAttributes(), new HashMap<>(node.getAttributes()));
+    }
+
     /**
      * Tests whether the builder ignores a null child node.
      */
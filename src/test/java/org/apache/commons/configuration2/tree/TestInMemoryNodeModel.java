@@ -44,9 +44,12 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -113,6 +116,61 @@ public class TestInMemoryNodeModel {
         assertThrows(IllegalArgumentException.class, () -> nodeHandler.getParent(nodeToCheck));
     }
 
+    /**
+     * Helper method for testing whether concurrent updates of the model are handled correctly. This method adds a number
+     * of authors in parallel using the given update strategy. Then it is checked whether all authors have been added
+     * correctly.
+     *
+     * @param strategy the update strategy
+     * @return the model that has been updated
+     * @throws InterruptedException if the test is interrupted
+     */
+    private InMemoryNodeModel checkConcurrentUpdate(final InMemoryNodeModel.UpdateStrategy strategy) throws InterruptedException {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(NodeStructureHelper.ROOT_AUTHORS_TREE);
+        model.setUpdateStrategy(strategy);
+
+        when(resolver.resolveAddKey(any(), eq(KEY), any())).thenAnswer(invocation -> {
+            final ImmutableNode addParent = invocation.getArgument(0, ImmutableNode.class);
+            return new NodeAddData<>(addParent, "name", false, Collections.singleton("author"));
+        });
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final String authorPrefix = "newAuthor";
+        final int threadCount = 32;
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final String authorName = authorPrefix + i;
+            threads[i] = new Thread(() -> {
+                try {
+                    latch.await();
+                    model.addProperty(KEY, Collections.singleton(authorName), resolver);
+                } catch (final InterruptedException iex) {
+                    // ignore
+                }
+            });
+            threads[i].start();
+        }
+        latch.countDown();
+        for (final Thread t : threads) {
+            t.join();
+        }
+
+        final Pattern patternAuthorName = Pattern.compile(Pattern.quote(authorPrefix) + "(\\d+)");
+        final Set<Integer> indices = new HashSet<>();
+        for (int i = 0; i < threadCount; i++) {
+            final ImmutableNode node = nodeForKey(model, "author(" + i + ")/name");
+            final Matcher m = patternAuthorName.matcher(String.valueOf(node.getValue()));
+            assertTrue(m.matches(), "Wrong value: " + node.getValue());
+            final int idx = Integer.parseInt(m.group(1));
+            assertTrue(idx >= 0 && idx < threadCount, "Invalid index: " + idx);
+            indices.add(idx);
+        }
+        assertEquals(threadCount, indices.size());
+        assertEquals(threadCount, model.getUpdateCount());
+        return model;
+    }
+
     /**
      * Tests an add nodes operation if an empty collection is passed in.
      */
@@ -582,52 +640,147 @@ public class TestInMemoryNodeModel {
         assertTrue(replacementMapping.size() < numberOfOperations);
     }
 
+    /**
+     * Tests whether the parent mapping is still correct after the replacement mapping has been compacted multiple times.
+     */
+    @Test
+    public void testParentMappingAfterCompactReplacementMapping() {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        final int numberOfOperations = 500;
+        final AtomicInteger counter = new AtomicInteger();
+        when(resolver.resolveAddKey(any(), eq(KEY), any())).thenAnswer(invocation -> {
+            final ImmutableNode root = invocation.getArgument(0, ImmutableNode.class);
+            final ImmutableNode addParent = root.getChildren().get(counter.getAndIncrement() % NodeStructureHelper.authorsLength());
+            return new NodeAddData<>(addParent, "work", false, Collections.singleton("works"));
+        });
+
+        for (int i = 0; i < numberOfOperations; i++) {
+            model.addProperty(KEY, Collections.singleton(i), resolver);
+        }
+
+        final NodeHandler<ImmutableNode> handler = model.getNodeHandler();
+        NodeTreeWalker.INSTANCE.walkDFS(model.getRootNode(), new ConfigurationNodeVisitorAdapter<ImmutableNode>() {
+            @Override
+            public void visitBeforeChildren(final ImmutableNode node, final NodeHandler<ImmutableNode> h) {
+                node.forEach(child -> assertSame(node, handler.getParent(child)));
+            }
+        }, handler);
+        assertTrue(model.getTreeData().copyReplacementMapping().size() < numberOfOperations);
+    }
+
+    /**
+     * Tests that repeated updates of the same node do not create chains of replacements. Each original node is mapped
+     * directly to the node which currently replaces it.
+     */
+    @Test
+    public void testReplacementMappingWithoutChains() {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        final String key = "Homer/Ilias";
+        when(resolver.resolveAddKey(any(), eq(KEY), any())).thenAnswer(invocation -> {
+            final ImmutableNode addParent = nodeForKey(invocation.getArgument(0, ImmutableNode.class), key);
+            return new NodeAddData<>(addParent, "Warrior", false, null);
+        });
+
+        for (int i = 0; i < 50; i++) {
+            model.addProperty(KEY, Collections.singleton(i), resolver);
+        }
+        assertEquals(3, model.getTreeData().copyReplacementMapping().size());
+        final ImmutableNode node = nodeForKey(model, key);
+        assertSame(nodeForKey(model, "Homer"), model.getNodeHandler().getParent(node));
+        assertSame(node, model.getNodeHandler().getParent(node.getChildren().get(node.getChildren().size() - 1)));
+    }
+
     /**
      * Tests whether concurrent updates of the model are handled correctly. This test adds a number of authors in parallel.
      * Then it is checked whether all authors have been added correctly.
      */
     @Test
     public void testConcurrentUpdate() throws InterruptedException {
-        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
-        final InMemoryNodeModel model = new InMemoryNodeModel(NodeStructureHelper.ROOT_AUTHORS_TREE);
+        final InMemoryNodeModel model = checkConcurrentUpdate(InMemoryNodeModel.UpdateStrategy.OPTIMISTIC);
+        assertEquals(model.getConflictCount(), model.getRetryCount());
+    }
 
+    /**
+     * Tests whether concurrent updates are handled correctly by the combining update strategy.
+     */
+    @Test
+    public void testConcurrentUpdateCombining() throws InterruptedException {
+        final InMemoryNodeModel model = checkConcurrentUpdate(InMemoryNodeModel.UpdateStrategy.COMBINING);
+        assertEquals(0, model.getConflictCount());
+        assertEquals(0, model.getRetryCount());
+    }
+
+    /**
+     * Tests whether a batch of updates can be executed. The updates should become visible only after the batch is
+     * complete, and each update should see the results of the previous ones.
+     */
+    @Test
+    public void testExecuteBatch() {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
         when(resolver.resolveAddKey(any(), eq(KEY), any())).thenAnswer(invocation -> {
             final ImmutableNode addParent = invocation.getArgument(0, ImmutableNode.class);
             return new NodeAddData<>(addParent, "name", false, Collections.singleton("author"));
         });
+        final int authorCount = NodeStructureHelper.authorsLength();
 
-        final CountDownLatch latch = new CountDownLatch(1);
-        final String authorPrefix = "newAuthor";
-        final int threadCount = 32;
-        final Thread[] threads = new Thread[threadCount];
-        for (int i = 0; i < threadCount; i++) {
-            final String authorName = authorPrefix + i;
-            threads[i] = new Thread(() -> {
-                try {
-                    latch.await();
-                    model.addProperty(KEY, Collections.singleton(authorName), resolver);
-                } catch (final InterruptedException iex) {
-                    // ignore
-                }
-            });
-            threads[i].start();
-        }
-        latch.countDown();
-        for (final Thread t : threads) {
-            t.join();
-        }
+        model.executeBatch(batchModel -> {
+            batchModel.addProperty(KEY, Collections.singleton("newAuthor1"), resolver);
+            assertEquals(authorCount + 1, batchModel.getRootNode().getChildren().size());
+            batchModel.addProperty(KEY, Collections.singleton("newAuthor2"), resolver);
+            assertSame(ROOT_AUTHORS_TREE, model.getRootNode());
+        });
+        assertEquals(authorCount + 2, model.getRootNode().getChildren().size());
+        assertEquals("newAuthor1", nodeForKey(model, "author(0)/name").getValue());
+        assertEquals("newAuthor2", nodeForKey(model, "author(1)/name").getValue());
+        checkPathToRoot(model, nodeForKey(model, "author(1)/name"), "author");
+    }
 
-        final Pattern patternAuthorName = Pattern.compile(Pattern.quote(authorPrefix) + "(\\d+)");
-        final Set<Integer> indices = new HashSet<>();
-        for (int i = 0; i < threadCount; i++) {
-            final ImmutableNode node = nodeForKey(model, "author(" + i + ")/name");
-            final Matcher m = patternAuthorName.matcher(String.valueOf(node.getValue()));
-            assertTrue(m.matches(), "Wrong value: " + node.getValue());
-            final int idx = Integer.parseInt(m.group(1));
-            assertTrue(idx >= 0 && idx < threadCount, "Invalid index: " + idx);
-            indices.add(idx);
-        }
-        assertEquals(threadCount, indices.size());
+    /**
+     * Tests that a batch which does not change anything does not modify the model.
+     */
+    @Test
+    public void testExecuteBatchNoChanges() {
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        final TreeData data = model.getTreeData();
+
+        model.executeBatch(batchModel -> assertSame(ROOT_AUTHORS_TREE, batchModel.getRootNode()));
+        assertSame(data, model.getTreeData());
+    }
+
+    /**
+     * Tries to execute a null batch.
+     */
+    @Test
+    public void testExecuteBatchNull() {
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        assertThrows(IllegalArgumentException.class, () -> model.executeBatch(null));
+    }
+
+    /**
+     * Tests that a batch is executed again if the model is changed concurrently.
+     */
+    @Test
+    public void testExecuteBatchWithConcurrentUpdate() {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        when(resolver.resolveAddKey(any(), eq(KEY), any())).thenAnswer(invocation -> {
+            final ImmutableNode addParent = invocation.getArgument(0, ImmutableNode.class);
+            return new NodeAddData<>(addParent, "name", false, Collections.singleton("author"));
+        });
+        final AtomicInteger invocations = new AtomicInteger();
+
+        model.executeBatch(batchModel -> {
+            if (invocations.getAndIncrement() == 0) {
+                model.addProperty(KEY, Collections.singleton("concurrentAuthor"), resolver);
+            }
+            batchModel.addProperty(KEY, Collections.singleton("batchAuthor"), resolver);
+        });
+        assertEquals(2, invocations.get());
+        assertEquals("concurrentAuthor", nodeForKey(model, "author(0)/name").getValue());
+        assertEquals("batchAuthor", nodeForKey(model, "author(1)/name").getValue());
     }
 
     /**
@@ -693,6 +846,46 @@ public class TestInMemoryNodeModel {
         assertEquals(newValue, node.getValue());
     }
 
+    /**
+     * Tests whether setProperty() can handle changes of many nodes in different branches of the tree. All nodes on the
+     * paths to the changed nodes have to be replaced, and the parent mapping has to be updated accordingly.
+     */
+    @Test
+    public void testSetPropertyChangedValuesInMultipleBranches() {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        final Map<QueryResult<ImmutableNode>, Object> changedValues = new HashMap<>();
+        for (int authorIdx = 0; authorIdx < NodeStructureHelper.authorsLength(); authorIdx++) {
+            for (int workIdx = 0; workIdx < NodeStructureHelper.worksLength(authorIdx); workIdx++) {
+                for (int personaIdx = 0; personaIdx < NodeStructureHelper.personaeLength(authorIdx, workIdx); personaIdx++) {
+                    final String persona = NodeStructureHelper.persona(authorIdx, workIdx, personaIdx);
+                    final ImmutableNode node = nodeForKey(model,
+                        nodePathWithEndNode(persona, NodeStructureHelper.author(authorIdx), NodeStructureHelper.work(authorIdx, workIdx)));
+                    changedValues.put(QueryResult.createNodeResult(node), persona + "_changed");
+                }
+            }
+        }
+        final NodeUpdateData<ImmutableNode> updateData = new NodeUpdateData<>(changedValues, null, null, null);
+
+        when(resolver.resolveUpdateKey(ROOT_AUTHORS_TREE, KEY, this, model.getNodeHandler())).thenReturn(updateData);
+
+        model.setProperty(KEY, this, resolver);
+        assertEquals(NodeStructureHelper.authorsLength(), model.getRootNode().getChildren().size());
+        for (int authorIdx = 0; authorIdx < NodeStructureHelper.authorsLength(); authorIdx++) {
+            final String author = NodeStructureHelper.author(authorIdx);
+            assertEquals(NodeStructureHelper.worksLength(authorIdx), nodeForKey(model, author).getChildren().size());
+            for (int workIdx = 0; workIdx < NodeStructureHelper.worksLength(authorIdx); workIdx++) {
+                final String work = NodeStructureHelper.work(authorIdx, workIdx);
+                for (int personaIdx = 0; personaIdx < NodeStructureHelper.personaeLength(authorIdx, workIdx); personaIdx++) {
+                    final String persona = NodeStructureHelper.persona(authorIdx, workIdx, personaIdx);
+                    final ImmutableNode node = nodeForKey(model, nodePathWithEndNode(persona, author, work));
+                    assertEquals(persona + "_changed", node.getValue());
+                    checkPathToRoot(model, node, author, work);
+                }
+            }
+        }
+    }
+
     /**
      * Tests whether setProperty() can handle nodes to be cleared.
      */
@@ -767,4 +960,133 @@ public class TestInMemoryNodeModel {
         final ImmutableNode rootNode = model.getRootNode();
         assertTrue(rootNode.getChildren().isEmpty());
     }
+
+    /**
+     * Tests whether a snapshot of a model can be created which shares the node structure.
+     */
+    @Test
+    public void testSnapshot() {
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        final InMemoryNodeModel snapshot = model.snapshot();
+        assertSame(ROOT_AUTHORS_TREE, snapshot.getRootNode());
+        final ImmutableNode node = nodeForKey(model, "Homer/Ilias");
+        assertSame(model.getNodeHandler().getParent(node), snapshot.getNodeHandler().getParent(node));
+
+        model.setRootNode(NodeStructureHelper.ROOT_PERSONAE_TREE);
+        assertSame(ROOT_AUTHORS_TREE, snapshot.getRootNode());
+    }
+
+    /**
+     * Tests that nodes tracked by a model are not tracked by a snapshot.
+     */
+    @Test
+    public void testSnapshotTrackedNodes() {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        final NodeSelector selector = new NodeSelector(KEY);
+        when(resolver.resolveKey(eq(ROOT_AUTHORS_TREE), eq(KEY), any()))
+            .thenReturn(Collections.singletonList(QueryResult.createNodeResult(nodeForKey(model, NodeStructureHelper.author(0)))));
+        model.trackNode(selector, resolver);
+
+        final InMemoryNodeModel snapshot = model.snapshot();
+        assertThrows(ConfigurationRuntimeException.class, () -> snapshot.getTrackedNode(selector));
+    }
+
+    /**
+     * Tests that the optimistic update strategy is used per default.
+     */
+    @Test
+    public void testUpdateStrategyDefault() {
+        final InMemoryNodeModel model = new InMemoryNodeModel();
+        assertEquals(InMemoryNodeModel.UpdateStrategy.OPTIMISTIC, model.getUpdateStrategy());
+    }
+
+    /**
+     * Tests whether an exception thrown by an update operation is propagated when using the combining update strategy.
+     */
+    @Test
+    public void testUpdateStrategyCombiningException() {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(NodeStructureHelper.ROOT_AUTHORS_TREE);
+        model.setUpdateStrategy(InMemoryNodeModel.UpdateStrategy.COMBINING);
+        when(resolver.resolveKey(NodeStructureHelper.ROOT_AUTHORS_TREE, KEY, model.getNodeHandler()))
+                .thenReturn(Collections.singletonList(QueryResult.createAttributeResult(nodeForKey(model, NodeStructureHelper.author(1)), "test")));
+
+        final Set<ImmutableNode> nodes = Collections.singleton(new ImmutableNode.Builder().name("newNode").create());
+        assertThrows(IllegalArgumentException.class, () -> model.addNodes(KEY, nodes, resolver));
+        assertSame(NodeStructureHelper.ROOT_AUTHORS_TREE, model.getRootNode());
+        assertEquals(0, model.getUpdateCount());
+    }
+
+    /**
+     * Tests that an error thrown by an update operation processed by the combining update strategy does not cause other
+     * pending update operations to be lost.
+     */
+    @Test
+    public void testUpdateStrategyCombiningError() throws InterruptedException {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(NodeStructureHelper.ROOT_AUTHORS_TREE);
+        model.setUpdateStrategy(InMemoryNodeModel.UpdateStrategy.COMBINING);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(resolver.resolveAddKey(any(), eq("blocking"), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return new NodeAddData<>(invocation.getArgument(0, ImmutableNode.class), "name", false, Collections.singleton("author"));
+        });
+        when(resolver.resolveAddKey(any(), eq("error"), any())).thenThrow(new InternalError("Test error"));
+        when(resolver.resolveAddKey(any(), eq(KEY), any()))
+            .thenAnswer(invocation -> new NodeAddData<>(invocation.getArgument(0, ImmutableNode.class), "name", false, Collections.singleton("author")));
+
+        // the first update holds the lock of the combiner, so that the other updates are queued and processed together
+        final Thread blockingThread = new Thread(() -> model.addProperty("blocking", Collections.singleton("blocking"), resolver));
+        blockingThread.start();
+        started.await();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Thread errorThread = new Thread(() -> {
+            try {
+                model.addProperty("error", Collections.singleton("error"), resolver);
+            } catch (final InternalError e) {
+                error.set(e);
+            }
+        });
+        final Thread updateThread = new Thread(() -> model.addProperty(KEY, Collections.singleton("update"), resolver));
+        for (final Thread t : Arrays.asList(errorThread, updateThread)) {
+            t.start();
+            while (t.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+        }
+        release.countDown();
+        for (final Thread t : Arrays.asList(blockingThread, errorThread, updateThread)) {
+            t.join();
+        }
+
+        assertEquals("Test error", error.get().getMessage());
+        final List<ImmutableNode> authors = model.getRootNode().getChildren();
+        assertEquals(NodeStructureHelper.authorsLength() + 2, authors.size());
+        assertEquals("update", authors.get(authors.size() - 1).getChildren().get(0).getValue());
+        assertEquals(2, model.getUpdateCount());
+    }
+
+    /**
+     * Tests whether the update strategy can be changed.
+     */
+    @Test
+    public void testUpdateStrategySet() {
+        final InMemoryNodeModel model = new InMemoryNodeModel();
+        model.setUpdateStrategy(InMemoryNodeModel.UpdateStrategy.COMBINING);
+        assertEquals(InMemoryNodeModel.UpdateStrategy.COMBINING, model.getUpdateStrategy());
+        model.setUpdateStrategy(InMemoryNodeModel.UpdateStrategy.OPTIMISTIC);
+        assertEquals(InMemoryNodeModel.UpdateStrategy.OPTIMISTIC, model.getUpdateStrategy());
+    }
+
+    /**
+     * Tries to set a null update strategy.
+     */
+    @Test
+    public void testUpdateStrategySetNull() {
+        final InMemoryNodeModel model = new InMemoryNodeModel();
+        assertThrows(IllegalArgumentException.class, () -> model.setUpdateStrategy(null));
+    }
 }
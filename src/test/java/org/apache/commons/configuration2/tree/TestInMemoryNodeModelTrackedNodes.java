@@ -39,6 +39,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 import org.junit.jupiter.api.BeforeAll;
@@ -127,6 +128,25 @@ public class TestInMemoryNodeModelTrackedNodes {
         assertEquals(expectedNames, actualNames);
     }
 
+    /**
+     * Creates a resolver which supports arbitrary queries and counts the evaluations of the key of the default selector.
+     *
+     * @param counter the counter for evaluations of the selector key
+     * @return the resolver
+     */
+    private static NodeKeyResolver<ImmutableNode> createCountingResolver(final AtomicInteger counter) {
+        final NodeKeyResolver<ImmutableNode> resolver = NodeStructureHelper.createResolverMock();
+        when(resolver.resolveKey(any(), any(), any())).thenAnswer(invocation -> {
+            final String key = invocation.getArgument(1, String.class);
+            if (SELECTOR_KEY.equals(key)) {
+                counter.incrementAndGet();
+            }
+            final NodeHandler<ImmutableNode> handler = invocation.getArgument(2);
+            return DefaultExpressionEngine.INSTANCE.query(invocation.getArgument(0, ImmutableNode.class), key, handler);
+        });
+        return resolver;
+    }
+
     /**
      * Creates a default resolver which supports arbitrary queries on a target node.
      *
@@ -744,6 +764,71 @@ public class TestInMemoryNodeModelTrackedNodes {
         assertFalse(model.getNodeHandler().isDefined(node));
     }
 
+    /**
+     * Tests that the selector of a tracked node is evaluated again if the list of children of its parent is changed.
+     */
+    @Test
+    public void testTrackedNodeEvaluatedIfParentChanged() {
+        final AtomicInteger evaluations = new AtomicInteger();
+        final NodeKeyResolver<ImmutableNode> resolver = createCountingResolver(evaluations);
+        model.trackNode(selector, resolver);
+        model.clearTree("tables.table(0)", resolver);
+        assertEquals(2, evaluations.get());
+        assertTrue(model.isTrackedNodeDetached(selector));
+    }
+
+    /**
+     * Tests that a tracked node is evaluated again for an unrelated change if the resolver reports another resolution
+     * state.
+     */
+    @Test
+    public void testTrackedNodeEvaluatedIfResolutionStateChanged() {
+        final AtomicInteger evaluations = new AtomicInteger();
+        final NodeKeyResolver<ImmutableNode> resolver = createCountingResolver(evaluations);
+        prepareResolverForUpdateKeys(resolver);
+        model.trackNode(selector, resolver);
+        when(resolver.getResolutionState()).thenReturn(new Object());
+        model.setProperty("tables.table(0).fields.field(0).name", NEW_FIELD, resolver);
+        model.setProperty("tables.table(0).fields.field(1).name", NEW_FIELD, resolver);
+        assertEquals(2, evaluations.get());
+        assertFalse(model.isTrackedNodeDetached(selector));
+    }
+
+    /**
+     * Tests that the selector of a tracked node is not evaluated again if an update only affects other parts of the node
+     * structure.
+     */
+    @Test
+    public void testTrackedNodeNotEvaluatedForUnrelatedChange() {
+        final AtomicInteger evaluations = new AtomicInteger();
+        final NodeKeyResolver<ImmutableNode> resolver = createCountingResolver(evaluations);
+        prepareResolverForUpdateKeys(resolver);
+        model.trackNode(selector, resolver);
+        final ImmutableNode trackedNode = model.getTrackedNode(selector);
+        model.setProperty("tables.table(0).fields.field(0).name", NEW_FIELD, resolver);
+        assertEquals(1, evaluations.get());
+        assertSame(trackedNode, model.getTrackedNode(selector));
+        assertSame(NodeStructureHelper.nodeForKey(model, "tables/table(1)"), trackedNode);
+        assertFalse(model.isTrackedNodeDetached(selector));
+    }
+
+    /**
+     * Tests that a tracked node is replaced by its updated version if one of its descendants is changed without
+     * evaluating the selector again.
+     */
+    @Test
+    public void testTrackedNodeReplacedWithoutEvaluation() {
+        final AtomicInteger evaluations = new AtomicInteger();
+        final NodeKeyResolver<ImmutableNode> resolver = createCountingResolver(evaluations);
+        prepareResolverForUpdateKeys(resolver);
+        model.trackNode(selector, resolver);
+        model.setProperty("tables.table(1).fields.field(0).name", NEW_FIELD, resolver);
+        model.setProperty("fields.field(1).name", selector, NEW_FIELD, resolver);
+        assertEquals(1, evaluations.get());
+        assertSame(NodeStructureHelper.nodeForKey(model, "tables/table(1)"), model.getTrackedNode(selector));
+        assertFalse(model.isTrackedNodeDetached(selector));
+    }
+
     /**
      * Tries to call trackNode() with a key that selects multiple results.
      */
@@ -776,6 +861,17 @@ public class TestInMemoryNodeModelTrackedNodes {
         assertNotNull(model.getTrackedNode(selector));
     }
 
+    /**
+     * Tests that a selector is removed from the index of dependent selectors when its tracked node becomes detached.
+     */
+    @Test
+    public void testTrackedNodeDetachedRemovedFromIndex() {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        initDetachedNode(resolver);
+        assertTrue(model.isTrackedNodeDetached(selector));
+        assertEquals(0, model.getTreeData().getNodeTracker().getDependencyCount());
+    }
+
     /**
      * Tests whether tracking of a node can be stopped.
      */
@@ -793,4 +889,20 @@ public class TestInMemoryNodeModelTrackedNodes {
     public void testUntrackNodeNonExisting() {
         assertThrows(ConfigurationRuntimeException.class, () -> model.untrackNode(selector));
     }
+
+    /**
+     * Tests that a selector is removed from the index of dependent selectors when its node is no longer tracked.
+     */
+    @Test
+    public void testUntrackNodeRemovedFromIndex() {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final NodeSelector selector2 = new NodeSelector("tables.table(0).fields.field(1)");
+        model.trackNode(selector, resolver);
+        final int dependencyCount = model.getTreeData().getNodeTracker().getDependencyCount();
+        model.trackNode(selector2, resolver);
+        assertTrue(model.getTreeData().getNodeTracker().getDependencyCount() > dependencyCount);
+
+        model.untrackNode(selector2);
+        assertEquals(dependencyCount, model.getTreeData().getNodeTracker().getDependencyCount());
+    }
 }
@@ -17,11 +17,18 @@
 package org.apache.commons.configuration2.tree;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
@@ -83,6 +90,23 @@ public class TestNodeTreeWalker {
         }
     }
 
+    /** The depth of a hierarchy which cannot be processed recursively. */
+    private static final int DEEP_HIERARCHY_DEPTH = 100000;
+
+    /**
+     * Creates a hierarchy consisting of a single path of nodes with the given depth.
+     *
+     * @param depth the depth of the hierarchy
+     * @return the root node of the hierarchy
+     */
+    private static ImmutableNode createDeepHierarchy(final int depth) {
+        ImmutableNode node = new ImmutableNode.Builder().name("node" + (depth - 1)).create();
+        for (int i = depth - 2; i >= 0; i--) {
+            node = new ImmutableNode.Builder(1).name("node" + i).addChild(node).create();
+        }
+        return node;
+    }
+
     /**
      * Creates a dummy node handler.
      *
@@ -146,6 +170,16 @@ public class TestNodeTreeWalker {
         return expected;
     }
 
+    /**
+     * Prepares a list with the names of nodes returned by a stream. This is the order of a DFS walk without the visits
+     * after the children.
+     *
+     * @return the expected node names of a stream
+     */
+    private List<String> expectStream() {
+        return expectDFS().stream().filter(name -> !name.startsWith(visitAfterName(""))).collect(Collectors.toList());
+    }
+
     /**
      * Prepares a list with the names of nodes encountered during a DFS walk.
      *
@@ -171,6 +205,80 @@ public class TestNodeTreeWalker {
         return expected;
     }
 
+    /**
+     * Tests whether a spliterator can be split and the parts return all nodes in the correct order.
+     */
+    @Test
+    public void testSpliteratorSplit() {
+        final Spliterator<ImmutableNode> spliterator = NodeTreeWalker.INSTANCE.spliterator(NodeStructureHelper.ROOT_AUTHORS_TREE, createHandler());
+        final Spliterator<ImmutableNode> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        final List<String> names = new ArrayList<>();
+        prefix.forEachRemaining(node -> names.add(node.getNodeName()));
+        assertFalse(names.isEmpty());
+        while (spliterator.tryAdvance(node -> names.add(node.getNodeName()))) {
+            // process all remaining nodes
+        }
+        assertEquals(expectStream(), names);
+        assertEquals(0, spliterator.estimateSize());
+    }
+
+    /**
+     * Tests that a spliterator for a single node cannot be split.
+     */
+    @Test
+    public void testSpliteratorSplitSingleNode() {
+        final Spliterator<ImmutableNode> spliterator = NodeTreeWalker.INSTANCE.spliterator(NodeStructureHelper.createNode("leaf", null),
+            createHandler());
+        assertNull(spliterator.trySplit());
+        assertTrue(spliterator.tryAdvance(node -> assertEquals("leaf", node.getNodeName())));
+        assertFalse(spliterator.tryAdvance(node -> {
+            throw new AssertionError("Unexpected node: " + node);
+        }));
+    }
+
+    /**
+     * Tests whether a stream over the nodes of a hierarchy can be created.
+     */
+    @Test
+    public void testStream() {
+        assertEquals(expectStream(),
+            NodeTreeWalker.INSTANCE.stream(NodeStructureHelper.ROOT_AUTHORS_TREE, createHandler()).map(ImmutableNode::getNodeName).collect(Collectors.toList()));
+    }
+
+    /**
+     * Tests whether a stream can be created for a hierarchy which is too deep for a recursive traversal.
+     */
+    @Test
+    public void testStreamDeepHierarchy() {
+        assertEquals(DEEP_HIERARCHY_DEPTH, NodeTreeWalker.INSTANCE.stream(createDeepHierarchy(DEEP_HIERARCHY_DEPTH), createHandler()).count());
+    }
+
+    /**
+     * Tests a stream for a null root node.
+     */
+    @Test
+    public void testStreamNoNode() {
+        assertEquals(0, NodeTreeWalker.INSTANCE.stream(null, handlerMock()).count());
+    }
+
+    /**
+     * Tries to create a stream without a node handler.
+     */
+    @Test
+    public void testStreamNoNodeHandler() {
+        assertThrows(IllegalArgumentException.class, () -> NodeTreeWalker.INSTANCE.stream(NodeStructureHelper.ROOT_AUTHORS_TREE, null));
+    }
+
+    /**
+     * Tests whether the nodes of a hierarchy can be processed by a parallel stream.
+     */
+    @Test
+    public void testStreamParallel() {
+        assertEquals(expectStream(), NodeTreeWalker.INSTANCE.stream(NodeStructureHelper.ROOT_AUTHORS_TREE, createHandler()).parallel()
+            .map(ImmutableNode::getNodeName).collect(Collectors.toList()));
+    }
+
     /**
      * Tests a traversal in BFS mode.
      */
@@ -215,6 +323,20 @@ public class TestNodeTreeWalker {
         assertEquals(expected, visitor.getVisitedNodes());
     }
 
+    /**
+     * Tests a DFS traversal of a hierarchy which is too deep for a recursive traversal.
+     */
+    @Test
+    public void testWalkDFSDeepHierarchy() {
+        final TestVisitor visitor = new TestVisitor();
+        NodeTreeWalker.INSTANCE.walkDFS(createDeepHierarchy(DEEP_HIERARCHY_DEPTH), visitor, createHandler());
+        final List<String> visitedNodes = visitor.getVisitedNodes();
+        assertEquals(2 * DEEP_HIERARCHY_DEPTH, visitedNodes.size());
+        assertEquals("node0", visitedNodes.get(0));
+        assertEquals(visitAfterName("node" + (DEEP_HIERARCHY_DEPTH - 1)), visitedNodes.get(DEEP_HIERARCHY_DEPTH));
+        assertEquals(visitAfterName("node0"), visitedNodes.get(2 * DEEP_HIERARCHY_DEPTH - 1));
+    }
+
     /**
      * Tests whether walkDFS() can handle a null node.
      */
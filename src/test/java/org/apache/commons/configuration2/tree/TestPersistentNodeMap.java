@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@code PersistentNodeMap}.
+ */
+public class TestPersistentNodeMap {
+    /** Constant for the number of test nodes. */
+    private static final int COUNT = 10000;
+
+    /**
+     * Creates a list with the given number of test nodes.
+     *
+     * @param count the number of nodes
+     * @return the list with test nodes
+     */
+    private static List<ImmutableNode> createNodes(final int count) {
+        final List<ImmutableNode> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            nodes.add(new ImmutableNode.Builder().name("node" + i).create());
+        }
+        return nodes;
+    }
+
+    /**
+     * Creates a map which associates each node in the given list with its index.
+     *
+     * @param nodes the list with nodes
+     * @return the map
+     */
+    private static PersistentNodeMap<Integer> createMap(final List<ImmutableNode> nodes) {
+        final PersistentNodeMap.Builder<Integer> builder = PersistentNodeMap.<Integer>empty().builder();
+        for (int i = 0; i < nodes.size(); i++) {
+            builder.put(nodes.get(i), i);
+        }
+        return builder.create();
+    }
+
+    /**
+     * Tests whether a map can be populated via a builder.
+     */
+    @Test
+    public void testBuilder() {
+        final List<ImmutableNode> nodes = createNodes(COUNT);
+        final PersistentNodeMap<Integer> map = createMap(nodes);
+        assertEquals(COUNT, map.size());
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(i, map.get(nodes.get(i)));
+        }
+        assertNull(map.get(new ImmutableNode.Builder().create()));
+    }
+
+    /**
+     * Tests that changes on a builder do not affect a map created before.
+     */
+    @Test
+    public void testBuilderIndependentFromCreatedMap() {
+        final List<ImmutableNode> nodes = createNodes(COUNT);
+        final PersistentNodeMap.Builder<Integer> builder = PersistentNodeMap.<Integer>empty().builder();
+        nodes.forEach(n -> builder.put(n, 1));
+        final PersistentNodeMap<Integer> map = builder.create();
+        nodes.forEach(n -> builder.put(n, 2));
+        builder.remove(nodes.get(0));
+
+        assertEquals(COUNT, map.size());
+        nodes.forEach(n -> assertEquals(1, map.get(n)));
+        assertEquals(COUNT - 1, builder.size());
+        assertEquals(2, builder.create().get(nodes.get(1)));
+    }
+
+    /**
+     * Tests the empty map.
+     */
+    @Test
+    public void testEmpty() {
+        final PersistentNodeMap<Object> map = PersistentNodeMap.empty();
+        final ImmutableNode node = new ImmutableNode.Builder().create();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(node));
+        assertSame(map, map.remove(node));
+    }
+
+    /**
+     * Tests that put() creates a new map and does not change the original one.
+     */
+    @Test
+    public void testPutDoesNotModifyOriginal() {
+        final List<ImmutableNode> nodes = createNodes(COUNT);
+        final PersistentNodeMap<Integer> map = createMap(nodes);
+        final ImmutableNode newNode = new ImmutableNode.Builder().name("new").create();
+
+        final PersistentNodeMap<Integer> map2 = map.put(newNode, -1).put(nodes.get(0), -2);
+        assertEquals(COUNT + 1, map2.size());
+        assertEquals(-1, map2.get(newNode));
+        assertEquals(-2, map2.get(nodes.get(0)));
+        assertEquals(COUNT, map.size());
+        assertFalse(map.containsKey(newNode));
+        assertEquals(0, map.get(nodes.get(0)));
+    }
+
+    /**
+     * Tests that putting an existing mapping again returns the same instance.
+     */
+    @Test
+    public void testPutExistingMapping() {
+        final List<ImmutableNode> nodes = createNodes(10);
+        final PersistentNodeMap<Integer> map = createMap(nodes);
+        assertSame(map, map.put(nodes.get(5), map.get(nodes.get(5))));
+    }
+
+    /**
+     * Tries to add a null value.
+     */
+    @Test
+    public void testPutNullValue() {
+        final PersistentNodeMap<Object> map = PersistentNodeMap.empty();
+        final ImmutableNode node = new ImmutableNode.Builder().create();
+        assertThrows(IllegalArgumentException.class, () -> map.put(node, null));
+    }
+
+    /**
+     * Tests whether all entries can be removed from a map.
+     */
+    @Test
+    public void testRemove() {
+        final List<ImmutableNode> nodes = createNodes(COUNT);
+        final PersistentNodeMap<Integer> map = createMap(nodes);
+        PersistentNodeMap<Integer> current = map;
+        for (int i = 0; i < COUNT; i++) {
+            current = current.remove(nodes.get(i));
+            assertEquals(COUNT - i - 1, current.size());
+            assertFalse(current.containsKey(nodes.get(i)));
+            if (i + 1 < COUNT) {
+                assertEquals(i + 1, current.get(nodes.get(i + 1)));
+            }
+        }
+        assertTrue(current.isEmpty());
+        assertEquals(COUNT, map.size());
+        assertEquals(COUNT - 1, map.get(nodes.get(COUNT - 1)));
+    }
+
+    /**
+     * Tests a remove operation for a key which is not contained in the map.
+     */
+    @Test
+    public void testRemoveNonExistingKey() {
+        final PersistentNodeMap<Integer> map = createMap(createNodes(100));
+        assertSame(map, map.remove(new ImmutableNode.Builder().create()));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree.xpath;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.InMemoryNodeModel;
+import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.configuration2.tree.QueryResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test class for {@code SimpleXPathExpression}.
+ */
+public class TestSimpleXPathExpression {
+    /** The first table node. */
+    private static ImmutableNode table1;
+
+    /** The second table node. */
+    private static ImmutableNode table2;
+
+    /** The root node of the test configuration. */
+    private static ImmutableNode root;
+
+    /** The node handler. */
+    private static NodeHandler<ImmutableNode> handler;
+
+    /**
+     * Creates a test node for a table.
+     *
+     * @param name the name of the table
+     * @param type the type of the table
+     * @param fields the names of the fields of the table
+     * @return the node for this table
+     */
+    private static ImmutableNode createTable(final String name, final Object type, final String... fields) {
+        final ImmutableNode.Builder fieldsBuilder = new ImmutableNode.Builder().name("fields");
+        for (final String field : fields) {
+            fieldsBuilder.addChild(new ImmutableNode.Builder().name("field").value(field).create());
+        }
+        return new ImmutableNode.Builder().name("table").addAttribute("name", name).addAttribute("type", type).addChild(fieldsBuilder.create())
+            .create();
+    }
+
+    @BeforeAll
+    public static void setUpBeforeClass() {
+        table1 = createTable("users", "system", "uid", "uname");
+        table2 = createTable("documents", 42, "docid", "name", "creator");
+        final ImmutableNode tables = new ImmutableNode.Builder().name("tables").addChild(table1).addChild(table2).create();
+        root = new ImmutableNode.Builder().name("config").addChild(tables).addAttribute("version", "1").create();
+        handler = new InMemoryNodeModel(root).getNodeHandler();
+    }
+
+    /**
+     * Evaluates the given key and returns the results.
+     *
+     * @param key the key
+     * @return the results of the evaluation
+     */
+    private static List<QueryResult<ImmutableNode>> evaluate(final String key) {
+        final SimpleXPathExpression expression = SimpleXPathExpression.parse(key);
+        assertNotNull(expression, "Key not supported: " + key);
+        return expression.evaluate(root, handler);
+    }
+
+    /**
+     * Returns the node results for the given nodes.
+     *
+     * @param nodes the nodes
+     * @return the corresponding query results
+     */
+    private static List<QueryResult<ImmutableNode>> nodeResults(final ImmutableNode... nodes) {
+        final List<QueryResult<ImmutableNode>> results = new ArrayList<>(nodes.length);
+        for (final ImmutableNode node : nodes) {
+            results.add(QueryResult.createNodeResult(node));
+        }
+        return results;
+    }
+
+    /**
+     * Tests a predicate comparing an attribute with a literal.
+     */
+    @Test
+    public void testAttributePredicate() {
+        assertEquals(nodeResults(table2), evaluate("tables/table[@name='documents']"));
+        assertEquals(nodeResults(table1), evaluate("tables/table[@name=\"users\"]"));
+        assertEquals(nodeResults(), evaluate("tables/table[@name='unknown']"));
+        assertEquals(nodeResults(), evaluate("tables/table[@unknown='users']"));
+    }
+
+    /**
+     * Tests that a predicate on an attribute with a value that is not a string cannot be evaluated.
+     */
+    @Test
+    public void testAttributePredicateNonStringValue() {
+        assertNull(SimpleXPathExpression.parse("tables/table[@type='42']").evaluate(root, handler));
+    }
+
+    /**
+     * Tests the selection of attributes.
+     */
+    @Test
+    public void testAttributes() {
+        assertEquals(Arrays.asList(QueryResult.createAttributeResult(table1, "name"), QueryResult.createAttributeResult(table2, "name")),
+            evaluate("tables/table/@name"));
+        assertEquals(Arrays.asList(QueryResult.createAttributeResult(root, "version")), evaluate("@version"));
+        assertEquals(nodeResults(), evaluate("tables/@name"));
+    }
+
+    /**
+     * Tests the selection of child nodes.
+     */
+    @Test
+    public void testChildSteps() {
+        assertEquals(nodeResults(table1, table2), evaluate("tables/table"));
+        assertEquals(nodeResults(table1, table2), evaluate("/tables/table"));
+        assertEquals(nodeResults(table1.getChildren().get(0).getChildren().get(1), table2.getChildren().get(0).getChildren().get(1)),
+            evaluate("tables/table/fields/field[2]"));
+        assertEquals(nodeResults(), evaluate("tables/unknown"));
+    }
+
+    /**
+     * Tests a combination of multiple predicates.
+     */
+    @Test
+    public void testMultiplePredicates() {
+        assertEquals(nodeResults(table2), evaluate("tables/table[@name='documents'][1]"));
+        assertEquals(nodeResults(), evaluate("tables/table[@name='documents'][2]"));
+        assertEquals(nodeResults(table2), evaluate("tables/table[2][@name='documents']"));
+    }
+
+    /**
+     * Tests that keys which are not part of the supported subset are rejected.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"tables//table", "tables/*", "tables/table[last()]", "tables/table[0]", "tables/table[@name=1]",
+        "tables/table[name='users']", "tables/..", "tables/table/", "@name/table", "tables table", "tables/text", "ns:tables",
+        "count(tables)", "tables | config", "tables/table[1", "tables/table[@name='users]", "tables/table[1234567890]", "/"})
+    public void testParseUnsupported(final String key) {
+        assertNull(SimpleXPathExpression.parse(key));
+    }
+
+    /**
+     * Tests positional predicates.
+     */
+    @Test
+    public void testPositionalPredicate() {
+        assertEquals(nodeResults(table1), evaluate("tables/table[1]"));
+        assertEquals(nodeResults(table2), evaluate("tables[1]/table[2]"));
+        assertEquals(nodeResults(), evaluate("tables/table[3]"));
+        assertEquals(Arrays.asList(QueryResult.createAttributeResult(table2, "name")), evaluate("tables/table[2]/@name"));
+    }
+}
@@ -138,6 +138,24 @@ public class TestXPathExpressionEngine {
         assertEquals("@child", engine.attributeKey(null, "child"));
     }
 
+    /**
+     * Tests whether the canonical keys of all child nodes can be determined at once.
+     */
+    @Test
+    public void testCanonicalChildKeys() {
+        final ImmutableNode c1 = new ImmutableNode.Builder().name("child").create();
+        final ImmutableNode c2 = new ImmutableNode.Builder().name("child_other").create();
+        final ImmutableNode c3 = new ImmutableNode.Builder().name("child").create();
+        final ImmutableNode parent = new ImmutableNode.Builder(3).addChildren(Arrays.asList(c1, c2, c3)).create();
+        final NodeHandler<ImmutableNode> testHandler = new InMemoryNodeModel(parent).getNodeHandler();
+        final XPathExpressionEngine engine = new XPathExpressionEngine();
+        final List<String> keys = engine.canonicalChildKeys(parent, "parent", testHandler);
+        assertEquals(Arrays.asList("parent/child[1]", "parent/child_other[1]", "parent/child[2]"), keys);
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(engine.canonicalKey(parent.getChildren().get(i), "parent", testHandler), keys.get(i));
+        }
+    }
+
     /**
      * Tests whether a canonical key can be queried if all child nodes have different names.
      */
@@ -210,6 +228,52 @@ public class TestXPathExpressionEngine {
         assertNotNull(engine.getContextFactory());
     }
 
+    /**
+     * Tests whether compiled expressions are cached and produce the same results as uncached queries.
+     */
+    @Test
+    public void testExpressionCache() {
+        final ImmutableNode child1 = new ImmutableNode.Builder().name("child").value("v1").addAttribute("id", "a").create();
+        final ImmutableNode child2 = new ImmutableNode.Builder().name("child").value("v2").addAttribute("id", "b").create();
+        final ImmutableNode parent = new ImmutableNode.Builder(2).name(ROOT_NAME).addChild(child1).addChild(child2).create();
+        final NodeHandler<ImmutableNode> testHandler = new InMemoryNodeModel(parent).getNodeHandler();
+        final XPathExpressionEngine engine = new XPathExpressionEngine();
+        final XPathExpressionEngine uncachedEngine = new XPathExpressionEngine(0);
+        assertEquals(XPathExpressionEngine.DEFAULT_EXPRESSION_CACHE_SIZE, engine.getExpressionCacheSize());
+
+        for (final String key : Arrays.asList("child", "child[@id='b']", "child[1]/@id", "child", "child[@id='b']")) {
+            final List<QueryResult<ImmutableNode>> results = engine.query(parent, key, testHandler);
+            assertEquals(uncachedEngine.query(parent, key, testHandler), results);
+        }
+        assertEquals(2, engine.getExpressionCacheHitCount());
+        assertEquals(3, engine.getExpressionCacheMissCount());
+        assertEquals(0, uncachedEngine.getExpressionCacheHitCount());
+        assertEquals(0, uncachedEngine.getExpressionCacheMissCount());
+    }
+
+    /**
+     * Tests that the cache for compiled expressions is cleared when it is full.
+     */
+    @Test
+    public void testExpressionCacheFull() {
+        final XPathExpressionEngine engine = new XPathExpressionEngine(2);
+        engine.query(root, "a", handler);
+        engine.query(root, "b", handler);
+        engine.query(root, "c", handler);
+        engine.query(root, "c", handler);
+        engine.query(root, "a", handler);
+        assertEquals(1, engine.getExpressionCacheHitCount());
+        assertEquals(4, engine.getExpressionCacheMissCount());
+    }
+
+    /**
+     * Tests that a negative size of the expression cache is rejected.
+     */
+    @Test
+    public void testExpressionCacheNegativeSize() {
+        assertThrows(IllegalArgumentException.class, () -> new XPathExpressionEngine(-1));
+    }
+
     /**
      * Tests whether the key of an attribute can be generated..
      */